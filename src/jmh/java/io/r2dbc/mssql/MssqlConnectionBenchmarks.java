@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.r2dbc.mssql;
+
+import io.r2dbc.mssql.message.token.RpcRequest;
+import io.r2dbc.mssql.util.TdsCaptures;
+import io.r2dbc.mssql.util.TdsStubServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * End-to-end benchmarks for query execution through {@link MssqlConnection} against {@link TdsStubServer}. Each invocation runs a query that returns
+ * {@link #rows} rows over a loopback connection and consumes all rows, so the results reflect per-query latency and allocation ({@code -prof gc}) of the
+ * request and response pipeline.
+ *
+ * @author Mark Paluch
+ */
+@State(Scope.Thread)
+public class MssqlConnectionBenchmarks extends BenchmarkSettings {
+
+    @Param({"1", "100"})
+    int rows;
+
+    private TdsStubServer server;
+
+    private MssqlConnection connection;
+
+    @Setup
+    public void setup() {
+
+        this.server = TdsStubServer.builder()
+            .onSqlBatch(sql -> true, buffer -> TdsCaptures.writeTabularResponse(buffer, this.rows))
+            .onRpc(RpcRequest.Sp_ExecuteSql, buffer -> TdsCaptures.writeRpcResponse(buffer, this.rows))
+            .build()
+            .start();
+
+        this.connection = new MssqlConnectionFactory(this.server.configurationBuilder().preferCursoredExecution(false).build()).create().block();
+    }
+
+    @TearDown
+    public void tearDown() {
+
+        this.connection.close().block();
+        this.server.stop();
+    }
+
+    @Benchmark
+    public void simpleQuery(Blackhole voodoo) {
+
+        this.connection.createStatement("SELECT * FROM employee").execute()
+            .concatMap(result -> result.map((row, metadata) -> row.get("last_name", String.class)))
+            .doOnNext(voodoo::consume)
+            .blockLast();
+    }
+
+    @Benchmark
+    public void parametrizedQuery(Blackhole voodoo) {
+
+        this.connection.createStatement("SELECT * FROM employee WHERE last_name = @name").bind("name", "paluch").execute()
+            .concatMap(result -> result.map((row, metadata) -> row.get("last_name", String.class)))
+            .doOnNext(voodoo::consume)
+            .blockLast();
+    }
+}
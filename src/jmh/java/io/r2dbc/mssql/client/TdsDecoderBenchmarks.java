@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql.client;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+import io.r2dbc.mssql.BenchmarkSettings;
+import io.r2dbc.mssql.util.TdsCaptures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for {@link TdsDecoder} decoding a tabular response of {@link #rows} rows that is split into TDS packets of the
+ * {@link TdsEncoder#INITIAL_PACKET_SIZE initial packet size}. Each invocation feeds the packets in a single buffer.
+ *
+ * @author Mark Paluch
+ */
+@State(Scope.Thread)
+public class TdsDecoderBenchmarks extends BenchmarkSettings {
+
+    @Param({"1", "100", "1000"})
+    int rows;
+
+    private ByteBuf packets;
+
+    private EmbeddedChannel channel;
+
+    @Setup
+    public void setup() {
+
+        this.packets = TdsCaptures.packetize(PooledByteBufAllocator.DEFAULT, TdsCaptures.tabularResponse(PooledByteBufAllocator.DEFAULT, this.rows),
+            TdsEncoder.INITIAL_PACKET_SIZE);
+
+        MessageDecoder messageDecoder = ConnectionState.POST_LOGIN.decoder(TestClient.NO_OP);
+        this.channel = new EmbeddedChannel(new TdsDecoder(() -> messageDecoder));
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.packets.release();
+        this.channel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public void decode(Blackhole voodoo) {
+
+        this.channel.writeInbound(this.packets.retainedDuplicate());
+
+        Object message;
+        while ((message = this.channel.readInbound()) != null) {
+            voodoo.consume(message);
+            ReferenceCountUtil.release(message);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql.client;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.r2dbc.mssql.BenchmarkSettings;
+import io.r2dbc.mssql.message.header.HeaderOptions;
+import io.r2dbc.mssql.message.header.PacketIdProvider;
+import io.r2dbc.mssql.message.header.Status;
+import io.r2dbc.mssql.message.header.Type;
+import io.r2dbc.mssql.message.tds.TdsPackets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for {@link TdsEncoder#write} writing a message of {@link #messageSize} bytes. Messages exceeding the
+ * {@link TdsEncoder#INITIAL_PACKET_SIZE packet size} are chunked into multiple packets.
+ *
+ * @author Mark Paluch
+ */
+@State(Scope.Thread)
+public class TdsEncoderBenchmarks extends BenchmarkSettings {
+
+    private static final HeaderOptions HEADER = HeaderOptions.create(Type.RPC, Status.empty());
+
+    @Param({"100", "8000", "65536"})
+    int messageSize;
+
+    private EmbeddedChannel channel;
+
+    private ByteBuf message;
+
+    @Setup
+    public void setup() {
+
+        this.channel = new EmbeddedChannel(new TdsEncoder(PacketIdProvider.atomic()));
+        this.message = PooledByteBufAllocator.DEFAULT.buffer(this.messageSize);
+        this.message.writeZero(this.messageSize);
+    }
+
+    @TearDown
+    public void tearDown() {
+
+        this.message.release();
+        this.channel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public void write(Blackhole voodoo) {
+
+        this.channel.writeOutbound(TdsPackets.create(HEADER, this.message.retainedDuplicate()));
+
+        ByteBuf encoded;
+        while ((encoded = this.channel.readOutbound()) != null) {
+            voodoo.consume(encoded);
+            encoded.release();
+        }
+    }
+}
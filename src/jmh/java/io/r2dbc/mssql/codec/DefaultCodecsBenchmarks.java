@@ -0,0 +1,113 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.r2dbc.mssql.BenchmarkSettings;
+import io.r2dbc.mssql.message.token.Column;
+import io.r2dbc.mssql.message.token.RowToken;
+import io.r2dbc.mssql.message.type.Collation;
+import io.r2dbc.mssql.util.TdsCaptures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+
+/**
+ * Benchmarks for {@link DefaultCodecs}. Decoding benchmarks decode all columns of a captured row into their default Java
+ * type.
+ *
+ * @author Mark Paluch
+ */
+@State(Scope.Thread)
+public class DefaultCodecsBenchmarks extends BenchmarkSettings {
+
+    private final ByteBufAllocator allocator = PooledByteBufAllocator.DEFAULT;
+
+    private final Codecs codecs = new DefaultCodecs();
+
+    private final RpcParameterContext stringContext = RpcParameterContext.in(Collation.from(13632521, 52));
+
+    private List<Column> columns;
+
+    private Class<?>[] javaTypes;
+
+    private RowToken rowToken;
+
+    @Setup
+    public void setup() {
+
+        this.columns = TdsCaptures.columnMetadata().getColumns();
+        this.javaTypes = new Class<?>[this.columns.size()];
+
+        for (int i = 0; i < this.columns.size(); i++) {
+            this.javaTypes[i] = this.codecs.getJavaType(this.columns.get(i).getType());
+        }
+
+        ByteBuf row = TdsCaptures.row(this.allocator);
+        this.rowToken = RowToken.decode(row, this.columns);
+        row.release();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.rowToken.release();
+    }
+
+    @Benchmark
+    public void decodeRow(Blackhole voodoo) {
+
+        for (int i = 0; i < this.columns.size(); i++) {
+
+            ByteBuf data = this.rowToken.getColumnData(i);
+
+            data.markReaderIndex();
+            voodoo.consume(this.codecs.decode(data, this.columns.get(i), this.javaTypes[i]));
+            data.resetReaderIndex();
+        }
+    }
+
+    @Benchmark
+    public void encodeString(Blackhole voodoo) {
+
+        Encoded encoded = this.codecs.encode(this.allocator, this.stringContext, "Hello, World!");
+        voodoo.consume(encoded);
+        encoded.release();
+    }
+
+    @Benchmark
+    public void encodeInteger(Blackhole voodoo) {
+
+        Encoded encoded = this.codecs.encode(this.allocator, RpcParameterContext.in(), 42);
+        voodoo.consume(encoded);
+        encoded.release();
+    }
+
+    @Benchmark
+    public void encodeDouble(Blackhole voodoo) {
+
+        Encoded encoded = this.codecs.encode(this.allocator, RpcParameterContext.in(), 42.5d);
+        voodoo.consume(encoded);
+        encoded.release();
+    }
+}
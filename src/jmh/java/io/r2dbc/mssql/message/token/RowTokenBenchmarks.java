@@ -0,0 +1,72 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql.message.token;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.r2dbc.mssql.BenchmarkSettings;
+import io.r2dbc.mssql.util.TdsCaptures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+
+/**
+ * Benchmarks for {@link RowToken} decoding. Each operation decodes a single row.
+ *
+ * @author Mark Paluch
+ */
+@State(Scope.Thread)
+public class RowTokenBenchmarks extends BenchmarkSettings {
+
+    private List<Column> columns;
+
+    private ByteBuf row;
+
+    @Setup
+    public void setup() {
+
+        this.columns = TdsCaptures.columnMetadata().getColumns();
+        this.row = TdsCaptures.row(PooledByteBufAllocator.DEFAULT);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.row.release();
+    }
+
+    @Benchmark
+    public boolean canDecode() {
+
+        this.row.readerIndex(0);
+        return RowToken.canDecode(this.row, this.columns);
+    }
+
+    @Benchmark
+    public void decode(Blackhole voodoo) {
+
+        this.row.readerIndex(0);
+
+        RowToken rowToken = RowToken.decode(this.row, this.columns);
+        voodoo.consume(rowToken);
+        rowToken.release();
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql.message.token;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.r2dbc.mssql.BenchmarkSettings;
+import io.r2dbc.mssql.codec.RpcDirection;
+import io.r2dbc.mssql.message.TransactionDescriptor;
+import io.r2dbc.mssql.message.tds.TdsFragment;
+import io.r2dbc.mssql.message.type.Collation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Mono;
+
+/**
+ * Benchmarks for {@link RpcRequest} encoding using a {@code sp_cursoropen} request.
+ *
+ * @author Mark Paluch
+ */
+@State(Scope.Thread)
+public class RpcRequestBenchmarks extends BenchmarkSettings {
+
+    private final ByteBufAllocator allocator = PooledByteBufAllocator.DEFAULT;
+
+    private final RpcRequest request = RpcRequest.builder() //
+        .withProcId(RpcRequest.Sp_CursorOpen) //
+        .withTransactionDescriptor(TransactionDescriptor.empty())
+        .withParameter(RpcDirection.OUT, 0) // cursor
+        .withParameter(RpcDirection.IN, Collation.from(13632521, 52), "SELECT employee_id, last_name, first_name, salary, foo, flt, bar FROM employee")
+        .withParameter(RpcDirection.IN, 16)  // scrollopt
+        .withParameter(RpcDirection.IN, 8193) // ccopt
+        .withParameter(RpcDirection.OUT, 0) // rowcount
+        .build();
+
+    @Benchmark
+    public void encode(Blackhole voodoo) {
+
+        TdsFragment fragment = Mono.from(this.request.encode(this.allocator)).block();
+
+        voodoo.consume(fragment);
+        fragment.getByteBuf().release();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql.message.token;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.util.ReferenceCountUtil;
+import io.r2dbc.mssql.BenchmarkSettings;
+import io.r2dbc.mssql.util.TdsCaptures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+
+/**
+ * Benchmarks for {@link Tabular.TabularDecoder} decoding a de-chunked tabular response of {@link #rows} rows.
+ *
+ * @author Mark Paluch
+ */
+@State(Scope.Thread)
+public class TabularDecoderBenchmarks extends BenchmarkSettings {
+
+    @Param({"1", "100", "1000"})
+    int rows;
+
+    private ByteBuf response;
+
+    @Setup
+    public void setup() {
+        this.response = TdsCaptures.tabularResponse(PooledByteBufAllocator.DEFAULT, this.rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.response.release();
+    }
+
+    @Benchmark
+    public void decode(Blackhole voodoo) {
+
+        Tabular.TabularDecoder decoder = Tabular.createDecoder(true);
+        List<DataToken> tokens = decoder.decode(this.response.duplicate());
+
+        for (DataToken token : tokens) {
+            voodoo.consume(token);
+            ReferenceCountUtil.release(token);
+        }
+    }
+}
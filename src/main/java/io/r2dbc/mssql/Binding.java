@@ -17,6 +17,7 @@
 package io.r2dbc.mssql;
 
 import io.r2dbc.mssql.codec.Encoded;
+import io.r2dbc.mssql.codec.PlpEncoded;
 import io.r2dbc.mssql.util.Assert;
 import reactor.util.annotation.Nullable;
 
@@ -38,6 +39,9 @@ class Binding {
     @Nullable
     private volatile String formalRepresentation;
 
+    @Nullable
+    private volatile PreparedStatementKey key;
+
     /**
      * Add a {@link Encoded encoded parameter} to the binding.
      *
@@ -51,6 +55,7 @@ class Binding {
         Assert.requireNonNull(parameter, "Parameter must not be null");
 
         this.formalRepresentation = null;
+        this.key = null;
         this.parameters.put(name, parameter);
 
         return this;
@@ -85,6 +90,32 @@ class Binding {
         return formalRepresentation;
     }
 
+    /**
+     * Returns the {@link PreparedStatementKey} that was previously computed for this binding.
+     *
+     * @return the {@link PreparedStatementKey} or {@code null} if not yet computed.
+     * @see PreparedStatementKey#of(String, Binding)
+     */
+    @Nullable
+    PreparedStatementKey getKey() {
+        return this.key;
+    }
+
+    void setKey(PreparedStatementKey key) {
+        this.key = key;
+    }
+
+    /**
+     * Use the {@link PreparedStatementKey} and formal parameters of {@code other} that has the same parameter signature.
+     *
+     * @param other the binding to share the parameter signature with.
+     */
+    void shareSignature(Binding other) {
+
+        this.key = other.getKey();
+        this.formalRepresentation = other.getFormalParameters();
+    }
+
     /**
      * Performs the given action for each entry in this binding until all bound parameters
      * have been processed or the action throws an exception.   Unless
@@ -113,6 +144,22 @@ class Binding {
         return this.parameters.isEmpty();
     }
 
+    /**
+     * Returns whether this {@link Binding} contains {@link PlpEncoded streamed parameters}.
+     *
+     * @return {@literal true} if at least one parameter is streamed.
+     */
+    boolean isStreaming() {
+
+        for (Encoded encoded : this.parameters.values()) {
+            if (encoded instanceof PlpEncoded) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     /**
      * Returns the number of bound parameters.
      *
@@ -0,0 +1,335 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql;
+
+import io.netty.util.ReferenceCountUtil;
+import io.r2dbc.mssql.client.Client;
+import io.r2dbc.mssql.codec.Codecs;
+import io.r2dbc.mssql.codec.Encoded;
+import io.r2dbc.mssql.codec.RpcParameterContext;
+import io.r2dbc.mssql.message.Message;
+import io.r2dbc.mssql.message.token.AbstractDoneToken;
+import io.r2dbc.mssql.message.token.BulkLoad;
+import io.r2dbc.mssql.util.Assert;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.util.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Bulk load message flow using {@literal INSERT BULK} followed by a {@link BulkLoad} data stream.
+ * <p/>
+ * The flow encodes the first row to determine column types, initiates the bulk load with an {@literal INSERT BULK} statement and
+ * streams all rows within a single {@link BulkLoad} message. Rows are requested from the upstream publisher as the transport is able to
+ * write them. A failing row stream discards the bulk load and aborts the request using an {@link Client#attention() ATTENTION} signal. The flow
+ * terminates with the failure once the server has acknowledged the abort.
+ *
+ * @author Mark Paluch
+ */
+final class BulkLoadMessageFlow {
+
+    /**
+     * Load {@code rows} into {@code table}.
+     *
+     * @param client  the {@link Client} to exchange messages with.
+     * @param codecs  the codecs to encode row values.
+     * @param table   the table name, optionally qualified with schema and database name.
+     * @param columns the column names.
+     * @param rows    the rows to insert. Each row contains one value per column.
+     * @return the number of inserted rows.
+     * @throws IllegalArgumentException if {@code table} is not a valid multi-part object name.
+     */
+    static Mono<Long> exchange(Client client, Codecs codecs, String table, List<String> columns, Publisher<Object[]> rows) {
+
+        Assert.requireNonNull(client, "Client must not be null");
+        Assert.requireNonNull(codecs, "Codecs must not be null");
+        Assert.requireNonNull(table, "Table must not be null");
+        Assert.requireNonNull(columns, "Columns must not be null");
+        Assert.isTrue(!columns.isEmpty(), "Columns must not be empty");
+        Assert.requireNonNull(rows, "Rows must not be null");
+
+        String quotedTable = quoteName(table);
+
+        return Flux.defer(() -> {
+
+            BulkLoadState state = new BulkLoadState();
+
+            // first window contains the first row to determine column types, second window contains all remaining rows.
+            return Flux.from(rows).windowUntil(row -> state.isFirst())
+                .concatMap(window -> {
+
+                    if (state.template == null) {
+                        return window.next().flatMap(row -> insertBulk(client, codecs, quotedTable, columns, row, state));
+                    }
+
+                    return bulkLoad(client, codecs, columns, window, state);
+                })
+                .concatWith(Mono.defer(() -> state.template != null && !state.loaded ? bulkLoad(client, codecs, columns, Flux.empty(), state) : Mono.<Long>empty()))
+                .doOnCancel(state::release)
+                .doOnError(e -> state.release());
+        }).reduce(0L, Long::sum);
+    }
+
+    /**
+     * Quote a multi-part object name such as {@literal database.schema.table}. Each part is enclosed in brackets, escaping closing brackets.
+     * Parts may be already delimited using brackets or double quotes. Empty parts are retained to refer to the default schema as in
+     * {@literal database..table}.
+     *
+     * @param name the object name.
+     * @return the quoted object name.
+     * @throws IllegalArgumentException if {@code name} is not a valid multi-part object name.
+     */
+    static String quoteName(String name) {
+
+        Assert.requireNonNull(name, "Name must not be null");
+
+        List<String> parts = new ArrayList<>();
+        StringBuilder part = new StringBuilder();
+        int index = 0;
+
+        while (true) {
+
+            char closing = index < name.length() ? getClosingDelimiter(name.charAt(index)) : 0;
+
+            if (closing != 0) {
+
+                index++;
+
+                while (true) {
+
+                    Assert.isTrue(index < name.length(), String.format("Name [%s] contains an unterminated delimited identifier", name));
+
+                    char c = name.charAt(index++);
+
+                    if (c == closing) {
+
+                        if (index < name.length() && name.charAt(index) == closing) {
+                            index++;
+                        } else {
+                            break;
+                        }
+                    }
+
+                    part.append(c);
+                }
+
+                Assert.isTrue(part.length() != 0, String.format("Name [%s] contains an empty delimited identifier", name));
+            } else {
+
+                while (index < name.length() && name.charAt(index) != '.') {
+
+                    char c = name.charAt(index++);
+                    Assert.isTrue(!Character.isWhitespace(c) && c != '[' && c != ']' && c != '"', String.format("Name [%s] contains an invalid identifier", name));
+                    part.append(c);
+                }
+            }
+
+            parts.add(part.toString());
+            part.setLength(0);
+
+            if (index == name.length()) {
+                break;
+            }
+
+            Assert.isTrue(name.charAt(index) == '.', String.format("Name [%s] contains an invalid identifier", name));
+            index++;
+        }
+
+        Assert.isTrue(parts.size() <= 4, String.format("Name [%s] must not consist of more than four parts", name));
+        Assert.isTrue(!parts.get(parts.size() - 1).isEmpty(), String.format("Name [%s] must not end with an empty part", name));
+
+        StringBuilder quoted = new StringBuilder();
+
+        for (int i = 0; i < parts.size(); i++) {
+
+            if (i != 0) {
+                quoted.append('.');
+            }
+
+            if (!parts.get(i).isEmpty()) {
+                quoted.append('[').append(parts.get(i).replace("]", "]]")).append(']');
+            }
+        }
+
+        return quoted.toString();
+    }
+
+    private static char getClosingDelimiter(char c) {
+
+        if (c == '[') {
+            return ']';
+        }
+
+        return c == '"' ? '"' : 0;
+    }
+
+    /**
+     * Encode the first row and initiate the bulk load with {@literal INSERT BULK}.
+     */
+    private static Mono<Long> insertBulk(Client client, Codecs codecs, String table, List<String> columns, Object[] row, BulkLoadState state) {
+
+        Encoded[] template = encode(client, codecs, columns, row);
+
+        StringBuilder sql = new StringBuilder("INSERT BULK ").append(table).append(" (");
+
+        for (int i = 0; i < template.length; i++) {
+
+            if (template[i] == null) {
+                release(template);
+                return Mono.error(new IllegalArgumentException(String.format("Value for column [%s] must not be null in the first row", columns.get(i))));
+            }
+
+            if (i != 0) {
+                sql.append(", ");
+            }
+
+            sql.append('[').append(columns.get(i).replace("]", "]]")).append("] ").append(template[i].getFormalType());
+        }
+
+        sql.append(')');
+        state.template = template;
+
+        return QueryMessageFlow.exchange(client, sql.toString()).handle(MssqlException::handleErrorResponse).then(Mono.empty());
+    }
+
+    /**
+     * Stream the first row followed by the remaining {@code rows} using {@link BulkLoad}.
+     */
+    private static Mono<Long> bulkLoad(Client client, Codecs codecs, List<String> columns, Flux<Object[]> rows, BulkLoadState state) {
+
+        Encoded[] template = state.template;
+        Assert.state(template != null, "Template row must not be null");
+
+        state.loaded = true;
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicBoolean closed = new AtomicBoolean();
+        MonoProcessor<Void> aborted = MonoProcessor.create();
+        Flux<Encoded[]> encoded = Flux.concat(Mono.just(template), rows.map(row -> encode(client, codecs, columns, row)));
+
+        // the server does not respond to the discarded message so the exchange terminates once the abort is acknowledged
+        BulkLoad bulkLoad = BulkLoad.create(columns, template, encoded, e -> {
+
+            failure.set(e);
+
+            if (closed.compareAndSet(false, true)) {
+                client.attention().subscribe(null, ignore -> aborted.onComplete(), aborted::onComplete);
+            } else {
+                aborted.onComplete();
+            }
+        });
+
+        return client.exchange(Mono.just(bulkLoad)) //
+            .<Message>handle((message, sink) -> {
+
+                boolean done = AbstractDoneToken.isDone(message);
+
+                if (done) {
+                    closed.set(true);
+                }
+
+                sink.next(message);
+
+                if (done) {
+                    sink.complete();
+                }
+            })
+            .takeUntilOther(aborted)
+            .doOnCancel(() -> QueryMessageFlow.abort(client, closed))
+            .handle(MssqlException::handleErrorResponse)
+            .ofType(AbstractDoneToken.class)
+            .filter(done -> done.hasCount())
+            .reduce(0L, (count, done) -> count + done.getRowCount())
+            .flatMap(count -> {
+
+                Throwable e = failure.get();
+
+                if (e != null) {
+                    return Mono.<Long>error(e);
+                }
+
+                return Mono.just(count);
+            });
+    }
+
+    private static Encoded[] encode(Client client, Codecs codecs, List<String> columns, Object[] row) {
+
+        Assert.isTrue(row.length == columns.size(), String.format("Number of values [%d] does not match the number of columns [%d]", row.length, columns.size()));
+
+        Encoded[] encoded = new Encoded[row.length];
+
+        try {
+            for (int i = 0; i < row.length; i++) {
+
+                if (row[i] != null) {
+                    encoded[i] = codecs.encode(client.getByteBufAllocator(), RpcParameterContext.in(client.getRequiredCollation()), row[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+
+            release(encoded);
+            throw e;
+        }
+
+        return encoded;
+    }
+
+    private static void release(Encoded[] values) {
+
+        for (Encoded value : values) {
+            ReferenceCountUtil.release(value);
+        }
+    }
+
+    /**
+     * State of the bulk load flow.
+     */
+    static class BulkLoadState {
+
+        private boolean first = true;
+
+        @Nullable
+        volatile Encoded[] template;
+
+        volatile boolean loaded;
+
+        boolean isFirst() {
+
+            if (this.first) {
+                this.first = false;
+                return true;
+            }
+
+            return false;
+        }
+
+        void release() {
+
+            Encoded[] template = this.template;
+
+            if (template != null && !this.loaded) {
+                BulkLoadMessageFlow.release(template);
+            }
+        }
+    }
+}
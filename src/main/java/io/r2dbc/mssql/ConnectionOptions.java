@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql;
+
+import io.r2dbc.mssql.util.Assert;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+/**
+ * Per-connection options that control statement execution.
+ *
+ * @author Mark Paluch
+ */
+final class ConnectionOptions {
+
+    private final int fetchSize;
+
+    private final Predicate<String> preferCursoredExecution;
+
+    private final PreparedStatementCache preparedStatementCache;
+
+    private final Duration statementTimeout;
+
+    /**
+     * Creates {@link ConnectionOptions} with default settings: Cursored execution using the default fetch size, indefinite prepared statement caching,
+     * and no statement timeout.
+     */
+    ConnectionOptions() {
+        this(MssqlConnectionConfiguration.DEFAULT_FETCH_SIZE, sql -> true, new IndefinitePreparedStatementCache(), MssqlConnectionConfiguration.DEFAULT_STATEMENT_TIMEOUT);
+    }
+
+    /**
+     * Creates new {@link ConnectionOptions}.
+     *
+     * @param fetchSize               the default number of rows to fetch per cursor round trip. {@code 0} enables adaptive fetching.
+     * @param preferCursoredExecution predicate to determine whether to execute a SQL statement using server-side cursors.
+     * @param preparedStatementCache  the prepared statement cache.
+     * @param statementTimeout        the default statement timeout. {@link Duration#ZERO} disables the timeout.
+     * @throws IllegalArgumentException when {@link Predicate}, {@link PreparedStatementCache}, or {@link Duration} is {@code null}.
+     */
+    ConnectionOptions(int fetchSize, Predicate<String> preferCursoredExecution, PreparedStatementCache preparedStatementCache, Duration statementTimeout) {
+
+        Assert.isTrue(fetchSize >= 0, "Fetch size must be greater or equal to zero");
+
+        this.fetchSize = fetchSize;
+        this.preferCursoredExecution = Assert.requireNonNull(preferCursoredExecution, "Predicate must not be null");
+        this.preparedStatementCache = Assert.requireNonNull(preparedStatementCache, "PreparedStatementCache must not be null");
+        this.statementTimeout = Assert.requireNonNull(statementTimeout, "Statement timeout must not be null");
+    }
+
+    /**
+     * Returns whether to execute {@code sql} using server-side cursors.
+     *
+     * @param sql the SQL statement.
+     * @return {@literal true} to use cursored execution, {@literal false} to execute the statement directly.
+     */
+    boolean prefersCursors(String sql) {
+        return this.preferCursoredExecution.test(sql);
+    }
+
+    int getFetchSize() {
+        return this.fetchSize;
+    }
+
+    PreparedStatementCache getPreparedStatementCache() {
+        return this.preparedStatementCache;
+    }
+
+    Duration getStatementTimeout() {
+        return this.statementTimeout;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuffer sb = new StringBuffer();
+        sb.append(getClass().getSimpleName());
+        sb.append(" [fetchSize=").append(this.fetchSize);
+        sb.append(", preferCursoredExecution=").append(this.preferCursoredExecution);
+        sb.append(", preparedStatementCache=").append(this.preparedStatementCache);
+        sb.append(", statementTimeout=").append(this.statementTimeout);
+        sb.append(']');
+        return sb.toString();
+    }
+}
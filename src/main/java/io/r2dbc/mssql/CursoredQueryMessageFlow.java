@@ -16,6 +16,7 @@
 
 package io.r2dbc.mssql;
 
+import io.netty.util.ReferenceCountUtil;
 import io.r2dbc.mssql.CursoredQueryMessageFlow.CursorState.Phase;
 import io.r2dbc.mssql.client.Client;
 import io.r2dbc.mssql.codec.Codecs;
@@ -31,18 +32,27 @@ import io.r2dbc.mssql.message.token.DoneProcToken;
 import io.r2dbc.mssql.message.token.ErrorToken;
 import io.r2dbc.mssql.message.token.ReturnValue;
 import io.r2dbc.mssql.message.token.RowToken;
+import io.r2dbc.mssql.message.token.RpcBatch;
 import io.r2dbc.mssql.message.token.RpcRequest;
 import io.r2dbc.mssql.message.type.Collation;
 import io.r2dbc.mssql.util.Assert;
-import org.reactivestreams.Subscriber;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.EmitterProcessor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.core.publisher.Operators;
 import reactor.core.publisher.SynchronousSink;
+import reactor.core.publisher.UnicastProcessor;
 
 import javax.annotation.processing.Completion;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.function.Predicate;
 
 import static io.r2dbc.mssql.util.PredicateUtils.or;
@@ -87,27 +97,40 @@ final class CursoredQueryMessageFlow {
 
     static final int CCOPT_ALLOW_DIRECT = 8192;
 
+    // Adaptive fetching: Start with the default fetch size and grow the number of rows per fetch while staying within the byte limit. Each fetch
+    // requests no more rows than the outstanding row demand of the result subscriber.
+    static final int ADAPTIVE_INITIAL_FETCH_SIZE = MssqlConnectionConfiguration.DEFAULT_FETCH_SIZE;
+
+    static final int ADAPTIVE_MAX_FETCH_SIZE = 32768;
+
+    static final int ADAPTIVE_MAX_FETCH_BYTES = 1024 * 1024;
+
     /**
      * Execute a cursored query.
      *
      * @param client    the {@link Client} to exchange messages with.
      * @param codecs    the codecs to decode {@link ReturnValue}s from RPC calls.
      * @param query     the query to execute.
-     * @param fetchSize the number of rows to fetch. TODO: Try to determine fetch size from current demand and apply demand function.
+     * @param fetchSize the number of rows to fetch. {@code 0} enables adaptive fetching.
+     * @param demand    the row demand of the result subscriber that governs fetching.
      * @return the messages received in response to this exchange.
      */
-    static Flux<Message> exchange(Client client, Codecs codecs, String query, int fetchSize) {
+    static Flux<Message> exchange(Client client, Codecs codecs, String query, int fetchSize, RowDemand demand) {
 
         Assert.requireNonNull(client, "Client must not be null");
         Assert.requireNonNull(query, "Query must not be null");
+        Assert.requireNonNull(demand, "RowDemand must not be null");
 
-        EmitterProcessor<ClientMessage> outbound = EmitterProcessor.create(false);
+        UnicastProcessor<ClientMessage> outbound = UnicastProcessor.create();
         FluxSink<ClientMessage> requests = outbound.sink();
 
         EmitterProcessor<Message> inbound = EmitterProcessor.create(false);
         Flux<Message> firstMessages = inbound.cache(10);
 
-        CursorState state = new CursorState();
+        CursorState state = new CursorState(demand);
+
+        // releases the exchange once the cursor is closed or the response failed
+        MonoProcessor<Void> closed = MonoProcessor.create();
 
         Flux<Message> exchange = client.exchange(outbound.startWith(spCursorOpen(query, client.getRequiredCollation(), client.getTransactionDescriptor())));
 
@@ -128,7 +151,7 @@ final class CursoredQueryMessageFlow {
                 }
 
                 if (it instanceof RowToken) {
-                    state.hasSeenRows = true;
+                    state.onRow((RowToken) it);
                 }
 
                 if (it instanceof ErrorToken) {
@@ -137,11 +160,26 @@ final class CursoredQueryMessageFlow {
             })
             .handle(MssqlException::handleErrorResponse)
             .<Message>handle((message, sink) -> {
-                handleMessage(client, fetchSize, requests, state, message, sink, inbound);
+                handleMessage(client, fetchSize, requests, state, message, sink, closed::onComplete);
+            })
+            .doOnError(e -> closed.onComplete())
+            .filter(filterForWindow())
+            .publish()
+            .autoConnect();
+
+        return messages.doOnNext(it -> {
+
+                if (it instanceof RowToken) {
+                    state.produced();
+                }
             })
-            .filter(filterForWindow());
+            .doOnSubscribe(ignore -> {
 
-        return messages.doOnSubscribe(ignore -> exchange.subscribe(inbound));
+                // fetching is governed by row demand, message demand is subject to operator prefetch
+                demand.onRequest(() -> tryFetch(client, fetchSize, requests, state));
+                exchange.takeUntilOther(closed).subscribe(inbound);
+            })
+            .doOnCancel(() -> onCancel(client, fetchSize, requests, state, messages));
     }
 
     /**
@@ -152,46 +190,63 @@ final class CursoredQueryMessageFlow {
      * @param codecs         the codecs to decode {@link ReturnValue}s from RPC calls.
      * @param query          the query to execute.
      * @param binding        parameter bindings.
-     * @param fetchSize      the number of rows to fetch. TODO: Try to determine fetch size from current demand and apply demand function.
+     * @param fetchSize      the number of rows to fetch. {@code 0} enables adaptive fetching.
+     * @param demand         the row demand of the result subscriber that governs fetching.
      * @return the messages received in response to this exchange.
      * @throws IllegalArgumentException when {@link Client} or {@code query} is {@code null}.
      */
-    static Flux<Message> exchange(PreparedStatementCache statementCache, Client client, Codecs codecs, String query, Binding binding, int fetchSize) {
+    static Flux<Message> exchange(PreparedStatementCache statementCache, Client client, Codecs codecs, String query, Binding binding, int fetchSize,
+                                  RowDemand demand) {
 
         Assert.requireNonNull(client, "Client must not be null");
         Assert.requireNonNull(query, "Query must not be null");
+        Assert.requireNonNull(demand, "RowDemand must not be null");
 
-        EmitterProcessor<ClientMessage> outbound = EmitterProcessor.create(false);
+        UnicastProcessor<ClientMessage> outbound = UnicastProcessor.create();
         FluxSink<ClientMessage> requests = outbound.sink();
 
         EmitterProcessor<Message> inbound = EmitterProcessor.create(false);
         Flux<Message> firstMessages = inbound.cache(10);
 
-        CursorState state = new CursorState();
+        CursorState state = new CursorState(demand);
 
-        int handle = statementCache.getHandle(query, binding);
-        boolean needsPrepare;
-        RpcRequest rpcRequest;
+        // releases the exchange once the cursor is closed or the response failed
+        MonoProcessor<Void> closed = MonoProcessor.create();
 
-        if (handle == PreparedStatementCache.UNPREPARED) {
-            rpcRequest = spCursorPrepExec(PreparedStatementCache.UNPREPARED, query, binding, client.getRequiredCollation(), client.getTransactionDescriptor());
-            needsPrepare = true;
-        } else {
-            rpcRequest = spCursorExec(handle, binding, client.getTransactionDescriptor());
-            needsPrepare = false;
-        }
+        AtomicBoolean needsPrepare = new AtomicBoolean();
+        AtomicInteger pendingUnprepare = new AtomicInteger();
+
+        // resolve the handle once the exchange gets activated as previously queued exchanges may evict and un-prepare handles
+        Mono<ClientMessage> request = Mono.fromSupplier(() -> {
 
-        Flux<Message> exchange = client.exchange(outbound.startWith(rpcRequest));
+            int handle = statementCache.getHandle(query, binding);
+            RpcRequest rpcRequest;
+
+            if (handle == PreparedStatementCache.UNPREPARED) {
+                rpcRequest = spCursorPrepExec(PreparedStatementCache.UNPREPARED, query, binding, client.getRequiredCollation(), client.getTransactionDescriptor());
+                needsPrepare.set(true);
+            } else {
+                rpcRequest = spCursorExec(handle, binding, client.getTransactionDescriptor());
+            }
+
+            List<Integer> evictedHandles = statementCache.pollEvictedHandles();
+            pendingUnprepare.set(evictedHandles.size());
+
+            return withUnprepare(evictedHandles, rpcRequest, client.getTransactionDescriptor());
+        });
+
+        Flux<Message> exchange = client.exchange(Flux.concat(request, outbound));
 
         Flux<Message> messages = firstMessages //
             .doOnSubscribe(ignore -> QueryLogger.logQuery(query))
+            .filter(skipUnprepareResponses(pendingUnprepare))
             .doOnNext(it -> {
 
                 if (it instanceof ReturnValue) {
 
                     ReturnValue returnValue = (ReturnValue) it;
 
-                    if (needsPrepare) {
+                    if (needsPrepare.get()) {
 
                         // prepared statement handle
                         if (returnValue.getOrdinal() == 0) {
@@ -209,7 +264,7 @@ final class CursoredQueryMessageFlow {
                 }
 
                 if (it instanceof RowToken) {
-                    state.hasSeenRows = true;
+                    state.onRow((RowToken) it);
                 }
 
                 if (it instanceof ErrorToken) {
@@ -218,12 +273,26 @@ final class CursoredQueryMessageFlow {
             })
             .handle(MssqlException::handleErrorResponse)
             .<Message>handle((message, sink) -> {
-                handleMessage(client, fetchSize, requests, state, message, sink, inbound);
+                handleMessage(client, fetchSize, requests, state, message, sink, closed::onComplete);
             })
-            .filter(filterForWindow());
+            .doOnError(e -> closed.onComplete())
+            .filter(filterForWindow())
+            .publish()
+            .autoConnect();
+
+        return messages.doOnNext(it -> {
 
+                if (it instanceof RowToken) {
+                    state.produced();
+                }
+            })
+            .doOnSubscribe(ignore -> {
 
-        return messages.doOnSubscribe(ignore -> exchange.subscribe(inbound));
+                // fetching is governed by row demand, message demand is subject to operator prefetch
+                demand.onRequest(() -> tryFetch(client, fetchSize, requests, state));
+                exchange.takeUntilOther(closed).subscribe(inbound);
+            })
+            .doOnCancel(() -> onCancel(client, fetchSize, requests, state, messages));
     }
 
     private static int parseCursorId(Codecs codecs, CursorState state, ReturnValue returnValue) {
@@ -233,6 +302,61 @@ final class CursoredQueryMessageFlow {
         return cursorId;
     }
 
+    /**
+     * Prepend {@link RpcRequest#Sp_CursorUnprepare} calls for evicted prepared statement handles to {@code request}. TDS does not allow pipelining of
+     * request messages so un-prepare calls are sent along with the actual request within a single {@link RpcBatch}.
+     *
+     * @param preparedStatementHandles the prepared statement handles to un-prepare.
+     * @param request                  the actual request.
+     * @param transactionDescriptor    transaction descriptor.
+     * @return the {@link RpcBatch} or {@code request} itself if there are no handles to un-prepare.
+     * @throws IllegalArgumentException when {@code request} uses streamed parameters and there are handles to un-prepare.
+     */
+    static ClientMessage withUnprepare(List<Integer> preparedStatementHandles, RpcRequest request, TransactionDescriptor transactionDescriptor) {
+
+        if (preparedStatementHandles.isEmpty()) {
+            return request;
+        }
+
+        List<RpcRequest> requests = new ArrayList<>(preparedStatementHandles.size() + 1);
+
+        for (Integer preparedStatementHandle : preparedStatementHandles) {
+            requests.add(spCursorUnprepare(preparedStatementHandle, transactionDescriptor));
+        }
+
+        requests.add(request);
+
+        return RpcBatch.create(requests);
+    }
+
+    /**
+     * Skip responses to {@link RpcRequest#Sp_CursorUnprepare} calls that precede the actual request within a {@link RpcBatch}.
+     *
+     * @param pendingUnprepare the number of {@link RpcRequest#Sp_CursorUnprepare} calls, set once the request is sent.
+     * @return the filter predicate.
+     * @see #withUnprepare(List, RpcRequest, TransactionDescriptor)
+     */
+    static Predicate<Message> skipUnprepareResponses(AtomicInteger pendingUnprepare) {
+
+        return message -> {
+
+            if (pendingUnprepare.get() == 0) {
+                return true;
+            }
+
+            if (message instanceof ErrorToken) {
+                LOG.debug("Cannot unprepare statement: {}", ((ErrorToken) message).getMessage());
+            }
+
+            if (message instanceof DoneProcToken) {
+                pendingUnprepare.decrementAndGet();
+            }
+
+            ReferenceCountUtil.release(message);
+            return false;
+        };
+    }
+
     private static Predicate<Message> filterForWindow() {
 
         return or(RowToken.class::isInstance,
@@ -244,7 +368,7 @@ final class CursoredQueryMessageFlow {
     }
 
     private static void handleMessage(Client client, int fetchSize, FluxSink<ClientMessage> requests, CursorState state, Message message, SynchronousSink<Message> sink,
-                                      Subscriber<Message> outboundSink) {
+                                      Runnable completion) {
 
         if (message instanceof ColumnMetadataToken && ((ColumnMetadataToken) message).getColumns().isEmpty()) {
             return;
@@ -286,7 +410,7 @@ final class CursoredQueryMessageFlow {
         }
 
         if (DoneProcToken.isDone(message)) {
-            onDone(client, fetchSize, requests, state, outboundSink::onComplete);
+            onDone(client, fetchSize, requests, state, completion);
         }
     }
 
@@ -306,11 +430,10 @@ final class CursoredQueryMessageFlow {
                 if (phase == Phase.NONE) {
                     state.phase = Phase.FETCHING;
                 }
-                requests.next(spCursorFetch(state.cursorId, FETCH_NEXT, fetchSize, client.getTransactionDescriptor()));
+                state.fetchPending.set(true);
+                tryFetch(client, fetchSize, requests, state);
             } else {
-                state.phase = Phase.CLOSING;
-                // TODO: spCursorClose should happen also if a subscriber cancels its subscription.
-                requests.next(spCursorClose(state.cursorId, client.getTransactionDescriptor()));
+                closeCursor(client, requests, state);
             }
 
             state.hasSeenRows = false;
@@ -324,6 +447,71 @@ final class CursoredQueryMessageFlow {
         }
     }
 
+    /**
+     * Register row demand and issue a pending {@link RpcRequest#Sp_CursorFetch} if the cursor awaits demand.
+     *
+     * @param client    the {@link Client} to exchange messages with.
+     * @param fetchSize the number of rows to fetch. {@code 0} enables adaptive fetching.
+     * @param requests  the outbound request sink.
+     * @param state     the cursor state.
+     * @param n         the requested number of rows.
+     */
+    static void onRequest(Client client, int fetchSize, FluxSink<ClientMessage> requests, CursorState state, long n) {
+
+        state.request(n);
+        tryFetch(client, fetchSize, requests, state);
+    }
+
+    /**
+     * Handle cancellation of the downstream subscription. Cancellation closes the cursor once the currently active request completes and drains remaining
+     * messages so the connection can be used for subsequent exchanges.
+     *
+     * @param client    the {@link Client} to exchange messages with.
+     * @param fetchSize the number of rows to fetch. {@code 0} enables adaptive fetching.
+     * @param requests  the outbound request sink.
+     * @param state     the cursor state.
+     * @param messages  the message stream to drain.
+     */
+    static void onCancel(Client client, int fetchSize, FluxSink<ClientMessage> requests, CursorState state, Flux<Message> messages) {
+
+        LOG.debug("Subscription cancelled. Closing cursor {}", state.cursorId);
+
+        state.cancelled = true;
+        messages.subscribe(ReferenceCountUtil::release, e -> LOG.debug("Error while draining cancelled cursor", e));
+        tryFetch(client, fetchSize, requests, state);
+    }
+
+    /**
+     * Issue a pending {@link RpcRequest#Sp_CursorFetch} if there is outstanding row demand. Fetching rows without demand would require the driver
+     * to buffer rows that the subscriber is not ready to consume. A pending fetch closes the cursor instead if the subscription was cancelled.
+     *
+     * @param client    the {@link Client} to exchange messages with.
+     * @param fetchSize the number of rows to fetch. {@code 0} enables adaptive fetching.
+     * @param requests  the outbound request sink.
+     * @param state     the cursor state.
+     */
+    private static void tryFetch(Client client, int fetchSize, FluxSink<ClientMessage> requests, CursorState state) {
+
+        if (state.cancelled) {
+
+            if (state.fetchPending.compareAndSet(true, false)) {
+                closeCursor(client, requests, state);
+            }
+
+            return;
+        }
+
+        if (state.getDemand() > 0 && state.fetchPending.compareAndSet(true, false)) {
+            requests.next(spCursorFetch(state.cursorId, FETCH_NEXT, state.nextFetchSize(fetchSize), client.getTransactionDescriptor()));
+        }
+    }
+
+    private static void closeCursor(Client client, FluxSink<ClientMessage> requests, CursorState state) {
+
+        state.phase = Phase.CLOSING;
+        requests.next(spCursorClose(state.cursorId, client.getTransactionDescriptor()));
+    }
+
     /**
      * Creates a {@link RpcRequest} for {@link RpcRequest#Sp_CursorOpen} to execute a SQL statement that returns a cursor.
      *
@@ -471,6 +659,26 @@ final class CursoredQueryMessageFlow {
         return builder.build();
     }
 
+    /**
+     * Creates a {@link RpcRequest} for {@link RpcRequest#Sp_CursorUnprepare} to release a prepared statement handle.
+     *
+     * @param preparedStatementHandle handle to a previously prepared statement.
+     * @param transactionDescriptor   transaction descriptor.
+     * @return {@link RpcRequest} for {@link RpcRequest#Sp_CursorUnprepare}.
+     * @throws IllegalArgumentException when {@link TransactionDescriptor} is {@code null}.
+     */
+    static RpcRequest spCursorUnprepare(int preparedStatementHandle, TransactionDescriptor transactionDescriptor) {
+
+        Assert.isTrue(preparedStatementHandle != PreparedStatementCache.UNPREPARED, "Invalid PreparedStatement handle");
+        Assert.requireNonNull(transactionDescriptor, "TransactionDescriptor must not be null");
+
+        return RpcRequest.builder() //
+            .withProcId(RpcRequest.Sp_CursorUnprepare) //
+            .withTransactionDescriptor(transactionDescriptor) //
+            .withParameter(RpcDirection.IN, preparedStatementHandle) // prepared handle
+            .build();
+    }
+
     /**
      * Cursoring state.
      */
@@ -486,13 +694,143 @@ final class CursoredQueryMessageFlow {
 
         volatile boolean hasSeenError;
 
+        // row statistics for adaptive fetching
+        long rowCount;
+
+        long rowBytes;
+
+        int adaptiveFetchSize = ADAPTIVE_INITIAL_FETCH_SIZE;
+
         volatile boolean directMode;
 
-        Phase phase = Phase.NONE;
+        // outstanding row demand
+        final RowDemand rowDemand;
+
+        // whether a Sp_CursorFetch awaits downstream demand
+        final AtomicBoolean fetchPending = new AtomicBoolean();
+
+        // downstream subscription cancelled, close the cursor instead of fetching
+        volatile boolean cancelled;
+
+        volatile Phase phase = Phase.NONE;
 
         enum Phase {
             NONE, FETCHING, CLOSING, CLOSED, ERROR
         }
+
+        CursorState() {
+            this(new RowDemand());
+        }
+
+        CursorState(RowDemand rowDemand) {
+            this.rowDemand = rowDemand;
+        }
+
+        /**
+         * Register row demand.
+         *
+         * @param n the requested number of rows.
+         */
+        void request(long n) {
+            this.rowDemand.add(n);
+        }
+
+        /**
+         * Record an emitted row.
+         */
+        void produced() {
+            this.rowDemand.produced();
+        }
+
+        /**
+         * Returns the outstanding row demand.
+         *
+         * @return the outstanding row demand.
+         */
+        long getDemand() {
+            return this.rowDemand.demand;
+        }
+
+        /**
+         * Record a row for adaptive fetching.
+         *
+         * @param row the row.
+         */
+        void onRow(RowToken row) {
+
+            this.hasSeenRows = true;
+            this.rowCount++;
+            this.rowBytes += row.getDataLength();
+        }
+
+        /**
+         * Determine the number of rows to fetch with the next {@link RpcRequest#Sp_CursorFetch} call. Adaptive fetching requests the outstanding
+         * row demand capped by the adaptive fetch size that grows with each fetch within the row count and byte limits.
+         *
+         * @param fetchSize the configured fetch size. {@code 0} enables adaptive fetching.
+         * @return the number of rows to fetch.
+         */
+        int nextFetchSize(int fetchSize) {
+
+            if (fetchSize > 0) {
+                return fetchSize;
+            }
+
+            if (this.rowCount > 0) {
+
+                long averageRowSize = Math.max(1, this.rowBytes / this.rowCount);
+                long rowsWithinByteLimit = Math.max(1, ADAPTIVE_MAX_FETCH_BYTES / averageRowSize);
+
+                this.adaptiveFetchSize = (int) Math.min(Math.min(this.adaptiveFetchSize * 2L, rowsWithinByteLimit), ADAPTIVE_MAX_FETCH_SIZE);
+            }
+
+            return (int) Math.max(1, Math.min(getDemand(), this.adaptiveFetchSize));
+        }
+    }
+
+    /**
+     * Row demand of the subscriber that consumes rows of a {@link MssqlResult}. Cursors fetch rows according to this demand instead of the demand for
+     * messages which is subject to prefetching of intermediate operators. A single {@link RowDemand} is shared by the cursors of a statement execution
+     * as cursors are consumed one after another.
+     */
+    static final class RowDemand {
+
+        static final AtomicLongFieldUpdater<RowDemand> DEMAND = AtomicLongFieldUpdater.newUpdater(RowDemand.class, "demand");
+
+        private static final Runnable NO_OP = () -> {
+        };
+
+        volatile long demand;
+
+        private volatile Runnable onRequest = NO_OP;
+
+        /**
+         * Request {@code n} rows and notify the active cursor.
+         *
+         * @param n the requested number of rows.
+         */
+        void request(long n) {
+
+            add(n);
+            this.onRequest.run();
+        }
+
+        /**
+         * Register the callback of the active cursor to be notified on {@link #request(long) requests}.
+         *
+         * @param onRequest the callback.
+         */
+        void onRequest(Runnable onRequest) {
+            this.onRequest = onRequest;
+        }
+
+        void add(long n) {
+            Operators.addCap(DEMAND, this, n);
+        }
+
+        void produced() {
+            Operators.produced(DEMAND, this, 1);
+        }
     }
 
     static class IntermediateCount extends AbstractDoneToken {
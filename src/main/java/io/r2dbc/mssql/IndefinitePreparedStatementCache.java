@@ -18,6 +18,8 @@ package io.r2dbc.mssql;
 
 import io.r2dbc.mssql.util.Assert;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -28,7 +30,7 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 class IndefinitePreparedStatementCache implements PreparedStatementCache {
 
-    private final Map<String, Integer> preparedStatements = new ConcurrentHashMap<>();
+    private final Map<PreparedStatementKey, Integer> preparedStatements = new ConcurrentHashMap<>();
 
     @Override
     public int getHandle(String sql, Binding binding) {
@@ -36,7 +38,7 @@ class IndefinitePreparedStatementCache implements PreparedStatementCache {
         Assert.requireNonNull(sql, "SQL query must not be null");
         Assert.requireNonNull(binding, "Binding query must not be null");
 
-        return this.preparedStatements.getOrDefault(createKey(sql, binding), UNPREPARED);
+        return this.preparedStatements.getOrDefault(PreparedStatementKey.of(sql, binding), UNPREPARED);
     }
 
     @Override
@@ -45,16 +47,22 @@ class IndefinitePreparedStatementCache implements PreparedStatementCache {
         Assert.requireNonNull(sql, "SQL query must not be null");
         Assert.requireNonNull(binding, "Binding query must not be null");
 
-        this.preparedStatements.put(createKey(sql, binding), handle);
+        this.preparedStatements.put(PreparedStatementKey.of(sql, binding), handle);
     }
 
     @Override
-    public int size() {
-        return this.preparedStatements.size();
+    public List<Integer> pollEvictedHandles() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
     }
 
-    private static String createKey(String sql, Binding binding) {
-        return sql + "-" + binding.getFormalParameters();
+    @Override
+    public int size() {
+        return this.preparedStatements.size();
     }
 
     @Override
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql;
+
+import io.r2dbc.mssql.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Size-bounded cache that retains the least recently used prepared statement handles. Handles that exceed the cache size are evicted and
+ * collected for un-preparation with the next request.
+ *
+ * @author Mark Paluch
+ * @see #pollEvictedHandles()
+ */
+class LRUPreparedStatementCache implements PreparedStatementCache {
+
+    private final int maxSize;
+
+    private final Map<PreparedStatementKey, Integer> preparedStatements;
+
+    private final List<Integer> evictedHandles = new ArrayList<>();
+
+    private long hits;
+
+    private long misses;
+
+    private long evictions;
+
+    /**
+     * Creates a new {@link LRUPreparedStatementCache}.
+     *
+     * @param maxSize maximum number of prepared statement handles to retain. {@code 0} disables caching.
+     * @throws IllegalArgumentException when {@code maxSize} is negative.
+     */
+    LRUPreparedStatementCache(int maxSize) {
+
+        Assert.isTrue(maxSize >= 0, "Maximum cache size must be greater or equal to zero");
+
+        this.maxSize = maxSize;
+        this.preparedStatements = new LinkedHashMap<PreparedStatementKey, Integer>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<PreparedStatementKey, Integer> eldest) {
+
+                if (size() > LRUPreparedStatementCache.this.maxSize) {
+                    onEviction(eldest.getValue());
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public synchronized int getHandle(String sql, Binding binding) {
+
+        Assert.requireNonNull(sql, "SQL query must not be null");
+        Assert.requireNonNull(binding, "Binding query must not be null");
+
+        Integer handle = this.preparedStatements.get(PreparedStatementKey.of(sql, binding));
+
+        if (handle == null) {
+            this.misses++;
+            return UNPREPARED;
+        }
+
+        this.hits++;
+        return handle;
+    }
+
+    @Override
+    public synchronized void putHandle(int handle, String sql, Binding binding) {
+
+        Assert.requireNonNull(sql, "SQL query must not be null");
+        Assert.requireNonNull(binding, "Binding query must not be null");
+
+        Integer previous = this.preparedStatements.put(PreparedStatementKey.of(sql, binding), handle);
+
+        if (previous != null && previous != handle) {
+            onEviction(previous);
+        }
+    }
+
+    @Override
+    public synchronized List<Integer> pollEvictedHandles() {
+
+        if (this.evictedHandles.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Integer> handles = new ArrayList<>(this.evictedHandles);
+        this.evictedHandles.clear();
+
+        return handles;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return this.maxSize > 0;
+    }
+
+    @Override
+    public synchronized int size() {
+        return this.preparedStatements.size();
+    }
+
+    /**
+     * Returns the number of cache hits.
+     *
+     * @return the number of cache hits.
+     */
+    synchronized long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Returns the number of cache misses.
+     *
+     * @return the number of cache misses.
+     */
+    synchronized long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * Returns the number of evicted prepared statement handles.
+     *
+     * @return the number of evicted prepared statement handles.
+     */
+    synchronized long getEvictions() {
+        return this.evictions;
+    }
+
+    private void onEviction(int handle) {
+
+        this.evictions++;
+
+        if (handle != UNPREPARED) {
+            this.evictedHandles.add(handle);
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        final StringBuffer sb = new StringBuffer();
+        sb.append(getClass().getSimpleName());
+        sb.append(" [maxSize=").append(this.maxSize);
+        sb.append(", size=").append(this.preparedStatements.size());
+        sb.append(", hits=").append(this.hits);
+        sb.append(", misses=").append(this.misses);
+        sb.append(", evictions=").append(this.evictions);
+        sb.append(']');
+        return sb.toString();
+    }
+}
@@ -27,9 +27,9 @@ import io.r2dbc.mssql.message.token.ErrorToken;
 import io.r2dbc.mssql.message.token.Login7;
 import io.r2dbc.mssql.message.token.Prelogin;
 import io.r2dbc.mssql.util.Assert;
-import reactor.core.publisher.EmitterProcessor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.UnicastProcessor;
 
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -55,7 +55,7 @@ final class LoginFlow {
         Assert.requireNonNull(client, "client must not be null");
         Assert.requireNonNull(login, "Login must not be null");
 
-        EmitterProcessor<ClientMessage> requestProcessor = EmitterProcessor.create();
+        UnicastProcessor<ClientMessage> requestProcessor = UnicastProcessor.create();
         FluxSink<ClientMessage> requests = requestProcessor.sink();
 
         Prelogin.Builder builder = Prelogin.builder();
@@ -30,6 +30,8 @@ import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 
@@ -48,20 +50,25 @@ public final class MssqlConnection implements Connection {
 
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
-    private final PreparedStatementCache statementCache = new IndefinitePreparedStatementCache();
-
     private final Client client;
 
     private final Codecs codecs;
 
+    private final ConnectionOptions connectionOptions;
+
     MssqlConnection(Client client) {
-        this(client, new DefaultCodecs());
+        this(client, new ConnectionOptions());
+    }
+
+    MssqlConnection(Client client, ConnectionOptions connectionOptions) {
+        this(client, new DefaultCodecs(), connectionOptions);
     }
 
-    private MssqlConnection(Client client, Codecs codecs) {
+    private MssqlConnection(Client client, Codecs codecs, ConnectionOptions connectionOptions) {
 
         this.client = Assert.requireNonNull(client, "Client must not be null");
         this.codecs = Assert.requireNonNull(codecs, "Codecs must not be null");
+        this.connectionOptions = Assert.requireNonNull(connectionOptions, "ConnectionOptions must not be null");
     }
 
     @Override
@@ -83,6 +90,33 @@ public final class MssqlConnection implements Connection {
         });
     }
 
+    /**
+     * Insert {@code rows} into {@code table} using SQL Server's bulk load protocol. Rows are streamed as a single bulk load request and
+     * consumed from {@code rows} as they can be written to the connection. Each row provides one value per column, in the order of
+     * {@code columns}.
+     * <p/>
+     * Column types are derived from the values of the first row which therefore must not contain {@code null} values. Values of
+     * subsequent rows must encode to the same type (e.g. {@link java.math.BigDecimal} values must use the same scale).
+     *
+     * @param table   the name of the table to insert rows into, optionally qualified with schema and database name. Name parts are quoted.
+     * @param columns the column names.
+     * @param rows    the rows to insert.
+     * @return a {@link Mono} emitting the number of inserted rows.
+     * @throws IllegalArgumentException if {@code table}, {@code columns}, or {@code rows} is {@code null}, {@code columns} is empty, or
+     *                                  {@code table} is not a valid multi-part object name.
+     */
+    public Mono<Long> bulkInsert(String table, List<String> columns, Publisher<Object[]> rows) {
+
+        Assert.requireNonNull(table, "Table must not be null");
+        Assert.requireNonNull(columns, "Columns must not be null");
+        Assert.isTrue(!columns.isEmpty(), "Columns must not be empty");
+        Assert.requireNonNull(rows, "Rows must not be null");
+
+        this.logger.debug("Bulk inserting into table: [{}]", table);
+
+        return BulkLoadMessageFlow.exchange(this.client, this.codecs, table, columns, rows);
+    }
+
     @Override
     public Mono<Void> close() {
         return this.client.close();
@@ -135,15 +169,19 @@ public final class MssqlConnection implements Connection {
         Assert.requireNonNull(sql, "SQL must not be null");
         this.logger.debug("Creating statement for SQL: [{}]", sql);
 
+        boolean preferCursoredExecution = this.connectionOptions.prefersCursors(sql);
+        int fetchSize = this.connectionOptions.getFetchSize();
+        Duration timeout = this.connectionOptions.getStatementTimeout();
+
         if (PreparedMssqlStatement.supports(sql)) {
-            return new PreparedMssqlStatement(this.statementCache, this.client, this.codecs, sql);
+            return new PreparedMssqlStatement(this.connectionOptions.getPreparedStatementCache(), this.client, this.codecs, sql, preferCursoredExecution).fetchSize(fetchSize).timeout(timeout);
         }
 
-        if (SimpleCursoredMssqlStatement.supports(sql)) {
-            return new SimpleCursoredMssqlStatement(this.client, this.codecs, sql);
+        if (preferCursoredExecution && SimpleCursoredMssqlStatement.supports(sql)) {
+            return new SimpleCursoredMssqlStatement(this.client, this.codecs, sql).fetchSize(fetchSize).timeout(timeout);
         }
 
-        return new SimpleMssqlStatement(this.client, this.codecs, sql);
+        return new SimpleMssqlStatement(this.client, this.codecs, sql).timeout(timeout);
     }
 
     @Override
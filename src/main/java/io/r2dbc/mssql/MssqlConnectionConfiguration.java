@@ -25,6 +25,7 @@ import java.net.UnknownHostException;
 import java.time.Duration;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 /**
  * Connection configuration information for connecting to a Microsoft SQL database.
@@ -44,6 +45,21 @@ public final class MssqlConnectionConfiguration {
      */
     public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(30);
 
+    /**
+     * Default number of rows to fetch per cursor round trip.
+     */
+    public static final int DEFAULT_FETCH_SIZE = 128;
+
+    /**
+     * Default number of cached prepared statement handles. {@code -1} retains prepared statement handles indefinitely.
+     */
+    public static final int DEFAULT_PREPARED_STATEMENT_CACHE_QUERIES = -1;
+
+    /**
+     * Default statement timeout. {@link Duration#ZERO} disables statement timeouts.
+     */
+    public static final Duration DEFAULT_STATEMENT_TIMEOUT = Duration.ZERO;
+
     @Nullable
     private final String applicationName;
 
@@ -54,27 +70,40 @@ public final class MssqlConnectionConfiguration {
 
     private final String database;
 
+    private final int fetchSize;
+
     private final String host;
 
     private final CharSequence password;
 
     private final int port;
 
+    private final Predicate<String> preferCursoredExecution;
+
+    private final int preparedStatementCacheQueries;
+
     private final boolean ssl;
 
+    private final Duration statementTimeout;
+
     private final String username;
 
-    private MssqlConnectionConfiguration(@Nullable String applicationName, @Nullable UUID connectionId, Duration connectTimeout, @Nullable String database, String host, CharSequence password,
-                                         int port, boolean ssl, String username) {
+    private MssqlConnectionConfiguration(@Nullable String applicationName, @Nullable UUID connectionId, Duration connectTimeout, @Nullable String database, int fetchSize, String host, CharSequence password,
+                                         int port, Predicate<String> preferCursoredExecution, int preparedStatementCacheQueries, boolean ssl, Duration statementTimeout,
+                                         String username) {
 
         this.applicationName = applicationName;
         this.connectionId = connectionId;
         this.connectTimeout = Assert.requireNonNull(connectTimeout, "connect timeout must not be null");
         this.database = database;
+        this.fetchSize = fetchSize;
         this.host = Assert.requireNonNull(host, "host must not be null");
         this.password = Assert.requireNonNull(password, "password must not be null");
         this.port = port;
+        this.preferCursoredExecution = Assert.requireNonNull(preferCursoredExecution, "preferCursoredExecution must not be null");
+        this.preparedStatementCacheQueries = preparedStatementCacheQueries;
         this.ssl = ssl;
+        this.statementTimeout = Assert.requireNonNull(statementTimeout, "statement timeout must not be null");
         this.username = Assert.requireNonNull(username, "username must not be null");
     }
 
@@ -95,10 +124,14 @@ public final class MssqlConnectionConfiguration {
         sb.append(", connectionId=").append(this.connectionId);
         sb.append(", connectTimeout=\"").append(this.connectTimeout).append('\"');
         sb.append(", database=\"").append(this.database).append('\"');
+        sb.append(", fetchSize=").append(this.fetchSize);
         sb.append(", host=\"").append(this.host).append('\"');
         sb.append(", password=\"").append(repeat(this.password.length(), "*")).append('\"');
         sb.append(", port=").append(this.port);
+        sb.append(", preferCursoredExecution=").append(this.preferCursoredExecution);
+        sb.append(", preparedStatementCacheQueries=").append(this.preparedStatementCacheQueries);
         sb.append(", ssl=").append(this.ssl);
+        sb.append(", statementTimeout=\"").append(this.statementTimeout).append('\"');
         sb.append(", username=\"").append(this.username).append('\"');
         sb.append(']');
         return sb.toString();
@@ -122,6 +155,10 @@ public final class MssqlConnectionConfiguration {
         return Optional.ofNullable(this.database);
     }
 
+    int getFetchSize() {
+        return this.fetchSize;
+    }
+
     String getHost() {
         return this.host;
     }
@@ -134,6 +171,14 @@ public final class MssqlConnectionConfiguration {
         return this.port;
     }
 
+    Predicate<String> getPreferCursoredExecution() {
+        return this.preferCursoredExecution;
+    }
+
+    int getPreparedStatementCacheQueries() {
+        return this.preparedStatementCacheQueries;
+    }
+
     boolean useSsl() {
         return ssl;
     }
@@ -142,6 +187,14 @@ public final class MssqlConnectionConfiguration {
         return this.username;
     }
 
+    ConnectionOptions getConnectionOptions() {
+
+        PreparedStatementCache statementCache = this.preparedStatementCacheQueries < 0 ? new IndefinitePreparedStatementCache()
+            : new LRUPreparedStatementCache(this.preparedStatementCacheQueries);
+
+        return new ConnectionOptions(this.fetchSize, this.preferCursoredExecution, statementCache, this.statementTimeout);
+    }
+
     LoginConfiguration getLoginConfiguration() {
         return new LoginConfiguration(getApplicationName(), this.connectionId, getDatabase().orElse(""), lookupHostName(), getPassword(), getHost(), useSsl(), getUsername()
         );
@@ -201,14 +254,22 @@ public final class MssqlConnectionConfiguration {
 
         private String database;
 
+        private int fetchSize = DEFAULT_FETCH_SIZE;
+
         private String host;
 
         private CharSequence password;
 
         private int port = DEFAULT_PORT;
 
+        private Predicate<String> preferCursoredExecution = sql -> true;
+
+        private int preparedStatementCacheQueries = DEFAULT_PREPARED_STATEMENT_CACHE_QUERIES;
+
         private boolean ssl;
 
+        private Duration statementTimeout = DEFAULT_STATEMENT_TIMEOUT;
+
         private String username;
 
         private Builder() {
@@ -264,6 +325,24 @@ public final class MssqlConnectionConfiguration {
             return this;
         }
 
+        /**
+         * Configure the default number of rows to fetch per round trip for statements executed using server-side cursors. {@code 0} enables
+         * adaptive fetching that fetches rows according to the number of rows requested from the result and grows the number of fetched rows
+         * based on the observed row size. Defaults to {@code 128}.
+         *
+         * @param fetchSize the number of rows to fetch or {@code 0} for adaptive fetching
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code fetchSize} is negative
+         * @see MssqlStatement#fetchSize(int)
+         */
+        public Builder fetchSize(int fetchSize) {
+
+            Assert.isTrue(fetchSize >= 0, "fetchSize must be greater or equal to zero");
+
+            this.fetchSize = fetchSize;
+            return this;
+        }
+
         /**
          * Enable SSL usage. This flag is also known as Use Encryption in other drivers.
          *
@@ -309,6 +388,69 @@ public final class MssqlConnectionConfiguration {
             return this;
         }
 
+        /**
+         * Configure whether to prefer cursored execution over direct execution for all statements. Cursored execution opens a server-side cursor and
+         * fetches rows in chunks using {@code sp_cursor…} calls. Direct execution streams the entire result in a single round trip using
+         * {@code sp_executesql} for parametrized statements and SQL batches otherwise. Defaults to {@literal true}.
+         *
+         * @param preferCursoredExecution {@literal true} to use cursored execution, {@literal false} to use direct execution.
+         * @return this {@link Builder}
+         * @see #preferCursoredExecution(Predicate)
+         */
+        public Builder preferCursoredExecution(boolean preferCursoredExecution) {
+            return preferCursoredExecution(sql -> preferCursoredExecution);
+        }
+
+        /**
+         * Configure whether to prefer cursored execution on a per-statement basis. The {@link Predicate} is evaluated with the SQL text of each
+         * statement created through {@link MssqlConnection#createStatement(String)}. Returning {@literal true} selects cursored execution,
+         * {@literal false} selects direct execution.
+         *
+         * @param preference the {@link Predicate} to decide whether to use cursored execution for a SQL statement.
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code preference} is {@code null}
+         */
+        public Builder preferCursoredExecution(Predicate<String> preference) {
+            this.preferCursoredExecution = Assert.requireNonNull(preference, "preferCursoredExecution must not be null");
+            return this;
+        }
+
+        /**
+         * Configure the number of prepared statement handles to cache per connection. {@code -1} retains prepared statement handles indefinitely,
+         * {@code 0} disables caching and executes prepared statements directly using {@code sp_executesql} instead of preparing them. A positive value
+         * bounds the cache size and evicts least recently used prepared statement handles. Evicted handles are un-prepared with the next prepared
+         * statement execution. Defaults to {@code -1}.
+         *
+         * @param preparedStatementCacheQueries the number of prepared statement handles to cache
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code preparedStatementCacheQueries} is less than {@code -1}
+         */
+        public Builder preparedStatementCacheQueries(int preparedStatementCacheQueries) {
+
+            Assert.isTrue(preparedStatementCacheQueries >= -1, "preparedStatementCacheQueries must be greater or equal to -1");
+
+            this.preparedStatementCacheQueries = preparedStatementCacheQueries;
+            return this;
+        }
+
+        /**
+         * Configure the default timeout for statements created by connections. A statement that does not complete within the timeout is aborted on
+         * the server and fails with {@link QueryTimeoutException}. {@link Duration#ZERO} disables the timeout. Defaults to {@link Duration#ZERO}.
+         *
+         * @param statementTimeout the statement timeout
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code statementTimeout} is {@code null} or negative
+         * @see MssqlStatement#timeout(Duration)
+         */
+        public Builder statementTimeout(Duration statementTimeout) {
+
+            Assert.requireNonNull(statementTimeout, "statement timeout must not be null");
+            Assert.isTrue(!statementTimeout.isNegative(), "statement timeout must not be negative");
+
+            this.statementTimeout = statementTimeout;
+            return this;
+        }
+
         /**
          * Configure the username.
          *
@@ -327,8 +469,8 @@ public final class MssqlConnectionConfiguration {
          * @return a configured {@link MssqlConnectionConfiguration}.
          */
         public MssqlConnectionConfiguration build() {
-            return new MssqlConnectionConfiguration(this.applicationName, this.connectionId, this.connectTimeout, this.database, this.host, this.password, this.port,
-                this.ssl, this.username);
+            return new MssqlConnectionConfiguration(this.applicationName, this.connectionId, this.connectTimeout, this.database, this.fetchSize, this.host, this.password, this.port,
+                this.preferCursoredExecution, this.preparedStatementCacheQueries, this.ssl, this.statementTimeout, this.username);
         }
     }
 }
@@ -61,7 +61,7 @@ public final class MssqlConnectionFactory implements ConnectionFactory {
             return LoginFlow.exchange(client, loginConfiguration)
                 .doOnError(e -> client.close().subscribe());
         })
-            .map(MssqlConnection::new);
+            .map(client -> new MssqlConnection(client, this.configuration.getConnectionOptions()));
     }
 
     @Override
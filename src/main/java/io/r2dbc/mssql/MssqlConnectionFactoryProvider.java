@@ -54,6 +54,34 @@ public final class MssqlConnectionFactoryProvider implements ConnectionFactoryPr
      */
     public static final Option<UUID> CONNECTION_ID = Option.valueOf("connectionId");
 
+    /**
+     * Number of rows to fetch per cursor round trip.
+     *
+     * @see MssqlConnectionConfiguration.Builder#fetchSize(int)
+     */
+    public static final Option<Integer> FETCH_SIZE = Option.valueOf("fetchSize");
+
+    /**
+     * Whether to prefer cursored execution over direct execution.
+     *
+     * @see MssqlConnectionConfiguration.Builder#preferCursoredExecution(boolean)
+     */
+    public static final Option<Boolean> PREFER_CURSORED_EXECUTION = Option.valueOf("preferCursoredExecution");
+
+    /**
+     * Number of prepared statement handles to cache.
+     *
+     * @see MssqlConnectionConfiguration.Builder#preparedStatementCacheQueries(int)
+     */
+    public static final Option<Integer> PREPARED_STATEMENT_CACHE_QUERIES = Option.valueOf("preparedStatementCacheQueries");
+
+    /**
+     * Default statement timeout.
+     *
+     * @see MssqlConnectionConfiguration.Builder#statementTimeout(Duration)
+     */
+    public static final Option<Duration> STATEMENT_TIMEOUT = Option.valueOf("statementTimeout");
+
     /**
      * Driver option value.
      */
@@ -91,6 +119,26 @@ public final class MssqlConnectionFactoryProvider implements ConnectionFactoryPr
             builder.connectTimeout(connectTimeout);
         }
 
+        Integer fetchSize = connectionFactoryOptions.getValue(FETCH_SIZE);
+        if (fetchSize != null) {
+            builder.fetchSize(fetchSize);
+        }
+
+        Boolean preferCursoredExecution = connectionFactoryOptions.getValue(PREFER_CURSORED_EXECUTION);
+        if (preferCursoredExecution != null) {
+            builder.preferCursoredExecution(preferCursoredExecution);
+        }
+
+        Integer preparedStatementCacheQueries = connectionFactoryOptions.getValue(PREPARED_STATEMENT_CACHE_QUERIES);
+        if (preparedStatementCacheQueries != null) {
+            builder.preparedStatementCacheQueries(preparedStatementCacheQueries);
+        }
+
+        Duration statementTimeout = connectionFactoryOptions.getValue(STATEMENT_TIMEOUT);
+        if (statementTimeout != null) {
+            builder.statementTimeout(statementTimeout);
+        }
+
         builder.database(connectionFactoryOptions.getValue(DATABASE));
         builder.host(connectionFactoryOptions.getRequiredValue(HOST));
         builder.password(connectionFactoryOptions.getRequiredValue(PASSWORD));
@@ -19,6 +19,7 @@ package io.r2dbc.mssql;
 import io.netty.util.ReferenceCountUtil;
 import io.r2dbc.mssql.codec.Codecs;
 import io.r2dbc.mssql.message.Message;
+import io.r2dbc.mssql.message.tds.ProtocolException;
 import io.r2dbc.mssql.message.token.AbstractDoneToken;
 import io.r2dbc.mssql.message.token.ColumnMetadataToken;
 import io.r2dbc.mssql.message.token.RowToken;
@@ -31,10 +32,11 @@ import org.slf4j.LoggerFactory;
 import reactor.core.publisher.EmitterProcessor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.concurrent.Queues;
 
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
-
-import static reactor.function.TupleUtils.function;
+import java.util.function.LongConsumer;
 
 /**
  * Simple {@link Result} of query results.
@@ -45,6 +47,12 @@ public final class MssqlResult implements Result {
 
     private static final Logger logger = LoggerFactory.getLogger(MssqlResult.class);
 
+    /**
+     * Number of messages to prefetch from the message stream. A small prefetch lets the demand of the {@link #map(BiFunction) row subscriber} govern reading
+     * from the connection.
+     */
+    static final int PREFETCH = Queues.XS_BUFFER_SIZE;
+
     private final Flux<MssqlRow> rows;
 
     private final Mono<Long> rowsUpdated;
@@ -61,38 +69,76 @@ public final class MssqlResult implements Result {
     }
 
     /**
-     * Create a non-cursored {@link MssqlResult}.
+     * Create a non-cursored {@link MssqlResult}. Rows are emitted as they arrive so consuming the {@link MssqlResult} applies backpressure to the
+     * underlying message stream. The transport stops reading from the connection once the subscriber stops requesting rows and the prefetched messages are
+     * consumed.
      *
      * @param codecs   the codecs to use.
      * @param messages message stream.
      * @return {@link Result} object.
      */
     static MssqlResult toResult(Codecs codecs, Flux<Message> messages) {
+        return toResult(codecs, messages, ignore -> {
+        });
+    }
+
+    /**
+     * Create a {@link MssqlResult} that reports the row demand of its subscribers to {@code rowRequests}. Rows requested from {@link #map(BiFunction)}
+     * are reported as requested and consuming {@link #getRowsUpdated()} requests all rows. Cursored queries fetch rows according to the reported demand.
+     *
+     * @param codecs      the codecs to use.
+     * @param messages    message stream.
+     * @param rowRequests callback to notify about requested rows.
+     * @return {@link Result} object.
+     */
+    static MssqlResult toResult(Codecs codecs, Flux<Message> messages, LongConsumer rowRequests) {
 
         Assert.requireNonNull(codecs, "Codecs must not be null");
         Assert.requireNonNull(messages, "Messages must not be null");
+        Assert.requireNonNull(rowRequests, "Row requests must not be null");
 
         logger.debug("Creating new result");
-        EmitterProcessor<Message> processor = EmitterProcessor.create(false);
+        EmitterProcessor<Message> processor = EmitterProcessor.create(PREFETCH, false);
+
+        Flux<MssqlRow> rows = Flux.defer(() -> {
+
+            AtomicReference<MssqlRowMetadata> metadata = new AtomicReference<>();
 
-        Flux<Message> firstMessages = processor.cache();
+            return processor.<MssqlRow>handle((message, sink) -> {
 
-        Mono<MssqlRowMetadata> columnDescriptions = firstMessages
-            .ofType(ColumnMetadataToken.class)
-            .filter(it -> !it.getColumns().isEmpty())
-            .doOnNext(it -> logger.debug("Result column definition: {}", it))
-            .map(it -> MssqlRowMetadata.create(codecs, it))
-            .singleOrEmpty()
-            .cache();
+                if (message instanceof ColumnMetadataToken) {
+
+                    ColumnMetadataToken token = (ColumnMetadataToken) message;
+
+                    if (!token.getColumns().isEmpty()) {
+                        logger.debug("Result column definition: {}", token);
+                        metadata.set(MssqlRowMetadata.create(codecs, token));
+                    }
+
+                    return;
+                }
+
+                if (message instanceof RowToken) {
+
+                    MssqlRowMetadata rowMetadata = metadata.get();
+
+                    if (rowMetadata == null) {
+                        ReferenceCountUtil.release(message);
+                        sink.error(ProtocolException.invalidTds("Received row without column metadata"));
+                        return;
+                    }
+
+                    sink.next(MssqlRow.toRow((RowToken) message, rowMetadata));
+                    return;
+                }
 
-        Flux<MssqlRow> rows = processor
-            .startWith(firstMessages)
-            .ofType(RowToken.class)
-            .zipWith(columnDescriptions.repeat())
-            .map(function((dataToken, metadata) -> MssqlRow.toRow(codecs, dataToken, metadata)));
+                ReferenceCountUtil.release(message);
+            }).doOnRequest(rowRequests);
+        });
 
         // Release unused tokens directly.
-        Mono<Long> rowsUpdated = firstMessages
+        Mono<Long> rowsUpdated = processor
+            .doOnSubscribe(ignore -> rowRequests.accept(Long.MAX_VALUE))
             .doOnNext(ReferenceCountUtil::release)
             .ofType(AbstractDoneToken.class)
             .filter(it -> it.hasCount())
@@ -16,13 +16,11 @@
 
 package io.r2dbc.mssql;
 
-import io.netty.buffer.ByteBuf;
 import io.netty.util.ReferenceCounted;
-import io.r2dbc.mssql.codec.Codecs;
-import io.r2dbc.mssql.message.token.Column;
 import io.r2dbc.mssql.message.token.RowToken;
 import io.r2dbc.mssql.util.Assert;
 import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
 import reactor.util.annotation.Nullable;
 
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
@@ -31,12 +29,15 @@ import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
  * Microsoft SQL Server-specific {@link Row} implementation.
  * A {@link Row} is stateful regarding its data state. It holds a {@link RowToken} along with row data that needs to be deallocated after processing the row. This row is no longer usable once it
  * was {@link #release() released}.
+ * <p/>
+ * Numeric values can be retrieved as primitives through {@link #getInt(Object)}, {@link #getLong(Object)}, {@link #getDouble(Object)}, and {@link #getBoolean(Object)} to avoid boxing.
+ * Primitive accessors return {@literal 0} respective {@literal false} for {@code null} values. Use {@link #isNull(Object)} to distinguish {@code null} values.
  *
  * @author Mark Paluch
  * @see #release()
  * @see ReferenceCounted
  */
-final class MssqlRow implements Row {
+public final class MssqlRow implements Row {
 
     private static final AtomicIntegerFieldUpdater<MssqlRow> STATE_ACCESSOR = AtomicIntegerFieldUpdater.newUpdater(MssqlRow.class, "state");
 
@@ -44,8 +45,6 @@ final class MssqlRow implements Row {
 
     private static final int STATE_RELEASED = 1;
 
-    private final Codecs codecs;
-
     private final MssqlRowMetadata metadata;
 
     private final RowToken rowToken;
@@ -54,9 +53,8 @@ final class MssqlRow implements Row {
     @SuppressWarnings("unused")
     private volatile int state = STATE_ACTIVE;
 
-    MssqlRow(Codecs codecs, RowToken rowToken, MssqlRowMetadata metadata) {
+    MssqlRow(RowToken rowToken, MssqlRowMetadata metadata) {
 
-        this.codecs = codecs;
         this.metadata = metadata;
         this.rowToken = rowToken;
     }
@@ -64,26 +62,24 @@ final class MssqlRow implements Row {
     /**
      * Create a new {@link MssqlRow}.
      *
-     * @param codecs   the codecs to decode tabular data.
      * @param rowToken the row data.
-     * @param columns  column specifications.
+     * @param metadata the row metadata providing column decoders.
      * @return
      */
-    static MssqlRow toRow(Codecs codecs, RowToken rowToken, MssqlRowMetadata metadata) {
+    static MssqlRow toRow(RowToken rowToken, MssqlRowMetadata metadata) {
 
-        Assert.requireNonNull(codecs, "Codecs must not be null");
         Assert.requireNonNull(rowToken, "RowToken must not be null");
         Assert.requireNonNull(metadata, "MssqlRowMetadata must not be null");
 
-        return new MssqlRow(codecs, rowToken, metadata);
+        return new MssqlRow(rowToken, metadata);
     }
 
     /**
-     * Returns the {@link MssqlRowMetadata} associated with this {@link Row}.
+     * Returns the {@link RowMetadata} associated with this {@link Row}.
      *
-     * @return the {@link MssqlRowMetadata} associated with this {@link Row}.
+     * @return the {@link RowMetadata} associated with this {@link Row}.
      */
-    public MssqlRowMetadata getMetadata() {
+    public RowMetadata getMetadata() {
         return this.metadata;
     }
 
@@ -95,21 +91,88 @@ final class MssqlRow implements Row {
         Assert.requireNonNull(type, "Type must not be null");
         requireNotReleased();
 
-        Column column = this.metadata.getColumn(identifier);
+        MssqlRowMetadata.ColumnDecoder decoder = this.metadata.getDecoder(identifier);
 
-        ByteBuf columnData = this.rowToken.getColumnData(column.getIndex());
+        return decoder.decode(this.rowToken.getColumnData(decoder.getColumn().getIndex()), type);
+    }
 
-        if (columnData == null) {
-            return null;
-        }
+    /**
+     * Returns the value of an integer number column ({@literal bit}, {@literal tinyint}, {@literal smallint}, {@literal int}) as {@code int}. {@literal bigint} values
+     * must fit into the {@code int} range.
+     *
+     * @param identifier the identifier of the column. Can be the index or the name.
+     * @return the value. {@literal 0} if the value is {@code null}.
+     * @throws IllegalArgumentException if the column is not an integer number column or {@code identifier} is {@code null}.
+     * @throws ArithmeticException      if the value exceeds the {@code int} range.
+     * @see #isNull(Object)
+     */
+    public int getInt(Object identifier) {
+        return Math.toIntExact(getLong(identifier));
+    }
+
+    /**
+     * Returns the value of an integer number column ({@literal bit}, {@literal tinyint}, {@literal smallint}, {@literal int}, {@literal bigint}) as {@code long}.
+     *
+     * @param identifier the identifier of the column. Can be the index or the name.
+     * @return the value. {@literal 0} if the value is {@code null}.
+     * @throws IllegalArgumentException if the column is not an integer number column or {@code identifier} is {@code null}.
+     * @see #isNull(Object)
+     */
+    public long getLong(Object identifier) {
 
-        columnData.markReaderIndex();
+        Assert.requireNonNull(identifier, "Identifier must not be null");
+        requireNotReleased();
 
-        try {
-            return this.codecs.decode(columnData, column, type);
-        } finally {
-            columnData.resetReaderIndex();
-        }
+        MssqlRowMetadata.ColumnDecoder decoder = this.metadata.getDecoder(identifier);
+
+        return decoder.decodeLong(this.rowToken.getColumnData(decoder.getColumn().getIndex()));
+    }
+
+    /**
+     * Returns the value of a floating point ({@literal float}, {@literal real}) or integer number column as {@code double}.
+     *
+     * @param identifier the identifier of the column. Can be the index or the name.
+     * @return the value. {@literal 0} if the value is {@code null}.
+     * @throws IllegalArgumentException if the column is not a floating point or integer number column or {@code identifier} is {@code null}.
+     * @see #isNull(Object)
+     */
+    public double getDouble(Object identifier) {
+
+        Assert.requireNonNull(identifier, "Identifier must not be null");
+        requireNotReleased();
+
+        MssqlRowMetadata.ColumnDecoder decoder = this.metadata.getDecoder(identifier);
+
+        return decoder.decodeDouble(this.rowToken.getColumnData(decoder.getColumn().getIndex()));
+    }
+
+    /**
+     * Returns the value of an integer number column as {@code boolean}. Non-zero values are considered {@literal true}.
+     *
+     * @param identifier the identifier of the column. Can be the index or the name.
+     * @return the value. {@literal false} if the value is {@code null}.
+     * @throws IllegalArgumentException if the column is not an integer number column or {@code identifier} is {@code null}.
+     * @see #isNull(Object)
+     */
+    public boolean getBoolean(Object identifier) {
+        return getLong(identifier) != 0;
+    }
+
+    /**
+     * Determine whether the value of a column is {@code null}.
+     *
+     * @param identifier the identifier of the column. Can be the index or the name.
+     * @return {@literal true} if the value is {@code null}.
+     * @throws IllegalArgumentException if the column cannot be retrieved or {@code identifier} is {@code null}.
+     */
+    public boolean isNull(Object identifier) {
+
+        Assert.requireNonNull(identifier, "Identifier must not be null");
+        requireNotReleased();
+
+        MssqlRowMetadata.ColumnDecoder decoder = this.metadata.getDecoder(identifier);
+
+        return decoder.isNull(this.rowToken.getColumnData(decoder.getColumn().getIndex()));
     }
 
     /**
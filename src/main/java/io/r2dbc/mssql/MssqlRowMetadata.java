@@ -16,11 +16,15 @@
 
 package io.r2dbc.mssql;
 
+import io.netty.buffer.ByteBuf;
 import io.r2dbc.mssql.codec.Codecs;
+import io.r2dbc.mssql.codec.Decoder;
 import io.r2dbc.mssql.message.token.Column;
 import io.r2dbc.mssql.message.token.ColumnMetadataToken;
+import io.r2dbc.mssql.message.type.Length;
 import io.r2dbc.mssql.util.Assert;
 import io.r2dbc.spi.RowMetadata;
+import reactor.util.annotation.Nullable;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -29,7 +33,8 @@ import java.util.Map;
 
 
 /**
- * Microsoft SQL Server-specific {@link RowMetadata}.
+ * Microsoft SQL Server-specific {@link RowMetadata}. Row metadata holds a {@link ColumnDecoder} for each column that retains the resolved {@link Decoder} so
+ * rows of the same result decode their values without resolving decoders for each value.
  *
  * @author Mark Paluch
  */
@@ -39,6 +44,8 @@ final class MssqlRowMetadata extends ColumnSource implements RowMetadata {
 
     private final Map<Column, MssqlColumnMetadata> metadataCache = new HashMap<>();
 
+    private final ColumnDecoder[] decoders;
+
     /**
      * Creates a new {@link MssqlColumnMetadata}.
      *
@@ -49,6 +56,11 @@ final class MssqlRowMetadata extends ColumnSource implements RowMetadata {
     MssqlRowMetadata(Codecs codecs, List<Column> columns, Map<String, Column> nameKeyedColumns) {
         super(columns, nameKeyedColumns);
         this.codecs = Assert.requireNonNull(codecs, "Codecs must not be null");
+        this.decoders = new ColumnDecoder[columns.size()];
+
+        for (int i = 0; i < this.decoders.length; i++) {
+            this.decoders[i] = new ColumnDecoder(codecs, columns.get(i));
+        }
     }
 
     /**
@@ -82,4 +94,157 @@ final class MssqlRowMetadata extends ColumnSource implements RowMetadata {
 
         return metadatas;
     }
+
+    /**
+     * Lookup the {@link ColumnDecoder} by {@link Column#getIndex() index} or by its {@link Column#getName() name}.
+     *
+     * @param identifier the index or name.
+     * @return the {@link ColumnDecoder}.
+     * @throws IllegalArgumentException if the column cannot be retrieved.
+     * @throws IllegalArgumentException when {@code identifier} is {@code null}.
+     */
+    ColumnDecoder getDecoder(Object identifier) {
+        return this.decoders[getColumn(identifier).getIndex()];
+    }
+
+    /**
+     * Decoder for values of a single {@link Column}. Retains the {@link Decoder} resolved for the most recently requested type. Columns are typically
+     * consumed using the same type for all rows of a result so the decoder is resolved once per result.
+     */
+    static final class ColumnDecoder {
+
+        private final Codecs codecs;
+
+        private final Column column;
+
+        // Immutable resolution, racy assignment is fine as concurrent resolution yields the same decoder.
+        @Nullable
+        private ResolvedDecoder resolved;
+
+        ColumnDecoder(Codecs codecs, Column column) {
+            this.codecs = codecs;
+            this.column = column;
+        }
+
+        /**
+         * Decode the column value into {@code type}.
+         *
+         * @param buffer the column data. The reader index of {@code buffer} remains unchanged.
+         * @param type   the type to decode to.
+         * @param <T>    the type of item being returned.
+         * @return the decoded value. Can be {@code null} if the column value is {@code null}.
+         */
+        @Nullable
+        <T> T decode(@Nullable ByteBuf buffer, Class<? extends T> type) {
+
+            if (buffer == null) {
+                return null;
+            }
+
+            Decoder<T> decoder = resolve(type);
+            int readerIndex = buffer.readerIndex();
+
+            try {
+                return decoder.decode(buffer, this.column, type);
+            } finally {
+                buffer.readerIndex(readerIndex);
+            }
+        }
+
+        /**
+         * Decode the column value as {@code long} without boxing.
+         *
+         * @param buffer the column data. The reader index of {@code buffer} remains unchanged.
+         * @return the decoded value or {@literal 0} if the column value is {@code null}.
+         */
+        long decodeLong(@Nullable ByteBuf buffer) {
+
+            if (buffer == null) {
+                return this.codecs.decodeLong(null, this.column);
+            }
+
+            int readerIndex = buffer.readerIndex();
+
+            try {
+                return this.codecs.decodeLong(buffer, this.column);
+            } finally {
+                buffer.readerIndex(readerIndex);
+            }
+        }
+
+        /**
+         * Decode the column value as {@code double} without boxing.
+         *
+         * @param buffer the column data. The reader index of {@code buffer} remains unchanged.
+         * @return the decoded value or {@literal 0} if the column value is {@code null}.
+         */
+        double decodeDouble(@Nullable ByteBuf buffer) {
+
+            if (buffer == null) {
+                return this.codecs.decodeDouble(null, this.column);
+            }
+
+            int readerIndex = buffer.readerIndex();
+
+            try {
+                return this.codecs.decodeDouble(buffer, this.column);
+            } finally {
+                buffer.readerIndex(readerIndex);
+            }
+        }
+
+        /**
+         * Determine whether the column value is {@code null}.
+         *
+         * @param buffer the column data. The reader index of {@code buffer} remains unchanged.
+         * @return {@literal true} if the column value is {@code null}.
+         */
+        boolean isNull(@Nullable ByteBuf buffer) {
+
+            if (buffer == null) {
+                return true;
+            }
+
+            int readerIndex = buffer.readerIndex();
+
+            try {
+                return Length.decode(buffer, this.column.getType()).isNull();
+            } finally {
+                buffer.readerIndex(readerIndex);
+            }
+        }
+
+        Column getColumn() {
+            return this.column;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> Decoder<T> resolve(Class<? extends T> type) {
+
+            ResolvedDecoder resolved = this.resolved;
+
+            if (resolved == null || resolved.type != type) {
+
+                resolved = new ResolvedDecoder(type, this.codecs.getDecoder(this.column, type));
+                this.resolved = resolved;
+            }
+
+            return (Decoder<T>) resolved.decoder;
+        }
+    }
+
+    /**
+     * A {@link Decoder} resolved for a requested type.
+     */
+    static final class ResolvedDecoder {
+
+        private final Class<?> type;
+
+        private final Decoder<?> decoder;
+
+        ResolvedDecoder(Class<?> type, Decoder<?> decoder) {
+            this.type = type;
+            this.decoder = decoder;
+        }
+    }
 }
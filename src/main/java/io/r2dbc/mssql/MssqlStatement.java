@@ -19,6 +19,8 @@ package io.r2dbc.mssql;
 import io.r2dbc.spi.Statement;
 import reactor.core.publisher.Flux;
 
+import java.time.Duration;
+
 /**
  * A strongly typed implementation of {@link Statement} for a Microsoft SQL Server database.
  * <p>
@@ -53,6 +55,27 @@ public interface MssqlStatement extends Statement {
     @Override
     Flux<MssqlResult> execute();
 
+    /**
+     * Configure the number of rows to fetch per round trip when executing this statement using a server-side cursor. {@code 0} enables adaptive
+     * fetching that fetches rows according to the number of rows requested from the result and grows the number of fetched rows based on the
+     * observed row size. The fetch size has no effect on direct execution.
+     *
+     * @param fetchSize the number of rows to fetch or {@code 0} for adaptive fetching.
+     * @return this {@link MssqlStatement}
+     * @throws IllegalArgumentException if {@code fetchSize} is negative
+     */
+    MssqlStatement fetchSize(int fetchSize);
+
+    /**
+     * Configure the timeout for executing this statement. A statement that does not complete within the timeout is aborted on the server and its
+     * execution fails with {@link QueryTimeoutException}. {@link Duration#ZERO} disables the timeout.
+     *
+     * @param timeout the statement timeout.
+     * @return this {@link MssqlStatement}
+     * @throws IllegalArgumentException if {@code timeout} is {@code null} or negative
+     */
+    MssqlStatement timeout(Duration timeout);
+
     @Override
     MssqlStatement returnGeneratedValues(String... strings);
 }
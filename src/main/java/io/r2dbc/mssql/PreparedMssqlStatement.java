@@ -16,6 +16,7 @@
 
 package io.r2dbc.mssql;
 
+import io.r2dbc.mssql.CursoredQueryMessageFlow.RowDemand;
 import io.r2dbc.mssql.client.Client;
 import io.r2dbc.mssql.codec.Codecs;
 import io.r2dbc.mssql.codec.Encoded;
@@ -30,6 +31,7 @@ import reactor.core.publisher.EmitterProcessor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -51,6 +53,9 @@ import java.util.regex.Pattern;
  *
  * &#x40;first_name
  * </pre>
+ * <p>
+ * Statements are executed either using server-side cursors ({@link CursoredQueryMessageFlow}) or directly in a single round trip ({@link RpcQueryMessageFlow}).
+ * Direct execution of multiple bindings pipelines all bindings within a single RPC message unless the statement returns generated values.
  *
  * @author Mark Paluch
  */
@@ -68,16 +73,27 @@ final class PreparedMssqlStatement implements MssqlStatement {
 
     private final ParsedQuery parsedQuery;
 
+    private final boolean preferCursoredExecution;
+
     private final Bindings bindings = new Bindings();
 
     private String[] generatedColumns;
 
+    private int fetchSize = MssqlConnectionConfiguration.DEFAULT_FETCH_SIZE;
+
+    private Duration timeout = Duration.ZERO;
+
     PreparedMssqlStatement(PreparedStatementCache statementCache, Client client, Codecs codecs, String sql) {
+        this(statementCache, client, codecs, sql, true);
+    }
+
+    PreparedMssqlStatement(PreparedStatementCache statementCache, Client client, Codecs codecs, String sql, boolean preferCursoredExecution) {
 
         this.statementCache = statementCache;
         this.client = client;
         this.codecs = codecs;
         this.parsedQuery = ParsedQuery.parse(sql);
+        this.preferCursoredExecution = preferCursoredExecution;
     }
 
     @Override
@@ -98,6 +114,28 @@ final class PreparedMssqlStatement implements MssqlStatement {
         boolean useGeneratedKeysClause = GeneratedValues.shouldExpectGeneratedKeys(this.generatedColumns);
         String sql = useGeneratedKeysClause ? GeneratedValues.augmentQuery(this.parsedQuery.sql, generatedColumns) : this.parsedQuery.sql;
 
+        this.bindings.shareSignatures(sql);
+
+        // streamed parameters require a dedicated RPC message per binding and cannot be used with server-side cursors
+        boolean streaming = this.bindings.isStreaming();
+
+        // server-side cursors prepare statements which requires a cache to keep track of prepared statement handles
+        boolean cursored = this.preferCursoredExecution && !streaming && this.statementCache.isEnabled();
+
+        if (!cursored && !useGeneratedKeysClause && !streaming && this.bindings.bindings.size() > 1) {
+
+            logger.debug("Start pipelined exchange of {} bindings for {}", this.bindings.bindings.size(), sql);
+
+            Flux<Message> exchange = RpcQueryMessageFlow.exchange(this.statementCache, this.client, sql, new ArrayList<>(this.bindings.bindings));
+
+            return QueryTimeout.timeout(exchange, this.timeout)
+                .windowUntil(DoneInProcToken.class::isInstance, false, MssqlResult.PREFETCH) //
+                .map(it -> MssqlResult.toResult(this.codecs, it));
+        }
+
+        // rows requested from results govern fetching of all cursors of this execution
+        RowDemand demand = new RowDemand();
+
         EmitterProcessor<Binding> bindingEmitter = EmitterProcessor.create(true);
         FluxSink<Binding> boundRequests = bindingEmitter.sink();
 
@@ -106,7 +144,15 @@ final class PreparedMssqlStatement implements MssqlStatement {
 
                 logger.debug("Start exchange for {}", sql);
 
-                Flux<Message> exchange = CursoredQueryMessageFlow.exchange(this.statementCache, this.client, this.codecs, sql, it, 128);
+                Flux<Message> exchange;
+
+                if (cursored) {
+                    exchange = CursoredQueryMessageFlow.exchange(this.statementCache, this.client, this.codecs, sql, it, this.fetchSize, demand);
+                } else {
+                    exchange = RpcQueryMessageFlow.exchange(this.statementCache, this.client, sql, it);
+                }
+
+                exchange = QueryTimeout.timeout(exchange, this.timeout);
 
                 if (useGeneratedKeysClause) {
                     exchange = exchange.transform(GeneratedValues::reduceToSingleCountDoneToken);
@@ -116,8 +162,27 @@ final class PreparedMssqlStatement implements MssqlStatement {
                         tryNextBinding(iterator, boundRequests);
                     });
 
-            }).windowUntil(DoneInProcToken.class::isInstance) //
-            .map(it -> MssqlResult.toResult(this.codecs, it));
+            }).windowUntil(DoneInProcToken.class::isInstance, false, MssqlResult.PREFETCH) //
+            .map(it -> MssqlResult.toResult(this.codecs, it, demand::request));
+    }
+
+    @Override
+    public PreparedMssqlStatement fetchSize(int fetchSize) {
+
+        Assert.isTrue(fetchSize >= 0, "Fetch size must be greater or equal to zero");
+
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    @Override
+    public PreparedMssqlStatement timeout(Duration timeout) {
+
+        Assert.requireNonNull(timeout, "Timeout must not be null");
+        Assert.isTrue(!timeout.isNegative(), "Timeout must not be negative");
+
+        this.timeout = timeout;
+        return this;
     }
 
     @Override
@@ -512,6 +577,45 @@ final class PreparedMssqlStatement implements MssqlStatement {
             return this.bindings.stream().findFirst().orElseThrow(() -> new IllegalStateException("No parameters have been bound"));
         }
 
+        /**
+         * Share the {@link PreparedStatementKey} and formal parameters across bindings with the same parameter signature so that the formal parameter
+         * declaration is built once per statement instead of once per binding.
+         *
+         * @param sql the SQL query.
+         */
+        void shareSignatures(String sql) {
+
+            Binding previous = null;
+            PreparedStatementKey previousKey = null;
+
+            for (Binding binding : this.bindings) {
+
+                PreparedStatementKey key = PreparedStatementKey.of(sql, binding);
+
+                if (previous != null && key.equals(previousKey)) {
+                    binding.shareSignature(previous);
+                    continue;
+                }
+
+                previous = binding;
+                previousKey = key;
+            }
+        }
+
+        /**
+         * @return {@literal true} if at least one {@link Binding} contains streamed parameters.
+         */
+        boolean isStreaming() {
+
+            for (Binding binding : this.bindings) {
+                if (binding.isStreaming()) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
         Binding getCurrent() {
             if (this.current == null) {
                 this.current = new Binding();
@@ -16,6 +16,8 @@
 
 package io.r2dbc.mssql;
 
+import java.util.List;
+
 /**
  * Cache for prepared statements.
  *
@@ -47,6 +49,22 @@ interface PreparedStatementCache {
      */
     void putHandle(int handle, String sql, Binding binding);
 
+    /**
+     * Returns and removes prepared statement handles that were evicted from this cache. Evicted handles are no longer used by the driver and should be
+     * un-prepared to release server resources.
+     *
+     * @return the evicted prepared statement handles. Returns an empty {@link List} if no handles were evicted.
+     */
+    List<Integer> pollEvictedHandles();
+
+    /**
+     * Returns whether this cache retains prepared statement handles. Statements are executed directly without preparing them if the cache does not
+     * retain handles.
+     *
+     * @return {@literal true} if this cache retains prepared statement handles.
+     */
+    boolean isEnabled();
+
     /**
      * Returns the number of cached prepared statement handles in this cache.
      *
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql;
+
+import io.r2dbc.mssql.codec.Encoded;
+import io.r2dbc.mssql.util.Assert;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Cache key for a prepared statement consisting of the SQL query and the parameter signature of a {@link Binding}. The signature is a vector of
+ * parameter names and formal types. Formal types are constants provided by the encoded parameters so building a key does not require building
+ * strings. The hash code is computed once on construction. A {@link Binding} retains its key so cache lookup and update share a single key.
+ *
+ * @author Mark Paluch
+ * @see Binding#getFormalParameters()
+ */
+final class PreparedStatementKey {
+
+    private final String sql;
+
+    // parameter names and formal types in binding order: name0, type0, name1, type1, …
+    private final String[] signature;
+
+    private final int hash;
+
+    private PreparedStatementKey(String sql, String[] signature) {
+
+        this.sql = sql;
+        this.signature = signature;
+        this.hash = 31 * sql.hashCode() + Arrays.hashCode(signature);
+    }
+
+    /**
+     * Returns the {@link PreparedStatementKey} for {@code sql} and the {@link Binding}.
+     *
+     * @param sql     the SQL query.
+     * @param binding bound parameters.
+     * @return the {@link PreparedStatementKey}.
+     * @throws IllegalArgumentException when {@code sql} or {@link Binding} is {@code null}.
+     */
+    static PreparedStatementKey of(String sql, Binding binding) {
+
+        Assert.requireNonNull(sql, "SQL query must not be null");
+        Assert.requireNonNull(binding, "Binding must not be null");
+
+        PreparedStatementKey key = binding.getKey();
+
+        if (key != null && key.isFor(sql)) {
+            return key;
+        }
+
+        String[] signature = new String[binding.size() * 2];
+        int index = 0;
+
+        for (Map.Entry<String, Encoded> entry : binding.getParameters().entrySet()) {
+            signature[index++] = entry.getKey();
+            signature[index++] = entry.getValue().getFormalType();
+        }
+
+        key = new PreparedStatementKey(sql, signature);
+        binding.setKey(key);
+
+        return key;
+    }
+
+    private boolean isFor(String sql) {
+        return this.sql == sql || this.sql.equals(sql);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PreparedStatementKey)) {
+            return false;
+        }
+        PreparedStatementKey that = (PreparedStatementKey) o;
+        return this.hash == that.hash && this.sql.equals(that.sql) && Arrays.equals(this.signature, that.signature);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuffer sb = new StringBuffer();
+        sb.append(getClass().getSimpleName());
+        sb.append(" [sql=\"").append(this.sql).append('\"');
+        sb.append(", signature=").append(Arrays.toString(this.signature));
+        sb.append(']');
+        return sb.toString();
+    }
+}
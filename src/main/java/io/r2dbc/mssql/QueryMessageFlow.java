@@ -22,9 +22,13 @@ import io.r2dbc.mssql.message.token.AbstractDoneToken;
 import io.r2dbc.mssql.message.token.DoneToken;
 import io.r2dbc.mssql.message.token.SqlBatch;
 import io.r2dbc.mssql.util.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * Simple (direct) query message flow using {@link SqlBatch}.
  *
@@ -32,9 +36,11 @@ import reactor.core.publisher.Mono;
  */
 final class QueryMessageFlow {
 
+    private static final Logger LOG = LoggerFactory.getLogger(QueryMessageFlow.class);
 
     /**
-     * Execute a simple query using {@link SqlBatch}. Query execution terminates with a {@link DoneToken}.
+     * Execute a simple query using {@link SqlBatch}. Query execution terminates with a {@link DoneToken}. Cancelling the subscription aborts the query
+     * using an {@link Client#attention() ATTENTION} signal if the response is not yet complete.
      *
      * @param client the {@link Client} to exchange messages with.
      * @param query  the query to execute.
@@ -45,17 +51,55 @@ final class QueryMessageFlow {
         Assert.requireNonNull(client, "Client must not be null");
         Assert.requireNonNull(query, "Query must not be null");
 
-        return client.exchange(Mono.just(SqlBatch.create(1, client.getTransactionDescriptor(), query)).doOnNext(it -> {
-            QueryLogger.logQuery(it.getSql());
+        return Flux.defer(() -> {
+
+            // an ATTENTION signal after the final DONE token would abort the next request on this connection
+            AtomicBoolean closed = new AtomicBoolean();
+
+            return client.exchange(Mono.just(SqlBatch.create(1, client.getTransactionDescriptor(), query)).doOnNext(it -> {
+                QueryLogger.logQuery(it.getSql());
+
+            })) //
+                .<Message>handle((message, sink) -> {
+
+                    boolean done = AbstractDoneToken.isDone(message);
+
+                    if (done) {
+                        closed.set(true);
+                    }
+
+                    sink.next(message);
+
+                    if (done) {
+                        sink.complete();
+                    }
+                })
+                .doOnCancel(() -> abort(client, closed));
+        });
+    }
+
+    /**
+     * Abort the currently executing request by sending an {@link Client#attention() ATTENTION} signal unless the response is already {@code closed}.
+     *
+     * @param client the {@link Client} to exchange messages with.
+     * @param closed whether the response has seen its final {@link AbstractDoneToken DONE} token or was already aborted.
+     */
+    static void abort(Client client, AtomicBoolean closed) {
+
+        if (closed.compareAndSet(false, true)) {
+            abort(client);
+        }
+    }
 
-        })) //
-            .handle((message, sink) -> {
+    /**
+     * Abort the currently executing request by sending an {@link Client#attention() ATTENTION} signal.
+     *
+     * @param client the {@link Client} to exchange messages with.
+     */
+    static void abort(Client client) {
 
-                sink.next(message);
+        LOG.debug("Subscription cancelled. Aborting request");
 
-                if (AbstractDoneToken.isDone(message)) {
-                    sink.complete();
-                }
-            });
+        client.attention().subscribe(null, e -> LOG.debug("Cannot abort request", e));
     }
 }
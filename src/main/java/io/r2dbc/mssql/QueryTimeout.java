@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.r2dbc.mssql;
+
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.r2dbc.mssql.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.MonoProcessor;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Client-side enforcement of statement timeouts. Timeouts are scheduled on a single {@link HashedWheelTimer} that is shared across all connections to
+ * avoid a scheduled task per query. An expired timeout cancels the message exchange which aborts the statement on the server and fails the exchange
+ * with {@link QueryTimeoutException}. Messages that are emitted after the timeout expired are released.
+ *
+ * @author Mark Paluch
+ */
+final class QueryTimeout {
+
+    private static final Timer TIMER = new HashedWheelTimer(new DefaultThreadFactory("r2dbc-mssql-timeout", true), 10, TimeUnit.MILLISECONDS);
+
+    private QueryTimeout() {
+    }
+
+    /**
+     * Apply a {@code timeout} to the message exchange {@code source}. The timeout starts with the subscription and covers the entire exchange.
+     *
+     * @param source  the message exchange.
+     * @param timeout the timeout. {@link Duration#ZERO} disables the timeout.
+     * @param <T>     the element type.
+     * @return the message exchange that fails with {@link QueryTimeoutException} if the timeout expires.
+     * @throws IllegalArgumentException when {@link Flux} or {@link Duration} is {@code null}.
+     */
+    static <T> Flux<T> timeout(Flux<T> source, Duration timeout) {
+
+        Assert.requireNonNull(source, "Source must not be null");
+        Assert.requireNonNull(timeout, "Timeout must not be null");
+
+        if (timeout.isZero()) {
+            return source;
+        }
+
+        return Flux.defer(() -> {
+
+            MonoProcessor<Boolean> expired = MonoProcessor.create();
+            Timeout handle = TIMER.newTimeout(ignore -> expired.onNext(true), timeout.toNanos(), TimeUnit.NANOSECONDS);
+
+            AtomicBoolean completed = new AtomicBoolean();
+            Flux<T> timeoutError = Flux.defer(() -> completed.get() ? Flux.empty() : Flux.error(new QueryTimeoutException(String.format("Statement did not " +
+                "complete within %s", timeout))));
+
+            return source.filter(it -> {
+
+                // release messages that race with the cancellation of an expired exchange
+                if (expired.isTerminated()) {
+                    ReferenceCountUtil.release(it);
+                    return false;
+                }
+
+                return true;
+            }).doOnComplete(() -> completed.set(true))
+                .takeUntilOther(expired)
+                .concatWith(timeoutError)
+                .doFinally(ignore -> handle.cancel());
+        });
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.r2dbc.mssql;
+
+import reactor.util.annotation.Nullable;
+
+/**
+ * Exception indicating that a statement did not complete within its configured timeout. The statement is aborted on the server when the timeout
+ * expires.
+ *
+ * @author Mark Paluch
+ * @see MssqlStatement#timeout(java.time.Duration)
+ */
+public final class QueryTimeoutException extends AbstractMssqlException {
+
+    /**
+     * SQL state for timeout expiry.
+     */
+    static final String SQL_STATE = "HYT00";
+
+    /**
+     * Creates a new exception.
+     *
+     * @param reason the reason for the error. Set as the exception's message and retrieved with {@link #getMessage()}.
+     */
+    public QueryTimeoutException(@Nullable String reason) {
+        super(reason, SQL_STATE, ERROR_QUERY_TIMEOUT);
+    }
+}
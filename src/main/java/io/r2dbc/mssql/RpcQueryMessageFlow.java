@@ -0,0 +1,319 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql;
+
+import io.r2dbc.mssql.client.Client;
+import io.r2dbc.mssql.codec.PlpEncoded;
+import io.r2dbc.mssql.codec.RpcDirection;
+import io.r2dbc.mssql.message.ClientMessage;
+import io.r2dbc.mssql.message.Message;
+import io.r2dbc.mssql.message.TransactionDescriptor;
+import io.r2dbc.mssql.message.token.AbstractDoneToken;
+import io.r2dbc.mssql.message.token.DoneProcToken;
+import io.r2dbc.mssql.message.token.ReturnStatus;
+import io.r2dbc.mssql.message.token.RpcBatch;
+import io.r2dbc.mssql.message.token.RpcRequest;
+import io.r2dbc.mssql.message.type.Collation;
+import io.r2dbc.mssql.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Direct (non-cursored) query message flow using {@link RpcRequest#Sp_ExecuteSql}. The server streams the entire result in response to a single
+ * {@link RpcRequest} without opening a server-side cursor.
+ *
+ * @author Mark Paluch
+ * @see CursoredQueryMessageFlow
+ */
+final class RpcQueryMessageFlow {
+
+    /**
+     * Execute a parametrized query using {@link RpcRequest#Sp_ExecuteSql}. Query execution terminates with a {@link DoneProcToken}. Cancelling the
+     * subscription aborts the query using an {@link Client#attention() ATTENTION} signal while the response is open. If a {@link PlpEncoded streamed parameter} fails, the request
+     * gets discarded and aborted and the exchange terminates with the failure once the server has acknowledged the abort.
+     *
+     * @param client  the {@link Client} to exchange messages with.
+     * @param query   the query to execute.
+     * @param binding parameter bindings.
+     * @return the messages received in response to this exchange.
+     * @throws IllegalArgumentException when {@link Client}, {@code query}, or {@link Binding} is {@code null}.
+     */
+    static Flux<Message> exchange(Client client, String query, Binding binding) {
+
+        Assert.requireNonNull(client, "Client must not be null");
+        Assert.requireNonNull(query, "Query must not be null");
+        Assert.requireNonNull(binding, "Binding must not be null");
+
+        if (!binding.isStreaming()) {
+            return exchange(client, query, Mono.fromSupplier(() -> spExecuteSql(query, binding, client.getRequiredCollation(), client.getTransactionDescriptor())));
+        }
+
+        return Flux.defer(() -> {
+
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            AtomicBoolean closed = new AtomicBoolean();
+            MonoProcessor<Void> aborted = MonoProcessor.create();
+
+            Consumer<Throwable> abortHandler = e -> {
+
+                failure.set(e);
+
+                if (closed.compareAndSet(false, true)) {
+                    client.attention().subscribe(null, ignore -> aborted.onComplete(), aborted::onComplete);
+                } else {
+                    aborted.onComplete();
+                }
+            };
+
+            return exchange(client, query, Mono.fromSupplier(() -> spExecuteSql(query, binding, client.getRequiredCollation(), client.getTransactionDescriptor(),
+                abortHandler)), message -> true, closed) //
+                .takeUntilOther(aborted) //
+                .concatWith(Mono.defer(() -> {
+
+                    Throwable e = failure.get();
+
+                    if (e != null) {
+                        return Mono.<Message>error(e);
+                    }
+
+                    return Mono.<Message>empty();
+                }));
+        });
+    }
+
+    /**
+     * Execute a parametrized query using {@link RpcRequest#Sp_ExecuteSql} and un-prepare prepared statement handles that were evicted from
+     * {@link PreparedStatementCache} within the same {@link RpcBatch}. Evicted handles remain in the cache if the {@link Binding} contains
+     * {@link PlpEncoded streamed parameters} as streamed requests cannot be batched.
+     *
+     * @param statementCache the {@link PreparedStatementCache} to keep track of prepared statement handles.
+     * @param client         the {@link Client} to exchange messages with.
+     * @param query          the query to execute.
+     * @param binding        parameter bindings.
+     * @return the messages received in response to this exchange.
+     * @throws IllegalArgumentException when {@link PreparedStatementCache}, {@link Client}, {@code query}, or {@link Binding} is {@code null}.
+     * @see #exchange(Client, String, Binding)
+     */
+    static Flux<Message> exchange(PreparedStatementCache statementCache, Client client, String query, Binding binding) {
+
+        Assert.requireNonNull(statementCache, "PreparedStatementCache must not be null");
+        Assert.requireNonNull(client, "Client must not be null");
+        Assert.requireNonNull(query, "Query must not be null");
+        Assert.requireNonNull(binding, "Binding must not be null");
+
+        if (binding.isStreaming()) {
+            return exchange(client, query, binding);
+        }
+
+        return Flux.defer(() -> {
+
+            AtomicInteger pendingUnprepare = new AtomicInteger();
+
+            // drain evicted handles once the exchange gets activated as previously queued exchanges may still use them
+            return exchange(client, query, Mono.fromSupplier(() -> {
+
+                List<Integer> evictedHandles = statementCache.pollEvictedHandles();
+                pendingUnprepare.set(evictedHandles.size());
+
+                RpcRequest request = spExecuteSql(query, binding, client.getRequiredCollation(), client.getTransactionDescriptor());
+                return CursoredQueryMessageFlow.withUnprepare(evictedHandles, request, client.getTransactionDescriptor());
+            }), CursoredQueryMessageFlow.skipUnprepareResponses(pendingUnprepare));
+        });
+    }
+
+    /**
+     * Execute a parametrized query for multiple {@link Binding bindings} using a single {@link RpcBatch} that contains a {@link RpcRequest#Sp_ExecuteSql}
+     * call for each binding. Requests are pipelined within a single RPC message and the server responds to each call in the order of {@code bindings}.
+     * Query execution terminates with the {@link DoneProcToken} of the last call. Cancelling the subscription aborts the query using an
+     * {@link Client#attention() ATTENTION} signal while the response is open.
+     *
+     * @param client   the {@link Client} to exchange messages with.
+     * @param query    the query to execute.
+     * @param bindings parameter bindings.
+     * @return the messages received in response to this exchange.
+     * @throws IllegalArgumentException when {@link Client}, {@code query}, or {@code bindings} is {@code null}.
+     */
+    static Flux<Message> exchange(Client client, String query, List<Binding> bindings) {
+
+        Assert.requireNonNull(client, "Client must not be null");
+        Assert.requireNonNull(query, "Query must not be null");
+        Assert.requireNonNull(bindings, "Bindings must not be null");
+        Assert.isTrue(!bindings.isEmpty(), "Bindings must not be empty");
+
+        return exchange(client, query, Mono.fromSupplier(() -> {
+
+            List<RpcRequest> requests = new ArrayList<>(bindings.size());
+
+            for (Binding binding : bindings) {
+                requests.add(spExecuteSql(query, binding, client.getRequiredCollation(), client.getTransactionDescriptor()));
+            }
+
+            return RpcBatch.create(requests);
+        }));
+    }
+
+    /**
+     * Execute a parametrized query for multiple {@link Binding bindings} using a single {@link RpcBatch} and un-prepare prepared statement handles that
+     * were evicted from {@link PreparedStatementCache} within the same {@link RpcBatch}.
+     *
+     * @param statementCache the {@link PreparedStatementCache} to keep track of prepared statement handles.
+     * @param client         the {@link Client} to exchange messages with.
+     * @param query          the query to execute.
+     * @param bindings       parameter bindings.
+     * @return the messages received in response to this exchange.
+     * @throws IllegalArgumentException when {@link PreparedStatementCache}, {@link Client}, {@code query}, or {@code bindings} is {@code null}.
+     * @see #exchange(Client, String, List)
+     */
+    static Flux<Message> exchange(PreparedStatementCache statementCache, Client client, String query, List<Binding> bindings) {
+
+        Assert.requireNonNull(statementCache, "PreparedStatementCache must not be null");
+        Assert.requireNonNull(client, "Client must not be null");
+        Assert.requireNonNull(query, "Query must not be null");
+        Assert.requireNonNull(bindings, "Bindings must not be null");
+        Assert.isTrue(!bindings.isEmpty(), "Bindings must not be empty");
+
+        return Flux.defer(() -> {
+
+            AtomicInteger pendingUnprepare = new AtomicInteger();
+
+            // drain evicted handles once the exchange gets activated as previously queued exchanges may still use them
+            return exchange(client, query, Mono.fromSupplier(() -> {
+
+                List<Integer> evictedHandles = statementCache.pollEvictedHandles();
+                pendingUnprepare.set(evictedHandles.size());
+
+                List<RpcRequest> requests = new ArrayList<>(evictedHandles.size() + bindings.size());
+
+                for (Integer evictedHandle : evictedHandles) {
+                    requests.add(CursoredQueryMessageFlow.spCursorUnprepare(evictedHandle, client.getTransactionDescriptor()));
+                }
+
+                for (Binding binding : bindings) {
+                    requests.add(spExecuteSql(query, binding, client.getRequiredCollation(), client.getTransactionDescriptor()));
+                }
+
+                return RpcBatch.create(requests);
+            }), CursoredQueryMessageFlow.skipUnprepareResponses(pendingUnprepare));
+        });
+    }
+
+    private static Flux<Message> exchange(Client client, String query, Mono<? extends ClientMessage> request) {
+        return exchange(client, query, request, message -> true);
+    }
+
+    private static Flux<Message> exchange(Client client, String query, Mono<? extends ClientMessage> request, Predicate<Message> filter) {
+        return Flux.defer(() -> exchange(client, query, request, filter, new AtomicBoolean()));
+    }
+
+    /**
+     * Exchange {@code request} and complete the response with its final {@link DoneProcToken}. Cancelling the subscription aborts the request unless the
+     * response is already {@code closed}.
+     */
+    private static Flux<Message> exchange(Client client, String query, Mono<? extends ClientMessage> request, Predicate<Message> filter, AtomicBoolean closed) {
+
+        return client.exchange(request) //
+            .doOnSubscribe(ignore -> QueryLogger.logQuery(query)) //
+            .filter(filter) //
+            .<Message>handle((message, sink) -> {
+
+                if (message instanceof DoneProcToken) {
+
+                    if (DoneProcToken.isDone(message)) {
+                        closed.set(true);
+                        sink.complete();
+                    }
+
+                    return;
+                }
+
+                if (message instanceof ReturnStatus) {
+                    return;
+                }
+
+                if (AbstractDoneToken.isAttentionAck(message)) {
+                    closed.set(true);
+                    sink.complete();
+                    return;
+                }
+
+                sink.next(message);
+            })
+            .doOnCancel(() -> QueryMessageFlow.abort(client, closed));
+    }
+
+    /**
+     * Creates a {@link RpcRequest} for {@link RpcRequest#Sp_ExecuteSql} to execute a {@code query} directly.
+     *
+     * @param query                 the query to execute.
+     * @param binding               bound parameters.
+     * @param collation             the database collation.
+     * @param transactionDescriptor transaction descriptor.
+     * @return {@link RpcRequest} for {@link RpcRequest#Sp_ExecuteSql}.
+     * @throws IllegalArgumentException when {@code query}, {@link Binding}, {@link Collation}, or {@link TransactionDescriptor} is {@code null}.
+     */
+    static RpcRequest spExecuteSql(String query, Binding binding, Collation collation, TransactionDescriptor transactionDescriptor) {
+        return spExecuteSql(query, binding, collation, transactionDescriptor, e -> {
+        });
+    }
+
+    /**
+     * Creates a {@link RpcRequest} for {@link RpcRequest#Sp_ExecuteSql} to execute a {@code query} directly.
+     *
+     * @param query                 the query to execute.
+     * @param binding               bound parameters.
+     * @param collation             the database collation.
+     * @param transactionDescriptor transaction descriptor.
+     * @param abortHandler          callback to notify when a streamed parameter fails and the request gets discarded.
+     * @return {@link RpcRequest} for {@link RpcRequest#Sp_ExecuteSql}.
+     * @throws IllegalArgumentException when {@code query}, {@link Binding}, {@link Collation}, {@link TransactionDescriptor}, or {@code abortHandler} is
+     *                                  {@code null}.
+     */
+    static RpcRequest spExecuteSql(String query, Binding binding, Collation collation, TransactionDescriptor transactionDescriptor,
+                                   Consumer<Throwable> abortHandler) {
+
+        Assert.requireNonNull(query, "Query must not be null");
+        Assert.requireNonNull(binding, "Binding must not be null");
+        Assert.requireNonNull(collation, "Collation must not be null");
+        Assert.requireNonNull(transactionDescriptor, "TransactionDescriptor must not be null");
+
+        RpcRequest.Builder builder = RpcRequest.builder() //
+            .withProcId(RpcRequest.Sp_ExecuteSql) //
+            .withTransactionDescriptor(transactionDescriptor) //
+            .withAbortHandler(abortHandler) //
+            .withParameter(RpcDirection.IN, collation, query); // statement
+
+        if (!binding.isEmpty()) {
+
+            builder.withParameter(RpcDirection.IN, collation, binding.getFormalParameters()); // formal parameter defn
+
+            binding.forEach((name, encoded) -> {
+                builder.withNamedParameter(RpcDirection.IN, name, encoded);
+            });
+        }
+
+        return builder.build();
+    }
+}
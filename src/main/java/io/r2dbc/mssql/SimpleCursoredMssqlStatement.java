@@ -16,6 +16,7 @@
 
 package io.r2dbc.mssql;
 
+import io.r2dbc.mssql.CursoredQueryMessageFlow.RowDemand;
 import io.r2dbc.mssql.client.Client;
 import io.r2dbc.mssql.codec.Codecs;
 import io.r2dbc.mssql.message.token.DoneInProcToken;
@@ -33,8 +34,6 @@ import java.util.Locale;
  */
 final class SimpleCursoredMssqlStatement extends SimpleMssqlStatement {
 
-    public static final int FETCH_SIZE = 128;
-
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     /**
@@ -55,9 +54,11 @@ final class SimpleCursoredMssqlStatement extends SimpleMssqlStatement {
 
             logger.debug("Start exchange for {}", sql);
 
-            return CursoredQueryMessageFlow.exchange(this.client, this.codecs, this.sql, FETCH_SIZE) //
-                .windowUntil(DoneInProcToken.class::isInstance) //
-                .map(it -> MssqlResult.toResult(this.codecs, it));
+            RowDemand demand = new RowDemand();
+
+            return QueryTimeout.timeout(CursoredQueryMessageFlow.exchange(this.client, this.codecs, this.sql, this.fetchSize, demand), this.timeout) //
+                .windowUntil(DoneInProcToken.class::isInstance, false, MssqlResult.PREFETCH) //
+                .map(it -> MssqlResult.toResult(this.codecs, it, demand::request));
         });
     }
 
@@ -26,6 +26,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
 
+import java.time.Duration;
+
 /**
  * Simple SQL statement without SQL parameter (variables) using direct ({@link SqlBatch}) execution.
  *
@@ -43,6 +45,10 @@ class SimpleMssqlStatement implements MssqlStatement {
 
     String[] generatedColumns;
 
+    int fetchSize = MssqlConnectionConfiguration.DEFAULT_FETCH_SIZE;
+
+    Duration timeout = Duration.ZERO;
+
     /**
      * Creates a new {@link SimpleMssqlStatement}.
      *
@@ -101,16 +107,35 @@ class SimpleMssqlStatement implements MssqlStatement {
 
         logger.debug("Start exchange for {}", sql);
 
-        Flux<Message> exchange = QueryMessageFlow.exchange(this.client, sql);
+        Flux<Message> exchange = QueryTimeout.timeout(QueryMessageFlow.exchange(this.client, sql), this.timeout);
 
         if (useGeneratedKeysClause) {
             exchange = exchange.transform(GeneratedValues::reduceToSingleCountDoneToken);
         }
 
-        return exchange.windowUntil(AbstractDoneToken.class::isInstance) //
+        return exchange.windowUntil(AbstractDoneToken.class::isInstance, false, MssqlResult.PREFETCH) //
             .map(it -> MssqlResult.toResult(this.codecs, it));
     }
 
+    @Override
+    public SimpleMssqlStatement fetchSize(int fetchSize) {
+
+        Assert.isTrue(fetchSize >= 0, "Fetch size must be greater or equal to zero");
+
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    @Override
+    public SimpleMssqlStatement timeout(Duration timeout) {
+
+        Assert.requireNonNull(timeout, "Timeout must not be null");
+        Assert.isTrue(!timeout.isNegative(), "Timeout must not be negative");
+
+        this.timeout = timeout;
+        return this;
+    }
+
     @Override
     public SimpleMssqlStatement returnGeneratedValues(String... columns) {
 
@@ -42,13 +42,22 @@ public interface Client {
     Mono<Void> close();
 
     /**
-     * Perform an exchange of messages.
+     * Perform an exchange of messages. Exchanges are processed in the order of subscription: {@code requests} are sent once all previous exchanges have
+     * received their response and the exchange remains active until its subscriber completes or cancels the subscription.
      *
      * @param requests the publisher of outbound messages
      * @return a {@link Flux} of incoming messages that ends with the end of the frame.
      */
     Flux<Message> exchange(Publisher<? extends ClientMessage> requests);
 
+    /**
+     * Send an ATTENTION signal to abort the currently executing request. The server discards pending results and acknowledges the attention once the
+     * request is cancelled. Response messages received until the acknowledgement are discarded.
+     *
+     * @return a {@link Mono} that completes once the server has acknowledged the attention.
+     */
+    Mono<Void> attention();
+
     /**
      * Returns the {@link ByteBufAllocator}.
      *
@@ -41,7 +41,8 @@ import static io.r2dbc.mssql.message.header.Status.StatusBit;
  * <li>Enter {@link #PRELOGIN} state and send a {@link Prelogin} message</li>
  * <li>If encryption is required/off/on, then enter {@link #PRELOGIN_SSL_NEGOTIATION}. Note that
  * {@link Prelogin.Encryption#ENCRYPT_OFF} requires SSL negotiation for the {@link Login7} message.</li>
- * <li>Enter {@link #LOGIN} state once SSL is negotiated and send a {@link Login7} message</li>
+ * <li>Enter {@link #LOGIN} state once SSL is negotiated (or directly if {@link Prelogin.Encryption#ENCRYPT_NOT_SUP encryption is not supported}) and send a
+ * {@link Login7} message</li>
  * <li>Enter {@link #POST_LOGIN} after receiving login ack</li>
  * </ul>
  * Connection states can {@link #canAdvance(Message) advance} triggered by a received {@link Message}. A state can provide a {@link MessageDecoder} function to decode messages exchanged in that
@@ -105,7 +106,8 @@ public enum ConnectionState {
                 return PRELOGIN_SSL_NEGOTIATION;
             }
 
-            return PRELOGIN;
+            // Encryption not supported: Login without SSL.
+            return LOGIN;
         }
     },
 
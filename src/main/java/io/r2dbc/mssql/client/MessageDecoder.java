@@ -27,7 +27,7 @@ import java.util.function.BiFunction;
  * Decoder interface that accepts a {@link Header} and {@link ByteBuf data buffer} to attempt to decode {@link Message}s.
  *
  * @author Mark Paluch
- * @see StreamDecoder
+ * @see TdsDecoder
  */
 interface MessageDecoder extends BiFunction<Header, ByteBuf, List<? extends Message>> {
 
@@ -16,14 +16,15 @@
 
 package io.r2dbc.mssql.client;
 
-import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.DecoderException;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
+import io.netty.util.ReferenceCountUtil;
 import io.netty.util.internal.logging.InternalLogger;
 import io.netty.util.internal.logging.InternalLoggerFactory;
 import io.r2dbc.mssql.client.ssl.TdsSslHandler;
@@ -34,6 +35,7 @@ import io.r2dbc.mssql.message.header.PacketIdProvider;
 import io.r2dbc.mssql.message.tds.ProtocolException;
 import io.r2dbc.mssql.message.token.AbstractDoneToken;
 import io.r2dbc.mssql.message.token.AbstractInfoToken;
+import io.r2dbc.mssql.message.token.Attention;
 import io.r2dbc.mssql.message.token.EnvChangeToken;
 import io.r2dbc.mssql.message.token.FeatureExtAckToken;
 import io.r2dbc.mssql.message.type.Collation;
@@ -41,14 +43,17 @@ import io.r2dbc.mssql.util.Assert;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import reactor.core.publisher.EmitterProcessor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
 import reactor.core.publisher.SynchronousSink;
+import reactor.core.publisher.UnicastProcessor;
 import reactor.netty.Connection;
+import reactor.netty.NettyPipeline;
 import reactor.netty.resources.ConnectionProvider;
 import reactor.netty.tcp.TcpClient;
+import reactor.util.concurrent.Queues;
 
 import java.time.Duration;
 import java.util.ArrayList;
@@ -59,9 +64,6 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
-import java.util.function.Function;
-
-import static io.r2dbc.mssql.util.PredicateUtils.or;
 
 /**
  * An implementation of a TDS client based on the Reactor Netty project.
@@ -139,16 +141,50 @@ public final class ReactorNettyClient implements Client {
 
     private final AtomicBoolean isClosed = new AtomicBoolean(false);
 
-    private final EmitterProcessor<ClientMessage> requestProcessor = EmitterProcessor.create(false);
+    private final AtomicReference<MonoProcessor<Void>> attentionAck = new AtomicReference<>();
 
-    private final FluxSink<ClientMessage> requests = this.requestProcessor.sink();
+    // whether the inbound stream has an incomplete response, accessed only from the inbound stream
+    private boolean responseOpen;
+
+    private final BiConsumer<Message, SynchronousSink<Message>> handleAttention = (message, sink) -> {
 
-    private final EmitterProcessor<Flux<Message>> responseProcessor = EmitterProcessor.create(false);
+        MonoProcessor<Void> ack = this.attentionAck.get();
+
+        if (ack == null) {
+            this.responseOpen = !AbstractDoneToken.isDone(message);
+            sink.next(message);
+            return;
+        }
+
+        if (AbstractDoneToken.isAttentionAck(message)) {
+
+            this.attentionAck.set(null);
+
+            // terminate the aborted response, otherwise the response conduit would discard subsequent responses
+            if (this.responseOpen) {
+                this.responseOpen = false;
+                sink.next(message);
+            }
+
+            this.logger.debug("Attention acknowledged");
+            ack.onComplete();
+            return;
+        }
+
+        ReferenceCountUtil.release(message);
+    };
+
+    // single-subscriber request queue, the sink serializes requests emitted from concurrent exchanges and attention signals
+    private final UnicastProcessor<ClientMessage> requestProcessor = UnicastProcessor.create(Queues.<ClientMessage>unbounded().get());
+
+    private final FluxSink<ClientMessage> requests = this.requestProcessor.sink();
 
     private final AtomicReference<ConnectionState> state = new AtomicReference<>(ConnectionState.PRELOGIN);
 
     private final AtomicReference<MessageDecoder> decodeFunction = new AtomicReference<>(ConnectionState.PRELOGIN.decoder(this));
 
+    private final ResponseConduit responses;
+
     /**
      * Creates a new frame processor connected to a given TCP connection.
      *
@@ -157,9 +193,9 @@ public final class ReactorNettyClient implements Client {
     private ReactorNettyClient(Connection connection, List<EnvironmentChangeListener> envChangeListeners) {
         Assert.requireNonNull(connection, "Connection must not be null");
 
-        FluxSink<Flux<Message>> responses = this.responseProcessor.sink();
+        this.responses = new ResponseConduit(connection.channel());
 
-        StreamDecoder decoder = new StreamDecoder();
+        connection.channel().pipeline().addBefore(NettyPipeline.ReactiveBridge, TdsDecoder.class.getName(), new TdsDecoder(this.decodeFunction::get));
 
         this.byteBufAllocator.set(connection.outbound().alloc());
         this.connection.set(connection);
@@ -168,20 +204,17 @@ public final class ReactorNettyClient implements Client {
         this.envChangeListeners.add(new CollationListener());
 
         connection.inbound().receiveObject() //
-            .concatMap(it -> {
-
-                if (it instanceof ByteBuf) {
-
-                    ByteBuf buffer = (ByteBuf) it;
-                    buffer.retain();
-                    return decoder.decode(buffer, this.decodeFunction.get());
-                }
+            .onErrorMap(DecoderException.class, e -> e.getCause() instanceof ProtocolException ? e.getCause() : e) //
+            .<Message>handle((it, sink) -> {
 
                 if (it instanceof Message) {
-                    return Mono.just((Message) it);
+
+                    // the transport releases inbound objects after emission
+                    sink.next((Message) ReferenceCountUtil.retain(it));
+                    return;
                 }
 
-                return Mono.error(new ProtocolException(String.format("Unexpected protocol message: [%s]", it)));
+                sink.error(new ProtocolException(String.format("Unexpected protocol message: [%s]", it)));
             }) //
             .doOnNext(message -> this.logger.debug("Response: {}", message)) //
             .doOnError(message -> this.logger.warn("Error: {}", message)) //
@@ -189,14 +222,12 @@ public final class ReactorNettyClient implements Client {
             .doOnNext(this.handleEnvChange) //
             .doOnNext(this.featureAckChange) //
             .doOnNext(this.handleInfoToken)
+            .handle(this.handleAttention)
             .doOnError(ProtocolException.class, e -> {
                 this.isClosed.set(true);
                 connection.channel().close();
             })
-            .windowUntil(or(AbstractDoneToken::isDone))
-            .map(Flux::cache)
-            .subscribe(
-                responses::next, responses::error, responses::complete);
+            .subscribe(this.responses::onNext, this.responses::onError, this.responses::onComplete);
 
         this.requestProcessor.doOnError(message -> {
             this.logger.warn("Error: {}", message);
@@ -314,8 +345,39 @@ public final class ReactorNettyClient implements Client {
                 return Flux.error(new IllegalStateException("Cannot exchange messages because the connection is closed"));
             }
 
-            return this.responseProcessor.flatMap(Function.identity()) //
-                .doOnSubscribe(s -> Flux.from(requests).subscribe(this.requests::next, this.requests::error));
+            return Flux.<Message>create(sink -> {
+
+                // send requests once all previous exchanges have completed their response
+                this.responses.register(sink, () -> Flux.from(requests).subscribe(this.requests::next, this.requests::error));
+            });
+        });
+    }
+
+    @Override
+    public Mono<Void> attention() {
+
+        return Mono.defer(() -> {
+
+            if (this.isClosed.get()) {
+                return Mono.error(new IllegalStateException("Cannot send attention because the connection is closed"));
+            }
+
+            MonoProcessor<Void> ack = MonoProcessor.create();
+
+            if (!this.attentionAck.compareAndSet(null, ack)) {
+
+                MonoProcessor<Void> pending = this.attentionAck.get();
+
+                if (pending == null) {
+                    return Mono.<Void>empty();
+                }
+
+                return pending;
+            }
+
+            this.requests.next(Attention.create());
+
+            return ack;
         });
     }
 
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.r2dbc.mssql.client;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelConfig;
+import io.netty.channel.EventLoop;
+import io.netty.util.ReferenceCountUtil;
+import io.r2dbc.mssql.message.Message;
+import io.r2dbc.mssql.message.token.AbstractDoneToken;
+import io.r2dbc.mssql.util.Assert;
+import reactor.core.publisher.FluxSink;
+import reactor.util.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Single-consumer conduit that routes inbound {@link Message}s to the subscriber of the active exchange.
+ * <p/>
+ * Exchanges are queued in the order of their {@link #register(FluxSink, Runnable) registration} and activated one after another. An exchange sends its
+ * requests once it gets activated and remains active until its subscriber completes or cancels. The next exchange is activated only once the response
+ * of the previous exchange is {@link AbstractDoneToken#isDone(Message) done}: if the active exchange is disposed while its response is incomplete, the
+ * remaining messages are released until the response is done. Messages that arrive without an active exchange are released.
+ * <p/>
+ * Messages are passed on as they arrive without caching them. Reading from the {@link Channel} is paused by disabling {@link ChannelConfig#setAutoRead(boolean)
+ * auto-read} while the active exchange has no outstanding demand and resumed once the exchange requests more messages. A slow consumer therefore applies TCP
+ * backpressure to the server instead of buffering responses on the heap.
+ * <p/>
+ * The conduit state is confined to the {@link EventLoop} of the channel and therefore requires no locking. Inbound signals must be emitted on the event loop.
+ * Registration and demand signals may be issued from any thread and are handed over to the event loop.
+ *
+ * @author Mark Paluch
+ */
+final class ResponseConduit {
+
+    private final Channel channel;
+
+    private final EventLoop eventLoop;
+
+    private final Queue<Exchange> pending = new ArrayDeque<>();
+
+    @Nullable
+    private FluxSink<Message> receiver;
+
+    // whether the last inbound message left a response incomplete
+    private boolean responseOpen;
+
+    private boolean readPaused;
+
+    private boolean terminated;
+
+    @Nullable
+    private Throwable error;
+
+    /**
+     * Creates a new {@link ResponseConduit}.
+     *
+     * @param channel the channel to control reading from.
+     */
+    ResponseConduit(Channel channel) {
+        this.channel = Assert.requireNonNull(channel, "Channel must not be null");
+        this.eventLoop = channel.eventLoop();
+    }
+
+    /**
+     * Register the {@link FluxSink} of a new exchange. The exchange is activated once all previously registered exchanges have completed their response.
+     *
+     * @param sink       the sink to emit response messages to.
+     * @param activation callback to send the requests of the exchange once the exchange gets activated.
+     */
+    void register(FluxSink<Message> sink, Runnable activation) {
+
+        Assert.requireNonNull(sink, "FluxSink must not be null");
+        Assert.requireNonNull(activation, "Activation must not be null");
+
+        sink.onRequest(ignore -> execute(this::updateReading));
+        sink.onDispose(() -> execute(() -> dispose(sink)));
+
+        execute(() -> {
+
+            if (this.terminated) {
+                terminate(sink);
+                return;
+            }
+
+            this.pending.add(new Exchange(sink, activation));
+            activateNext();
+            updateReading();
+        });
+    }
+
+    /**
+     * Route an inbound {@link Message} to the active exchange.
+     *
+     * @param message the inbound message.
+     */
+    void onNext(Message message) {
+
+        this.responseOpen = !AbstractDoneToken.isDone(message);
+
+        if (this.terminated || this.receiver == null || this.receiver.isCancelled()) {
+            ReferenceCountUtil.release(message);
+        } else {
+            this.receiver.next(message);
+        }
+
+        activateNext();
+        updateReading();
+    }
+
+    /**
+     * Terminate the conduit with an error. Propagates the error to the active exchange and to exchanges registered afterwards.
+     *
+     * @param throwable the error.
+     */
+    void onError(Throwable throwable) {
+        execute(() -> doTerminate(throwable));
+    }
+
+    /**
+     * Terminate the conduit. Completes the active exchange and exchanges registered afterwards.
+     */
+    void onComplete() {
+        execute(() -> doTerminate(null));
+    }
+
+    /**
+     * Returns whether reading from the channel is paused. Must be called on the event loop.
+     *
+     * @return {@code true} if reading is paused.
+     */
+    boolean isReadPaused() {
+        return this.readPaused;
+    }
+
+    private void execute(Runnable task) {
+
+        if (this.eventLoop.inEventLoop()) {
+            task.run();
+        } else {
+            this.eventLoop.execute(task);
+        }
+    }
+
+    private void doTerminate(@Nullable Throwable throwable) {
+
+        if (this.terminated) {
+            return;
+        }
+
+        this.terminated = true;
+        this.error = throwable;
+
+        FluxSink<Message> receiver = this.receiver;
+        this.receiver = null;
+
+        if (receiver != null) {
+            terminate(receiver);
+        }
+
+        Exchange exchange;
+        while ((exchange = this.pending.poll()) != null) {
+            terminate(exchange.sink);
+        }
+
+        updateReading();
+    }
+
+    private void dispose(FluxSink<Message> sink) {
+
+        if (this.receiver != sink) {
+            this.pending.removeIf(exchange -> exchange.sink == sink);
+            return;
+        }
+
+        this.receiver = null;
+        activateNext();
+        updateReading();
+    }
+
+    /**
+     * Activate the next pending exchange if there is no active exchange and the previous response is complete.
+     */
+    private void activateNext() {
+
+        if (this.terminated || this.responseOpen || (this.receiver != null && !this.receiver.isCancelled())) {
+            return;
+        }
+
+        this.receiver = null;
+
+        Exchange exchange;
+        while ((exchange = this.pending.poll()) != null) {
+
+            // exchanges cancelled before their activation have not sent any requests
+            if (exchange.sink.isCancelled()) {
+                continue;
+            }
+
+            this.receiver = exchange.sink;
+            exchange.activation.run();
+            return;
+        }
+    }
+
+    /**
+     * Pause reading if the active exchange has no outstanding demand, resume reading otherwise.
+     */
+    private void updateReading() {
+
+        boolean pause = !this.terminated && this.receiver != null && !this.receiver.isCancelled() && this.receiver.requestedFromDownstream() == 0;
+
+        if (this.readPaused != pause) {
+
+            this.readPaused = pause;
+            this.channel.config().setAutoRead(!pause);
+        }
+    }
+
+    private void terminate(FluxSink<Message> sink) {
+
+        if (this.error != null) {
+            sink.error(this.error);
+        } else {
+            sink.complete();
+        }
+    }
+
+    /**
+     * A registered exchange awaiting activation.
+     */
+    static class Exchange {
+
+        final FluxSink<Message> sink;
+
+        final Runnable activation;
+
+        Exchange(FluxSink<Message> sink, Runnable activation) {
+            this.sink = sink;
+            this.activation = activation;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql.client;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.r2dbc.mssql.message.Message;
+import io.r2dbc.mssql.message.header.Header;
+import io.r2dbc.mssql.message.header.Status;
+import io.r2dbc.mssql.util.Assert;
+import reactor.util.annotation.Nullable;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A TDS decoder that decodes {@link ByteBuf}s into {@link Message}s on the event loop.
+ * <p/>
+ * TDS messages consist of a header ({@link Header#LENGTH 8 byte length}) and a body. Messages can be either self-contained ({@link Status.StatusBit#EOM}) or chunked. Transport buffers are
+ * accumulated by the {@link ByteToMessageDecoder.Cumulator cumulator} until a packet is complete. Packet bodies are de-chunked into a {@link CompositeByteBuf} by adding them as
+ * retained slices without copying them. Adaptive decoding attempts to decode the de-chunked body after each packet as far as possible and emits each decoded {@link Message} individually.
+ * Remaining (undecoded) body data is retained until the next packet arrives.
+ * <p/>
+ * Messages are decoded using the {@link MessageDecoder} that is applicable for the current connection state. This decoder is stateful and must not be shared across channels.
+ *
+ * @author Mark Paluch
+ * @see Message
+ * @see Header
+ */
+final class TdsDecoder extends ByteToMessageDecoder {
+
+    private final Supplier<MessageDecoder> messageDecoder;
+
+    @Nullable
+    private Header header;
+
+    @Nullable
+    private CompositeByteBuf aggregatedBody;
+
+    /**
+     * Creates a new {@link TdsDecoder}.
+     *
+     * @param messageDecoder supplier for the {@link MessageDecoder} applicable for the current connection state.
+     */
+    TdsDecoder(Supplier<MessageDecoder> messageDecoder) {
+        this.messageDecoder = Assert.requireNonNull(messageDecoder, "MessageDecoder supplier must not be null");
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+
+        if (this.header == null) {
+
+            if (!Header.canDecode(in)) {
+                return;
+            }
+
+            this.header = Header.decode(in);
+        }
+
+        Header header = this.header;
+        int chunkLength = header.getLength() - Header.LENGTH;
+
+        if (in.readableBytes() < chunkLength) {
+            return;
+        }
+
+        CompositeByteBuf body = this.aggregatedBody;
+
+        if (body == null) {
+            body = this.aggregatedBody = ctx.alloc().compositeBuffer(Integer.MAX_VALUE);
+        }
+
+        body.addComponent(true, in.readRetainedSlice(chunkLength));
+        this.header = null;
+
+        MessageDecoder messageDecoder = this.messageDecoder.get();
+        Assert.requireNonNull(messageDecoder, "MessageDecoder must not be null");
+
+        int readerIndex = body.readerIndex();
+        List<? extends Message> messages = messageDecoder.apply(header, body);
+
+        if (messages.isEmpty()) {
+
+            // wait for the next packet to complete the message
+            body.readerIndex(readerIndex);
+            return;
+        }
+
+        out.addAll(messages);
+
+        // release consumed packets early
+        body.discardReadComponents();
+    }
+
+    @Override
+    protected void handlerRemoved0(ChannelHandlerContext ctx) {
+
+        if (this.aggregatedBody != null) {
+            this.aggregatedBody.release();
+            this.aggregatedBody = null;
+        }
+    }
+
+    /**
+     * @return the {@link Header} of the packet whose body is not yet entirely received, or {@code null} if no packet is pending.
+     */
+    @Nullable
+    Header getHeader() {
+        return this.header;
+    }
+
+    /**
+     * @return the number of bytes of the aggregated (de-chunked) body that are not yet decoded.
+     */
+    int getAggregatedBodyLength() {
+        return this.aggregatedBody != null ? this.aggregatedBody.readableBytes() : 0;
+    }
+}
@@ -76,15 +76,48 @@ abstract class AbstractNumericCodec<T> extends AbstractCodec<T> {
             return null;
         }
 
+        return this.converter.apply(readLong(buffer, length));
+    }
+
+    /**
+     * Determine whether values of {@link TypeInformation} can be decoded as {@code long} without boxing.
+     *
+     * @param typeInformation the type information.
+     * @return {@literal true} if the server type is an integer number type.
+     */
+    static boolean canDecodeLong(TypeInformation typeInformation) {
+        return SUPPORTED_TYPES.contains(typeInformation.getServerType());
+    }
+
+    /**
+     * Decode an integer number value as {@code long} without boxing.
+     *
+     * @param buffer          the data buffer.
+     * @param typeInformation the type information.
+     * @return the decoded value or {@literal 0} if the value is {@code null}.
+     */
+    static long decodeLong(ByteBuf buffer, TypeInformation typeInformation) {
+
+        Length length = Length.decode(buffer, typeInformation);
+
+        if (length.isNull()) {
+            return 0;
+        }
+
+        return readLong(buffer, length);
+    }
+
+    private static long readLong(ByteBuf buffer, Length length) {
+
         switch (length.getLength()) {
             case SIZE_BIGINT:
-                return this.converter.apply(Decode.bigint(buffer));
+                return Decode.bigint(buffer);
             case SIZE_INT:
-                return this.converter.apply(Decode.asInt(buffer));
+                return Decode.asInt(buffer);
             case SIZE_SMALL_INT:
-                return this.converter.apply(Decode.smallInt(buffer));
+                return Decode.smallInt(buffer);
             case SIZE_TINY_INT:
-                return this.converter.apply(Decode.tinyInt(buffer));
+                return Decode.tinyInt(buffer);
             default:
                 throw ProtocolException.invalidTds(String.format("Unexpected value length: %d", length.getLength()));
         }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.r2dbc.mssql.message.tds.Encode;
+import io.r2dbc.mssql.message.type.Length;
+import io.r2dbc.mssql.message.type.SqlServerType;
+import io.r2dbc.mssql.message.type.TdsDataType;
+import io.r2dbc.mssql.message.type.TypeInformation;
+import io.r2dbc.mssql.message.type.TypeUtils;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Codec for binary values that are represented as {@code byte[]}. Values are encoded as {@literal VARBINARY(8000)} or as {@literal VARBINARY(MAX)} if
+ * they exceed 8000 bytes. Encoding wraps the value without copying it.
+ *
+ * <ul>
+ * <li>Server types: (VAR)BINARY, VARBINARY(MAX), {@link SqlServerType#IMAGE}, {@link SqlServerType#TIMESTAMP} (8-byte)</li>
+ * <li>Java type: {@code byte[]}</li>
+ * <li>Downcast: none</li>
+ * </ul>
+ *
+ * @author Mark Paluch
+ */
+final class BinaryCodec extends AbstractCodec<byte[]> {
+
+    /**
+     * Singleton instance.
+     */
+    static final BinaryCodec INSTANCE = new BinaryCodec();
+
+    static final Set<SqlServerType> SUPPORTED_TYPES = EnumSet.of(SqlServerType.BINARY, SqlServerType.VARBINARY, SqlServerType.VARBINARYMAX,
+        SqlServerType.IMAGE, SqlServerType.TIMESTAMP);
+
+    private BinaryCodec() {
+        super(byte[].class);
+    }
+
+    @Override
+    Encoded doEncode(ByteBufAllocator allocator, RpcParameterContext context, byte[] value) {
+        return encodeBinary(allocator, Unpooled.wrappedBuffer(value));
+    }
+
+    @Override
+    Encoded doEncodeNull(ByteBufAllocator allocator) {
+
+        ByteBuf buffer = allocator.buffer(4);
+
+        Encode.uShort(buffer, TypeUtils.SHORT_VARTYPE_MAX_BYTES);
+        Encode.uShort(buffer, Length.USHORT_NULL);
+
+        return new VarbinaryEncoded(buffer);
+    }
+
+    @Override
+    boolean doCanDecode(TypeInformation typeInformation) {
+        return SUPPORTED_TYPES.contains(typeInformation.getServerType());
+    }
+
+    @Override
+    byte[] doDecode(ByteBuf buffer, Length length, TypeInformation type, Class<? extends byte[]> valueType) {
+
+        if (length.isNull()) {
+            return null;
+        }
+
+        return ChunkedValue.readBytes(buffer, length, type);
+    }
+
+    /**
+     * Encode a binary value. Values up to 8000 bytes are encoded as {@literal VARBINARY(8000)}, larger values are encoded as {@literal VARBINARY(MAX)}
+     * using a single PLP chunk. The resulting {@link Encoded} value is composed of the length descriptor and {@code value} without copying
+     * {@code value}.
+     *
+     * @param allocator the allocator to allocate encoding buffers.
+     * @param value     the value to encode. Ownership of {@code value} is transferred to the {@link Encoded} value.
+     * @return the encoded value.
+     */
+    static Encoded encodeBinary(ByteBufAllocator allocator, ByteBuf value) {
+
+        int length = value.readableBytes();
+
+        if (length <= TypeUtils.SHORT_VARTYPE_MAX_BYTES) {
+
+            ByteBuf header = allocator.buffer(4);
+
+            Encode.uShort(header, TypeUtils.SHORT_VARTYPE_MAX_BYTES);
+            Encode.uShort(header, length);
+
+            return new VarbinaryEncoded(Unpooled.wrappedBuffer(header, value));
+        }
+
+        ByteBuf header = allocator.buffer(14);
+
+        Encode.uShort(header, 0xFFFF); // max-len indicator for PLP types
+        Encode.uLongLong(header, length);
+        Encode.dword(header, length); // single chunk
+
+        ByteBuf terminator = allocator.buffer(4);
+        Encode.dword(terminator, 0);
+
+        return new RpcEncoding.MaxTypeEncoded(TdsDataType.BIGVARBINARY, SqlServerType.VARBINARYMAX, Unpooled.wrappedBuffer(header, value, terminator));
+    }
+
+    /**
+     * Extension to {@link RpcEncoding.HintedEncoded} for {@literal VARBINARY(8000)}.
+     */
+    static class VarbinaryEncoded extends RpcEncoding.HintedEncoded {
+
+        private static final String FORMAL_TYPE = SqlServerType.VARBINARY + "(" + TypeUtils.SHORT_VARTYPE_MAX_BYTES + ")";
+
+        VarbinaryEncoded(ByteBuf value) {
+            super(TdsDataType.BIGVARBINARY, SqlServerType.VARBINARY, value);
+        }
+
+        @Override
+        public String getFormalType() {
+            return FORMAL_TYPE;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.r2dbc.mssql.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.r2dbc.mssql.message.type.Length;
+import io.r2dbc.mssql.message.type.SqlServerType;
+import io.r2dbc.mssql.message.type.TdsDataType;
+import io.r2dbc.mssql.message.type.TypeInformation;
+import io.r2dbc.mssql.util.Assert;
+import io.r2dbc.spi.Blob;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Codec for binary values that are represented as {@link Blob}. Emits the value in chunks as they were received from the server. Decoding does not stream
+ * from the connection: the row token is decoded only once the entire row including the complete PLP value is buffered and the {@link Blob} shares
+ * the received packet buffers without copying them. Reading a value as {@link Blob} therefore requires memory for the entire value. {@link Blob} values
+ * must be either consumed or discarded to release the underlying data buffer. {@link Blob} parameters are encoded as {@literal VARBINARY(MAX)} and
+ * streamed to the server using PLP chunks without materializing the value, see {@link PlpEncoded}.
+ *
+ * <ul>
+ * <li>Server types: (VAR)BINARY, VARBINARY(MAX), {@link SqlServerType#IMAGE}</li>
+ * <li>Java type: {@link Blob}</li>
+ * </ul>
+ *
+ * @author Mark Paluch
+ */
+final class BlobCodec extends AbstractCodec<Blob> {
+
+    /**
+     * Singleton instance.
+     */
+    public static final BlobCodec INSTANCE = new BlobCodec();
+
+    private static final Set<SqlServerType> SUPPORTED_TYPES = EnumSet.of(SqlServerType.BINARY, SqlServerType.VARBINARY, SqlServerType.VARBINARYMAX,
+        SqlServerType.IMAGE);
+
+    private BlobCodec() {
+        super(Blob.class);
+    }
+
+    @Override
+    Encoded doEncode(ByteBufAllocator allocator, RpcParameterContext context, Blob value) {
+
+        Assert.isTrue(context.isIn(), "Blob values can be used only as input parameters");
+
+        return PlpEncoded.create(allocator, TdsDataType.BIGVARBINARY, SqlServerType.VARBINARYMAX, null,
+            Flux.from(value.stream()).map(buffer -> Unpooled.wrappedBuffer(buffer)));
+    }
+
+    @Override
+    Encoded doEncodeNull(ByteBufAllocator allocator) {
+        return RpcEncoding.encodePlpNull(allocator, TdsDataType.BIGVARBINARY, SqlServerType.VARBINARYMAX, null);
+    }
+
+    @Override
+    boolean doCanDecode(TypeInformation typeInformation) {
+        return SUPPORTED_TYPES.contains(typeInformation.getServerType());
+    }
+
+    @Nullable
+    @Override
+    Blob doDecode(ByteBuf buffer, Length length, TypeInformation type, Class<? extends Blob> valueType) {
+
+        if (length.isNull()) {
+            return null;
+        }
+
+        return new ScalarBlob(ChunkedValue.create(buffer, length, type));
+    }
+
+    /**
+     * {@link Blob} backed by a {@link ChunkedValue}.
+     */
+    static class ScalarBlob implements Blob {
+
+        private final ChunkedValue value;
+
+        ScalarBlob(ChunkedValue value) {
+            this.value = value;
+        }
+
+        @Override
+        public Publisher<ByteBuffer> stream() {
+
+            return this.value.chunks().map(chunk -> {
+
+                ByteBuffer buffer = ByteBuffer.allocate(chunk.readableBytes());
+                chunk.readBytes(buffer);
+                buffer.flip();
+
+                return buffer;
+            });
+        }
+
+        @Override
+        public Publisher<Void> discard() {
+            return Mono.fromRunnable(this.value::discard);
+        }
+
+        @Override
+        public String toString() {
+            final StringBuffer sb = new StringBuffer();
+            sb.append(getClass().getSimpleName());
+            sb.append(" [value=").append(this.value);
+            sb.append(']');
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.r2dbc.mssql.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.r2dbc.mssql.message.type.Length;
+import io.r2dbc.mssql.message.type.LengthStrategy;
+import io.r2dbc.mssql.message.type.SqlServerType;
+import io.r2dbc.mssql.message.type.TypeInformation;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Codec for binary values that are represented as {@link ByteBuffer}. Values are encoded as {@literal VARBINARY(8000)} or as {@literal VARBINARY(MAX)} if
+ * they exceed 8000 bytes. Encoding wraps the remaining content of the {@link ByteBuffer} without copying it or changing its position.
+ * <p/>
+ * Decoding returns a read-only view of the row data without copying it. The view is valid only until the row gets released, i.e. it must not be
+ * used outside of the row mapping function. Values that are transferred in chunks ({@literal VARBINARY(MAX)}) are aggregated into a new
+ * {@link ByteBuffer}.
+ *
+ * <ul>
+ * <li>Server types: (VAR)BINARY, VARBINARY(MAX), {@link SqlServerType#IMAGE}, {@link SqlServerType#TIMESTAMP} (8-byte)</li>
+ * <li>Java type: {@link ByteBuffer}</li>
+ * <li>Downcast: none</li>
+ * </ul>
+ *
+ * @author Mark Paluch
+ */
+final class ByteBufferCodec extends AbstractCodec<ByteBuffer> {
+
+    /**
+     * Singleton instance.
+     */
+    static final ByteBufferCodec INSTANCE = new ByteBufferCodec();
+
+    private ByteBufferCodec() {
+        super(ByteBuffer.class);
+    }
+
+    @Override
+    Encoded doEncode(ByteBufAllocator allocator, RpcParameterContext context, ByteBuffer value) {
+        return BinaryCodec.encodeBinary(allocator, Unpooled.wrappedBuffer(value));
+    }
+
+    @Override
+    Encoded doEncodeNull(ByteBufAllocator allocator) {
+        return BinaryCodec.INSTANCE.doEncodeNull(allocator);
+    }
+
+    @Override
+    boolean doCanDecode(TypeInformation typeInformation) {
+        return BinaryCodec.SUPPORTED_TYPES.contains(typeInformation.getServerType());
+    }
+
+    @Override
+    ByteBuffer doDecode(ByteBuf buffer, Length length, TypeInformation type, Class<? extends ByteBuffer> valueType) {
+
+        if (length.isNull()) {
+            return null;
+        }
+
+        if (type.getLengthStrategy() == LengthStrategy.PARTLENTYPE) {
+            return ByteBuffer.wrap(ChunkedValue.readBytes(buffer, length, type));
+        }
+
+        ByteBuffer value = buffer.nioBuffer(buffer.readerIndex(), length.getLength()).asReadOnlyBuffer();
+        buffer.skipBytes(length.getLength());
+
+        return value;
+    }
+}
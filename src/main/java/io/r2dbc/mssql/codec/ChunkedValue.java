@@ -0,0 +1,191 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.r2dbc.mssql.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.r2dbc.mssql.message.type.Length;
+import io.r2dbc.mssql.message.type.LengthStrategy;
+import io.r2dbc.mssql.message.type.TypeInformation;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Column value that is consumed in chunks. PLP ({@link LengthStrategy#PARTLENTYPE partially length-prefixed}) values are transferred as a sequence of
+ * length-prefixed chunks that is terminated by an empty chunk. Values using other length strategies are represented as a single chunk.
+ * <p/>
+ * {@link ChunkedValue} retains the underlying data buffer until the chunks are {@link #chunks() consumed} or the value is {@link #discard() discarded}.
+ * Chunks can be consumed only once.
+ *
+ * @author Mark Paluch
+ */
+final class ChunkedValue {
+
+    private static final AtomicIntegerFieldUpdater<ChunkedValue> STATE = AtomicIntegerFieldUpdater.newUpdater(ChunkedValue.class, "state");
+
+    private static final int STATE_NEW = 0;
+
+    private static final int STATE_CONSUMING = 1;
+
+    private static final int STATE_RELEASED = 2;
+
+    private final ByteBuf buffer;
+
+    private final boolean plp;
+
+    // see STATE
+    @SuppressWarnings("unused")
+    private volatile int state = STATE_NEW;
+
+    private ChunkedValue(ByteBuf buffer, boolean plp) {
+        this.buffer = buffer;
+        this.plp = plp;
+    }
+
+    /**
+     * Create a {@link ChunkedValue} from the column data. Retains the value bytes of {@code buffer} and advances its reader index past the value.
+     *
+     * @param buffer the data buffer positioned after the length descriptor.
+     * @param length the decoded {@link Length}. Must not represent a {@code null} value.
+     * @param type   the type descriptor.
+     * @return the {@link ChunkedValue}.
+     */
+    static ChunkedValue create(ByteBuf buffer, Length length, TypeInformation type) {
+
+        if (isPlp(type)) {
+
+            // skip total length, chunks carry their own length
+            ByteBuf chunks = buffer.retainedSlice(buffer.readerIndex() + 8, length.getLength() - 8);
+            buffer.skipBytes(length.getLength());
+
+            return new ChunkedValue(chunks, true);
+        }
+
+        return new ChunkedValue(buffer.readRetainedSlice(length.getLength()), false);
+    }
+
+    /**
+     * Read the entire value into a {@code byte} array. Advances the reader index of {@code buffer} past the value.
+     *
+     * @param buffer the data buffer positioned after the length descriptor.
+     * @param length the decoded {@link Length}. Must not represent a {@code null} value.
+     * @param type   the type descriptor.
+     * @return the value bytes.
+     */
+    static byte[] readBytes(ByteBuf buffer, Length length, TypeInformation type) {
+
+        if (!isPlp(type)) {
+
+            byte[] bytes = new byte[length.getLength()];
+            buffer.readBytes(bytes);
+
+            return bytes;
+        }
+
+        int valueLength = 0;
+        int index = buffer.readerIndex() + 8; // skip total length, it can be unknown
+
+        for (int chunkLength = buffer.getIntLE(index); chunkLength != 0; chunkLength = buffer.getIntLE(index)) {
+            valueLength += chunkLength;
+            index += 4 + chunkLength;
+        }
+
+        byte[] bytes = new byte[valueLength];
+        int offset = 0;
+
+        buffer.skipBytes(8);
+
+        for (int chunkLength = buffer.readIntLE(); chunkLength != 0; chunkLength = buffer.readIntLE()) {
+
+            buffer.readBytes(bytes, offset, chunkLength);
+            offset += chunkLength;
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Returns the value chunks. Chunk buffers are valid until the {@link Flux} terminates and must not be retained by the consumer. Releases the underlying
+     * data buffer upon termination or cancellation.
+     *
+     * @return the value chunks.
+     */
+    Flux<ByteBuf> chunks() {
+
+        return Flux.defer(() -> {
+
+            if (!STATE.compareAndSet(this, STATE_NEW, STATE_CONSUMING)) {
+                return Flux.error(new IllegalStateException("Value was already consumed or discarded"));
+            }
+
+            return Flux.<ByteBuf, ByteBuf>generate(this.buffer::duplicate, (data, sink) -> {
+
+                if (!data.isReadable()) {
+                    sink.complete();
+                    return data;
+                }
+
+                if (!this.plp) {
+                    sink.next(data.readSlice(data.readableBytes()));
+                    return data;
+                }
+
+                int chunkLength = data.readIntLE();
+
+                if (chunkLength == 0) {
+                    sink.complete();
+                } else {
+                    sink.next(data.readSlice(chunkLength));
+                }
+
+                return data;
+            }, data -> release());
+        });
+    }
+
+    /**
+     * Discard the value if it was not consumed yet.
+     */
+    void discard() {
+
+        if (STATE.compareAndSet(this, STATE_NEW, STATE_RELEASED)) {
+            this.buffer.release();
+        }
+    }
+
+    private void release() {
+
+        if (STATE.compareAndSet(this, STATE_CONSUMING, STATE_RELEASED)) {
+            this.buffer.release();
+        }
+    }
+
+    private static boolean isPlp(TypeInformation type) {
+        return type.getLengthStrategy() == LengthStrategy.PARTLENTYPE;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuffer sb = new StringBuffer();
+        sb.append(getClass().getSimpleName());
+        sb.append(" [plp=").append(this.plp);
+        sb.append(", state=").append(this.state);
+        sb.append(']');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.r2dbc.mssql.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.r2dbc.mssql.message.type.Collation;
+import io.r2dbc.mssql.message.type.Length;
+import io.r2dbc.mssql.message.type.SqlServerType;
+import io.r2dbc.mssql.message.type.TdsDataType;
+import io.r2dbc.mssql.message.type.TypeInformation;
+import io.r2dbc.mssql.util.Assert;
+import io.r2dbc.spi.Clob;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Codec for character values that are represented as {@link Clob}. Emits the value in chunks as they were received from the server and decodes each
+ * chunk individually. Decoding does not stream from the connection: the row token is decoded only once the entire row including the complete PLP value is
+ * buffered and the {@link Clob} shares the received packet buffers without copying them. Reading a value as {@link Clob} therefore requires memory
+ * for the entire value. {@link Clob} values must be either consumed or discarded to release the underlying data buffer. {@link Clob} parameters are
+ * encoded as {@literal NVARCHAR(MAX)} and streamed to the server using PLP chunks without materializing the value, see {@link PlpEncoded}.
+ *
+ * <ul>
+ * <li>Server types: (N)(VAR)CHAR, (N)VARCHAR(MAX), (N)TEXT</li>
+ * <li>Java type: {@link Clob}</li>
+ * </ul>
+ *
+ * @author Mark Paluch
+ */
+final class ClobCodec extends AbstractCodec<Clob> {
+
+    /**
+     * Singleton instance.
+     */
+    public static final ClobCodec INSTANCE = new ClobCodec();
+
+    private static final Set<SqlServerType> SUPPORTED_TYPES = EnumSet.of(SqlServerType.CHAR, SqlServerType.NCHAR, SqlServerType.VARCHAR, SqlServerType.NVARCHAR,
+        SqlServerType.VARCHARMAX, SqlServerType.NVARCHARMAX, SqlServerType.TEXT, SqlServerType.NTEXT);
+
+    private ClobCodec() {
+        super(Clob.class);
+    }
+
+    @Override
+    Encoded doEncode(ByteBufAllocator allocator, RpcParameterContext context, Clob value) {
+
+        Assert.isTrue(context.isIn(), "Clob values can be used only as input parameters");
+
+        Collation collation = context.getCollation() != null ? context.getCollation() : Collation.RAW;
+
+        return PlpEncoded.create(allocator, TdsDataType.NVARCHAR, SqlServerType.NVARCHARMAX, collation,
+            Flux.from(value.stream()).map(chars -> encodeChunk(allocator, chars)));
+    }
+
+    /**
+     * Encode characters using UTF-16LE. Encodes each {@code char} individually so surrogate pairs that span across chunk boundaries remain intact.
+     */
+    private static ByteBuf encodeChunk(ByteBufAllocator allocator, CharSequence chars) {
+
+        ByteBuf buffer = allocator.buffer(chars.length() * 2);
+
+        for (int i = 0; i < chars.length(); i++) {
+            buffer.writeShortLE(chars.charAt(i));
+        }
+
+        return buffer;
+    }
+
+    @Override
+    Encoded doEncodeNull(ByteBufAllocator allocator) {
+        return RpcEncoding.encodePlpNull(allocator, TdsDataType.NVARCHAR, SqlServerType.NVARCHARMAX, Collation.RAW);
+    }
+
+    @Override
+    boolean doCanDecode(TypeInformation typeInformation) {
+        return SUPPORTED_TYPES.contains(typeInformation.getServerType());
+    }
+
+    @Nullable
+    @Override
+    Clob doDecode(ByteBuf buffer, Length length, TypeInformation type, Class<? extends Clob> valueType) {
+
+        if (length.isNull()) {
+            return null;
+        }
+
+        return new ScalarClob(ChunkedValue.create(buffer, length, type), type.getCharset());
+    }
+
+    /**
+     * {@link Clob} backed by a {@link ChunkedValue}.
+     */
+    static class ScalarClob implements Clob {
+
+        private final ChunkedValue value;
+
+        private final Charset charset;
+
+        ScalarClob(ChunkedValue value, Charset charset) {
+            this.value = value;
+            this.charset = charset;
+        }
+
+        @Override
+        public Publisher<CharSequence> stream() {
+
+            return Flux.defer(() -> {
+
+                ChunkDecoder decoder = new ChunkDecoder(this.charset);
+
+                return this.value.chunks().<CharSequence>handle((chunk, sink) -> {
+
+                    CharSequence chars = decoder.decode(chunk);
+
+                    if (chars.length() != 0) {
+                        sink.next(chars);
+                    }
+                }).concatWith(Mono.fromSupplier(decoder::flush).filter(chars -> chars.length() != 0));
+            });
+        }
+
+        @Override
+        public Publisher<Void> discard() {
+            return Mono.fromRunnable(this.value::discard);
+        }
+
+        @Override
+        public String toString() {
+            final StringBuffer sb = new StringBuffer();
+            sb.append(getClass().getSimpleName());
+            sb.append(" [value=").append(this.value);
+            sb.append(", charset=").append(this.charset);
+            sb.append(']');
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Stateful decoder that decodes chunks into characters. Retains incomplete character sequences that span across chunk boundaries until the next
+     * chunk is decoded.
+     */
+    static class ChunkDecoder {
+
+        private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+        private final CharsetDecoder decoder;
+
+        private ByteBuffer remainder = EMPTY;
+
+        ChunkDecoder(Charset charset) {
+            this.decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+
+        /**
+         * Decode a chunk.
+         *
+         * @param chunk the chunk to decode.
+         * @return the decoded characters. Can be empty if the chunk does not contain a complete character.
+         */
+        CharSequence decode(ByteBuf chunk) {
+
+            ByteBuffer in;
+
+            if (this.remainder.hasRemaining()) {
+
+                in = ByteBuffer.allocate(this.remainder.remaining() + chunk.readableBytes());
+                in.put(this.remainder);
+                chunk.readBytes(in);
+                in.flip();
+            } else {
+                in = chunk.nioBuffer();
+            }
+
+            CharBuffer out = decode(in, false);
+
+            if (in.hasRemaining()) {
+
+                this.remainder = ByteBuffer.allocate(in.remaining());
+                this.remainder.put(in);
+                this.remainder.flip();
+            } else {
+                this.remainder = EMPTY;
+            }
+
+            return out;
+        }
+
+        /**
+         * Decode remaining bytes at the end of the input.
+         *
+         * @return the decoded characters. Can be empty.
+         */
+        CharSequence flush() {
+
+            CharBuffer out = decode(this.remainder, true);
+            this.remainder = EMPTY;
+
+            return out;
+        }
+
+        private CharBuffer decode(ByteBuffer in, boolean endOfInput) {
+
+            CharBuffer out = CharBuffer.allocate((int) (in.remaining() * this.decoder.averageCharsPerByte()) + 1);
+
+            while (this.decoder.decode(in, out, endOfInput).isOverflow()) {
+                out = grow(out);
+            }
+
+            if (endOfInput) {
+                while (this.decoder.flush(out).isOverflow()) {
+                    out = grow(out);
+                }
+            }
+
+            out.flip();
+            return out;
+        }
+
+        private static CharBuffer grow(CharBuffer buffer) {
+
+            CharBuffer grown = CharBuffer.allocate(buffer.capacity() * 2 + 1);
+            buffer.flip();
+            grown.put(buffer);
+
+            return grown;
+        }
+    }
+}
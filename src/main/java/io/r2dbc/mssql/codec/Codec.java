@@ -34,7 +34,7 @@ import reactor.util.annotation.Nullable;
  * @see TypeInformation
  * @see SqlServerType
  */
-interface Codec<T> {
+interface Codec<T> extends Decoder<T> {
 
     /**
      * Determine whether this {@link Codec} is capable of encoding the {@code value}.
@@ -91,6 +91,7 @@ interface Codec<T> {
      * @return the decoded value. Can be {@code null} if the value is {@code null}.
      */
     @Nullable
+    @Override
     T decode(@Nullable ByteBuf buffer, Decodable decodable, Class<? extends T> type);
 
     /**
@@ -66,6 +66,75 @@ public interface Codecs {
     @Nullable
     <T> T decode(@Nullable ByteBuf buffer, Decodable decodable, Class<? extends T> type);
 
+    /**
+     * Resolve the {@link Decoder} to decode values described by {@link Decodable} into {@code type}. The resolved {@link Decoder} can be retained to
+     * decode subsequent values of the same {@link Decodable} without looking up the codec again. The default implementation returns a {@link Decoder}
+     * that delegates to {@link #decode(ByteBuf, Decodable, Class)}.
+     *
+     * @param decodable the decodable metadata.
+     * @param type      the type to decode to.
+     * @param <T>       the type of item being returned.
+     * @return the {@link Decoder}.
+     * @throws IllegalArgumentException if no codec is able to decode {@code decodable} into {@code type}.
+     */
+    default <T> Decoder<T> getDecoder(Decodable decodable, Class<? extends T> type) {
+        return this::decode;
+    }
+
+    /**
+     * Decode an integer number value ({@literal bit}, {@literal tinyint}, {@literal smallint}, {@literal int}, {@literal bigint}) without boxing. The
+     * default implementation decodes the value to its {@link #getJavaType(TypeInformation) Java type} and converts the boxed value.
+     *
+     * @param buffer    the {@link ByteBuf} to decode.
+     * @param decodable the decodable metadata.
+     * @return the decoded value or {@literal 0} if the value is {@code null}.
+     * @throws IllegalArgumentException if {@code decodable} does not describe an integer number type.
+     */
+    default long decodeLong(@Nullable ByteBuf buffer, Decodable decodable) {
+
+        Class<?> javaType = getJavaType(decodable.getType());
+
+        if (javaType != Boolean.class && javaType != Byte.class && javaType != Short.class && javaType != Integer.class && javaType != Long.class) {
+            throw new IllegalArgumentException(String.format("Cannot decode value of name [%s] server type [%s] as long", decodable.getName(),
+                decodable.getType().getServerType()));
+        }
+
+        Object value = decode(buffer, decodable, javaType);
+
+        if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        }
+
+        return value == null ? 0 : ((Number) value).longValue();
+    }
+
+    /**
+     * Decode a floating point ({@literal float}, {@literal real}) or integer number value without boxing. The default implementation decodes the value
+     * to its {@link #getJavaType(TypeInformation) Java type} and converts the boxed value.
+     *
+     * @param buffer    the {@link ByteBuf} to decode.
+     * @param decodable the decodable metadata.
+     * @return the decoded value or {@literal 0} if the value is {@code null}.
+     * @throws IllegalArgumentException if {@code decodable} does not describe a floating point or integer number type.
+     */
+    default double decodeDouble(@Nullable ByteBuf buffer, Decodable decodable) {
+
+        Class<?> javaType = getJavaType(decodable.getType());
+
+        if (javaType == Float.class || javaType == Double.class) {
+
+            Object value = decode(buffer, decodable, javaType);
+            return value == null ? 0 : ((Number) value).doubleValue();
+        }
+
+        if (javaType != Boolean.class && javaType != Byte.class && javaType != Short.class && javaType != Integer.class && javaType != Long.class) {
+            throw new IllegalArgumentException(String.format("Cannot decode value of name [%s] server type [%s] as double", decodable.getName(),
+                decodable.getType().getServerType()));
+        }
+
+        return decodeLong(buffer, decodable);
+    }
+
     /**
      * Returns the Java {@link Class type} to which this {@link TypeInformation type descriptor} decodes to. The resulting type is considered the native type for the {@link TypeInformation type
      * descriptor}.
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.r2dbc.mssql.message.tds.Encode;
+import io.r2dbc.mssql.message.type.LengthStrategy;
+import io.r2dbc.mssql.message.type.TdsDataType;
+import io.r2dbc.mssql.message.type.TypeInformation;
+import io.r2dbc.mssql.util.Assert;
+import reactor.util.annotation.Nullable;
+
+/**
+ * Column type derived from an {@link Encoded} value. {@link Encoded} values carry their type information ({@literal TYPE_INFO}) followed by the actual
+ * value. Row-oriented streams such as bulk load and table-valued parameters declare the type information once in their column metadata and expect
+ * row values without type information. {@link ColumnTemplate} retains the type information of the template value to encode column metadata and to
+ * encode values of the same type without their type information.
+ *
+ * @author Mark Paluch
+ */
+public final class ColumnTemplate {
+
+    private final TdsDataType dataType;
+
+    private final LengthStrategy lengthStrategy;
+
+    private final String formalType;
+
+    private final ByteBuf typeInfo;
+
+    private ColumnTemplate(TdsDataType dataType, LengthStrategy lengthStrategy, String formalType, ByteBuf typeInfo) {
+        this.dataType = dataType;
+        this.lengthStrategy = lengthStrategy;
+        this.formalType = formalType;
+        this.typeInfo = typeInfo;
+    }
+
+    /**
+     * Create a {@link ColumnTemplate} from an {@link Encoded} value. The template value remains unchanged.
+     *
+     * @param template the value to derive the column type from.
+     * @return the {@link ColumnTemplate}.
+     * @throws IllegalArgumentException when {@code template} is {@code null} or a {@link PlpEncoded streamed value}.
+     */
+    public static ColumnTemplate create(Encoded template) {
+
+        Assert.requireNonNull(template, "Template must not be null");
+        Assert.isTrue(!(template instanceof PlpEncoded), "Streamed values cannot be used as column values");
+
+        ByteBuf value = template.getValue();
+
+        // Prefix the value with user type and the type identifier to determine the length of the type information.
+        ByteBuf buffer = Unpooled.buffer(5 + value.readableBytes());
+        buffer.writeInt(0);
+        buffer.writeByte(template.getDataType().getValue());
+        buffer.writeBytes(value, value.readerIndex(), value.readableBytes());
+
+        TypeInformation type = TypeInformation.decode(buffer, false);
+        int typeInfoLength = buffer.readerIndex() - 5;
+
+        ByteBuf typeInfo = Unpooled.copiedBuffer(value.slice(value.readerIndex(), typeInfoLength));
+
+        return new ColumnTemplate(template.getDataType(), type.getLengthStrategy(), template.getFormalType(), typeInfo);
+    }
+
+    /**
+     * Encode the type information ({@literal TYPE_INFO}) consisting of the data type and its type-specific details such as length, precision, or
+     * collation.
+     *
+     * @param buffer the data buffer.
+     */
+    public void encodeTypeInfo(ByteBuf buffer) {
+
+        Encode.asByte(buffer, this.dataType.getValue());
+        buffer.writeBytes(this.typeInfo, this.typeInfo.readerIndex(), this.typeInfo.readableBytes());
+    }
+
+    /**
+     * Encode a value without its type information. {@code null} values are encoded according to the column type.
+     *
+     * @param buffer  the data buffer.
+     * @param encoded the value to encode, can be {@code null}. Remains unchanged.
+     * @throws IllegalArgumentException if the value type does not match the column type, the value is a {@link PlpEncoded streamed value}, or the column
+     *                                  type does not accept {@code null} values.
+     */
+    public void encodeValue(ByteBuf buffer, @Nullable Encoded encoded) {
+
+        if (encoded == null) {
+            encodeNull(buffer);
+            return;
+        }
+
+        Assert.isTrue(!(encoded instanceof PlpEncoded), "Streamed values cannot be used as column values");
+
+        ByteBuf value = encoded.getValue();
+        int typeInfoLength = this.typeInfo.readableBytes();
+
+        if (encoded.getDataType() != this.dataType || value.readableBytes() < typeInfoLength
+            || !ByteBufUtil.equals(value, value.readerIndex(), this.typeInfo, this.typeInfo.readerIndex(), typeInfoLength)) {
+            throw new IllegalArgumentException(String.format("Value of type [%s] does not match the column type [%s]", encoded.getFormalType(), this.formalType));
+        }
+
+        buffer.writeBytes(value, value.readerIndex() + typeInfoLength, value.readableBytes() - typeInfoLength);
+    }
+
+    private void encodeNull(ByteBuf buffer) {
+
+        switch (this.lengthStrategy) {
+
+            case BYTELENTYPE:
+            case LONGLENTYPE:
+                Encode.asByte(buffer, 0);
+                return;
+
+            case USHORTLENTYPE:
+                Encode.uShort(buffer, 0xFFFF);
+                return;
+
+            case PARTLENTYPE:
+                Encode.uLongLong(buffer, -1);
+                return;
+
+            default:
+                throw new IllegalArgumentException(String.format("Column type [%s] does not accept null values", this.formalType));
+        }
+    }
+
+    public TdsDataType getDataType() {
+        return this.dataType;
+    }
+
+    /**
+     * Returns the formal type such as {@literal int} or {@literal nvarchar(4000)}.
+     *
+     * @return the formal type.
+     */
+    public String getFormalType() {
+        return this.formalType;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuffer sb = new StringBuffer();
+        sb.append(getClass().getSimpleName());
+        sb.append(" [formalType=\"").append(this.formalType).append('\"');
+        sb.append(']');
+        return sb.toString();
+    }
+}
@@ -118,6 +118,9 @@ final class DecimalCodec extends AbstractCodec<BigDecimal> {
 
     static class DecimalEncoded extends RpcEncoding.HintedEncoded {
 
+        // formal types indexed by length and scale, populated lazily. Racing threads compute equal values.
+        private static final String[][] FORMAL_TYPES = new String[MAX_PRECISION + 1][MAX_PRECISION + 1];
+
         private final int length;
 
         private final int scale;
@@ -130,7 +133,19 @@ final class DecimalCodec extends AbstractCodec<BigDecimal> {
 
         @Override
         public String getFormalType() {
-            return super.getFormalType() + "(" + this.length + "," + this.scale + ")";
+
+            if (this.length < 0 || this.length > MAX_PRECISION || this.scale < 0 || this.scale > MAX_PRECISION) {
+                return super.getFormalType() + "(" + this.length + "," + this.scale + ")";
+            }
+
+            String formalType = FORMAL_TYPES[this.length][this.scale];
+
+            if (formalType == null) {
+                formalType = super.getFormalType() + "(" + this.length + "," + this.scale + ")";
+                FORMAL_TYPES[this.length][this.scale] = formalType;
+            }
+
+            return formalType;
         }
     }
 }
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql.codec;
+
+import io.netty.buffer.ByteBuf;
+import reactor.util.annotation.Nullable;
+
+/**
+ * Decoder for values of a specific {@link Decodable}. Decoders are resolved through {@link Codecs#getDecoder(Decodable, Class)} and can be retained to
+ * decode subsequent values of the same {@link Decodable}, such as values of a column across the rows of a result.
+ *
+ * @param <T> the type that is handled by this decoder.
+ * @author Mark Paluch
+ * @see Codecs#getDecoder(Decodable, Class)
+ */
+public interface Decoder<T> {
+
+    /**
+     * Decode the {@link ByteBuf data} and return it as the requested {@link Class type}.
+     *
+     * @param buffer    the data buffer.
+     * @param decodable the decodable descriptor.
+     * @param type      the desired value type.
+     * @return the decoded value. Can be {@code null} if the value is {@code null}.
+     */
+    @Nullable
+    T decode(@Nullable ByteBuf buffer, Decodable decodable, Class<? extends T> type);
+}
@@ -24,18 +24,70 @@ import io.r2dbc.mssql.util.Assert;
 import reactor.util.annotation.Nullable;
 
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * The default {@link Codec} implementation.  Delegates to type-specific codec implementations.
+ * <p/>
+ * Codec lookups are cached per Java type. Decoding codecs are resolved through a table indexed by {@link SqlServerType} for each requested Java type
+ * as the built-in codecs determine their decoding capability by the server type only. Encoding codecs are cached per value type and verified
+ * against the actual value.
  */
 public final class DefaultCodecs implements Codecs {
 
+    private static final SqlServerType[] SERVER_TYPES = SqlServerType.values();
+
     private final List<Codec<?>> codecs;
 
-    private final Map<SqlServerType, Codec<?>> codecPreferences = new HashMap<>();
+    private final Map<SqlServerType, Codec<?>> codecPreferences = new EnumMap<>(SqlServerType.class);
+
+    private final ClassValue<Optional<Codec<?>>> encoders = new ClassValue<Optional<Codec<?>>>() {
+
+        @Override
+        protected Optional<Codec<?>> computeValue(Class<?> type) {
+
+            for (Codec<?> codec : DefaultCodecs.this.codecs) {
+                if (codec.getType().isAssignableFrom(type)) {
+                    return Optional.of(codec);
+                }
+            }
+
+            return Optional.empty();
+        }
+    };
+
+    private final ClassValue<Optional<Codec<?>>> nullEncoders = new ClassValue<Optional<Codec<?>>>() {
+
+        @Override
+        protected Optional<Codec<?>> computeValue(Class<?> type) {
+
+            for (Codec<?> codec : DefaultCodecs.this.codecs) {
+                if (codec.canEncodeNull(type)) {
+                    return Optional.of(codec);
+                }
+            }
+
+            return Optional.empty();
+        }
+    };
+
+    private final ClassValue<Codec<?>[]> decoders = new ClassValue<Codec<?>[]>() {
+
+        @Override
+        protected Codec<?>[] computeValue(Class<?> type) {
+
+            Codec<?>[] table = new Codec<?>[SERVER_TYPES.length];
+
+            for (SqlServerType serverType : SERVER_TYPES) {
+                table[serverType.ordinal()] = findDecodingCodec(serverType, type);
+            }
+
+            return table;
+        }
+    };
 
     /**
      * Creates a new instance of {@link DefaultCodecs}.
@@ -60,9 +112,13 @@ public final class DefaultCodecs implements Codecs {
             UuidCodec.INSTANCE,
             DecimalCodec.INSTANCE,
             MoneyCodec.INSTANCE,
-            TimestampCodec.INSTANCE,
+            BinaryCodec.INSTANCE,
+            ByteBufferCodec.INSTANCE,
             OffsetDateTimeCodec.INSTANCE,
-            ZonedDateTimeCodec.INSTANCE
+            ZonedDateTimeCodec.INSTANCE,
+            BlobCodec.INSTANCE,
+            ClobCodec.INSTANCE,
+            new TableValuedParameterCodec(this)
         );
 
         this.codecPreferences.put(SqlServerType.BIT, BooleanCodec.INSTANCE);
@@ -83,6 +139,12 @@ public final class DefaultCodecs implements Codecs {
         Assert.requireNonNull(context, "RpcParameterContext must not be null");
         Assert.requireNonNull(value, "Value must not be null");
 
+        Codec<?> cached = this.encoders.get(value.getClass()).orElse(null);
+
+        if (cached != null && cached.canEncode(value)) {
+            return ((Codec) cached).encode(allocator, context, value);
+        }
+
         for (Codec<?> codec : this.codecs) {
             if (codec.canEncode(value)) {
                 return ((Codec) codec).encode(allocator, context, value);
@@ -98,10 +160,10 @@ public final class DefaultCodecs implements Codecs {
         Assert.requireNonNull(allocator, "ByteBufAllocator must not be null");
         Assert.requireNonNull(type, "Type must not be null");
 
-        for (Codec<?> codec : this.codecs) {
-            if (codec.canEncodeNull(type)) {
-                return codec.encodeNull(allocator);
-            }
+        Optional<Codec<?>> codec = this.nullEncoders.get(type);
+
+        if (codec.isPresent()) {
+            return codec.get().encodeNull(allocator);
         }
 
         throw new IllegalArgumentException(String.format("Cannot encode [null] parameter of type [%s]", type.getName()));
@@ -136,22 +198,84 @@ public final class DefaultCodecs implements Codecs {
         return decodingCodec.getType();
     }
 
+    @Override
+    public <T> Decoder<T> getDecoder(Decodable decodable, Class<? extends T> type) {
+
+        Assert.requireNonNull(decodable, "Decodable must not be null");
+        Assert.requireNonNull(type, "Type must not be null");
+
+        return getDecodingCodec(decodable, type);
+    }
+
+    @Override
+    public long decodeLong(@Nullable ByteBuf buffer, Decodable decodable) {
+
+        Assert.requireNonNull(decodable, "Decodable must not be null");
+
+        TypeInformation type = decodable.getType();
+
+        if (!AbstractNumericCodec.canDecodeLong(type)) {
+            throw new IllegalArgumentException(String.format("Cannot decode value of name [%s] server type [%s] as long", decodable.getName(), type.getServerType()));
+        }
+
+        return buffer == null ? 0 : AbstractNumericCodec.decodeLong(buffer, type);
+    }
+
+    @Override
+    public double decodeDouble(@Nullable ByteBuf buffer, Decodable decodable) {
+
+        Assert.requireNonNull(decodable, "Decodable must not be null");
+
+        TypeInformation type = decodable.getType();
+
+        if (DoubleCodec.canDecodeDouble(type)) {
+            return buffer == null ? 0 : DoubleCodec.decodeDouble(buffer, type);
+        }
+
+        if (AbstractNumericCodec.canDecodeLong(type)) {
+            return buffer == null ? 0 : AbstractNumericCodec.decodeLong(buffer, type);
+        }
+
+        throw new IllegalArgumentException(String.format("Cannot decode value of name [%s] server type [%s] as double", decodable.getName(), type.getServerType()));
+    }
+
     @SuppressWarnings("unchecked")
     private <T> Codec<T> getDecodingCodec(Decodable decodable, Class<? extends T> requestedType) {
 
-        Codec<?> preferredCodec = this.codecPreferences.get(decodable.getType().getServerType());
+        SqlServerType serverType = decodable.getType().getServerType();
+        Codec<?> codec = serverType != null ? this.decoders.get(requestedType)[serverType.ordinal()] : null;
+
+        if (codec != null) {
+            return (Codec<T>) codec;
+        }
+
+        throw new IllegalArgumentException(String.format("Cannot decode value of type [%s], name [%s] server type [%s]", requestedType.getName(), decodable.getName(),
+            decodable.getType().getServerType()));
+    }
+
+    /**
+     * Find the {@link Codec} to decode values of {@link SqlServerType} into {@code requestedType}. Considers the preferred codec of the server type
+     * before the registered codecs in their order.
+     *
+     * @return the decoding {@link Codec} or {@code null} if no codec is able to decode the server type.
+     */
+    @Nullable
+    private Codec<?> findDecodingCodec(SqlServerType serverType, Class<?> requestedType) {
+
+        Decodable decodable = new TypeInformationWrapper(TypeInformation.builder().withServerType(serverType).build());
+
+        Codec<?> preferredCodec = this.codecPreferences.get(serverType);
         if (preferredCodec != null && preferredCodec.canDecode(decodable, requestedType)) {
-            return (Codec<T>) preferredCodec;
+            return preferredCodec;
         }
 
         for (Codec<?> codec : this.codecs) {
             if (codec.canDecode(decodable, requestedType)) {
-                return (Codec<T>) codec;
+                return codec;
             }
         }
 
-        throw new IllegalArgumentException(String.format("Cannot decode value of type [%s], name [%s] server type [%s]", requestedType.getName(), decodable.getName(),
-            decodable.getType().getServerType()));
+        return null;
     }
 
     static class TypeInformationWrapper implements Decodable {
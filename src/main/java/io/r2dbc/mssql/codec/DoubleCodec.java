@@ -55,7 +55,7 @@ final class DoubleCodec extends AbstractCodec<Double> {
 
     @Override
     boolean doCanDecode(TypeInformation typeInformation) {
-        return typeInformation.getServerType() == SqlServerType.FLOAT || typeInformation.getServerType() == SqlServerType.REAL;
+        return canDecodeDouble(typeInformation);
     }
 
     @Override
@@ -65,8 +65,41 @@ final class DoubleCodec extends AbstractCodec<Double> {
             return null;
         }
 
+        return readDouble(buffer, length);
+    }
+
+    /**
+     * Determine whether values of {@link TypeInformation} can be decoded as {@code double} without boxing.
+     *
+     * @param typeInformation the type information.
+     * @return {@literal true} if the server type is a floating point number type.
+     */
+    static boolean canDecodeDouble(TypeInformation typeInformation) {
+        return typeInformation.getServerType() == SqlServerType.FLOAT || typeInformation.getServerType() == SqlServerType.REAL;
+    }
+
+    /**
+     * Decode a floating point number value as {@code double} without boxing.
+     *
+     * @param buffer          the data buffer.
+     * @param typeInformation the type information.
+     * @return the decoded value or {@literal 0} if the value is {@code null}.
+     */
+    static double decodeDouble(ByteBuf buffer, TypeInformation typeInformation) {
+
+        Length length = Length.decode(buffer, typeInformation);
+
+        if (length.isNull()) {
+            return 0;
+        }
+
+        return readDouble(buffer, length);
+    }
+
+    private static double readDouble(ByteBuf buffer, Length length) {
+
         if (length.getLength() == 4) {
-            return (double) Decode.asFloat(buffer);
+            return Decode.asFloat(buffer);
         }
 
         return Decode.asDouble(buffer);
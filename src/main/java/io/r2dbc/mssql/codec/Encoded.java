@@ -21,11 +21,26 @@ import io.netty.util.AbstractReferenceCounted;
 import io.r2dbc.mssql.message.type.SqlServerType;
 import io.r2dbc.mssql.message.type.TdsDataType;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 /**
  * @author Mark Paluch
  */
 public class Encoded extends AbstractReferenceCounted {
 
+    // formal types of fixed-length types, resolved once to avoid scanning all types for each parameter
+    private static final Map<TdsDataType, String> FORMAL_TYPES = new EnumMap<>(TdsDataType.class);
+
+    static {
+
+        for (SqlServerType serverType : SqlServerType.values()) {
+            for (TdsDataType tdsType : serverType.getFixedTypes()) {
+                FORMAL_TYPES.putIfAbsent(tdsType, serverType.toString());
+            }
+        }
+    }
+
     private final TdsDataType dataType;
 
     private final ByteBuf value;
@@ -65,13 +80,10 @@ public class Encoded extends AbstractReferenceCounted {
      */
     public String getFormalType() {
 
-        for (SqlServerType serverType : SqlServerType.values()) {
+        String formalType = FORMAL_TYPES.get(this.dataType);
 
-            for (TdsDataType tdsType : serverType.getFixedTypes()) {
-                if (tdsType == this.dataType) {
-                    return serverType.toString();
-                }
-            }
+        if (formalType != null) {
+            return formalType;
         }
 
         throw new IllegalStateException(String.format("Cannot determine a formal type for %s", this.dataType));
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.r2dbc.mssql.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.r2dbc.mssql.message.tds.Encode;
+import io.r2dbc.mssql.message.type.Collation;
+import io.r2dbc.mssql.message.type.Length;
+import io.r2dbc.mssql.message.type.SqlServerType;
+import io.r2dbc.mssql.message.type.TdsDataType;
+import io.r2dbc.mssql.util.Assert;
+import org.reactivestreams.Publisher;
+import reactor.util.annotation.Nullable;
+
+/**
+ * Encoded {@literal MAX} type value that is streamed using PLP (partially length-prefixed) encoding. The {@link #getValue() value} contains the type
+ * information followed by the {@link Length#PLP_UNKNOWN unknown} total length. The actual content is provided through {@link #chunks()} and gets written
+ * as length-prefixed chunks followed by a terminator chunk while sending the RPC request so the value is never materialized in memory.
+ * <p/>
+ * Streamed values can be used only as RPC input parameters. They cannot be used for bulk load and table-valued parameters.
+ *
+ * @author Mark Paluch
+ */
+public final class PlpEncoded extends Encoded {
+
+    private final SqlServerType serverType;
+
+    private final Publisher<ByteBuf> chunks;
+
+    private PlpEncoded(TdsDataType dataType, SqlServerType serverType, ByteBuf value, Publisher<ByteBuf> chunks) {
+        super(dataType, value);
+        this.serverType = serverType;
+        this.chunks = chunks;
+    }
+
+    /**
+     * Create a new {@link PlpEncoded} value.
+     *
+     * @param allocator  the allocator to allocate encoding buffers.
+     * @param dataType   the TDS data type.
+     * @param serverType the server data type.
+     * @param collation  the collation for character types, {@code null} for binary types.
+     * @param chunks     the content chunks. Chunks are released after writing them to the request.
+     * @return the {@link PlpEncoded} value.
+     */
+    static PlpEncoded create(ByteBufAllocator allocator, TdsDataType dataType, SqlServerType serverType, @Nullable Collation collation,
+                             Publisher<ByteBuf> chunks) {
+
+        Assert.requireNonNull(allocator, "ByteBufAllocator must not be null");
+        Assert.requireNonNull(chunks, "Chunks must not be null");
+
+        ByteBuf buffer = allocator.buffer(collation != null ? 15 : 10);
+
+        Encode.uShort(buffer, 0xFFFF); // max-len indicator for PLP types
+
+        if (collation != null) {
+            collation.encode(buffer);
+        }
+
+        Encode.uLongLong(buffer, Length.PLP_UNKNOWN);
+
+        return new PlpEncoded(dataType, serverType, buffer, chunks);
+    }
+
+    /**
+     * Returns the content chunks. The publisher can be subscribed only once. Subscribers must release each chunk after consuming it.
+     *
+     * @return the content chunks.
+     */
+    public Publisher<ByteBuf> chunks() {
+        return this.chunks;
+    }
+
+    @Override
+    public String getFormalType() {
+        return RpcEncoding.getMaxFormalType(this.serverType);
+    }
+}
@@ -20,6 +20,7 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.r2dbc.mssql.message.tds.Encode;
 import io.r2dbc.mssql.message.type.Collation;
+import io.r2dbc.mssql.message.type.Length;
 import io.r2dbc.mssql.message.type.LengthStrategy;
 import io.r2dbc.mssql.message.type.SqlServerType;
 import io.r2dbc.mssql.message.type.TdsDataType;
@@ -27,6 +28,8 @@ import io.r2dbc.mssql.util.Assert;
 import io.r2dbc.mssql.util.StringUtils;
 import reactor.util.annotation.Nullable;
 
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 
@@ -210,6 +213,30 @@ public final class RpcEncoding {
         return new HintedEncoded(serverType.getNullableType(), serverType, buffer);
     }
 
+    /**
+     * Encode a {@code null} RPC parameter of a {@literal MAX} type such as {@literal VARBINARY(MAX)} or {@literal NVARCHAR(MAX)} using PLP encoding.
+     *
+     * @param allocator  the allocator to allocate encoding buffers.
+     * @param dataType   the TDS data type.
+     * @param serverType the server data type.
+     * @param collation  the collation for character types, {@code null} for binary types.
+     * @return the encoded {@code null} value.
+     */
+    public static Encoded encodePlpNull(ByteBufAllocator allocator, TdsDataType dataType, SqlServerType serverType, @Nullable Collation collation) {
+
+        ByteBuf buffer = allocator.buffer();
+
+        Encode.uShort(buffer, 0xFFFF); // max-len indicator for PLP types
+
+        if (collation != null) {
+            collation.encode(buffer);
+        }
+
+        Encode.uLongLong(buffer, Length.PLP_NULL);
+
+        return new MaxTypeEncoded(dataType, serverType, buffer);
+    }
+
     static ByteBuf prepareBuffer(ByteBufAllocator allocator, LengthStrategy lengthStrategy, int maxLength, int length) {
 
         ByteBuf buffer;
@@ -246,6 +273,16 @@ public final class RpcEncoding {
         }
     }
 
+    /**
+     * Returns the formal type of the {@literal MAX} variant of {@link SqlServerType} such as {@literal varbinary(max)}.
+     *
+     * @param serverType the server type.
+     * @return the formal {@literal MAX} type.
+     */
+    static String getMaxFormalType(SqlServerType serverType) {
+        return MaxTypeEncoded.FORMAL_TYPES.get(serverType);
+    }
+
     /**
      * Extension to {@link Encoded} that applies a {@link SqlServerType} hint.
      */
@@ -258,9 +295,37 @@ public final class RpcEncoding {
             this.sqlServerType = sqlServerType;
         }
 
+        SqlServerType getServerType() {
+            return this.sqlServerType;
+        }
+
         @Override
         public String getFormalType() {
             return this.sqlServerType.toString();
         }
     }
+
+    /**
+     * Extension to {@link HintedEncoded} for {@literal MAX} types.
+     */
+    static class MaxTypeEncoded extends HintedEncoded {
+
+        static final Map<SqlServerType, String> FORMAL_TYPES = new EnumMap<>(SqlServerType.class);
+
+        static {
+
+            for (SqlServerType serverType : SqlServerType.values()) {
+                FORMAL_TYPES.put(serverType, serverType + "(max)");
+            }
+        }
+
+        MaxTypeEncoded(TdsDataType dataType, SqlServerType sqlServerType, ByteBuf value) {
+            super(dataType, sqlServerType, value);
+        }
+
+        @Override
+        public String getFormalType() {
+            return getMaxFormalType(getServerType());
+        }
+    }
 }
@@ -21,6 +21,7 @@ import io.netty.buffer.ByteBufAllocator;
 import io.r2dbc.mssql.message.tds.Encode;
 import io.r2dbc.mssql.message.type.Collation;
 import io.r2dbc.mssql.message.type.Length;
+import io.r2dbc.mssql.message.type.LengthStrategy;
 import io.r2dbc.mssql.message.type.SqlServerType;
 import io.r2dbc.mssql.message.type.TdsDataType;
 import io.r2dbc.mssql.message.type.TypeInformation;
@@ -37,7 +38,7 @@ import java.util.UUID;
  * Codec for character values that are represented as {@link String}.
  *
  * <ul>
- * <li>Server types: (N)(VAR)CHAR, {@link SqlServerType#GUID}</li>
+ * <li>Server types: (N)(VAR)CHAR, (N)VARCHAR(MAX), (N)TEXT, {@link SqlServerType#GUID}</li>
  * <li>Java type: {@link String}</li>
  * <li>Downcast: to {@link UUID#toString()}</li>
  * </ul>
@@ -51,7 +52,8 @@ final class StringCodec extends AbstractCodec<String> {
      */
     public static final StringCodec INSTANCE = new StringCodec();
 
-    private static final Set<SqlServerType> SUPPORTED_TYPES = EnumSet.of(SqlServerType.CHAR, SqlServerType.NCHAR, SqlServerType.NVARCHAR, SqlServerType.VARCHAR, SqlServerType.GUID);
+    private static final Set<SqlServerType> SUPPORTED_TYPES = EnumSet.of(SqlServerType.CHAR, SqlServerType.NCHAR, SqlServerType.NVARCHAR, SqlServerType.VARCHAR, SqlServerType.VARCHARMAX,
+        SqlServerType.NVARCHARMAX, SqlServerType.TEXT, SqlServerType.NTEXT, SqlServerType.GUID);
 
     private StringCodec() {
         super(String.class);
@@ -106,6 +108,10 @@ final class StringCodec extends AbstractCodec<String> {
 
         Charset charset = typeInformation.getCharset();
 
+        if (typeInformation.getLengthStrategy() == LengthStrategy.PARTLENTYPE) {
+            return valueType.cast(new String(ChunkedValue.readBytes(buffer, length, typeInformation), charset));
+        }
+
         String value = buffer.toString(buffer.readerIndex(), length.getLength(), charset);
         buffer.skipBytes(length.getLength());
 
@@ -223,7 +229,7 @@ final class StringCodec extends AbstractCodec<String> {
 
     static class NvarcharEncoded extends RpcEncoding.HintedEncoded {
 
-        private final int maxLength = TypeUtils.SHORT_VARTYPE_MAX_BYTES / 2;
+        private static final String FORMAL_TYPE = SqlServerType.NVARCHAR + "(" + (TypeUtils.SHORT_VARTYPE_MAX_BYTES / 2) + ")";
 
         NvarcharEncoded(TdsDataType dataType, ByteBuf value) {
             super(dataType, SqlServerType.NVARCHAR, value);
@@ -231,7 +237,7 @@ final class StringCodec extends AbstractCodec<String> {
 
         @Override
         public String getFormalType() {
-            return super.getFormalType() + "(" + this.maxLength + ")";
+            return FORMAL_TYPE;
         }
     }
 }
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql.codec;
+
+import io.r2dbc.mssql.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Table-valued parameter to bind a set of rows to a single parameter. Table-valued parameters require a user-defined table type on the server, for example:
+ * <pre class="code">
+ * CREATE TYPE dbo.IdList AS TABLE (id INT)
+ * </pre>
+ * The table type is used as parameter declaration so the query can use the parameter like a read-only table variable:
+ * <pre class="code">
+ * TableValuedParameter ids = TableValuedParameter.builder("dbo.IdList").column(Integer.class).row(1).row(2).build();
+ *
+ * connection.createStatement("SELECT * FROM person WHERE id IN (SELECT id FROM &#x40;ids)").bind("ids", ids);
+ * </pre>
+ * Column types are derived from the first non-{@code null} value of each column and fall back to the declared column type if a column contains only
+ * {@code null} values. Values of a column must encode to the same server type (e.g. {@link java.math.BigDecimal} values must use the same scale).
+ *
+ * @author Mark Paluch
+ */
+public final class TableValuedParameter {
+
+    private final String typeName;
+
+    private final List<Class<?>> columnTypes;
+
+    private final List<Object[]> rows;
+
+    private TableValuedParameter(String typeName, List<Class<?>> columnTypes, List<Object[]> rows) {
+        this.typeName = typeName;
+        this.columnTypes = columnTypes;
+        this.rows = rows;
+    }
+
+    /**
+     * Creates a new {@link Builder} to build a {@link TableValuedParameter} for the given table type.
+     *
+     * @param typeName name of the table type, optionally schema-qualified such as {@literal dbo.IdList}.
+     * @return a new {@link Builder}.
+     * @throws IllegalArgumentException when {@code typeName} is {@code null} or empty.
+     */
+    public static Builder builder(String typeName) {
+
+        Assert.requireNonNull(typeName, "Type name must not be null");
+        Assert.isTrue(!typeName.isEmpty(), "Type name must not be empty");
+
+        return new Builder(typeName);
+    }
+
+    /**
+     * Returns the name of the table type.
+     *
+     * @return the name of the table type.
+     */
+    public String getTypeName() {
+        return this.typeName;
+    }
+
+    /**
+     * Returns the column types.
+     *
+     * @return the column types.
+     */
+    public List<Class<?>> getColumnTypes() {
+        return this.columnTypes;
+    }
+
+    /**
+     * Returns the rows. Each row contains one value per column.
+     *
+     * @return the rows.
+     */
+    public List<Object[]> getRows() {
+        return this.rows;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuffer sb = new StringBuffer();
+        sb.append(getClass().getSimpleName());
+        sb.append(" [typeName=\"").append(this.typeName).append('\"');
+        sb.append(", columnTypes=").append(this.columnTypes);
+        sb.append(", rows=").append(this.rows.size());
+        sb.append(']');
+        return sb.toString();
+    }
+
+    /**
+     * Builder for {@link TableValuedParameter}.
+     */
+    public static final class Builder {
+
+        private final String typeName;
+
+        private final List<Class<?>> columnTypes = new ArrayList<>();
+
+        private final List<Object[]> rows = new ArrayList<>();
+
+        private Builder(String typeName) {
+            this.typeName = typeName;
+        }
+
+        /**
+         * Add a column. Columns are declared in the order of the table type.
+         *
+         * @param type the Java type of the column values.
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException when {@code type} is {@code null}.
+         */
+        public Builder column(Class<?> type) {
+
+            Assert.requireNonNull(type, "Column type must not be null");
+
+            this.columnTypes.add(type);
+            return this;
+        }
+
+        /**
+         * Add a row.
+         *
+         * @param values the row values. Must contain one value per column, values can be {@code null}.
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException when {@code values} is {@code null}.
+         */
+        public Builder row(Object... values) {
+
+            Assert.requireNonNull(values, "Values must not be null");
+
+            this.rows.add(values);
+            return this;
+        }
+
+        /**
+         * Add rows.
+         *
+         * @param rows the rows to add.
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException when {@code rows} is {@code null}.
+         */
+        public Builder rows(Iterable<Object[]> rows) {
+
+            Assert.requireNonNull(rows, "Rows must not be null");
+
+            for (Object[] row : rows) {
+                row(row);
+            }
+
+            return this;
+        }
+
+        /**
+         * Build the {@link TableValuedParameter}.
+         *
+         * @return the {@link TableValuedParameter}.
+         * @throws IllegalStateException if no columns were declared or a row does not provide one value per column.
+         */
+        public TableValuedParameter build() {
+
+            Assert.state(!this.columnTypes.isEmpty(), "Table-valued parameter must declare at least one column");
+
+            for (Object[] row : this.rows) {
+                Assert.state(row.length == this.columnTypes.size(), String.format("Row contains [%d] values but the table type declares [%d] columns", row.length,
+                    this.columnTypes.size()));
+            }
+
+            return new TableValuedParameter(this.typeName, Collections.unmodifiableList(new ArrayList<>(this.columnTypes)),
+                Collections.unmodifiableList(new ArrayList<>(this.rows)));
+        }
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.util.ReferenceCountUtil;
+import io.r2dbc.mssql.message.tds.Encode;
+import io.r2dbc.mssql.message.type.TdsDataType;
+import io.r2dbc.mssql.util.Assert;
+import reactor.util.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Codec for {@link TableValuedParameter table-valued parameters}. Encodes the table type name, column metadata and all rows as {@literal TVP} RPC
+ * parameter. Row values are encoded using the {@link Codecs} this codec was created with. Table-valued parameters can be used only as input parameters
+ * and cannot be {@code null}.
+ *
+ * @author Mark Paluch
+ */
+final class TableValuedParameterCodec implements Codec<TableValuedParameter> {
+
+    private static final byte TVP_ROW_TOKEN = 0x01;
+
+    private static final byte TVP_END_TOKEN = 0x00;
+
+    private final Codecs codecs;
+
+    TableValuedParameterCodec(Codecs codecs) {
+        this.codecs = Assert.requireNonNull(codecs, "Codecs must not be null");
+    }
+
+    @Override
+    public boolean canEncode(Object value) {
+
+        Assert.requireNonNull(value, "Value must not be null");
+
+        return value instanceof TableValuedParameter;
+    }
+
+    @Override
+    public Encoded encode(ByteBufAllocator allocator, RpcParameterContext context, TableValuedParameter value) {
+
+        Assert.requireNonNull(allocator, "ByteBufAllocator must not be null");
+        Assert.requireNonNull(context, "RpcParameterContext must not be null");
+        Assert.requireNonNull(value, "Value must not be null");
+        Assert.isTrue(context.isIn(), "Table-valued parameters can be used only as input parameters");
+
+        List<Encoded[]> rows = new ArrayList<>(value.getRows().size());
+        ByteBuf buffer = allocator.buffer();
+
+        try {
+
+            for (Object[] row : value.getRows()) {
+                rows.add(encodeRow(allocator, context, value.getColumnTypes(), row));
+            }
+
+            List<ColumnTemplate> columns = createColumns(allocator, value.getColumnTypes(), rows);
+
+            encodeTypeName(buffer, value.getTypeName());
+
+            Encode.uShort(buffer, columns.size());
+
+            for (ColumnTemplate column : columns) {
+
+                Encode.dword(buffer, 0); // user type
+                Encode.uShort(buffer, 0x0001); // flags: nullable
+                column.encodeTypeInfo(buffer);
+                Encode.asByte(buffer, 0); // column names must be empty
+            }
+
+            Encode.asByte(buffer, TVP_END_TOKEN); // no optional metadata
+
+            for (Encoded[] row : rows) {
+
+                Encode.asByte(buffer, TVP_ROW_TOKEN);
+
+                for (int i = 0; i < row.length; i++) {
+                    columns.get(i).encodeValue(buffer, row[i]);
+                }
+            }
+
+            Encode.asByte(buffer, TVP_END_TOKEN);
+        } catch (RuntimeException e) {
+
+            buffer.release();
+            throw e;
+        } finally {
+
+            for (Encoded[] row : rows) {
+                for (Encoded encoded : row) {
+                    ReferenceCountUtil.release(encoded);
+                }
+            }
+        }
+
+        return new TvpEncoded(value.getTypeName(), buffer);
+    }
+
+    @Override
+    public boolean canEncodeNull(Class<?> type) {
+        return false;
+    }
+
+    /**
+     * Table-valued parameters cannot be {@code null}. A {@literal TVP} {@code null} value requires the table type name that is not available without a
+     * {@link TableValuedParameter}.
+     *
+     * @throws IllegalArgumentException always as table-valued parameters cannot be {@code null}.
+     */
+    @Override
+    public Encoded encodeNull(ByteBufAllocator allocator) {
+
+        Assert.requireNonNull(allocator, "ByteBufAllocator must not be null");
+
+        throw new IllegalArgumentException(String.format("Cannot encode [null] parameter of type [%s]", TableValuedParameter.class.getName()));
+    }
+
+    @Override
+    public boolean canDecode(Decodable decodable, Class<?> type) {
+        return false;
+    }
+
+    /**
+     * Table-valued parameters are input parameters and cannot be returned from the server.
+     *
+     * @throws IllegalArgumentException always as table-valued parameters cannot be decoded.
+     */
+    @Nullable
+    @Override
+    public TableValuedParameter decode(@Nullable ByteBuf buffer, Decodable decodable, Class<? extends TableValuedParameter> type) {
+
+        Assert.requireNonNull(decodable, "Decodable must not be null");
+
+        throw new IllegalArgumentException(String.format("Cannot decode value of name [%s] server type [%s] as table-valued parameter", decodable.getName(),
+            decodable.getType().getServerType()));
+    }
+
+    @Override
+    public Class<TableValuedParameter> getType() {
+        return TableValuedParameter.class;
+    }
+
+    private Encoded[] encodeRow(ByteBufAllocator allocator, RpcParameterContext context, List<Class<?>> columnTypes, Object[] row) {
+
+        Encoded[] encoded = new Encoded[row.length];
+
+        try {
+            for (int i = 0; i < row.length; i++) {
+
+                if (row[i] == null) {
+                    continue;
+                }
+
+                Assert.isInstanceOf(columnTypes.get(i), row[i], String.format("Value [%s] for column [%d] is not of type [%s]", row[i], i, columnTypes.get(i).getName()));
+                encoded[i] = this.codecs.encode(allocator, context, row[i]);
+            }
+        } catch (RuntimeException e) {
+
+            for (Encoded value : encoded) {
+                ReferenceCountUtil.release(value);
+            }
+
+            throw e;
+        }
+
+        return encoded;
+    }
+
+    /**
+     * Derive column types from the first non-{@code null} value of each column. Columns that contain only {@code null} values use the declared column
+     * type.
+     */
+    private List<ColumnTemplate> createColumns(ByteBufAllocator allocator, List<Class<?>> columnTypes, List<Encoded[]> rows) {
+
+        List<ColumnTemplate> columns = new ArrayList<>(columnTypes.size());
+
+        for (int i = 0; i < columnTypes.size(); i++) {
+
+            Encoded template = null;
+
+            for (Encoded[] row : rows) {
+                if (row[i] != null) {
+                    template = row[i];
+                    break;
+                }
+            }
+
+            if (template != null) {
+                columns.add(ColumnTemplate.create(template));
+                continue;
+            }
+
+            Encoded nullValue = this.codecs.encodeNull(allocator, columnTypes.get(i));
+
+            try {
+                columns.add(ColumnTemplate.create(nullValue));
+            } finally {
+                nullValue.release();
+            }
+        }
+
+        return columns;
+    }
+
+    private static void encodeTypeName(ByteBuf buffer, String typeName) {
+
+        int separator = typeName.lastIndexOf('.');
+        String schema = separator == -1 ? "" : typeName.substring(0, separator);
+        String name = separator == -1 ? typeName : typeName.substring(separator + 1);
+
+        Assert.isTrue(schema.indexOf('.') == -1, String.format("Type name [%s] must not specify a database name", typeName));
+
+        Encode.asByte(buffer, 0); // database name must be empty
+        encodeBVarchar(buffer, schema);
+        encodeBVarchar(buffer, name);
+    }
+
+    private static void encodeBVarchar(ByteBuf buffer, String value) {
+
+        Encode.asByte(buffer, value.length());
+        Encode.unicodeStream(buffer, value);
+    }
+
+    /**
+     * Encoded table-valued parameter that declares the table type name as formal type.
+     */
+    static class TvpEncoded extends Encoded {
+
+        private final String formalType;
+
+        TvpEncoded(String typeName, ByteBuf value) {
+            super(TdsDataType.TVP, value);
+            this.formalType = typeName + " READONLY";
+        }
+
+        @Override
+        public String getFormalType() {
+            return this.formalType;
+        }
+    }
+}
@@ -64,7 +64,7 @@ public abstract class AbstractDoneToken extends AbstractDataToken {
     /**
      * The DONE message is a server acknowledgement of a client ATTENTION message.
      */
-    static final int DONE_ATTN = 0x10;
+    static final int DONE_ATTN = 0x20;
 
     /**
      * This DONEPROC message is associated with an RPC within a set of batched RPCs. This flag is not set on the last RPC in the RPC batch.
@@ -120,6 +120,21 @@ public abstract class AbstractDoneToken extends AbstractDataToken {
         return false;
     }
 
+    /**
+     * Check whether the the {@link Message} represents a server acknowledgement of a client ATTENTION message.
+     *
+     * @param message the message to inspect.
+     * @return {@literal true} if the {@link Message} is an attention acknowledgement.
+     */
+    public static boolean isAttentionAck(Message message) {
+
+        if (message instanceof AbstractDoneToken) {
+            return ((AbstractDoneToken) message).isAttentionAck();
+        }
+
+        return false;
+    }
+
     /**
      * Check whether the the {@link Message} has a count.
      *
@@ -184,6 +199,13 @@ public abstract class AbstractDoneToken extends AbstractDataToken {
         return (getStatus() & DONE_MORE) != 0;
     }
 
+    /**
+     * @return {@literal true} if this token acknowledges a client ATTENTION message.
+     */
+    public boolean isAttentionAck() {
+        return (getStatus() & DONE_ATTN) != 0;
+    }
+
     /**
      * @return {@literal true} if this token contains a row count and {@link #getRowCount()} has a valid value.
      */
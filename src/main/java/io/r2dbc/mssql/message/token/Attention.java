@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.r2dbc.mssql.message.token;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.r2dbc.mssql.message.ClientMessage;
+import io.r2dbc.mssql.message.header.HeaderOptions;
+import io.r2dbc.mssql.message.header.Status;
+import io.r2dbc.mssql.message.header.Type;
+import io.r2dbc.mssql.message.tds.TdsFragment;
+import io.r2dbc.mssql.message.tds.TdsPackets;
+import io.r2dbc.mssql.util.Assert;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+
+/**
+ * Attention signal to cancel the currently executing request. The attention message consists of a packet header without data. The server
+ * acknowledges the attention with a {@link DoneToken} that has the {@link AbstractDoneToken#isAttentionAck() attention} bit set.
+ *
+ * @author Mark Paluch
+ */
+public final class Attention implements ClientMessage {
+
+    private static final Attention INSTANCE = new Attention();
+
+    private static final HeaderOptions HEADER = HeaderOptions.create(Type.ATTENTION, Status.empty());
+
+    private Attention() {
+    }
+
+    /**
+     * Returns the {@link Attention} message.
+     *
+     * @return the {@link Attention} message.
+     */
+    public static Attention create() {
+        return INSTANCE;
+    }
+
+    @Override
+    public Publisher<TdsFragment> encode(ByteBufAllocator allocator) {
+
+        Assert.requireNonNull(allocator, "ByteBufAllocator must not be null");
+
+        return Mono.fromSupplier(() -> TdsPackets.create(HEADER, allocator.buffer(0)));
+    }
+
+    @Override
+    public String toString() {
+        return "Attention";
+    }
+}
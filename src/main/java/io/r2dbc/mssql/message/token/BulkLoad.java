@@ -0,0 +1,238 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql.message.token;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.util.ReferenceCountUtil;
+import io.r2dbc.mssql.codec.ColumnTemplate;
+import io.r2dbc.mssql.codec.Encoded;
+import io.r2dbc.mssql.message.ClientMessage;
+import io.r2dbc.mssql.message.header.Status;
+import io.r2dbc.mssql.message.header.Type;
+import io.r2dbc.mssql.message.tds.Encode;
+import io.r2dbc.mssql.message.tds.TdsFragment;
+import io.r2dbc.mssql.util.Assert;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Bulk load data stream that transfers rows to the server after initiating a bulk load through an {@literal INSERT BULK} statement. The
+ * stream consists of a {@literal COLMETADATA} token describing the columns, a {@literal ROW} token for each row and a terminating
+ * {@literal DONE} token.
+ * <p/>
+ * Rows are streamed into fragments that are larger than the maximal TDS packet size so the encoder emits only complete packets. Column
+ * metadata is derived from the first row. Subsequent rows must use the same type information, {@code null} values are encoded according
+ * to the column type. If the row stream fails, the message is terminated using the {@link Status.StatusBit#IGNORE ignore} bit so the
+ * server discards the partially transmitted data.
+ *
+ * @author Mark Paluch
+ */
+public final class BulkLoad implements ClientMessage, TokenStream {
+
+    /**
+     * Minimal fragment size. Exceeds the maximal packet size so non-final fragments always span at least one full packet.
+     */
+    static final int FRAGMENT_SIZE = FragmentBuffer.FRAGMENT_SIZE;
+
+    private final List<BulkColumn> columns;
+
+    private final Publisher<Encoded[]> rows;
+
+    private final Consumer<Throwable> abortHandler;
+
+    private BulkLoad(List<BulkColumn> columns, Publisher<Encoded[]> rows, Consumer<Throwable> abortHandler) {
+
+        this.columns = columns;
+        this.rows = rows;
+        this.abortHandler = abortHandler;
+    }
+
+    /**
+     * Creates a new {@link BulkLoad} stream. Column types are derived from the {@code template} row that is typically the first row of
+     * {@code rows}.
+     *
+     * @param columnNames  the column names.
+     * @param template     the row to derive column types from. Must not contain {@code null} values.
+     * @param rows         the rows to stream. Encoded values are released after writing them to the stream. {@code null} elements
+     *                     of a row represent {@code null} values.
+     * @param abortHandler callback to notify when the row stream fails and the message gets discarded.
+     * @return the {@link BulkLoad} stream.
+     * @throws IllegalArgumentException if the number of columns does not match or the template contains {@code null} values.
+     */
+    public static BulkLoad create(List<String> columnNames, Encoded[] template, Publisher<Encoded[]> rows, Consumer<Throwable> abortHandler) {
+
+        Assert.requireNonNull(columnNames, "Column names must not be null");
+        Assert.requireNonNull(template, "Template row must not be null");
+        Assert.requireNonNull(rows, "Rows must not be null");
+        Assert.requireNonNull(abortHandler, "Abort handler must not be null");
+        Assert.isTrue(!columnNames.isEmpty(), "Column names must not be empty");
+        Assert.isTrue(columnNames.size() == template.length, String.format("Number of columns [%d] does not match the number of values [%d]", columnNames.size(),
+            template.length));
+
+        List<BulkColumn> columns = new ArrayList<>(columnNames.size());
+
+        for (int i = 0; i < template.length; i++) {
+
+            Assert.isTrue(template[i] != null, String.format("Value for column [%s] must not be null in the first row", columnNames.get(i)));
+            columns.add(BulkColumn.create(columnNames.get(i), template[i]));
+        }
+
+        return new BulkLoad(Collections.unmodifiableList(columns), rows, abortHandler);
+    }
+
+    @Override
+    public Publisher<TdsFragment> encode(ByteBufAllocator allocator) {
+
+        Assert.requireNonNull(allocator, "ByteBufAllocator must not be null");
+
+        return Flux.defer(() -> {
+
+            RowFragmentBuffer fragments = new RowFragmentBuffer(allocator);
+            encodeColumnMetadata(fragments.buffer);
+
+            return Flux.from(this.rows).<TdsFragment>handle((row, sink) -> {
+
+                encodeRow(fragments.buffer, row);
+                fragments.rowCount++;
+
+                if (fragments.isFull()) {
+                    sink.next(fragments.next());
+                }
+            }).concatWith(Mono.fromSupplier(fragments::last)).onErrorResume(e -> {
+
+                this.abortHandler.accept(e);
+                return Mono.fromSupplier(fragments::abort);
+            }).doOnCancel(fragments::release);
+        });
+    }
+
+    void encodeColumnMetadata(ByteBuf buffer) {
+
+        buffer.writeByte(ColumnMetadataToken.TYPE);
+        Encode.uShort(buffer, this.columns.size());
+
+        for (BulkColumn column : this.columns) {
+            column.encodeMetadata(buffer);
+        }
+    }
+
+    void encodeRow(ByteBuf buffer, Encoded[] row) {
+
+        try {
+
+            Assert.isTrue(row.length == this.columns.size(), String.format("Number of values [%d] does not match the number of columns [%d]", row.length,
+                this.columns.size()));
+
+            buffer.writeByte(RowToken.TYPE);
+
+            for (int i = 0; i < row.length; i++) {
+                this.columns.get(i).encodeValue(buffer, row[i]);
+            }
+        } finally {
+
+            for (Encoded value : row) {
+                ReferenceCountUtil.release(value);
+            }
+        }
+    }
+
+    public List<String> getColumnNames() {
+
+        List<String> names = new ArrayList<>(this.columns.size());
+
+        for (BulkColumn column : this.columns) {
+            names.add(column.name);
+        }
+
+        return names;
+    }
+
+    @Override
+    public String getName() {
+        return "BULK_LOAD";
+    }
+
+    @Override
+    public String toString() {
+        final StringBuffer sb = new StringBuffer();
+        sb.append(getName());
+        sb.append(" [columns=").append(getColumnNames());
+        sb.append(']');
+        return sb.toString();
+    }
+
+    /**
+     * {@link FragmentBuffer} that counts the encoded rows to terminate the stream with a {@link DoneToken}.
+     */
+    static class RowFragmentBuffer extends FragmentBuffer {
+
+        long rowCount;
+
+        RowFragmentBuffer(ByteBufAllocator allocator) {
+            super(allocator, Type.BULK_LOAD_DATA);
+        }
+
+        @Override
+        TdsFragment last() {
+
+            DoneToken.create(this.rowCount).encode(this.buffer);
+
+            return super.last();
+        }
+    }
+
+    /**
+     * Named column of a {@link BulkLoad} stream.
+     */
+    static class BulkColumn {
+
+        private final String name;
+
+        private final ColumnTemplate template;
+
+        private BulkColumn(String name, ColumnTemplate template) {
+            this.name = name;
+            this.template = template;
+        }
+
+        static BulkColumn create(String name, Encoded template) {
+            return new BulkColumn(name, ColumnTemplate.create(template));
+        }
+
+        void encodeMetadata(ByteBuf buffer) {
+
+            Encode.dword(buffer, 0); // user type
+            Encode.uShort(buffer, 0x0001); // flags: nullable
+            this.template.encodeTypeInfo(buffer);
+
+            Encode.asByte(buffer, this.name.length());
+            Encode.unicodeStream(buffer, this.name);
+        }
+
+        void encodeValue(ByteBuf buffer, @Nullable Encoded encoded) {
+            this.template.encodeValue(buffer, encoded);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.r2dbc.mssql.message.token;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.r2dbc.mssql.message.header.HeaderOptions;
+import io.r2dbc.mssql.message.header.Status;
+import io.r2dbc.mssql.message.header.Type;
+import io.r2dbc.mssql.message.tds.TdsFragment;
+import io.r2dbc.mssql.message.tds.TdsPackets;
+import reactor.util.annotation.Nullable;
+
+/**
+ * Buffer to collect data of a streamed message until reaching the {@link #FRAGMENT_SIZE}. Streamed messages are emitted as a sequence of fragments
+ * that are larger than the maximal TDS packet size so the encoder emits only complete packets. A message can be {@link #abort() aborted} using the
+ * {@link Status.StatusBit#IGNORE ignore} bit so the server discards the partially transmitted message.
+ *
+ * @author Mark Paluch
+ */
+class FragmentBuffer {
+
+    /**
+     * Minimal fragment size. Exceeds the maximal packet size so non-final fragments always span at least one full packet.
+     */
+    static final int FRAGMENT_SIZE = 32 * 1024;
+
+    private final ByteBufAllocator allocator;
+
+    private final HeaderOptions header;
+
+    private final HeaderOptions ignore;
+
+    @Nullable
+    ByteBuf buffer;
+
+    private boolean first = true;
+
+    /**
+     * Creates a new {@link FragmentBuffer} for a message of the given {@link Type}.
+     *
+     * @param allocator the allocator to allocate fragment buffers.
+     * @param type      the message type.
+     */
+    FragmentBuffer(ByteBufAllocator allocator, Type type) {
+        this.allocator = allocator;
+        this.header = HeaderOptions.create(type, Status.empty());
+        this.ignore = HeaderOptions.create(type, Status.of(Status.StatusBit.IGNORE));
+        this.buffer = allocator.buffer(FRAGMENT_SIZE);
+    }
+
+    /**
+     * @return {@literal true} if the buffered data reached the {@link #FRAGMENT_SIZE}.
+     */
+    boolean isFull() {
+        return this.buffer != null && this.buffer.readableBytes() >= FRAGMENT_SIZE;
+    }
+
+    /**
+     * Emit the buffered data as intermediate fragment and continue with a new buffer.
+     *
+     * @return the intermediate fragment.
+     */
+    TdsFragment next() {
+
+        ByteBuf fragment = this.buffer;
+        this.buffer = this.allocator.buffer(FRAGMENT_SIZE);
+
+        if (this.first) {
+            this.first = false;
+            return TdsPackets.first(this.header, fragment);
+        }
+
+        return TdsPackets.create(fragment);
+    }
+
+    /**
+     * Emit the buffered data as final fragment of the message.
+     *
+     * @return the final fragment.
+     */
+    TdsFragment last() {
+
+        ByteBuf fragment = this.buffer;
+        this.buffer = null;
+
+        return this.first ? TdsPackets.create(this.header, fragment) : TdsPackets.last(fragment);
+    }
+
+    /**
+     * Release the buffered data and emit an empty final fragment that instructs the server to discard the message.
+     *
+     * @return the final fragment.
+     */
+    TdsFragment abort() {
+
+        release();
+
+        return TdsPackets.create(this.ignore, this.allocator.buffer(0));
+    }
+
+    /**
+     * Release the buffered data.
+     */
+    void release() {
+
+        if (this.buffer != null) {
+            this.buffer.release();
+            this.buffer = null;
+        }
+    }
+}
@@ -50,7 +50,8 @@ public class NbcRowToken extends RowToken {
     }
 
     /**
-     * Decode a {@link NbcRowToken}.
+     * Decode a {@link NbcRowToken}. The row shares the bytes that belong to the row (including the {@code null} bitmap) with {@code buffer} without
+     * copying them, see {@link RowToken#readRow(ByteBuf, int)}.
      *
      * @param buffer  the data buffer.
      * @param columns column descriptors.
@@ -61,15 +62,22 @@ public class NbcRowToken extends RowToken {
         Assert.requireNonNull(buffer, "Data buffer must not be null");
         Assert.requireNonNull(columns, "List of Columns must not be null");
 
-        ByteBuf copy = buffer.copy();
+        return decode(buffer, columns, getRowLength(buffer, columns));
+    }
 
-        int start = copy.readerIndex();
-        NbcRowToken rowToken = doDecode(copy, columns);
-        int fastForward = copy.readerIndex() - start;
+    /**
+     * Decode a {@link NbcRowToken} with a known row length (including the {@code null} bitmap), typically determined by a {@link RowScanner}.
+     *
+     * @param buffer    the data buffer.
+     * @param columns   column descriptors.
+     * @param rowLength number of bytes that make up the row.
+     * @return the {@link NbcRowToken}.
+     */
+    static NbcRowToken decode(ByteBuf buffer, List<Column> columns, int rowLength) {
 
-        buffer.skipBytes(fastForward);
+        ByteBuf row = readRow(buffer, rowLength);
 
-        return rowToken;
+        return doDecode(row, columns);
     }
 
     /**
@@ -118,6 +126,27 @@ public class NbcRowToken extends RowToken {
         return this.nullMarker[index] ? null : super.getColumnData(index);
     }
 
+    private static int getRowLength(ByteBuf buffer, List<Column> columns) {
+
+        int readerIndex = buffer.readerIndex();
+
+        try {
+
+            boolean[] nullBitmap = getNullBitmap(buffer, columns);
+
+            for (int i = 0; i < columns.size(); i++) {
+
+                if (!nullBitmap[i]) {
+                    skipColumnData(buffer, columns.get(i));
+                }
+            }
+
+            return buffer.readerIndex() - readerIndex;
+        } finally {
+            buffer.readerIndex(readerIndex);
+        }
+    }
+
     private static NbcRowToken doDecode(ByteBuf buffer, List<Column> columns) {
 
         List<ByteBuf> data = new ArrayList<>(columns.size());
@@ -138,7 +167,7 @@ public class NbcRowToken extends RowToken {
         return new NbcRowToken(data, buffer, nullMarkers);
     }
 
-    private static boolean[] getNullBitmap(ByteBuf buffer, List<Column> columns) {
+    static boolean[] getNullBitmap(ByteBuf buffer, List<Column> columns) {
 
         int nullBitmapSize = getNullBitmapSize(columns);
 
@@ -166,7 +195,7 @@ public class NbcRowToken extends RowToken {
         return nullMarkers;
     }
 
-    private static int getNullBitmapSize(List<Column> columns) {
+    static int getNullBitmapSize(List<Column> columns) {
         return ((columns.size() - 1) >> 3) + 1;
     }
 
@@ -100,7 +100,8 @@ public class ReturnValue extends AbstractReferenceCounted implements DataToken {
         int descriptorLength = buffer.readerIndex() - beforeLengthDescriptor;
         buffer.readerIndex(beforeLengthDescriptor);
 
-        ByteBuf value = buffer.readRetainedSlice(descriptorLength + length.getLength());
+        // Copy the value so it does not retain the (possibly composite) response buffer.
+        ByteBuf value = buffer.readBytes(descriptorLength + length.getLength());
 
         return new ReturnValue(ordinal, name, status, type, value);
     }
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql.message.token;
+
+import io.netty.buffer.ByteBuf;
+import io.r2dbc.mssql.message.tds.ProtocolException;
+import io.r2dbc.mssql.message.type.Length;
+import io.r2dbc.mssql.message.type.LengthStrategy;
+import reactor.util.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * Resumable scanner to determine whether a data buffer contains an entire {@link RowToken} or {@link NbcRowToken}. Rows can span multiple TDS packets
+ * so a row is typically checked multiple times until all of its data is received. The scanner retains its progress (the next column to scan and, for
+ * {@literal PLP} columns, the next chunk) across attempts so each attempt continues where the previous attempt stopped instead of scanning the row from
+ * its start again. Progress is tracked relative to the row start and is therefore not affected by discarding data that precedes the row.
+ * <p/>
+ * A scanner is stateful and scans a single row at a time. It must be {@link #reset() reset} after decoding the row.
+ *
+ * @author Mark Paluch
+ */
+final class RowScanner {
+
+    private static final int PLP_LENGTH = 8;
+
+    private static final int PLP_CHUNK_LENGTH = 4;
+
+    /**
+     * Index of the next column to scan.
+     */
+    private int column;
+
+    /**
+     * Offset of the next column relative to the row start.
+     */
+    private int offset;
+
+    /**
+     * Offset of the next {@literal PLP} chunk relative to the column start. {@literal 0} if the column was not yet started.
+     */
+    private int plpOffset;
+
+    @Nullable
+    private boolean[] nullBitmap;
+
+    /**
+     * Check whether the {@link ByteBuf} can be decoded into an entire {@link RowToken}. Leaves the reader index unchanged.
+     *
+     * @param buffer  the data buffer. The reader index must point to the row start.
+     * @param columns column descriptors.
+     * @return {@literal true} if the buffer contains sufficient data to entirely decode a row.
+     */
+    boolean canDecode(ByteBuf buffer, List<Column> columns) {
+        return scan(buffer, columns);
+    }
+
+    /**
+     * Check whether the {@link ByteBuf} can be decoded into an entire {@link NbcRowToken}. Leaves the reader index unchanged.
+     *
+     * @param buffer  the data buffer. The reader index must point to the row start.
+     * @param columns column descriptors.
+     * @return {@literal true} if the buffer contains sufficient data to entirely decode a row.
+     */
+    boolean canDecodeNbc(ByteBuf buffer, List<Column> columns) {
+
+        if (this.nullBitmap == null) {
+
+            int nullBitmapSize = NbcRowToken.getNullBitmapSize(columns);
+
+            if (buffer.readableBytes() < nullBitmapSize) {
+                return false;
+            }
+
+            int readerIndex = buffer.readerIndex();
+
+            this.nullBitmap = NbcRowToken.getNullBitmap(buffer, columns);
+            this.offset = nullBitmapSize;
+
+            buffer.readerIndex(readerIndex);
+        }
+
+        return scan(buffer, columns);
+    }
+
+    /**
+     * Returns the number of bytes that make up the row. Valid only after a successful {@link #canDecode(ByteBuf, List) check}.
+     *
+     * @return the row length.
+     */
+    int getRowLength() {
+        return this.offset;
+    }
+
+    /**
+     * Reset the progress to scan the next row.
+     */
+    void reset() {
+
+        this.column = 0;
+        this.offset = 0;
+        this.plpOffset = 0;
+        this.nullBitmap = null;
+    }
+
+    private boolean scan(ByteBuf buffer, List<Column> columns) {
+
+        int rowStart = buffer.readerIndex();
+
+        try {
+
+            for (; this.column < columns.size(); this.column++) {
+
+                if (this.nullBitmap != null && this.nullBitmap[this.column]) {
+                    continue;
+                }
+
+                Column column = columns.get(this.column);
+                int columnStart = rowStart + this.offset;
+
+                int columnLength = column.getType().getLengthStrategy() == LengthStrategy.PARTLENTYPE ? scanPlp(buffer, columnStart) : scanColumn(buffer,
+                    columnStart, column);
+
+                if (columnLength == -1) {
+                    return false;
+                }
+
+                this.offset += columnLength;
+                this.plpOffset = 0;
+            }
+
+            return true;
+        } finally {
+            buffer.readerIndex(rowStart);
+        }
+    }
+
+    private static int scanColumn(ByteBuf buffer, int columnStart, Column column) {
+
+        buffer.readerIndex(columnStart);
+
+        if (!RowToken.canDecodeColumn(buffer, column)) {
+            return -1;
+        }
+
+        return buffer.readerIndex() - columnStart;
+    }
+
+    /**
+     * Scan a {@literal PLP} column starting at the chunk that was not yet received by a previous attempt.
+     *
+     * @return the column length or {@literal -1} if the column is not yet complete.
+     */
+    private int scanPlp(ByteBuf buffer, int columnStart) {
+
+        int writerIndex = buffer.writerIndex();
+
+        if (this.plpOffset == 0) {
+
+            if (writerIndex - columnStart < PLP_LENGTH) {
+                return -1;
+            }
+
+            if (buffer.getLongLE(columnStart) == Length.PLP_NULL) {
+                return PLP_LENGTH;
+            }
+
+            this.plpOffset = PLP_LENGTH;
+        }
+
+        while (writerIndex - (columnStart + this.plpOffset) >= PLP_CHUNK_LENGTH) {
+
+            int chunkLength = buffer.getIntLE(columnStart + this.plpOffset);
+            this.plpOffset += PLP_CHUNK_LENGTH;
+
+            if (chunkLength == 0) {
+                return this.plpOffset;
+            }
+
+            if (chunkLength < 0) {
+                throw ProtocolException.invalidTds(String.format("Invalid PLP chunk length [%d]", chunkLength & 0xFFFFFFFFL));
+            }
+
+            this.plpOffset += chunkLength;
+        }
+
+        return -1;
+    }
+}
@@ -17,6 +17,8 @@
 package io.r2dbc.mssql.message.token;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.util.AbstractReferenceCounted;
 import io.netty.util.ReferenceCounted;
 import io.r2dbc.mssql.message.type.Length;
@@ -52,7 +54,8 @@ public class RowToken extends AbstractReferenceCounted implements DataToken {
     }
 
     /**
-     * Decode a {@link RowToken}.
+     * Decode a {@link RowToken}. The row shares the bytes that belong to the row with {@code buffer} without copying them, see
+     * {@link #readRow(ByteBuf, int)}.
      *
      * @param buffer  the data buffer.
      * @param columns column descriptors.
@@ -63,15 +66,58 @@ public class RowToken extends AbstractReferenceCounted implements DataToken {
         Assert.requireNonNull(buffer, "Data buffer must not be null");
         Assert.requireNonNull(columns, "List of Columns must not be null");
 
-        ByteBuf copy = buffer.copy();
+        return decode(buffer, columns, getRowLength(buffer, columns));
+    }
 
-        int start = copy.readerIndex();
-        RowToken rowToken = doDecode(copy, columns);
-        int fastForward = copy.readerIndex() - start;
+    /**
+     * Decode a {@link RowToken} with a known row length, typically determined by a {@link RowScanner}.
+     *
+     * @param buffer    the data buffer.
+     * @param columns   column descriptors.
+     * @param rowLength number of bytes that make up the row.
+     * @return the {@link RowToken}.
+     */
+    static RowToken decode(ByteBuf buffer, List<Column> columns, int rowLength) {
 
-        buffer.skipBytes(fastForward);
+        ByteBuf row = readRow(buffer, rowLength);
 
-        return rowToken;
+        return doDecode(row, columns);
+    }
+
+    /**
+     * Read the row bytes without copying them. Rows decoded from a {@link CompositeByteBuf} retain only the components that contain row data instead of
+     * the composite itself so the row does not retain the remaining buffer contents and is not affected by
+     * {@link CompositeByteBuf#discardReadComponents() discarding} read components. Advances the reader index of {@code buffer} past the row.
+     *
+     * @param buffer    the data buffer.
+     * @param rowLength number of bytes that make up the row.
+     * @return the row buffer. Must be released after usage.
+     */
+    static ByteBuf readRow(ByteBuf buffer, int rowLength) {
+
+        if (!(buffer instanceof CompositeByteBuf)) {
+            return buffer.readRetainedSlice(rowLength);
+        }
+
+        CompositeByteBuf composite = (CompositeByteBuf) buffer;
+        List<ByteBuf> components = composite.decompose(composite.readerIndex(), rowLength);
+        composite.skipBytes(rowLength);
+
+        if (components.isEmpty()) {
+            return Unpooled.EMPTY_BUFFER;
+        }
+
+        if (components.size() == 1) {
+            return components.get(0).retain();
+        }
+
+        CompositeByteBuf row = composite.alloc().compositeBuffer(components.size());
+
+        for (ByteBuf component : components) {
+            row.addComponent(true, component.retain());
+        }
+
+        return row;
     }
 
     /**
@@ -129,6 +175,29 @@ public class RowToken extends AbstractReferenceCounted implements DataToken {
         return false;
     }
 
+    /**
+     * Determine the number of bytes that make up the row starting at the current reader index. Leaves the reader index unchanged.
+     *
+     * @param buffer  the data buffer.
+     * @param columns column descriptors.
+     * @return the row length in bytes.
+     */
+    private static int getRowLength(ByteBuf buffer, List<Column> columns) {
+
+        int readerIndex = buffer.readerIndex();
+
+        try {
+
+            for (Column column : columns) {
+                skipColumnData(buffer, column);
+            }
+
+            return buffer.readerIndex() - readerIndex;
+        } finally {
+            buffer.readerIndex(readerIndex);
+        }
+    }
+
     private static RowToken doDecode(ByteBuf buffer, List<Column> columns) {
 
         List<ByteBuf> data = new ArrayList<>(columns.size());
@@ -159,6 +228,18 @@ public class RowToken extends AbstractReferenceCounted implements DataToken {
         return buffer.readSlice(descriptorLength + length.getLength());
     }
 
+    /**
+     * Skip the {@link ByteBuf data buffer} for a single {@link Column}.
+     *
+     * @param buffer the data buffer.
+     * @param column the column.
+     */
+    static void skipColumnData(ByteBuf buffer, Column column) {
+
+        Length length = Length.decode(buffer, column.getType());
+        buffer.skipBytes(length.getLength());
+    }
+
     /**
      * Returns the {@link ByteBuf data} for the column at {@code index}.
      *
@@ -170,6 +251,24 @@ public class RowToken extends AbstractReferenceCounted implements DataToken {
         return this.data.get(index);
     }
 
+    /**
+     * Returns the number of bytes held by the column data of this row.
+     *
+     * @return the number of bytes held by the column data.
+     */
+    public int getDataLength() {
+
+        int length = 0;
+
+        for (ByteBuf columnData : this.data) {
+            if (columnData != null) {
+                length += columnData.readableBytes();
+            }
+        }
+
+        return length;
+    }
+
     @Override
     public byte getType() {
         return TYPE;
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql.message.token;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.r2dbc.mssql.message.ClientMessage;
+import io.r2dbc.mssql.message.tds.Encode;
+import io.r2dbc.mssql.message.tds.TdsFragment;
+import io.r2dbc.mssql.message.tds.TdsPackets;
+import io.r2dbc.mssql.util.Assert;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Batch of {@link RpcRequest RPC requests} sent within a single RPC message. Requests are separated by the batch flag and share the
+ * {@link AllHeaders} of the first request. The server executes the requests in order and responds to each request with a
+ * {@link DoneProcToken}. All but the last {@link DoneProcToken} indicate that more results follow.
+ *
+ * @author Mark Paluch
+ */
+public final class RpcBatch implements ClientMessage, TokenStream {
+
+    /**
+     * Batch separator for TDS 7.2 and later.
+     */
+    static final byte BATCH_FLAG = (byte) 0xFF;
+
+    private final List<RpcRequest> requests;
+
+    private RpcBatch(List<RpcRequest> requests) {
+        this.requests = requests;
+    }
+
+    /**
+     * Creates a new {@link RpcBatch} from the given {@link RpcRequest requests}.
+     *
+     * @param requests the requests to batch.
+     * @return the {@link RpcBatch}.
+     * @throws IllegalArgumentException when {@code requests} is {@code null}, empty, or contains requests with streamed parameters.
+     */
+    public static RpcBatch create(List<RpcRequest> requests) {
+
+        Assert.requireNonNull(requests, "Requests must not be null");
+        Assert.isTrue(!requests.isEmpty(), "Requests must not be empty");
+
+        for (RpcRequest request : requests) {
+            Assert.isTrue(!request.isStreaming(), "Requests with streamed parameters cannot be batched");
+        }
+
+        return new RpcBatch(Collections.unmodifiableList(new ArrayList<>(requests)));
+    }
+
+    @Override
+    public Publisher<TdsFragment> encode(ByteBufAllocator allocator) {
+
+        Assert.requireNonNull(allocator, "ByteBufAllocator must not be null");
+
+        return Mono.fromSupplier(() -> {
+
+            AllHeaders allHeaders = this.requests.get(0).getAllHeaders();
+            int length = allHeaders.getLength() + this.requests.size() - 1;
+
+            for (RpcRequest request : this.requests) {
+                length += request.estimateRequestLength();
+            }
+
+            ByteBuf buffer = allocator.buffer(length);
+
+            encode(buffer, allHeaders);
+            return TdsPackets.create(RpcRequest.HEADER, buffer);
+        });
+    }
+
+    private void encode(ByteBuf buffer, AllHeaders allHeaders) {
+
+        allHeaders.encode(buffer);
+
+        for (int i = 0; i < this.requests.size(); i++) {
+
+            if (i != 0) {
+                Encode.asByte(buffer, BATCH_FLAG);
+            }
+
+            this.requests.get(i).encodeRequest(buffer);
+        }
+    }
+
+    public List<RpcRequest> getRequests() {
+        return this.requests;
+    }
+
+    @Override
+    public String getName() {
+        return "RPCBatch";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RpcBatch)) {
+            return false;
+        }
+        RpcBatch batch = (RpcBatch) o;
+        return Objects.equals(this.requests, batch.requests);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.requests);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuffer sb = new StringBuffer();
+        sb.append(getName());
+        sb.append(" [requests=").append(this.requests);
+        sb.append(']');
+        return sb.toString();
+    }
+}
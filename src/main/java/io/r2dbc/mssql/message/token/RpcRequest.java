@@ -19,6 +19,7 @@ package io.r2dbc.mssql.message.token;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.r2dbc.mssql.codec.Encoded;
+import io.r2dbc.mssql.codec.PlpEncoded;
 import io.r2dbc.mssql.codec.RpcDirection;
 import io.r2dbc.mssql.codec.RpcEncoding;
 import io.r2dbc.mssql.message.ClientMessage;
@@ -32,15 +33,19 @@ import io.r2dbc.mssql.message.tds.TdsPackets;
 import io.r2dbc.mssql.message.type.Collation;
 import io.r2dbc.mssql.util.Assert;
 import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.annotation.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
- * RPC request to invoke stored procedures.
+ * RPC request to invoke stored procedures. Requests that contain {@link PlpEncoded streamed parameters} are encoded as a sequence of fragments. Streamed
+ * parameters are written chunk by chunk while sending the request so large values are never materialized in memory. If a stream fails, the message is
+ * terminated using the {@link Status.StatusBit#IGNORE ignore} bit so the server discards the partially transmitted request.
  *
  * @author Mark Paluch
  */
@@ -127,6 +132,9 @@ public final class RpcRequest implements ClientMessage, TokenStream {
 
     private static final short PROC_ID_SWITCH = (short) 0xFFFF;
 
+    private static final Consumer<Throwable> NO_OP = e -> {
+    };
+
     private final AllHeaders allHeaders;
 
     @Nullable
@@ -140,7 +148,10 @@ public final class RpcRequest implements ClientMessage, TokenStream {
 
     private final List<ParameterDescriptor> parameterDescriptors;
 
-    private RpcRequest(AllHeaders allHeaders, @Nullable String procName, @Nullable Integer procId, OptionFlags optionFlags, byte statusFlags, List<ParameterDescriptor> parameterDescriptors) {
+    private final Consumer<Throwable> abortHandler;
+
+    private RpcRequest(AllHeaders allHeaders, @Nullable String procName, @Nullable Integer procId, OptionFlags optionFlags, byte statusFlags, List<ParameterDescriptor> parameterDescriptors,
+                       Consumer<Throwable> abortHandler) {
 
         this.allHeaders = Assert.requireNonNull(allHeaders, "AllHeaders must not be null");
         this.procName = procName;
@@ -148,6 +159,7 @@ public final class RpcRequest implements ClientMessage, TokenStream {
         this.optionFlags = Assert.requireNonNull(optionFlags, "Option flags must not be null");
         this.statusFlags = statusFlags;
         this.parameterDescriptors = parameterDescriptors;
+        this.abortHandler = abortHandler;
     }
 
     /**
@@ -164,25 +176,103 @@ public final class RpcRequest implements ClientMessage, TokenStream {
 
         Assert.requireNonNull(allocator, "ByteBufAllocator must not be null");
 
-        return Mono.fromSupplier(() -> {
-
-            int name = 2 + (this.procName != null ? this.procName.length() * 2 : 0);
-            int length = 4 + name + this.allHeaders.getLength();
+        if (isStreaming()) {
+            return encodeStreaming(allocator);
+        }
 
-            for (ParameterDescriptor descriptor : this.parameterDescriptors) {
-                length += descriptor.estimateLength();
-            }
+        return Mono.fromSupplier(() -> {
 
-            ByteBuf buffer = allocator.buffer(length);
+            ByteBuf buffer = allocator.buffer(this.allHeaders.getLength() + estimateRequestLength());
 
             encode(buffer);
             return TdsPackets.create(HEADER, buffer);
         });
     }
 
+    private Flux<TdsFragment> encodeStreaming(ByteBufAllocator allocator) {
+
+        return Flux.defer(() -> {
+
+            FragmentBuffer fragments = new FragmentBuffer(allocator, Type.RPC);
+
+            this.allHeaders.encode(fragments.buffer);
+            encodeProcedure(fragments.buffer);
+
+            return Flux.fromIterable(this.parameterDescriptors).concatMap(descriptor -> descriptor.encode(fragments))
+                .concatWith(Mono.fromSupplier(fragments::last)).onErrorResume(e -> {
+
+                    releaseParameters();
+                    this.abortHandler.accept(e);
+                    return Mono.fromSupplier(fragments::abort);
+                }).doOnCancel(() -> {
+
+                    releaseParameters();
+                    fragments.release();
+                });
+        });
+    }
+
+    private void releaseParameters() {
+
+        for (ParameterDescriptor descriptor : this.parameterDescriptors) {
+            descriptor.release();
+        }
+    }
+
+    /**
+     * Returns whether this request contains {@link PlpEncoded streamed parameters}. Streamed requests cannot be {@link RpcBatch batched}.
+     *
+     * @return {@literal true} if this request contains streamed parameters.
+     */
+    boolean isStreaming() {
+
+        for (ParameterDescriptor descriptor : this.parameterDescriptors) {
+            if (descriptor.isStreaming()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     private void encode(ByteBuf buffer) {
 
         this.allHeaders.encode(buffer);
+        encodeRequest(buffer);
+    }
+
+    /**
+     * Estimate the length of the encoded request without {@link AllHeaders}.
+     *
+     * @return the estimated length.
+     */
+    int estimateRequestLength() {
+
+        int name = 2 + (this.procName != null ? this.procName.length() * 2 : 0);
+        int length = 4 + name;
+
+        for (ParameterDescriptor descriptor : this.parameterDescriptors) {
+            length += descriptor.estimateLength();
+        }
+
+        return length;
+    }
+
+    /**
+     * Encode the request (procedure, option flags, and parameters) without {@link AllHeaders}.
+     *
+     * @param buffer the data buffer.
+     */
+    void encodeRequest(ByteBuf buffer) {
+
+        encodeProcedure(buffer);
+
+        for (ParameterDescriptor descriptor : this.parameterDescriptors) {
+            descriptor.encode(buffer);
+        }
+    }
+
+    private void encodeProcedure(ByteBuf buffer) {
 
         if (this.procId != null) {
             Encode.uShort(buffer, PROC_ID_SWITCH);
@@ -194,10 +284,10 @@ public final class RpcRequest implements ClientMessage, TokenStream {
 
         Encode.asByte(buffer, this.optionFlags.getValue());
         Encode.asByte(buffer, this.statusFlags);
+    }
 
-        for (ParameterDescriptor descriptor : this.parameterDescriptors) {
-            descriptor.encode(buffer);
-        }
+    AllHeaders getAllHeaders() {
+        return this.allHeaders;
     }
 
     @Nullable
@@ -267,6 +357,8 @@ public final class RpcRequest implements ClientMessage, TokenStream {
 
         private List<ParameterDescriptor> parameterDescriptors = new ArrayList<>();
 
+        private Consumer<Throwable> abortHandler = NO_OP;
+
         /**
          * Configure a procedure name.
          *
@@ -439,6 +531,20 @@ public final class RpcRequest implements ClientMessage, TokenStream {
             return this;
         }
 
+        /**
+         * Configure a callback to notify when a {@link PlpEncoded streamed parameter} fails and the request gets discarded.
+         *
+         * @param abortHandler the callback to notify.
+         * @return {@literal this} {@link Builder}.
+         * @throws IllegalArgumentException when {@code abortHandler} is {@code null}.
+         */
+        public Builder withAbortHandler(Consumer<Throwable> abortHandler) {
+
+            this.abortHandler = Assert.requireNonNull(abortHandler, "Abort handler must not be null");
+
+            return this;
+        }
+
         /**
          * Build a {@link RpcRequest}.
          *
@@ -451,7 +557,7 @@ public final class RpcRequest implements ClientMessage, TokenStream {
             Assert.state(this.procName != null || this.procId != null, "Either procedure name or procedure Id required");
 
             return new RpcRequest(AllHeaders.transactional(this.transactionDescriptor.toBytes(), 1), this.procName, this.procId, this.optionFlags, this.statusFlags,
-                new ArrayList<>(this.parameterDescriptors));
+                new ArrayList<>(this.parameterDescriptors), this.abortHandler);
         }
     }
 
@@ -536,6 +642,35 @@ public final class RpcRequest implements ClientMessage, TokenStream {
          */
         abstract void encode(ByteBuf buffer);
 
+        /**
+         * Encode the parameter value into a {@link FragmentBuffer} and emit fragments once the buffer is full.
+         *
+         * @param fragments the fragment buffer to use as encode target.
+         * @return the fragments to send.
+         */
+        Flux<TdsFragment> encode(FragmentBuffer fragments) {
+
+            return Flux.defer(() -> {
+
+                encode(fragments.buffer);
+
+                return fragments.isFull() ? Mono.just(fragments.next()) : Mono.<TdsFragment>empty();
+            });
+        }
+
+        /**
+         * @return {@literal true} if the parameter value is streamed.
+         */
+        boolean isStreaming() {
+            return false;
+        }
+
+        /**
+         * Release the parameter value if it was not yet encoded.
+         */
+        void release() {
+        }
+
         /**
          * Estimate the encoded parameter length.
          *
@@ -673,11 +808,60 @@ public final class RpcRequest implements ClientMessage, TokenStream {
 
         @Override
         void encode(ByteBuf buffer) {
+
+            Assert.state(!isStreaming(), "Streamed parameters must be encoded into a FragmentBuffer");
+
             RpcEncoding.encodeHeader(buffer, getName(), getDirection(), this.value.getDataType());
             buffer.writeBytes(this.value.getValue());
             this.value.release();
         }
 
+        @Override
+        Flux<TdsFragment> encode(FragmentBuffer fragments) {
+
+            if (!isStreaming()) {
+                return super.encode(fragments);
+            }
+
+            PlpEncoded plp = (PlpEncoded) this.value;
+
+            return Flux.defer(() -> {
+
+                RpcEncoding.encodeHeader(fragments.buffer, getName(), getDirection(), plp.getDataType());
+                fragments.buffer.writeBytes(plp.getValue());
+                plp.release();
+
+                return Flux.from(plp.chunks()).<TdsFragment>handle((chunk, sink) -> {
+
+                    try {
+                        if (chunk.isReadable()) {
+                            Encode.dword(fragments.buffer, chunk.readableBytes());
+                            fragments.buffer.writeBytes(chunk);
+                        }
+                    } finally {
+                        chunk.release();
+                    }
+
+                    if (fragments.isFull()) {
+                        sink.next(fragments.next());
+                    }
+                }).concatWith(Mono.<TdsFragment>fromRunnable(() -> Encode.dword(fragments.buffer, 0))); // PLP terminator
+            });
+        }
+
+        @Override
+        boolean isStreaming() {
+            return this.value instanceof PlpEncoded;
+        }
+
+        @Override
+        void release() {
+
+            if (this.value.refCnt() > 0) {
+                this.value.release();
+            }
+        }
+
         @Override
         int estimateLength() {
 
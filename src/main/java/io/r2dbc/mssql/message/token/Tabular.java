@@ -91,6 +91,7 @@ public final class Tabular implements Message {
     private static DecodeFunction decodeFunction(boolean encryptionSupported) {
 
         AtomicReference<ColumnMetadataToken> columns = new AtomicReference<>();
+        RowScanner rowScanner = new RowScanner();
 
         return (type, buffer) -> {
 
@@ -181,22 +182,28 @@ public final class Tabular implements Message {
 
                 ColumnMetadataToken colMetadataToken = columns.get();
 
-                if (!RowToken.canDecode(buffer, colMetadataToken.getColumns())) {
+                if (!rowScanner.canDecode(buffer, colMetadataToken.getColumns())) {
                     return DecodeFinished.UNABLE_TO_DECODE;
                 }
 
-                return RowToken.decode(buffer, colMetadataToken.getColumns());
+                int rowLength = rowScanner.getRowLength();
+                rowScanner.reset();
+
+                return RowToken.decode(buffer, colMetadataToken.getColumns(), rowLength);
             }
 
             if (type == NbcRowToken.TYPE) {
 
                 ColumnMetadataToken colMetadataToken = columns.get();
 
-                if (!NbcRowToken.canDecode(buffer, colMetadataToken.getColumns())) {
+                if (!rowScanner.canDecodeNbc(buffer, colMetadataToken.getColumns())) {
                     return DecodeFinished.UNABLE_TO_DECODE;
                 }
 
-                return NbcRowToken.decode(buffer, colMetadataToken.getColumns());
+                int rowLength = rowScanner.getRowLength();
+                rowScanner.reset();
+
+                return NbcRowToken.decode(buffer, colMetadataToken.getColumns(), rowLength);
             }
 
             if (type == ReturnStatus.TYPE) {
@@ -333,7 +340,7 @@ public final class Tabular implements Message {
 
     /**
      * A stateful {@link TabularDecoder}. State is required to decode response chunks in multiple attempts/calls to a {@link DecodeFunction}. Typically, state is a previous
-     * {@link ColumnMetadataToken column description} for row results.
+     * {@link ColumnMetadataToken column description} for row results and the {@link RowScanner progress} of a row that is not yet entirely received.
      *
      * @author Mark Paluch
      */
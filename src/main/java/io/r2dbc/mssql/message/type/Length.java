@@ -30,6 +30,8 @@ public final class Length {
 
     public static final long PLP_NULL = 0xFFFFFFFFFFFFFFFFL;
 
+    public static final long PLP_UNKNOWN = 0xFFFFFFFFFFFFFFFEL;
+
     public static final int USHORT_NULL = 65535;
 
     public static final int UNKNOWN_STREAM_LENGTH = -1;
@@ -73,7 +75,9 @@ public final class Length {
     }
 
     /**
-     * Decode a {@link Length} for a {@link TypeInformation}.
+     * Decode a {@link Length} for a {@link TypeInformation}. PLP ({@link LengthStrategy#PARTLENTYPE partially length-prefixed}) values do not consume the
+     * length descriptor. Their {@link #getLength() length} covers the entire PLP value consisting of the total length, all length-prefixed chunks and the
+     * terminator chunk.
      *
      * @param buffer the data buffer.
      * @param type   {@link TypeInformation}.
@@ -84,11 +88,14 @@ public final class Length {
         switch (type.getLengthStrategy()) {
 
             case PARTLENTYPE: {
-                buffer.markReaderIndex();
-                long length = buffer.readLong();
-                buffer.resetReaderIndex();
 
-                return new Length(UNKNOWN_STREAM_LENGTH, length == PLP_NULL);
+                int length = getPlpLength(buffer);
+
+                if (length == -1) {
+                    throw ProtocolException.invalidTds("Incomplete PLP value");
+                }
+
+                return new Length(length, buffer.getLongLE(buffer.readerIndex()) == PLP_NULL);
             }
 
             case FIXEDLENTYPE:
@@ -160,7 +167,7 @@ public final class Length {
         switch (type.getLengthStrategy()) {
 
             case PARTLENTYPE:
-                return buffer.readableBytes() >= 4;
+                return getPlpLength(buffer) != -1;
 
             case FIXEDLENTYPE:
                 return true;
@@ -203,6 +210,47 @@ public final class Length {
         throw ProtocolException.invalidTds("Cannot parse value LengthDescriptor");
     }
 
+    /**
+     * Determine the length of a PLP value starting at the current reader index. Leaves the reader index unchanged.
+     *
+     * @param buffer the data buffer.
+     * @return the number of bytes of the PLP value including its total length, chunk lengths and the terminator chunk or {@code -1} if the buffer does not
+     * contain the entire value.
+     */
+    private static int getPlpLength(ByteBuf buffer) {
+
+        int readerIndex = buffer.readerIndex();
+        int writerIndex = buffer.writerIndex();
+
+        if (writerIndex - readerIndex < 8) {
+            return -1;
+        }
+
+        if (buffer.getLongLE(readerIndex) == PLP_NULL) {
+            return 8;
+        }
+
+        int index = readerIndex + 8;
+
+        while (writerIndex - index >= 4) {
+
+            int chunkLength = buffer.getIntLE(index);
+            index += 4;
+
+            if (chunkLength == 0) {
+                return index - readerIndex;
+            }
+
+            if (chunkLength < 0) {
+                throw ProtocolException.invalidTds(String.format("Invalid PLP chunk length [%d]", chunkLength & 0xFFFFFFFFL));
+            }
+
+            index += chunkLength;
+        }
+
+        return -1;
+    }
+
     public void encode(ByteBuf buffer, TypeInformation type) {
 
         switch (type.getLengthStrategy()) {
@@ -65,7 +65,10 @@ public enum TdsDataType {
     XML(0xF1, LengthStrategy.PARTLENTYPE), // -15
 
     // LONGLEN types
-    SQL_VARIANT(0x62, LengthStrategy.LONGLENTYPE); // 98
+    SQL_VARIANT(0x62, LengthStrategy.LONGLENTYPE), // 98
+
+    // Table-valued parameter (RPC parameters only), represented as token stream without a length prefix
+    TVP(0xF3, LengthStrategy.FIXEDLENTYPE); // -13
 
     // @formatter:on
 
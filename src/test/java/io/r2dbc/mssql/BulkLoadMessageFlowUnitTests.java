@@ -0,0 +1,132 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql;
+
+import io.r2dbc.mssql.client.TestClient;
+import io.r2dbc.mssql.codec.DefaultCodecs;
+import io.r2dbc.mssql.message.token.BulkLoad;
+import io.r2dbc.mssql.message.token.DoneToken;
+import io.r2dbc.mssql.message.token.SqlBatch;
+import io.r2dbc.mssql.util.TestByteBufAllocator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Unit tests for {@link BulkLoadMessageFlow}.
+ *
+ * @author Mark Paluch
+ */
+class BulkLoadMessageFlowUnitTests {
+
+    @Test
+    void shouldInsertBulkAndLoadRows() {
+
+        TestClient client = TestClient.builder()
+            .assertNextRequestWith(it -> assertThat(((SqlBatch) it).getSql()).isEqualTo("INSERT BULK [my_table] ([id] int, [first_name] nvarchar(4000))"))
+            .thenRespond(DoneToken.create(0))
+            .assertNextRequestWith(it -> assertThat(((BulkLoad) it).getColumnNames()).containsExactly("id", "first_name"))
+            .thenRespond(DoneToken.create(2))
+            .build();
+
+        Flux<Object[]> rows = Flux.just(new Object[]{1, "Walter"}, new Object[]{2, null});
+
+        BulkLoadMessageFlow.exchange(client, new DefaultCodecs(), "my_table", Arrays.asList("id", "first_name"), rows)
+            .as(StepVerifier::create)
+            .expectNext(2L)
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldFailAfterAbortingFailedRowStream() {
+
+        TestClient client = TestClient.builder()
+            .assertNextRequestWith(it -> assertThat(it).isInstanceOf(SqlBatch.class))
+            .thenRespond(DoneToken.create(0))
+            .assertNextRequestWith(it -> Flux.from(((BulkLoad) it).encode(TestByteBufAllocator.TEST)).subscribe(fragment -> fragment.getByteBuf().release()))
+            .thenRespond(Flux.never())
+            .build();
+
+        // second row fails to encode
+        Flux<Object[]> rows = Flux.just(new Object[]{1, "Walter"}, new Object[]{2});
+
+        BulkLoadMessageFlow.exchange(client, new DefaultCodecs(), "my_table", Arrays.asList("id", "first_name"), rows)
+            .as(StepVerifier::create)
+            .expectErrorMessage("Number of values [1] does not match the number of columns [2]")
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(client.getAttentionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectNullValuesInFirstRow() {
+
+        Flux<Object[]> rows = Flux.just(new Object[]{1, null});
+
+        BulkLoadMessageFlow.exchange(TestClient.NO_OP, new DefaultCodecs(), "my_table", Arrays.asList("id", "first_name"), rows)
+            .as(StepVerifier::create)
+            .verifyError(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldCompleteWithoutRows() {
+
+        BulkLoadMessageFlow.exchange(TestClient.NO_OP, new DefaultCodecs(), "my_table", Arrays.asList("id", "first_name"), Flux.empty())
+            .as(StepVerifier::create)
+            .expectNext(0L)
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldQuoteTableName() {
+
+        TestClient client = TestClient.builder()
+            .assertNextRequestWith(it -> assertThat(((SqlBatch) it).getSql()).isEqualTo("INSERT BULK [my_db]..[my]]table] ([id] int)"))
+            .thenRespond(DoneToken.create(0))
+            .assertNextRequestWith(it -> assertThat(it).isInstanceOf(BulkLoad.class))
+            .thenRespond(DoneToken.create(1))
+            .build();
+
+        BulkLoadMessageFlow.exchange(client, new DefaultCodecs(), "my_db..[my]]table]", Arrays.asList("id"), Flux.just(new Object[]{1}))
+            .as(StepVerifier::create)
+            .expectNext(1L)
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldQuoteNameParts() {
+
+        assertThat(BulkLoadMessageFlow.quoteName("#my_table")).isEqualTo("[#my_table]");
+        assertThat(BulkLoadMessageFlow.quoteName("dbo.my_table")).isEqualTo("[dbo].[my_table]");
+        assertThat(BulkLoadMessageFlow.quoteName("[my.db].\"my schema\".[my]]table]")).isEqualTo("[my.db].[my schema].[my]]table]");
+        assertThat(BulkLoadMessageFlow.quoteName("\"my\"\"table]\"")).isEqualTo("[my\"table]]]");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "my_table;DROP TABLE x", "my table", "dbo.", "[my_table", "[my_table]x", "[]", "my]table", "a.b.c.d.e"})
+    void shouldRejectInvalidNames(String name) {
+        assertThatIllegalArgumentException().isThrownBy(() -> BulkLoadMessageFlow.quoteName(name));
+    }
+}
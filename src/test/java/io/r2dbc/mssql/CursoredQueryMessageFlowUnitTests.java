@@ -34,12 +34,14 @@ import io.r2dbc.mssql.util.HexUtils;
 import io.r2dbc.mssql.util.TestByteBufAllocator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
 import reactor.core.publisher.SynchronousSink;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
@@ -198,6 +200,7 @@ class CursoredQueryMessageFlowUnitTests {
         CursorState state = new CursorState();
         state.cursorId = 42;
         state.hasMore = true;
+        state.request(1);
 
         CursoredQueryMessageFlow.onDone(client, 128, requests, state, completion);
 
@@ -213,6 +216,7 @@ class CursoredQueryMessageFlowUnitTests {
         state.cursorId = 42;
         state.phase = CursorState.Phase.FETCHING;
         state.hasSeenRows = true;
+        state.request(1);
 
         CursoredQueryMessageFlow.onDone(client, 128, requests, state, completion);
 
@@ -221,6 +225,78 @@ class CursoredQueryMessageFlowUnitTests {
         verifyZeroInteractions(completion);
     }
 
+    @Test
+    void shouldDeferFetchUntilDemand() {
+
+        CursorState state = new CursorState();
+        state.cursorId = 42;
+        state.phase = CursorState.Phase.FETCHING;
+        state.hasSeenRows = true;
+
+        CursoredQueryMessageFlow.onDone(client, 128, requests, state, completion);
+
+        assertThat(state.phase).isEqualTo(CursorState.Phase.FETCHING);
+        verifyZeroInteractions(requests);
+
+        CursoredQueryMessageFlow.onRequest(client, 128, requests, state, 10);
+        CursoredQueryMessageFlow.onRequest(client, 128, requests, state, 10);
+
+        verify(requests).next(CursoredQueryMessageFlow.spCursorFetch(state.cursorId, CursoredQueryMessageFlow.FETCH_NEXT, 128, TransactionDescriptor.empty()));
+        verifyZeroInteractions(completion);
+    }
+
+    @Test
+    void shouldCloseCursorWithPendingFetchOnCancel() {
+
+        CursorState state = new CursorState();
+        state.cursorId = 42;
+        state.phase = CursorState.Phase.FETCHING;
+        state.hasSeenRows = true;
+
+        CursoredQueryMessageFlow.onDone(client, 128, requests, state, completion);
+        CursoredQueryMessageFlow.onCancel(client, 128, requests, state, Flux.empty());
+
+        assertThat(state.phase).isEqualTo(CursorState.Phase.CLOSING);
+        verify(requests).next(CursoredQueryMessageFlow.spCursorClose(state.cursorId, TransactionDescriptor.empty()));
+        verifyZeroInteractions(completion);
+    }
+
+    @Test
+    void shouldCloseCursorAfterActiveFetchOnCancel() {
+
+        CursorState state = new CursorState();
+        state.cursorId = 42;
+        state.phase = CursorState.Phase.FETCHING;
+        state.hasSeenRows = true;
+        state.request(1);
+
+        CursoredQueryMessageFlow.onCancel(client, 128, requests, state, Flux.empty());
+
+        verifyZeroInteractions(requests);
+
+        CursoredQueryMessageFlow.onDone(client, 128, requests, state, completion);
+
+        assertThat(state.phase).isEqualTo(CursorState.Phase.CLOSING);
+        verify(requests).next(CursoredQueryMessageFlow.spCursorClose(state.cursorId, TransactionDescriptor.empty()));
+        verifyNoMoreInteractions(requests);
+    }
+
+    @Test
+    void shouldTrackDemand() {
+
+        CursorState state = new CursorState();
+
+        state.request(2);
+        state.produced();
+
+        assertThat(state.getDemand()).isEqualTo(1);
+
+        state.request(Long.MAX_VALUE);
+        state.produced();
+
+        assertThat(state.getDemand()).isEqualTo(Long.MAX_VALUE);
+    }
+
     @Test
     void shouldStopFetching() {
 
@@ -261,4 +337,75 @@ class CursoredQueryMessageFlowUnitTests {
         verifyZeroInteractions(requests);
         verify(completion).run();
     }
+
+    @Test
+    void shouldUseFixedFetchSize() {
+
+        CursorState state = new CursorState();
+        state.rowCount = 10;
+        state.rowBytes = 100;
+
+        assertThat(state.nextFetchSize(50)).isEqualTo(50);
+        assertThat(state.nextFetchSize(50)).isEqualTo(50);
+    }
+
+    @Test
+    void shouldGrowAdaptiveFetchSize() {
+
+        CursorState state = new CursorState();
+        state.request(Long.MAX_VALUE);
+
+        assertThat(state.nextFetchSize(0)).isEqualTo(CursoredQueryMessageFlow.ADAPTIVE_INITIAL_FETCH_SIZE);
+
+        state.rowCount = 128;
+        state.rowBytes = 128 * 100;
+
+        assertThat(state.nextFetchSize(0)).isEqualTo(256);
+        assertThat(state.nextFetchSize(0)).isEqualTo(512);
+
+        for (int i = 0; i < 10; i++) {
+            state.nextFetchSize(0);
+        }
+
+        assertThat(state.nextFetchSize(0)).isEqualTo(CursoredQueryMessageFlow.ADAPTIVE_MAX_FETCH_BYTES / 100);
+    }
+
+    @Test
+    void shouldLimitAdaptiveFetchSizeByRowSize() {
+
+        CursorState state = new CursorState();
+        state.request(Long.MAX_VALUE);
+        state.rowCount = 2;
+        state.rowBytes = 2 * 1024 * 1024;
+
+        assertThat(state.nextFetchSize(0)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldLimitAdaptiveFetchSizeByDemand() {
+
+        CursorState state = new CursorState();
+        state.request(10);
+
+        assertThat(state.nextFetchSize(0)).isEqualTo(10);
+
+        state.request(1000);
+
+        assertThat(state.nextFetchSize(0)).isEqualTo(CursoredQueryMessageFlow.ADAPTIVE_INITIAL_FETCH_SIZE);
+        assertThat(state.nextFetchSize(128)).isEqualTo(128);
+    }
+
+    @Test
+    void shouldFetchAccordingToDemand() {
+
+        CursorState state = new CursorState();
+        state.cursorId = 42;
+        state.phase = CursorState.Phase.FETCHING;
+        state.hasSeenRows = true;
+        state.request(5);
+
+        CursoredQueryMessageFlow.onDone(client, 0, requests, state, completion);
+
+        verify(requests).next(CursoredQueryMessageFlow.spCursorFetch(state.cursorId, CursoredQueryMessageFlow.FETCH_NEXT, 5, TransactionDescriptor.empty()));
+    }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql;
+
+import io.netty.buffer.Unpooled;
+import io.r2dbc.mssql.codec.Encoded;
+import io.r2dbc.mssql.message.type.TdsDataType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Unit tests for {@link LRUPreparedStatementCache}.
+ *
+ * @author Mark Paluch
+ */
+class LRUPreparedStatementCacheUnitTests {
+
+    Binding binding = new Binding().add("foo", Encoded.of(TdsDataType.INT8, Unpooled.EMPTY_BUFFER));
+
+    @Test
+    void shouldRejectNegativeSize() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new LRUPreparedStatementCache(-1));
+    }
+
+    @Test
+    void shouldCountHitsAndMisses() {
+
+        LRUPreparedStatementCache cache = new LRUPreparedStatementCache(2);
+
+        assertThat(cache.getHandle("SELECT 1", this.binding)).isEqualTo(PreparedStatementCache.UNPREPARED);
+
+        cache.putHandle(1, "SELECT 1", this.binding);
+
+        assertThat(cache.getHandle("SELECT 1", this.binding)).isEqualTo(1);
+        assertThat(cache.getHandle("SELECT 1", new Binding())).isEqualTo(PreparedStatementCache.UNPREPARED);
+
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(2);
+        assertThat(cache.getEvictions()).isZero();
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedHandle() {
+
+        LRUPreparedStatementCache cache = new LRUPreparedStatementCache(2);
+
+        cache.putHandle(1, "SELECT 1", this.binding);
+        cache.putHandle(2, "SELECT 2", this.binding);
+        cache.getHandle("SELECT 1", this.binding);
+        cache.putHandle(3, "SELECT 3", this.binding);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getHandle("SELECT 2", this.binding)).isEqualTo(PreparedStatementCache.UNPREPARED);
+        assertThat(cache.getHandle("SELECT 1", this.binding)).isEqualTo(1);
+        assertThat(cache.getHandle("SELECT 3", this.binding)).isEqualTo(3);
+        assertThat(cache.getEvictions()).isEqualTo(1);
+
+        assertThat(cache.pollEvictedHandles()).containsExactly(2);
+        assertThat(cache.pollEvictedHandles()).isEmpty();
+    }
+
+    @Test
+    void shouldEvictReplacedHandle() {
+
+        LRUPreparedStatementCache cache = new LRUPreparedStatementCache(2);
+
+        cache.putHandle(1, "SELECT 1", this.binding);
+        cache.putHandle(2, "SELECT 1", this.binding);
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getHandle("SELECT 1", this.binding)).isEqualTo(2);
+        assertThat(cache.pollEvictedHandles()).containsExactly(1);
+    }
+
+    @Test
+    void shouldNotRetainHandlesWithZeroSize() {
+
+        LRUPreparedStatementCache cache = new LRUPreparedStatementCache(0);
+
+        cache.putHandle(1, "SELECT 1", this.binding);
+
+        assertThat(cache.isEnabled()).isFalse();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getHandle("SELECT 1", this.binding)).isEqualTo(PreparedStatementCache.UNPREPARED);
+        assertThat(cache.pollEvictedHandles()).containsExactly(1);
+    }
+}
@@ -18,6 +18,7 @@ package io.r2dbc.mssql;
 
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -54,6 +55,24 @@ final class MssqlConnectionConfigurationUnitTests {
             .withMessage("password must not be null");
     }
 
+    @Test
+    void builderNegativeFetchSize() {
+        assertThatIllegalArgumentException().isThrownBy(() -> MssqlConnectionConfiguration.builder().fetchSize(-1))
+            .withMessage("fetchSize must be greater or equal to zero");
+    }
+
+    @Test
+    void builderInvalidPreparedStatementCacheQueries() {
+        assertThatIllegalArgumentException().isThrownBy(() -> MssqlConnectionConfiguration.builder().preparedStatementCacheQueries(-2))
+            .withMessage("preparedStatementCacheQueries must be greater or equal to -1");
+    }
+
+    @Test
+    void builderNegativeStatementTimeout() {
+        assertThatIllegalArgumentException().isThrownBy(() -> MssqlConnectionConfiguration.builder().statementTimeout(Duration.ofSeconds(-1)))
+            .withMessage("statement timeout must not be negative");
+    }
+
     @Test
     void builderNoUsername() {
         assertThatIllegalArgumentException().isThrownBy(() -> MssqlConnectionConfiguration.builder().username(null))
@@ -66,18 +85,24 @@ final class MssqlConnectionConfigurationUnitTests {
         MssqlConnectionConfiguration configuration = MssqlConnectionConfiguration.builder()
             .connectionId(connectionId)
             .database("test-database")
+            .fetchSize(0)
             .host("test-host")
             .password("test-password")
             .port(100)
+            .preparedStatementCacheQueries(10)
+            .statementTimeout(Duration.ofSeconds(5))
             .username("test-username")
             .build();
 
         assertThat(configuration)
             .hasFieldOrPropertyWithValue("connectionId", connectionId)
             .hasFieldOrPropertyWithValue("database", "test-database")
+            .hasFieldOrPropertyWithValue("fetchSize", 0)
             .hasFieldOrPropertyWithValue("host", "test-host")
             .hasFieldOrPropertyWithValue("password", "test-password")
             .hasFieldOrPropertyWithValue("port", 100)
+            .hasFieldOrPropertyWithValue("preparedStatementCacheQueries", 10)
+            .hasFieldOrPropertyWithValue("statementTimeout", Duration.ofSeconds(5))
             .hasFieldOrPropertyWithValue("username", "test-username");
     }
 
@@ -96,7 +121,10 @@ final class MssqlConnectionConfigurationUnitTests {
             .hasFieldOrPropertyWithValue("database", "test-database")
             .hasFieldOrPropertyWithValue("host", "test-host")
             .hasFieldOrPropertyWithValue("password", "test-password")
+            .hasFieldOrPropertyWithValue("fetchSize", 128)
             .hasFieldOrPropertyWithValue("port", 1433)
+            .hasFieldOrPropertyWithValue("preparedStatementCacheQueries", -1)
+            .hasFieldOrPropertyWithValue("statementTimeout", Duration.ZERO)
             .hasFieldOrPropertyWithValue("username", "test-username");
     }
 
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql;
+
+import io.r2dbc.mssql.message.token.RpcRequest;
+import io.r2dbc.mssql.util.TdsCaptures;
+import io.r2dbc.mssql.util.TdsStubServer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end tests running {@link MssqlConnectionFactory} against {@link TdsStubServer}.
+ *
+ * @author Mark Paluch
+ */
+class MssqlConnectionStubServerTests {
+
+    @RegisterExtension
+    static final TdsStubServer server = TdsStubServer.builder()
+        .onSqlBatch("INSERT INTO employee VALUES(1)", buffer -> TdsCaptures.writeTabularResponse(buffer, 0))
+        .onSqlBatch(sql -> sql.startsWith("EXEC"), buffer -> TdsCaptures.writeTabularResponse(buffer, 1000))
+        .onRpc(RpcRequest.Sp_CursorOpen, buffer -> TdsCaptures.writeDirectCursorResponse(buffer, 200))
+        .onRpc(RpcRequest.Sp_ExecuteSql, buffer -> TdsCaptures.writeRpcResponse(buffer, 10))
+        .build();
+
+    @RegisterExtension
+    static final TdsStubServer cursorServer = TdsStubServer.builder()
+        .onSqlBatch("INSERT INTO employee VALUES(1)", buffer -> TdsCaptures.writeTabularResponse(buffer, 0))
+        .onRpc(RpcRequest.Sp_CursorOpen, buffer -> TdsCaptures.writeCursorOpenResponse(buffer, 180150003))
+        .onRpc(RpcRequest.Sp_CursorFetch, buffer -> TdsCaptures.writeCursorFetchResponse(buffer, 10))
+        .onRpc(RpcRequest.Sp_CursorClose, TdsCaptures::writeCursorCloseResponse)
+        .build();
+
+    MssqlConnectionFactory connectionFactory = new MssqlConnectionFactory(server.configurationBuilder().build());
+
+    @Test
+    void shouldReportUpdateCount() {
+
+        connectionFactory.create()
+            .flatMapMany(connection -> connection.createStatement("INSERT INTO employee VALUES(1)").execute()
+                .flatMap(MssqlResult::getRowsUpdated)
+                .concatWith(connection.close().then().cast(Integer.class)))
+            .as(StepVerifier::create)
+            .expectNext(0)
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldMapRowsOfSqlBatch() {
+
+        connectionFactory.create()
+            .flatMapMany(connection -> connection.createStatement("EXEC my_procedure").execute()
+                .flatMap(result -> result.map((row, metadata) -> row.get("last_name", String.class)))
+                .concatWith(connection.close().then().cast(String.class)))
+            .as(StepVerifier::create)
+            .expectNextCount(999)
+            .expectNext("paluch")
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldMapRowsOnDemand() {
+
+        connectionFactory.create()
+            .flatMapMany(connection -> connection.createStatement("EXEC my_procedure").execute()
+                .concatMap(result -> result.map((row, metadata) -> row.get("last_name", String.class)))
+                .concatWith(connection.close().then().cast(String.class)))
+            .as(it -> StepVerifier.create(it, 1))
+            .expectNextCount(1)
+            .thenAwait(Duration.ofMillis(100))
+            .thenRequest(998)
+            .expectNextCount(998)
+            .thenAwait(Duration.ofMillis(100))
+            .thenRequest(1)
+            .expectNext("paluch")
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldMapRowsOfCursoredQuery() {
+
+        connectionFactory.create()
+            .flatMapMany(connection -> connection.createStatement("SELECT * FROM employee").execute()
+                .flatMap(result -> result.map((row, metadata) -> row.get("last_name", String.class)))
+                .concatWith(connection.close().then().cast(String.class)))
+            .as(StepVerifier::create)
+            .expectNextCount(200)
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldMapRowsOfDirectExecution() {
+
+        MssqlConnectionFactory connectionFactory = new MssqlConnectionFactory(server.configurationBuilder().preferCursoredExecution(false).build());
+
+        connectionFactory.create()
+            .flatMapMany(connection -> connection.createStatement("SELECT * FROM employee WHERE last_name = @name").bind("name", "paluch").execute()
+                .flatMap(result -> result.map((row, metadata) -> row.get("last_name", String.class)))
+                .concatWith(connection.close().then().cast(String.class)))
+            .as(StepVerifier::create)
+            .expectNextCount(10)
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldAbortCancelledQuery() {
+
+        connectionFactory.create()
+            .flatMapMany(connection -> connection.createStatement("EXEC my_procedure").execute()
+                .concatMap(result -> result.map((row, metadata) -> row.get("last_name", String.class)))
+                .take(1)
+                .concatWith(connection.createStatement("INSERT INTO employee VALUES(1)").execute().flatMap(MssqlResult::getRowsUpdated).map(Object::toString))
+                .concatWith(connection.close().then().cast(String.class)))
+            .as(StepVerifier::create)
+            .expectNextCount(1)
+            .expectNext("0")
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldCloseCursorOfCancelledQuery() {
+
+        MssqlConnectionFactory connectionFactory = new MssqlConnectionFactory(cursorServer.configurationBuilder().build());
+
+        connectionFactory.create()
+            .flatMapMany(connection -> connection.createStatement("SELECT * FROM employee").execute()
+                .concatMap(result -> result.map((row, metadata) -> row.get("last_name", String.class)))
+                .take(1)
+                .concatWith(connection.createStatement("INSERT INTO employee VALUES(1)").execute().flatMap(MssqlResult::getRowsUpdated).map(Object::toString))
+                .concatWith(connection.close().then().cast(String.class)))
+            .as(StepVerifier::create)
+            .expectNext("paluch")
+            .expectNext("0")
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void shouldFailOnUnsupportedMessageType() {
+
+        connectionFactory.create()
+            .flatMap(connection -> connection.bulkInsert("employee", Collections.singletonList("id"), Flux.just(new Object[]{1}, new Object[]{2}))
+                .onErrorResume(e -> connection.close().then(Mono.error(e))))
+            .as(StepVerifier::create)
+            .verifyErrorSatisfies(e -> assertThat(e).isInstanceOf(MssqlException.class).hasMessageContaining("unsupported message type [BULK_LOAD_DATA]"));
+    }
+
+    @Test
+    void shouldConnectMultipleTimes() {
+
+        Flux.range(0, 10)
+            .flatMap(ignore -> connectionFactory.create().flatMap(MssqlConnection::close))
+            .as(StepVerifier::create)
+            .verifyComplete();
+    }
+}
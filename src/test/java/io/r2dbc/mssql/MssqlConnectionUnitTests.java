@@ -29,6 +29,8 @@ import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
@@ -153,6 +155,16 @@ class MssqlConnectionUnitTests {
         assertThatThrownBy(() -> connection.releaseSavepoint("foo")).isInstanceOf(UnsupportedOperationException.class);
     }
 
+    @Test
+    void shouldCreateStatementsAccordingToCursorPreference() {
+
+        Client clientMock = mock(Client.class);
+        MssqlConnection connection = new MssqlConnection(clientMock, new ConnectionOptions(128, sql -> sql.contains("cursored"), new IndefinitePreparedStatementCache(), Duration.ZERO));
+
+        assertThat(connection.createStatement("SELECT * FROM cursored")).isInstanceOf(SimpleCursoredMssqlStatement.class);
+        assertThat(connection.createStatement("SELECT * FROM direct")).isExactlyInstanceOf(SimpleMssqlStatement.class);
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {"0", "a", "A", "foo", "foo_bar"})
     void shouldAllowSavepointNames(String name) {
@@ -17,9 +17,14 @@
 package io.r2dbc.mssql;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.Unpooled;
+import io.r2dbc.mssql.codec.Decoder;
 import io.r2dbc.mssql.codec.Codecs;
+import io.r2dbc.mssql.codec.Decodable;
 import io.r2dbc.mssql.codec.DefaultCodecs;
+import io.r2dbc.mssql.codec.Encoded;
+import io.r2dbc.mssql.codec.RpcParameterContext;
 import io.r2dbc.mssql.message.token.Column;
 import io.r2dbc.mssql.message.token.RowToken;
 import io.r2dbc.mssql.message.type.LengthStrategy;
@@ -29,6 +34,7 @@ import io.r2dbc.spi.Nullability;
 import org.junit.jupiter.api.Test;
 
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.r2dbc.mssql.message.type.TypeInformation.builder;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -79,4 +85,73 @@ class MssqlRowMetadataUnitTests {
     void shouldReturnMetadataForAllColumns() {
         assertThat(rowMetadata.getColumnMetadatas()).hasSize(1);
     }
+
+    @Test
+    void shouldResolveDecodingCodecOncePerType() {
+
+        CountingCodecs counting = new CountingCodecs(codecs);
+        MssqlRowMetadata rowMetadata = new MssqlRowMetadata(counting, Collections.singletonList(column), Collections.singletonMap("foo", column));
+        ByteBuf columnData = rowToken.getColumnData(0);
+        int readerIndex = columnData.readerIndex();
+
+        MssqlRowMetadata.ColumnDecoder decoder = rowMetadata.getDecoder("foo");
+
+        assertThat(rowMetadata.getDecoder(0)).isSameAs(decoder);
+        assertThat(decoder.decode(columnData, Integer.class)).isEqualTo(66);
+        assertThat(decoder.decode(columnData, Integer.class)).isEqualTo(66);
+        assertThat(columnData.readerIndex()).isEqualTo(readerIndex);
+        assertThat(counting.resolutions).hasValue(1);
+
+        assertThat(decoder.decode(columnData, Long.class)).isEqualTo(66L);
+        assertThat(decoder.decode(null, Long.class)).isNull();
+        assertThat(counting.resolutions).hasValue(2);
+    }
+
+    static class CountingCodecs implements Codecs {
+
+        final Codecs delegate;
+
+        final AtomicInteger resolutions = new AtomicInteger();
+
+        CountingCodecs(Codecs delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Encoded encode(ByteBufAllocator allocator, RpcParameterContext context, Object value) {
+            return this.delegate.encode(allocator, context, value);
+        }
+
+        @Override
+        public Encoded encodeNull(ByteBufAllocator allocator, Class<?> type) {
+            return this.delegate.encodeNull(allocator, type);
+        }
+
+        @Override
+        public <T> T decode(ByteBuf buffer, Decodable decodable, Class<? extends T> type) {
+            return this.delegate.decode(buffer, decodable, type);
+        }
+
+        @Override
+        public <T> Decoder<T> getDecoder(Decodable decodable, Class<? extends T> type) {
+
+            this.resolutions.incrementAndGet();
+            return this.delegate.getDecoder(decodable, type);
+        }
+
+        @Override
+        public long decodeLong(ByteBuf buffer, Decodable decodable) {
+            return this.delegate.decodeLong(buffer, decodable);
+        }
+
+        @Override
+        public double decodeDouble(ByteBuf buffer, Decodable decodable) {
+            return this.delegate.decodeDouble(buffer, decodable);
+        }
+
+        @Override
+        public Class<?> getJavaType(TypeInformation type) {
+            return this.delegate.getJavaType(type);
+        }
+    }
 }
@@ -22,14 +22,22 @@ import io.r2dbc.mssql.codec.Codecs;
 import io.r2dbc.mssql.codec.DefaultCodecs;
 import io.r2dbc.mssql.message.token.Column;
 import io.r2dbc.mssql.message.token.RowToken;
+import io.r2dbc.mssql.message.type.LengthStrategy;
+import io.r2dbc.mssql.message.type.SqlServerType;
 import io.r2dbc.mssql.message.type.TypeInformation;
+import io.r2dbc.mssql.util.HexUtils;
 import io.r2dbc.mssql.util.Types;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
 
 /**
  * Unit tests for {@link MssqlRow}.
@@ -50,7 +58,7 @@ class MssqlRowUnitTests {
 
     MssqlRowMetadata rowMetadata = new MssqlRowMetadata(codecs, Collections.singletonList(column), Collections.singletonMap("foo", column));
 
-    MssqlRow row = new MssqlRow(codecs, rowToken, rowMetadata);
+    MssqlRow row = new MssqlRow(rowToken, rowMetadata);
 
     @Test
     void shouldReadRowByIndex() {
@@ -66,6 +74,55 @@ class MssqlRowUnitTests {
         assertThat(row.get("foo", Integer.class)).isEqualTo(66);
     }
 
+    @Test
+    void shouldReadPrimitives() {
+
+        assertThat(row.getInt(0)).isEqualTo(66);
+        assertThat(row.getLong("foo")).isEqualTo(66L);
+        assertThat(row.getDouble(0)).isEqualTo(66d);
+        assertThat(row.getBoolean(0)).isTrue();
+        assertThat(row.isNull(0)).isFalse();
+        assertThat(row.get(0)).isEqualTo(66);
+    }
+
+    @Test
+    void shouldReadPrimitiveNullValues() {
+
+        TypeInformation real = TypeInformation.builder().withLengthStrategy(LengthStrategy.BYTELENTYPE).withServerType(SqlServerType.REAL).withMaxLength(4).build();
+        Column number = new Column(0, "number", integer, null);
+        Column floating = new Column(1, "floating", real, null);
+        List<Column> columns = Arrays.asList(number, floating);
+
+        Map<String, Column> nameKeyed = new HashMap<>();
+        nameKeyed.put("number", number);
+        nameKeyed.put("floating", floating);
+
+        MssqlRow row = new MssqlRow(RowToken.decode(HexUtils.decodeToByteBuf("000437423146"), columns), new MssqlRowMetadata(codecs, columns, nameKeyed));
+
+        assertThat(row.isNull("number")).isTrue();
+        assertThat(row.getInt("number")).isZero();
+        assertThat(row.getBoolean("number")).isFalse();
+        assertThat(row.get("number")).isNull();
+
+        assertThat(row.isNull("floating")).isFalse();
+        assertThat(row.getDouble("floating")).isCloseTo(11344.554, offset(0.01));
+        assertThatThrownBy(() -> row.getLong("floating")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldRejectIntOverflow() {
+
+        TypeInformation bigint = TypeInformation.builder().withLengthStrategy(LengthStrategy.BYTELENTYPE).withServerType(SqlServerType.BIGINT).withMaxLength(8).build();
+        Column number = new Column(0, "number", bigint, null);
+        List<Column> columns = Collections.singletonList(number);
+
+        MssqlRow row = new MssqlRow(RowToken.decode(HexUtils.decodeToByteBuf("080000000001000000"), columns), new MssqlRowMetadata(codecs, columns,
+            Collections.singletonMap("number", number)));
+
+        assertThat(row.getLong("number")).isEqualTo(4294967296L);
+        assertThatThrownBy(() -> row.getInt("number")).isInstanceOf(ArithmeticException.class);
+    }
+
     @Test
     void releaseShouldDeallocateResources() {
 
@@ -21,12 +21,18 @@ import io.r2dbc.mssql.client.TestClient;
 import io.r2dbc.mssql.codec.DefaultCodecs;
 import io.r2dbc.mssql.codec.Encoded;
 import io.r2dbc.mssql.codec.RpcParameterContext;
+import io.r2dbc.mssql.message.Message;
+import io.r2dbc.mssql.message.token.DoneProcToken;
 import io.r2dbc.mssql.message.token.ReturnValue;
+import io.r2dbc.mssql.message.token.RpcBatch;
 import io.r2dbc.mssql.message.token.RpcRequest;
+import io.r2dbc.mssql.util.HexUtils;
 import io.r2dbc.mssql.util.TestByteBufAllocator;
 import io.r2dbc.mssql.util.Types;
 import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static io.r2dbc.mssql.PreparedMssqlStatement.ParsedQuery;
@@ -161,4 +167,118 @@ class PreparedMssqlStatementUnitTests {
         assertThat(this.statementCache.getHandle(sql, binding)).isEqualTo(1);
         assertThat(this.statementCache.size()).isEqualTo(1);
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldUnprepareEvictedHandles() {
+
+        Encoded cursorId = new DefaultCodecs().encode(TestByteBufAllocator.TEST, RpcParameterContext.in(), 123);
+        cursorId.getValue().skipBytes(1); // skip maxlen byte
+
+        List<RpcRequest> requests = new ArrayList<>();
+
+        TestClient testClient = TestClient.builder()
+            .assertNextRequestWith(it -> requests.addAll(((RpcBatch) it).getRequests()))
+            .thenRespond(DoneProcToken.decode(HexUtils.decodeToByteBuf("0100 C000 0000000000000000")), new ReturnValue(0, null, (byte) 0, Types.integer(),
+                cursorId.getValue()))
+            .build();
+
+        String sql = "SELECT * from FOO where firstname = @firstname";
+        LRUPreparedStatementCache statementCache = new LRUPreparedStatementCache(1);
+        PreparedMssqlStatement statement = new PreparedMssqlStatement(statementCache, testClient, new DefaultCodecs(), sql);
+
+        statement.bind("firstname", "");
+
+        Binding binding = statement.getBindings().getCurrent();
+
+        statementCache.putHandle(1, "SELECT * from BAR where firstname = @firstname", binding);
+        statementCache.putHandle(2, sql, binding);
+
+        statement.execute().subscribe();
+
+        assertThat(requests).extracting(RpcRequest::getProcId).containsExactly((int) RpcRequest.Sp_CursorUnprepare, (int) RpcRequest.Sp_CursorExecute);
+        assertThat(statementCache.pollEvictedHandles()).isEmpty();
+        assertThat(statementCache.getHandle(sql, binding)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldResolveHandleOnceRequestIsSent() {
+
+        Encoded cursorId = new DefaultCodecs().encode(TestByteBufAllocator.TEST, RpcParameterContext.in(), 123);
+        cursorId.getValue().skipBytes(1); // skip maxlen byte
+
+        List<RpcRequest> requests = new ArrayList<>();
+
+        TestClient testClient = TestClient.builder()
+            .assertNextRequestWith(it -> requests.addAll(((RpcBatch) it).getRequests()))
+            .thenRespond(DoneProcToken.decode(HexUtils.decodeToByteBuf("0100 C000 0000000000000000")), new ReturnValue(0, null, (byte) 0, Types.integer(),
+                cursorId.getValue()))
+            .build();
+
+        String sql = "SELECT * from FOO where firstname = @firstname";
+        LRUPreparedStatementCache statementCache = new LRUPreparedStatementCache(1);
+        PreparedMssqlStatement statement = new PreparedMssqlStatement(statementCache, testClient, new DefaultCodecs(), sql);
+
+        statement.bind("firstname", "");
+
+        Binding binding = statement.getBindings().getCurrent();
+
+        Flux<Message> exchange = CursoredQueryMessageFlow.exchange(statementCache, testClient, new DefaultCodecs(), sql, binding, 0, new CursoredQueryMessageFlow.RowDemand());
+
+        statementCache.putHandle(1, "SELECT * from BAR where firstname = @firstname", binding);
+        statementCache.putHandle(2, sql, binding);
+
+        exchange.subscribe();
+
+        assertThat(requests).extracting(RpcRequest::getProcId).containsExactly((int) RpcRequest.Sp_CursorUnprepare, (int) RpcRequest.Sp_CursorExecute);
+        assertThat(statementCache.pollEvictedHandles()).isEmpty();
+    }
+
+    @Test
+    void shouldExecuteDirectlyWithoutStatementCache() {
+
+        List<RpcRequest> requests = new ArrayList<>();
+
+        TestClient testClient = TestClient.builder()
+            .assertNextRequestWith(it -> requests.add((RpcRequest) it))
+            .thenRespond(DoneProcToken.create(0))
+            .build();
+
+        String sql = "SELECT * from FOO where firstname = @firstname";
+        LRUPreparedStatementCache statementCache = new LRUPreparedStatementCache(0);
+        PreparedMssqlStatement statement = new PreparedMssqlStatement(statementCache, testClient, new DefaultCodecs(), sql);
+
+        statement.bind("firstname", "");
+        statement.execute().subscribe();
+
+        assertThat(requests).extracting(RpcRequest::getProcId).containsExactly((int) RpcRequest.Sp_ExecuteSql);
+        assertThat(statementCache.size()).isZero();
+    }
+
+    @Test
+    void shouldUnprepareEvictedHandlesWithDirectExecution() {
+
+        List<RpcRequest> requests = new ArrayList<>();
+
+        TestClient testClient = TestClient.builder()
+            .assertNextRequestWith(it -> requests.addAll(((RpcBatch) it).getRequests()))
+            .thenRespond(DoneProcToken.decode(HexUtils.decodeToByteBuf("0100 C000 0000000000000000")), DoneProcToken.create(0))
+            .build();
+
+        String sql = "SELECT * from FOO where firstname = @firstname";
+        LRUPreparedStatementCache statementCache = new LRUPreparedStatementCache(1);
+        PreparedMssqlStatement statement = new PreparedMssqlStatement(statementCache, testClient, new DefaultCodecs(), sql, false);
+
+        statement.bind("firstname", "");
+
+        Binding binding = statement.getBindings().getCurrent();
+
+        statementCache.putHandle(1, "SELECT * from BAR where firstname = @firstname", binding);
+        statementCache.putHandle(2, "SELECT * from BAZ where firstname = @firstname", binding);
+
+        statement.execute().subscribe();
+
+        assertThat(requests).extracting(RpcRequest::getProcId).containsExactly((int) RpcRequest.Sp_CursorUnprepare, (int) RpcRequest.Sp_ExecuteSql);
+        assertThat(statementCache.pollEvictedHandles()).isEmpty();
+    }
 }
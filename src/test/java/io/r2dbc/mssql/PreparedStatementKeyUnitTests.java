@@ -0,0 +1,82 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql;
+
+import io.netty.buffer.Unpooled;
+import io.r2dbc.mssql.codec.Encoded;
+import io.r2dbc.mssql.message.type.TdsDataType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link PreparedStatementKey}.
+ *
+ * @author Mark Paluch
+ */
+class PreparedStatementKeyUnitTests {
+
+    @Test
+    void shouldConsiderSqlAndFormalParameters() {
+
+        Binding bigint = new Binding().add("foo", Encoded.of(TdsDataType.INT8, Unpooled.EMPTY_BUFFER));
+        Binding otherBigint = new Binding().add("foo", Encoded.of(TdsDataType.INT8, Unpooled.EMPTY_BUFFER));
+        Binding money = new Binding().add("foo", Encoded.of(TdsDataType.MONEY8, Unpooled.EMPTY_BUFFER));
+
+        PreparedStatementKey key = PreparedStatementKey.of("SELECT @foo", bigint);
+
+        assertThat(key).isEqualTo(PreparedStatementKey.of("SELECT @foo", otherBigint)).hasSameHashCodeAs(PreparedStatementKey.of("SELECT @foo", otherBigint));
+        assertThat(key).isNotEqualTo(PreparedStatementKey.of("SELECT @foo", money));
+        assertThat(key).isNotEqualTo(PreparedStatementKey.of("SELECT @bar", bigint));
+    }
+
+    @Test
+    void shouldNotConfuseSqlAndParameterBoundaries() {
+
+        Binding binding = new Binding().add("foo", Encoded.of(TdsDataType.INT8, Unpooled.EMPTY_BUFFER));
+
+        assertThat(PreparedStatementKey.of("SELECT 1-@foo bigint", new Binding())).isNotEqualTo(PreparedStatementKey.of("SELECT 1", binding));
+    }
+
+    @Test
+    void shouldRetainKeyInBinding() {
+
+        Binding binding = new Binding().add("foo", Encoded.of(TdsDataType.INT8, Unpooled.EMPTY_BUFFER));
+
+        PreparedStatementKey key = PreparedStatementKey.of("SELECT @foo", binding);
+
+        assertThat(PreparedStatementKey.of("SELECT @foo", binding)).isSameAs(key);
+        assertThat(PreparedStatementKey.of("SELECT @bar", binding)).isNotSameAs(key);
+
+        binding.add("bar", Encoded.of(TdsDataType.INT8, Unpooled.EMPTY_BUFFER));
+
+        assertThat(PreparedStatementKey.of("SELECT @bar", binding)).isNotEqualTo(key);
+    }
+
+    @Test
+    void shouldShareSignatureOfBindings() {
+
+        Binding first = new Binding().add("foo", Encoded.of(TdsDataType.INT8, Unpooled.EMPTY_BUFFER));
+        Binding second = new Binding().add("foo", Encoded.of(TdsDataType.INT8, Unpooled.EMPTY_BUFFER));
+
+        PreparedStatementKey key = PreparedStatementKey.of("SELECT @foo", first);
+        second.shareSignature(first);
+
+        assertThat(PreparedStatementKey.of("SELECT @foo", second)).isSameAs(key);
+        assertThat(second.getFormalParameters()).isSameAs(first.getFormalParameters());
+    }
+}
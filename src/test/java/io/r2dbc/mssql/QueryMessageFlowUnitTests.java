@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql;
+
+import io.r2dbc.mssql.client.TestClient;
+import io.r2dbc.mssql.message.token.AbstractDoneToken;
+import io.r2dbc.mssql.message.token.DoneToken;
+import io.r2dbc.mssql.message.token.SqlBatch;
+import io.r2dbc.mssql.util.HexUtils;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link QueryMessageFlow}.
+ *
+ * @author Mark Paluch
+ */
+class QueryMessageFlowUnitTests {
+
+    @Test
+    void shouldSendAttentionOnCancel() {
+
+        DoneToken more = DoneToken.decode(HexUtils.decodeToByteBuf("1100 C100 0100000000000000"));
+
+        TestClient client = TestClient.builder()
+            .assertNextRequestWith(it -> assertThat(it).isInstanceOf(SqlBatch.class))
+            .thenRespond(more, DoneToken.create(1))
+            .build();
+
+        StepVerifier.create(QueryMessageFlow.exchange(client, "SELECT 1; SELECT 2"), 1)
+            .expectNext(more)
+            .thenCancel()
+            .verify();
+
+        assertThat(client.getAttentionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotSendAttentionAfterCompletedResponse() {
+
+        DoneToken done = DoneToken.create(1);
+
+        TestClient client = TestClient.builder()
+            .assertNextRequestWith(it -> assertThat(it).isInstanceOf(SqlBatch.class))
+            .thenRespond(done)
+            .build();
+
+        QueryMessageFlow.exchange(client, "SELECT 1")
+            .filter(AbstractDoneToken.class::isInstance)
+            .next()
+            .as(StepVerifier::create)
+            .expectNext(done)
+            .verifyComplete();
+
+        assertThat(client.getAttentionCount()).isZero();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.r2dbc.mssql;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link QueryTimeout}.
+ *
+ * @author Mark Paluch
+ */
+class QueryTimeoutUnitTests {
+
+    @Test
+    void shouldNotApplyZeroTimeout() {
+
+        Flux<String> source = Flux.just("foo");
+
+        assertThat(QueryTimeout.timeout(source, Duration.ZERO)).isSameAs(source);
+    }
+
+    @Test
+    void shouldCompleteWithinTimeout() {
+
+        QueryTimeout.timeout(Flux.just("foo", "bar"), Duration.ofSeconds(10))
+            .as(StepVerifier::create)
+            .expectNext("foo", "bar")
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldCancelExchangeOnTimeout() {
+
+        AtomicBoolean cancelled = new AtomicBoolean();
+
+        QueryTimeout.timeout(Flux.<String>never().doOnCancel(() -> cancelled.set(true)), Duration.ofMillis(50))
+            .as(StepVerifier::create)
+            .expectError(QueryTimeoutException.class)
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(cancelled).isTrue();
+    }
+
+    @Test
+    void shouldReleaseMessagesAfterTimeout() {
+
+        AtomicReference<Subscriber<? super ByteBuf>> subscriber = new AtomicReference<>();
+        Flux<ByteBuf> source = Flux.from(it -> {
+            it.onSubscribe(Operators.emptySubscription());
+            subscriber.set(it);
+        });
+
+        QueryTimeout.timeout(source, Duration.ofMillis(50))
+            .as(StepVerifier::create)
+            .expectError(QueryTimeoutException.class)
+            .verify(Duration.ofSeconds(5));
+
+        ByteBuf message = Unpooled.buffer();
+        subscriber.get().onNext(message);
+
+        assertThat(message.refCnt()).isZero();
+    }
+}
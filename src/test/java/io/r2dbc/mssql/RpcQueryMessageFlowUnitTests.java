@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql;
+
+import io.r2dbc.mssql.client.TestClient;
+import io.r2dbc.mssql.message.TransactionDescriptor;
+import io.r2dbc.mssql.message.token.DoneInProcToken;
+import io.r2dbc.mssql.message.token.DoneProcToken;
+import io.r2dbc.mssql.message.token.ReturnStatus;
+import io.r2dbc.mssql.message.token.RpcBatch;
+import io.r2dbc.mssql.message.token.RpcRequest;
+import io.r2dbc.mssql.message.type.Collation;
+import io.r2dbc.mssql.util.HexUtils;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link RpcQueryMessageFlow}.
+ *
+ * @author Mark Paluch
+ */
+class RpcQueryMessageFlowUnitTests {
+
+    @Test
+    void shouldCreateSpExecuteSql() {
+
+        Collation collation = Collation.from(13632521, 52);
+
+        RpcRequest rpcRequest = RpcQueryMessageFlow.spExecuteSql("SELECT * FROM my_table", new Binding(), collation, TransactionDescriptor.empty());
+
+        assertThat(rpcRequest.getProcId()).isEqualTo(RpcRequest.Sp_ExecuteSql);
+    }
+
+    @Test
+    void shouldCompleteOnDoneProc() {
+
+        DoneInProcToken count = DoneInProcToken.create(1);
+
+        TestClient client = TestClient.builder()
+            .assertNextRequestWith(it -> assertThat(((RpcRequest) it).getProcId()).isEqualTo(RpcRequest.Sp_ExecuteSql))
+            .thenRespond(count, ReturnStatus.create(0), DoneProcToken.create(0))
+            .build();
+
+        RpcQueryMessageFlow.exchange(client, "UPDATE my_table SET foo = 1", new Binding())
+            .as(StepVerifier::create)
+            .expectNext(count)
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldPipelineBindingsInRpcBatch() {
+
+        DoneInProcToken first = DoneInProcToken.create(1);
+        DoneInProcToken second = DoneInProcToken.create(2);
+        DoneProcToken more = DoneProcToken.decode(HexUtils.decodeToByteBuf("1100 C000 0000000000000000"));
+
+        TestClient client = TestClient.builder()
+            .assertNextRequestWith(it -> assertThat(((RpcBatch) it).getRequests()).extracting(RpcRequest::getProcId).containsExactly((int) RpcRequest.Sp_ExecuteSql,
+                (int) RpcRequest.Sp_ExecuteSql))
+            .thenRespond(first, ReturnStatus.create(0), more, second, ReturnStatus.create(0), DoneProcToken.create(0))
+            .build();
+
+        RpcQueryMessageFlow.exchange(client, "UPDATE my_table SET foo = 1", Arrays.asList(new Binding(), new Binding()))
+            .as(StepVerifier::create)
+            .expectNext(first, second)
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldSkipUnprepareResponses() {
+
+        DoneInProcToken count = DoneInProcToken.create(1);
+        DoneProcToken more = DoneProcToken.decode(HexUtils.decodeToByteBuf("0100 C000 0000000000000000"));
+
+        LRUPreparedStatementCache statementCache = new LRUPreparedStatementCache(1);
+        statementCache.putHandle(1, "SELECT 1", new Binding());
+        statementCache.putHandle(2, "SELECT 2", new Binding());
+
+        TestClient client = TestClient.builder()
+            .assertNextRequestWith(it -> assertThat(((RpcBatch) it).getRequests()).extracting(RpcRequest::getProcId).containsExactly((int) RpcRequest.Sp_CursorUnprepare,
+                (int) RpcRequest.Sp_ExecuteSql))
+            .thenRespond(ReturnStatus.create(0), more, count, ReturnStatus.create(0), DoneProcToken.create(0))
+            .build();
+
+        RpcQueryMessageFlow.exchange(statementCache, client, "UPDATE my_table SET foo = 1", new Binding())
+            .as(StepVerifier::create)
+            .expectNext(count)
+            .verifyComplete();
+
+        assertThat(statementCache.pollEvictedHandles()).isEmpty();
+    }
+
+    @Test
+    void shouldSendAttentionOnCancel() {
+
+        DoneInProcToken count = DoneInProcToken.create(1);
+
+        TestClient client = TestClient.builder()
+            .assertNextRequestWith(it -> assertThat(((RpcRequest) it).getProcId()).isEqualTo(RpcRequest.Sp_ExecuteSql))
+            .thenRespond(count, DoneInProcToken.create(2), ReturnStatus.create(0), DoneProcToken.create(0))
+            .build();
+
+        StepVerifier.create(RpcQueryMessageFlow.exchange(client, "UPDATE my_table SET foo = 1", new Binding()), 1)
+            .expectNext(count)
+            .thenCancel()
+            .verify();
+
+        assertThat(client.getAttentionCount()).isEqualTo(1);
+    }
+}
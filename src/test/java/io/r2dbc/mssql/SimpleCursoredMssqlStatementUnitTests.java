@@ -16,8 +16,27 @@
 
 package io.r2dbc.mssql;
 
+import io.r2dbc.mssql.client.TestClient;
+import io.r2dbc.mssql.codec.DefaultCodecs;
+import io.r2dbc.mssql.codec.Encoded;
+import io.r2dbc.mssql.codec.RpcParameterContext;
+import io.r2dbc.mssql.message.ClientMessage;
+import io.r2dbc.mssql.message.TransactionDescriptor;
+import io.r2dbc.mssql.message.token.DoneInProcToken;
+import io.r2dbc.mssql.message.token.DoneProcToken;
+import io.r2dbc.mssql.message.token.ReturnValue;
+import io.r2dbc.mssql.message.token.RpcRequest;
+import io.r2dbc.mssql.util.HexUtils;
+import io.r2dbc.mssql.util.TdsCaptures;
+import io.r2dbc.mssql.util.TestByteBufAllocator;
+import io.r2dbc.mssql.util.Types;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -39,4 +58,59 @@ class SimpleCursoredMssqlStatementUnitTests {
     void shouldRejectQueries(String query) {
         assertThat(SimpleCursoredMssqlStatement.supports(query)).isFalse();
     }
+
+    @Test
+    void shouldSizeAdaptiveFetchByRequestedRows() {
+
+        List<ClientMessage> fetches = new ArrayList<>();
+        TestClient client = cursor(fetches);
+
+        new SimpleCursoredMssqlStatement(client, new DefaultCodecs(), "SELECT * FROM employee").fetchSize(0)
+            .execute()
+            .concatMap(result -> result.map((row, metadata) -> row))
+            .as(StepVerifier::create)
+            .verifyComplete();
+
+        assertThat(fetches).containsExactly(CursoredQueryMessageFlow.spCursorFetch(123, CursoredQueryMessageFlow.FETCH_NEXT,
+            CursoredQueryMessageFlow.ADAPTIVE_INITIAL_FETCH_SIZE, TransactionDescriptor.empty()));
+    }
+
+    @Test
+    void shouldFetchOnceRowsAreRequested() {
+
+        List<ClientMessage> fetches = new ArrayList<>();
+        TestClient client = cursor(fetches);
+
+        new SimpleCursoredMssqlStatement(client, new DefaultCodecs(), "SELECT * FROM employee").fetchSize(100)
+            .execute()
+            .concatMap(result -> result.map((row, metadata) -> row))
+            .as(it -> StepVerifier.create(it, 0))
+            .then(() -> assertThat(fetches).isEmpty())
+            .thenRequest(1)
+            .then(() -> assertThat(fetches).containsExactly(CursoredQueryMessageFlow.spCursorFetch(123, CursoredQueryMessageFlow.FETCH_NEXT, 100,
+                TransactionDescriptor.empty())))
+            .verifyComplete();
+    }
+
+    /**
+     * Create a {@link TestClient} that opens a cursor, records fetch requests, and responds to the first fetch without rows.
+     */
+    private static TestClient cursor(List<ClientMessage> fetches) {
+
+        Encoded cursorId = new DefaultCodecs().encode(TestByteBufAllocator.TEST, RpcParameterContext.in(), 123);
+        cursorId.getValue().skipBytes(1); // skip maxlen byte
+
+        DoneInProcToken more = DoneInProcToken.decode(HexUtils.decodeToByteBuf("0100 C100 0000000000000000"));
+
+        return TestClient.builder()
+            .window()
+            .assertNextRequestWith(it -> assertThat(((RpcRequest) it).getProcId()).isEqualTo((int) RpcRequest.Sp_CursorOpen))
+            .thenRespond(TdsCaptures.columnMetadata(), more, new ReturnValue(0, null, (byte) 0, Types.integer(), cursorId.getValue()), DoneProcToken.create(0))
+            .assertNextRequestWith(fetches::add)
+            .thenRespond(DoneInProcToken.create(0), DoneProcToken.create(0))
+            .assertNextRequestWith(it -> assertThat(((RpcRequest) it).getProcId()).isEqualTo((int) RpcRequest.Sp_CursorClose))
+            .thenRespond(DoneProcToken.create(0))
+            .done()
+            .build();
+    }
 }
@@ -80,12 +80,12 @@ class ConnectionStateUnitTests {
     }
 
     @Test
-    void shouldAdvancePreloginState() {
+    void shouldAdvanceToLoginWithoutEncryption() {
 
         Prelogin prelogin = Prelogin.builder().withEncryptionNotSupported().build();
 
         ConnectionState next = ConnectionState.PRELOGIN.next(prelogin, nettyConnection);
 
-        assertThat(next).isEqualTo(ConnectionState.PRELOGIN);
+        assertThat(next).isEqualTo(ConnectionState.LOGIN);
     }
 }
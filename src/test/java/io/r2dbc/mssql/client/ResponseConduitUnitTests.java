@@ -0,0 +1,206 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.r2dbc.mssql.client;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.r2dbc.mssql.message.Message;
+import io.r2dbc.mssql.message.tds.ProtocolException;
+import io.r2dbc.mssql.message.token.DoneToken;
+import io.r2dbc.mssql.util.HexUtils;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link ResponseConduit}.
+ *
+ * @author Mark Paluch
+ */
+class ResponseConduitUnitTests {
+
+    EmbeddedChannel channel = new EmbeddedChannel();
+
+    ResponseConduit conduit = new ResponseConduit(this.channel);
+
+    @Test
+    void shouldRouteMessagesToActiveExchange() {
+
+        DoneToken count = DoneToken.count(1);
+        DoneToken done = DoneToken.create(2);
+
+        exchange().as(StepVerifier::create)
+            .then(() -> {
+                this.conduit.onNext(count);
+                this.conduit.onNext(done);
+                this.conduit.onComplete();
+            })
+            .expectNext(count, done)
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldToggleAutoReadAccordingToDemand() {
+
+        DoneToken first = DoneToken.count(1);
+        DoneToken second = DoneToken.count(2);
+
+        StepVerifier.create(exchange(), 0)
+            .then(() -> assertThat(this.channel.config().isAutoRead()).isFalse())
+            .thenRequest(1)
+            .then(() -> {
+
+                assertThat(this.channel.config().isAutoRead()).isTrue();
+                this.conduit.onNext(first);
+
+                assertThat(this.conduit.isReadPaused()).isTrue();
+                assertThat(this.channel.config().isAutoRead()).isFalse();
+            })
+            .expectNext(first)
+            .thenRequest(2)
+            .then(() -> {
+
+                assertThat(this.channel.config().isAutoRead()).isTrue();
+                this.conduit.onNext(second);
+
+                assertThat(this.conduit.isReadPaused()).isFalse();
+            })
+            .expectNext(second)
+            .thenCancel()
+            .verify();
+
+        assertThat(this.channel.config().isAutoRead()).isTrue();
+    }
+
+    @Test
+    void shouldActivateExchangesInOrder() {
+
+        DoneToken done = DoneToken.create(1);
+        DoneToken next = DoneToken.create(2);
+
+        AtomicInteger activations = new AtomicInteger();
+        AtomicBoolean firstCompleted = new AtomicBoolean();
+        List<Message> first = new ArrayList<>();
+        List<Message> second = new ArrayList<>();
+
+        Disposable firstExchange = exchange(activations::incrementAndGet).subscribe(first::add, e -> {
+        }, () -> firstCompleted.set(true));
+        exchange(activations::incrementAndGet).subscribe(second::add);
+
+        assertThat(activations).hasValue(1);
+
+        this.conduit.onNext(done);
+
+        assertThat(first).containsOnly(done);
+        assertThat(firstCompleted).isFalse();
+        assertThat(activations).hasValue(1);
+
+        firstExchange.dispose();
+
+        assertThat(activations).hasValue(2);
+
+        this.conduit.onNext(next);
+
+        assertThat(first).containsOnly(done);
+        assertThat(second).containsOnly(next);
+    }
+
+    @Test
+    void shouldSkipExchangeCancelledBeforeActivation() {
+
+        DoneToken done = DoneToken.create(1);
+
+        AtomicInteger activations = new AtomicInteger();
+        List<Message> third = new ArrayList<>();
+
+        Disposable firstExchange = exchange().subscribe();
+        exchange(activations::incrementAndGet).subscribe().dispose();
+        exchange(activations::incrementAndGet).subscribe(third::add);
+
+        firstExchange.dispose();
+
+        assertThat(activations).hasValue(1);
+
+        this.conduit.onNext(done);
+
+        assertThat(third).containsOnly(done);
+    }
+
+    @Test
+    void shouldDiscardRemainderOfCancelledResponse() {
+
+        DoneToken first = more(1);
+        DoneToken next = DoneToken.create(3);
+
+        AtomicBoolean activated = new AtomicBoolean();
+
+        exchange().as(StepVerifier::create)
+            .then(() -> this.conduit.onNext(first))
+            .expectNext(first)
+            .thenCancel()
+            .verify();
+
+        exchange(() -> activated.set(true)).as(StepVerifier::create)
+            .then(() -> {
+
+                this.conduit.onNext(more(2));
+                assertThat(activated).isFalse();
+
+                this.conduit.onNext(DoneToken.create(2));
+                assertThat(activated).isTrue();
+
+                this.conduit.onNext(next);
+            })
+            .expectNext(next)
+            .thenCancel()
+            .verify();
+    }
+
+    @Test
+    void shouldPropagateErrorToSubsequentExchanges() {
+
+        ProtocolException exception = ProtocolException.invalidTds("Invalid TDS");
+
+        exchange().as(StepVerifier::create)
+            .then(() -> this.conduit.onError(exception))
+            .verifyErrorSatisfies(it -> assertThat(it).isSameAs(exception));
+
+        exchange().as(StepVerifier::create)
+            .verifyErrorSatisfies(it -> assertThat(it).isSameAs(exception));
+    }
+
+    private static DoneToken more(int rowCount) {
+        return DoneToken.decode(HexUtils.decodeToByteBuf(String.format("1100 C100 %02X00000000000000", rowCount)));
+    }
+
+    private Flux<Message> exchange() {
+        return exchange(() -> {
+        });
+    }
+
+    private Flux<Message> exchange(Runnable activation) {
+        return Flux.create(sink -> this.conduit.register(sink, activation));
+    }
+}
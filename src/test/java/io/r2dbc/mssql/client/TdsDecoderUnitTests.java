@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2019 the original author or authors.
+ * Copyright 2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package io.r2dbc.mssql.client;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
 import io.r2dbc.mssql.message.Message;
 import io.r2dbc.mssql.message.header.Header;
 import io.r2dbc.mssql.message.header.HeaderOptions;
@@ -27,25 +28,25 @@ import io.r2dbc.mssql.message.header.Type;
 import io.r2dbc.mssql.message.token.DoneToken;
 import io.r2dbc.mssql.util.TestByteBufAllocator;
 import org.junit.jupiter.api.Test;
-import reactor.core.publisher.Flux;
-import reactor.test.StepVerifier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
- * Unit tests for {@link StreamDecoder}.
+ * Unit tests for {@link TdsDecoder}.
  *
  * @author Mark Paluch
  */
-class StreamDecoderUnitTests {
+class TdsDecoderUnitTests {
 
     static final Client CLIENT = TestClient.NO_OP;
 
+    TdsDecoder decoder = new TdsDecoder(() -> ConnectionState.POST_LOGIN.decoder(CLIENT));
+
+    EmbeddedChannel channel = new EmbeddedChannel(this.decoder);
+
     @Test
     void shouldDecodeFullPacket() {
 
-        StreamDecoder decoder = new StreamDecoder();
-
         Header header = Header.create(HeaderOptions.create(Type.TABULAR_RESULT, Status.of(Status.StatusBit.EOM)), Header.LENGTH + DoneToken.LENGTH, PacketIdProvider.just(1));
         DoneToken token = DoneToken.create(2);
 
@@ -54,59 +55,46 @@ class StreamDecoderUnitTests {
         header.encode(buffer);
         token.encode(buffer);
 
-        Flux<Message> messageStream = decoder.decode(buffer, ConnectionState.POST_LOGIN.decoder(CLIENT));
+        this.channel.writeInbound(buffer);
 
-        messageStream.as(StepVerifier::create)
-            .expectNext(token)
-            .verifyComplete();
+        assertThat((Message) this.channel.readInbound()).isEqualTo(token);
+        assertThat((Message) this.channel.readInbound()).isNull();
 
-        assertThat(decoder.getDecoderState()).isNull();
+        assertThat(this.decoder.getHeader()).isNull();
+        assertThat(this.decoder.getAggregatedBodyLength()).isZero();
         assertThat(buffer.refCnt()).isEqualTo(0);
     }
 
     @Test
     void shouldDecodePartialPacket() {
 
-        StreamDecoder decoder = new StreamDecoder();
-
         DoneToken token = DoneToken.create(2);
 
         // Just the header type.
         ByteBuf partial = Unpooled.wrappedBuffer(new byte[]{4});
 
-        Flux<Message> noMessage = decoder.decode(partial, ConnectionState.POST_LOGIN.decoder(CLIENT));
-
-        noMessage.as(StepVerifier::create)
-            .verifyComplete();
+        this.channel.writeInbound(partial);
 
-        StreamDecoder.DecoderState state = decoder.getDecoderState();
-        assertThat(state).isNotNull();
-        assertThat(state.header).isNull();
-        assertThat(state.remainder.readableBytes()).isEqualTo(1);
-        assertThat(state.aggregatedBody.readableBytes()).isEqualTo(0);
+        assertThat((Message) this.channel.readInbound()).isNull();
+        assertThat(this.decoder.getHeader()).isNull();
+        assertThat(this.decoder.getAggregatedBodyLength()).isZero();
         assertThat(partial.refCnt()).isEqualTo(1);
 
         ByteBuf nextPacket = TestByteBufAllocator.TEST.buffer();
         nextPacket.writeBytes(new byte[]{1, 0, 0x15, 0, 0, 0, 0});
         token.encode(nextPacket);
 
-        Flux<Message> completeMessage = decoder.decode(nextPacket, ConnectionState.POST_LOGIN.decoder(CLIENT));
+        this.channel.writeInbound(nextPacket);
 
-        completeMessage.as(StepVerifier::create)
-            .expectNext(token)
-            .verifyComplete();
+        assertThat((Message) this.channel.readInbound()).isEqualTo(token);
 
-        assertThat(decoder.getDecoderState()).isNull();
         assertThat(partial.refCnt()).isEqualTo(0);
-
         assertThat(nextPacket.refCnt()).isEqualTo(0);
     }
 
     @Test
     void shouldDecodePacketWithNextRemainder() {
 
-        StreamDecoder decoder = new StreamDecoder();
-
         Header header = Header.create(HeaderOptions.create(Type.TABULAR_RESULT, Status.of(Status.StatusBit.EOM)), Header.LENGTH + DoneToken.LENGTH, PacketIdProvider.just(1));
         DoneToken token = DoneToken.create(2);
 
@@ -116,26 +104,19 @@ class StreamDecoderUnitTests {
         token.encode(buffer);
         buffer.writeByte(4);
 
-        Flux<Message> completeMessage = decoder.decode(buffer, ConnectionState.POST_LOGIN.decoder(CLIENT));
-
-        completeMessage.as(StepVerifier::create)
-            .expectNext(token)
-            .verifyComplete();
+        this.channel.writeInbound(buffer);
 
-        StreamDecoder.DecoderState state = decoder.getDecoderState();
-        assertThat(state).isNotNull();
-        assertThat(state.header).isNull();
-        assertThat(state.remainder.readableBytes()).isEqualTo(1);
-        assertThat(state.aggregatedBody.readableBytes()).isEqualTo(0);
+        assertThat((Message) this.channel.readInbound()).isEqualTo(token);
+        assertThat((Message) this.channel.readInbound()).isNull();
 
+        assertThat(this.decoder.getHeader()).isNull();
+        assertThat(this.decoder.getAggregatedBodyLength()).isZero();
         assertThat(buffer.refCnt()).isEqualTo(1);
     }
 
     @Test
     void shouldDecodePacketWithNextRemainderAfterNextHeader() {
 
-        StreamDecoder decoder = new StreamDecoder();
-
         Header header = Header.create(HeaderOptions.create(Type.TABULAR_RESULT, Status.of(Status.StatusBit.EOM)), Header.LENGTH + DoneToken.LENGTH, PacketIdProvider.just(1));
 
         Header header2 = Header.create(HeaderOptions.create(Type.TABULAR_RESULT, Status.of(Status.StatusBit.EOM)), Header.LENGTH + DoneToken.LENGTH, PacketIdProvider.just(2));
@@ -148,24 +129,18 @@ class StreamDecoderUnitTests {
         header2.encode(buffer);
         buffer.writeBytes(new byte[]{4, 2, 1});
 
-        Flux<Message> completeMessage = decoder.decode(buffer, ConnectionState.POST_LOGIN.decoder(CLIENT));
+        this.channel.writeInbound(buffer);
 
-        completeMessage.as(StepVerifier::create)
-            .expectNext(token)
-            .verifyComplete();
+        assertThat((Message) this.channel.readInbound()).isEqualTo(token);
+        assertThat((Message) this.channel.readInbound()).isNull();
 
-        StreamDecoder.DecoderState state = decoder.getDecoderState();
-        assertThat(state).isNotNull();
-        assertThat(state.header).isNotNull().isEqualTo(header2);
-        assertThat(state.remainder.readableBytes()).isEqualTo(3);
-        assertThat(state.aggregatedBody.readableBytes()).isEqualTo(0);
+        assertThat(this.decoder.getHeader()).isNotNull().isEqualTo(header2);
+        assertThat(this.decoder.getAggregatedBodyLength()).isZero();
     }
 
     @Test
     void shouldDecodeTwoPacketsFragmented() {
 
-        StreamDecoder decoder = new StreamDecoder();
-
         Header header = Header.create(HeaderOptions.create(Type.TABULAR_RESULT, Status.of(Status.StatusBit.EOM)), Header.LENGTH + DoneToken.LENGTH, PacketIdProvider.just(1));
 
         Header header2 = Header.create(HeaderOptions.create(Type.TABULAR_RESULT, Status.of(Status.StatusBit.EOM)), Header.LENGTH + DoneToken.LENGTH, PacketIdProvider.just(2));
@@ -180,27 +155,20 @@ class StreamDecoderUnitTests {
         header2.encode(buffer);
         buffer.writeBytes(new byte[]{nextBuffer.readByte(), nextBuffer.readByte(), nextBuffer.readByte()});
 
-        Flux<Message> firstMessage = decoder.decode(buffer, ConnectionState.POST_LOGIN.decoder(CLIENT));
+        this.channel.writeInbound(buffer);
 
-        firstMessage.as(StepVerifier::create)
-            .expectNext(token)
-            .verifyComplete();
+        assertThat((Message) this.channel.readInbound()).isEqualTo(token);
+        assertThat((Message) this.channel.readInbound()).isNull();
 
-        StreamDecoder.DecoderState state = decoder.getDecoderState();
-        assertThat(state).isNotNull();
-        assertThat(state.header).isNotNull().isEqualTo(header2);
-        assertThat(state.remainder.readableBytes()).isEqualTo(3);
-        assertThat(state.aggregatedBody.readableBytes()).isEqualTo(0);
+        assertThat(this.decoder.getHeader()).isNotNull().isEqualTo(header2);
+        assertThat(this.decoder.getAggregatedBodyLength()).isZero();
         assertThat(buffer.refCnt()).isEqualTo(1);
 
-        Flux<Message> secondMessage = decoder.decode(nextBuffer, ConnectionState.POST_LOGIN.decoder(CLIENT));
-
-        secondMessage.as(StepVerifier::create)
-            .expectNext(token)
-            .verifyComplete();
+        this.channel.writeInbound(nextBuffer);
 
-        assertThat(decoder.getDecoderState()).isNull();
+        assertThat((Message) this.channel.readInbound()).isEqualTo(token);
 
+        assertThat(this.decoder.getHeader()).isNull();
         assertThat(buffer.refCnt()).isEqualTo(0);
         assertThat(nextBuffer.refCnt()).isEqualTo(0);
     }
@@ -208,8 +176,6 @@ class StreamDecoderUnitTests {
     @Test
     void shouldDecodeChunkedPackets() {
 
-        StreamDecoder decoder = new StreamDecoder();
-
         Header firstHeader = Header.create(HeaderOptions.create(Type.TABULAR_RESULT, Status.empty()), Header.LENGTH + 3, PacketIdProvider.just(1));
 
         Header lastHeader = Header.create(HeaderOptions.create(Type.TABULAR_RESULT, Status.of(Status.StatusBit.EOM)), Header.LENGTH + 10, PacketIdProvider.just(2));
@@ -226,27 +192,65 @@ class StreamDecoderUnitTests {
         lastHeader.encode(lastChunk);
         lastChunk.writeBytes(fullData);
 
-        Flux<Message> firstAttempt = decoder.decode(firstChunk, ConnectionState.POST_LOGIN.decoder(CLIENT));
-
-        firstAttempt.as(StepVerifier::create)
-            .verifyComplete();
+        this.channel.writeInbound(firstChunk);
 
-        StreamDecoder.DecoderState state = decoder.getDecoderState();
-        assertThat(state).isNotNull();
-        assertThat(state.header).isNull(); // header completed
-        assertThat(state.remainder.readableBytes()).isEqualTo(0);
-        assertThat(state.aggregatedBody.readableBytes()).isEqualTo(3);
+        assertThat((Message) this.channel.readInbound()).isNull();
+        assertThat(this.decoder.getHeader()).isNull(); // header completed
+        assertThat(this.decoder.getAggregatedBodyLength()).isEqualTo(3);
         assertThat(firstChunk.refCnt()).isEqualTo(1);
 
-        Flux<Message> nextAttempt = decoder.decode(lastChunk, ConnectionState.POST_LOGIN.decoder(CLIENT));
-
-        nextAttempt.as(StepVerifier::create)
-            .expectNext(token)
-            .verifyComplete();
+        this.channel.writeInbound(lastChunk);
 
-        assertThat(decoder.getDecoderState()).isNull();
+        assertThat((Message) this.channel.readInbound()).isEqualTo(token);
 
+        assertThat(this.decoder.getAggregatedBodyLength()).isZero();
         assertThat(firstChunk.refCnt()).isEqualTo(0);
         assertThat(lastChunk.refCnt()).isEqualTo(0);
+
+        fullData.release();
+    }
+
+    @Test
+    void shouldDecodeTokenSpanningPacketsOfSingleBuffer() {
+
+        Header firstHeader = Header.create(HeaderOptions.create(Type.TABULAR_RESULT, Status.empty()), Header.LENGTH + 3, PacketIdProvider.just(1));
+        Header lastHeader = Header.create(HeaderOptions.create(Type.TABULAR_RESULT, Status.of(Status.StatusBit.EOM)), Header.LENGTH + DoneToken.LENGTH - 3,
+            PacketIdProvider.just(2));
+        DoneToken token = DoneToken.create(2);
+
+        ByteBuf fullData = TestByteBufAllocator.TEST.buffer();
+        token.encode(fullData);
+
+        ByteBuf buffer = TestByteBufAllocator.TEST.buffer();
+        firstHeader.encode(buffer);
+        buffer.writeBytes(fullData, 3);
+        lastHeader.encode(buffer);
+        buffer.writeBytes(fullData);
+
+        this.channel.writeInbound(buffer);
+
+        assertThat((Message) this.channel.readInbound()).isEqualTo(token);
+        assertThat(this.decoder.getAggregatedBodyLength()).isZero();
+        assertThat(buffer.refCnt()).isEqualTo(0);
+
+        fullData.release();
+    }
+
+    @Test
+    void shouldReleaseAggregatedBodyOnRemoval() {
+
+        Header firstHeader = Header.create(HeaderOptions.create(Type.TABULAR_RESULT, Status.empty()), Header.LENGTH + 3, PacketIdProvider.just(1));
+
+        ByteBuf buffer = TestByteBufAllocator.TEST.buffer();
+        firstHeader.encode(buffer);
+        buffer.writeBytes(new byte[]{(byte) 0xFD, 0, 0});
+
+        this.channel.writeInbound(buffer);
+
+        assertThat(buffer.refCnt()).isEqualTo(1);
+
+        this.channel.pipeline().remove(this.decoder);
+
+        assertThat(buffer.refCnt()).isEqualTo(0);
     }
 }
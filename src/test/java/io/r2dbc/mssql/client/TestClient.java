@@ -34,6 +34,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -55,6 +56,8 @@ public final class TestClient implements Client {
 
     private final TransactionStatus transactionStatus;
 
+    private final AtomicInteger attentions = new AtomicInteger();
+
     private TestClient(boolean expectClose, Flux<Window> windows, TransactionStatus transactionStatus) {
 
         this.expectClose = expectClose;
@@ -103,6 +106,20 @@ public final class TestClient implements Client {
             .flatMapMany(Function.identity());
     }
 
+    @Override
+    public Mono<Void> attention() {
+
+        this.attentions.incrementAndGet();
+        return Mono.empty();
+    }
+
+    /**
+     * @return the number of {@link #attention()} calls.
+     */
+    public int getAttentionCount() {
+        return this.attentions.get();
+    }
+
     @Override
     public ByteBufAllocator getByteBufAllocator() {
         return TestByteBufAllocator.TEST;
@@ -222,7 +239,7 @@ public final class TestClient implements Client {
                 return thenRespond(Flux.just(responses));
             }
 
-            T thenRespond(Publisher<Message> responses) {
+            public T thenRespond(Publisher<Message> responses) {
                 Assert.requireNonNull(responses, "Responses must not be null");
 
                 this.responses = responses;
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.r2dbc.mssql.message.tds.Encode;
+import io.r2dbc.mssql.message.type.LengthStrategy;
+import io.r2dbc.mssql.message.type.SqlServerType;
+import io.r2dbc.mssql.message.type.TdsDataType;
+import io.r2dbc.mssql.message.type.TypeInformation;
+import io.r2dbc.mssql.util.EncodedAssert;
+import io.r2dbc.mssql.util.HexUtils;
+import io.r2dbc.mssql.util.TestByteBufAllocator;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link BinaryCodec}.
+ *
+ * @author Mark Paluch
+ */
+class BinaryCodecUnitTests {
+
+    @Test
+    void shouldEncodeBinary() {
+
+        Encoded encoded = BinaryCodec.INSTANCE.encode(TestByteBufAllocator.TEST, RpcParameterContext.in(), new byte[]{1, 2, 3});
+
+        EncodedAssert.assertThat(encoded).isEqualToHex("40 1F 03 00 01 02 03");
+        assertThat(encoded.getDataType()).isEqualTo(TdsDataType.BIGVARBINARY);
+        assertThat(encoded.getFormalType()).isEqualTo("varbinary(8000)");
+    }
+
+    @Test
+    void shouldEncodeLargeBinaryAsPlp() {
+
+        byte[] value = new byte[8001];
+
+        Encoded encoded = BinaryCodec.INSTANCE.encode(TestByteBufAllocator.TEST, RpcParameterContext.in(), value);
+
+        EncodedAssert.assertThat(encoded).isEncodedAs(expected -> {
+
+            Encode.uShort(expected, 0xFFFF);
+            Encode.uLongLong(expected, value.length);
+            Encode.dword(expected, value.length);
+            expected.writeBytes(value);
+            Encode.dword(expected, 0);
+        });
+        assertThat(encoded.getFormalType()).isEqualTo("varbinary(max)");
+    }
+
+    @Test
+    void shouldEncodeNull() {
+
+        Encoded encoded = BinaryCodec.INSTANCE.encodeNull(TestByteBufAllocator.TEST);
+
+        EncodedAssert.assertThat(encoded).isEqualToHex("40 1F FF FF");
+        assertThat(encoded.getFormalType()).isEqualTo("varbinary(8000)");
+    }
+
+    @Test
+    void shouldDecodeTimestamp() {
+
+        TypeInformation type = TypeInformation.builder().withLengthStrategy(LengthStrategy.USHORTLENTYPE).withServerType(SqlServerType.TIMESTAMP).build();
+
+        ByteBuf buffer = HexUtils.decodeToByteBuf("080000000000000007D1");
+
+        byte[] decoded = BinaryCodec.INSTANCE.decode(buffer, ColumnUtil.createColumn(type), byte[].class);
+
+        assertThat(decoded).containsSequence(0, 0, 0, 0, 0, 0, 7, -47);
+    }
+
+    @Test
+    void shouldDecodeVarbinary() {
+
+        TypeInformation type =
+            TypeInformation.builder().withMaxLength(100).withLengthStrategy(LengthStrategy.USHORTLENTYPE).withServerType(SqlServerType.VARBINARY).build();
+
+        ByteBuf buffer = HexUtils.decodeToByteBuf("0300 010203");
+
+        assertThat(BinaryCodec.INSTANCE.decode(buffer, ColumnUtil.createColumn(type), byte[].class)).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void shouldDecodeNullVarbinary() {
+
+        TypeInformation type =
+            TypeInformation.builder().withMaxLength(100).withLengthStrategy(LengthStrategy.USHORTLENTYPE).withServerType(SqlServerType.VARBINARY).build();
+
+        ByteBuf buffer = HexUtils.decodeToByteBuf("FFFF");
+
+        assertThat(BinaryCodec.INSTANCE.decode(buffer, ColumnUtil.createColumn(type), byte[].class)).isNull();
+    }
+
+    @Test
+    void shouldDecodeVarbinaryMax() {
+
+        TypeInformation type =
+            TypeInformation.builder().withMaxLength(0xFFFF).withLengthStrategy(LengthStrategy.PARTLENTYPE).withServerType(SqlServerType.VARBINARYMAX).build();
+
+        ByteBuf buffer = TestByteBufAllocator.TEST.buffer();
+        Encode.uLongLong(buffer, 5);
+        Encode.dword(buffer, 2);
+        buffer.writeBytes(new byte[]{1, 2});
+        Encode.dword(buffer, 3);
+        buffer.writeBytes(new byte[]{3, 4, 5});
+        Encode.dword(buffer, 0);
+
+        assertThat(BinaryCodec.INSTANCE.decode(buffer, ColumnUtil.createColumn(type), byte[].class)).containsExactly(1, 2, 3, 4, 5);
+    }
+}
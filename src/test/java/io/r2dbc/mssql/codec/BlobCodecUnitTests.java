@@ -0,0 +1,157 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.r2dbc.mssql.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.r2dbc.mssql.message.tds.Encode;
+import io.r2dbc.mssql.message.type.LengthStrategy;
+import io.r2dbc.mssql.message.type.SqlServerType;
+import io.r2dbc.mssql.message.type.TdsDataType;
+import io.r2dbc.mssql.message.type.TypeInformation;
+import io.r2dbc.mssql.util.EncodedAssert;
+import io.r2dbc.mssql.util.HexUtils;
+import io.r2dbc.mssql.util.TestByteBufAllocator;
+import io.r2dbc.spi.Blob;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.ByteBuffer;
+
+import static io.r2dbc.mssql.message.type.TypeInformation.builder;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link BlobCodec}.
+ *
+ * @author Mark Paluch
+ */
+class BlobCodecUnitTests {
+
+    TypeInformation varbinaryMax = builder().withMaxLength(0xFFFF).withLengthStrategy(LengthStrategy.PARTLENTYPE).withServerType(SqlServerType.VARBINARYMAX).build();
+
+    @Test
+    void shouldBeAbleToDecode() {
+
+        TypeInformation varchar = builder().withServerType(SqlServerType.VARCHAR).build();
+
+        assertThat(BlobCodec.INSTANCE.canDecode(ColumnUtil.createColumn(this.varbinaryMax), Blob.class)).isTrue();
+        assertThat(BlobCodec.INSTANCE.canDecode(ColumnUtil.createColumn(varchar), Blob.class)).isFalse();
+        assertThat(BlobCodec.INSTANCE.canEncode(Blob.class)).isFalse();
+    }
+
+    @Test
+    void shouldEncodeStreamedValue() {
+
+        Blob blob = new Blob() {
+
+            @Override
+            public Publisher<ByteBuffer> stream() {
+                return Flux.just(ByteBuffer.wrap(new byte[]{1, 2}), ByteBuffer.wrap(new byte[]{3, 4, 5}));
+            }
+
+            @Override
+            public Publisher<Void> discard() {
+                return Mono.empty();
+            }
+        };
+
+        Encoded encoded = BlobCodec.INSTANCE.encode(TestByteBufAllocator.TEST, RpcParameterContext.in(), blob);
+
+        assertThat(encoded).isInstanceOf(PlpEncoded.class);
+        EncodedAssert.assertThat(encoded).isEqualToHex("FF FF FE FF FF FF FF FF FF FF");
+        assertThat(encoded.getDataType()).isEqualTo(TdsDataType.BIGVARBINARY);
+        assertThat(encoded.getFormalType()).isEqualTo("varbinary(max)");
+
+        Flux.from(((PlpEncoded) encoded).chunks()).map(chunk -> {
+
+            int length = chunk.readableBytes();
+            chunk.release();
+            return length;
+        }).as(StepVerifier::create) //
+            .expectNext(2, 3) //
+            .verifyComplete();
+
+        encoded.release();
+    }
+
+    @Test
+    void shouldEncodeNull() {
+
+        Encoded encoded = BlobCodec.INSTANCE.encodeNull(TestByteBufAllocator.TEST);
+
+        EncodedAssert.assertThat(encoded).isEqualToHex("FF FF FF FF FF FF FF FF FF FF");
+        assertThat(encoded.getFormalType()).isEqualTo("varbinary(max)");
+    }
+
+    @Test
+    void shouldStreamPlpChunks() {
+
+        ByteBuf data = TestByteBufAllocator.TEST.buffer();
+        Encode.uLongLong(data, 5);
+        Encode.asInt(data, 2);
+        data.writeBytes(new byte[]{1, 2});
+        Encode.asInt(data, 3);
+        data.writeBytes(new byte[]{3, 4, 5});
+        Encode.asInt(data, 0);
+
+        Blob blob = BlobCodec.INSTANCE.decode(data, ColumnUtil.createColumn(this.varbinaryMax), Blob.class);
+
+        assertThat(data.refCnt()).isEqualTo(2);
+
+        Flux.from(blob.stream()).map(ByteBuffer::remaining) //
+            .as(StepVerifier::create) //
+            .expectNext(2, 3) //
+            .verifyComplete();
+
+        assertThat(data.refCnt()).isOne();
+
+        Flux.from(blob.stream()) //
+            .as(StepVerifier::create) //
+            .verifyError(IllegalStateException.class);
+
+        data.release();
+    }
+
+    @Test
+    void shouldDecodeNull() {
+
+        ByteBuf data = HexUtils.decodeToByteBuf("FFFFFFFFFFFFFFFF");
+
+        assertThat(BlobCodec.INSTANCE.decode(data, ColumnUtil.createColumn(this.varbinaryMax), Blob.class)).isNull();
+    }
+
+    @Test
+    void shouldReleaseDiscardedBlob() {
+
+        ByteBuf data = HexUtils.decodeToByteBuf("0200 0102");
+        TypeInformation varbinary = builder().withMaxLength(100).withLengthStrategy(LengthStrategy.USHORTLENTYPE).withServerType(SqlServerType.VARBINARY).build();
+
+        Blob blob = BlobCodec.INSTANCE.decode(data, ColumnUtil.createColumn(varbinary), Blob.class);
+
+        assertThat(data.refCnt()).isEqualTo(2);
+
+        Mono.from(blob.discard()) //
+            .as(StepVerifier::create) //
+            .verifyComplete();
+
+        assertThat(data.refCnt()).isOne();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.r2dbc.mssql.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.r2dbc.mssql.message.type.LengthStrategy;
+import io.r2dbc.mssql.message.type.SqlServerType;
+import io.r2dbc.mssql.message.type.TypeInformation;
+import io.r2dbc.mssql.util.EncodedAssert;
+import io.r2dbc.mssql.util.HexUtils;
+import io.r2dbc.mssql.util.TestByteBufAllocator;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link ByteBufferCodec}.
+ *
+ * @author Mark Paluch
+ */
+class ByteBufferCodecUnitTests {
+
+    TypeInformation varbinary =
+        TypeInformation.builder().withMaxLength(100).withLengthStrategy(LengthStrategy.USHORTLENTYPE).withServerType(SqlServerType.VARBINARY).build();
+
+    @Test
+    void shouldEncodeRemainingContent() {
+
+        ByteBuffer value = ByteBuffer.wrap(new byte[]{1, 2, 3});
+        value.get();
+
+        Encoded encoded = ByteBufferCodec.INSTANCE.encode(TestByteBufAllocator.TEST, RpcParameterContext.in(), value);
+
+        EncodedAssert.assertThat(encoded).isEqualToHex("40 1F 02 00 02 03");
+        assertThat(encoded.getFormalType()).isEqualTo("varbinary(8000)");
+        assertThat(value.position()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDecodeReadOnlyView() {
+
+        ByteBuf buffer = HexUtils.decodeToByteBuf("0300 010203");
+
+        ByteBuffer decoded = ByteBufferCodec.INSTANCE.decode(buffer, ColumnUtil.createColumn(this.varbinary), ByteBuffer.class);
+
+        assertThat(decoded.isReadOnly()).isTrue();
+        assertThat(decoded.remaining()).isEqualTo(3);
+        assertThat(decoded.get(0)).isEqualTo((byte) 1);
+        assertThat(buffer.isReadable()).isFalse();
+
+        buffer.setByte(2, 42);
+
+        assertThat(decoded.get(0)).isEqualTo((byte) 42);
+    }
+
+    @Test
+    void shouldDecodeNull() {
+
+        ByteBuf buffer = HexUtils.decodeToByteBuf("FFFF");
+
+        assertThat(ByteBufferCodec.INSTANCE.decode(buffer, ColumnUtil.createColumn(this.varbinary), ByteBuffer.class)).isNull();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.r2dbc.mssql.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.r2dbc.mssql.message.tds.Encode;
+import io.r2dbc.mssql.message.tds.ServerCharset;
+import io.r2dbc.mssql.message.type.Collation;
+import io.r2dbc.mssql.message.type.Length;
+import io.r2dbc.mssql.message.type.LengthStrategy;
+import io.r2dbc.mssql.message.type.SqlServerType;
+import io.r2dbc.mssql.message.type.TypeInformation;
+import io.r2dbc.mssql.util.EncodedAssert;
+import io.r2dbc.mssql.util.TestByteBufAllocator;
+import io.r2dbc.spi.Clob;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static io.r2dbc.mssql.message.type.TypeInformation.builder;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link ClobCodec}.
+ *
+ * @author Mark Paluch
+ */
+class ClobCodecUnitTests {
+
+    TypeInformation nvarcharMax =
+        builder().withMaxLength(0xFFFF).withLengthStrategy(LengthStrategy.PARTLENTYPE).withServerType(SqlServerType.NVARCHARMAX).withCharset(ServerCharset.UNICODE.charset()).build();
+
+    @Test
+    void shouldBeAbleToDecode() {
+
+        TypeInformation varbinary = builder().withServerType(SqlServerType.VARBINARY).build();
+
+        assertThat(ClobCodec.INSTANCE.canDecode(ColumnUtil.createColumn(this.nvarcharMax), Clob.class)).isTrue();
+        assertThat(ClobCodec.INSTANCE.canDecode(ColumnUtil.createColumn(varbinary), Clob.class)).isFalse();
+    }
+
+    @Test
+    void shouldEncodeStreamedValue() {
+
+        Clob clob = new Clob() {
+
+            @Override
+            public Publisher<CharSequence> stream() {
+                return Flux.just("foo", "bar");
+            }
+
+            @Override
+            public Publisher<Void> discard() {
+                return Mono.empty();
+            }
+        };
+
+        Collation collation = Collation.from(13632521, 52);
+        Encoded encoded = ClobCodec.INSTANCE.encode(TestByteBufAllocator.TEST, RpcParameterContext.in(collation), clob);
+
+        assertThat(encoded).isInstanceOf(PlpEncoded.class);
+        EncodedAssert.assertThat(encoded).isEncodedAs(expected -> {
+
+            Encode.uShort(expected, 0xFFFF);
+            collation.encode(expected);
+            Encode.uLongLong(expected, Length.PLP_UNKNOWN);
+        });
+        assertThat(encoded.getFormalType()).isEqualTo("nvarchar(max)");
+
+        Flux.from(((PlpEncoded) encoded).chunks()).map(chunk -> {
+
+            String value = chunk.toString(ServerCharset.UNICODE.charset());
+            chunk.release();
+            return value;
+        }).as(StepVerifier::create) //
+            .expectNext("foo", "bar") //
+            .verifyComplete();
+
+        encoded.release();
+    }
+
+    @Test
+    void shouldEncodeNull() {
+
+        Encoded encoded = ClobCodec.INSTANCE.encodeNull(TestByteBufAllocator.TEST);
+
+        EncodedAssert.assertThat(encoded).isEqualToHex("FF FF 00 00 00 00 00 FF FF FF FF FF FF FF FF");
+        assertThat(encoded.getFormalType()).isEqualTo("nvarchar(max)");
+    }
+
+    @Test
+    void shouldStreamPlpChunks() {
+
+        ByteBuf data = TestByteBufAllocator.TEST.buffer();
+        Encode.uLongLong(data, 12);
+        Encode.asInt(data, 6);
+        data.writeCharSequence("foo", ServerCharset.UNICODE.charset());
+        Encode.asInt(data, 6);
+        data.writeCharSequence("bar", ServerCharset.UNICODE.charset());
+        Encode.asInt(data, 0);
+
+        Clob clob = ClobCodec.INSTANCE.decode(data, ColumnUtil.createColumn(this.nvarcharMax), Clob.class);
+
+        Flux.from(clob.stream()).map(CharSequence::toString) //
+            .as(StepVerifier::create) //
+            .expectNext("foo", "bar") //
+            .verifyComplete();
+
+        assertThat(data.refCnt()).isOne();
+
+        data.release();
+    }
+
+    @Test
+    void shouldDecodeCharactersSpanningChunks() {
+
+        ByteBuf data = TestByteBufAllocator.TEST.buffer();
+        Encode.uLongLong(data, -2); // unknown length
+        Encode.asInt(data, 3);
+        data.writeBytes(new byte[]{'f', 0, 'o'});
+        Encode.asInt(data, 3);
+        data.writeBytes(new byte[]{0, 'o', 0});
+        Encode.asInt(data, 0);
+
+        Clob clob = ClobCodec.INSTANCE.decode(data, ColumnUtil.createColumn(this.nvarcharMax), Clob.class);
+
+        Flux.from(clob.stream()).map(CharSequence::toString) //
+            .as(StepVerifier::create) //
+            .expectNext("f", "oo") //
+            .verifyComplete();
+
+        data.release();
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.r2dbc.mssql.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.r2dbc.mssql.message.type.LengthStrategy;
+import io.r2dbc.mssql.message.type.SqlServerType;
+import io.r2dbc.mssql.message.type.TypeInformation;
+import io.r2dbc.mssql.util.HexUtils;
+import io.r2dbc.mssql.util.TestByteBufAllocator;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static io.r2dbc.mssql.message.type.TypeInformation.builder;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+/**
+ * Unit tests for {@link DefaultCodecs}.
+ *
+ * @author Mark Paluch
+ */
+class DefaultCodecsUnitTests {
+
+    DefaultCodecs codecs = new DefaultCodecs();
+
+    TypeInformation integer = builder().withMaxLength(4).withLengthStrategy(LengthStrategy.FIXEDLENTYPE).withPrecision(4).withServerType(SqlServerType.INTEGER).build();
+
+    @Test
+    void shouldDecodeUsingPreferredCodec() {
+
+        ByteBuf buffer = HexUtils.decodeToByteBuf("2A000000");
+
+        assertThat(this.codecs.<Object>decode(buffer, ColumnUtil.createColumn(this.integer), Object.class)).isEqualTo(42);
+    }
+
+    @Test
+    void shouldDecodeRequestedType() {
+
+        ByteBuf buffer = HexUtils.decodeToByteBuf("2A000000");
+
+        assertThat(this.codecs.<Long>decode(buffer, ColumnUtil.createColumn(this.integer), Long.class)).isEqualTo(42L);
+    }
+
+    @Test
+    void shouldRejectUnsupportedDecoding() {
+
+        ByteBuf buffer = HexUtils.decodeToByteBuf("2A000000");
+
+        assertThatThrownBy(() -> this.codecs.decode(buffer, ColumnUtil.createColumn(this.integer), LocalDate.class)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldResolveJavaType() {
+
+        assertThat(this.codecs.getJavaType(this.integer)).isEqualTo(Integer.class);
+        assertThat(this.codecs.getJavaType(builder().withServerType(SqlServerType.VARBINARY).build())).isEqualTo(byte[].class);
+        assertThat(this.codecs.getJavaType(builder().withServerType(SqlServerType.NVARCHAR).build())).isEqualTo(String.class);
+    }
+
+    @Test
+    void shouldEncodeValues() {
+
+        assertThat(this.codecs.encode(TestByteBufAllocator.TEST, RpcParameterContext.in(), 42).getFormalType()).isEqualTo("int");
+        assertThat(this.codecs.encode(TestByteBufAllocator.TEST, RpcParameterContext.in(), new byte[]{1}).getFormalType()).isEqualTo("varbinary(8000)");
+        assertThat(this.codecs.encodeNull(TestByteBufAllocator.TEST, Integer.class).getFormalType()).isEqualTo("int");
+    }
+
+    @Test
+    void shouldRejectUnsupportedEncoding() {
+
+        assertThatThrownBy(() -> this.codecs.encode(TestByteBufAllocator.TEST, RpcParameterContext.in(), new Object())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> this.codecs.encodeNull(TestByteBufAllocator.TEST, Object.class)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldResolveDecoder() {
+
+        ByteBuf buffer = HexUtils.decodeToByteBuf("2A000000");
+        Decoder<Long> decoder = this.codecs.getDecoder(ColumnUtil.createColumn(this.integer), Long.class);
+
+        assertThat(decoder.decode(buffer, ColumnUtil.createColumn(this.integer), Long.class)).isEqualTo(42L);
+    }
+
+    @Test
+    void shouldResolveDelegatingDecoderByDefault() {
+
+        Codecs codecs = new DelegatingCodecs(this.codecs);
+
+        ByteBuf buffer = HexUtils.decodeToByteBuf("2A000000");
+        Decoder<Long> decoder = codecs.getDecoder(ColumnUtil.createColumn(this.integer), Long.class);
+
+        assertThat(decoder.decode(buffer, ColumnUtil.createColumn(this.integer), Long.class)).isEqualTo(42L);
+    }
+
+    @Test
+    void shouldDecodeNumbersByDefault() {
+
+        Codecs codecs = new DelegatingCodecs(this.codecs);
+        TypeInformation real = builder().withLengthStrategy(LengthStrategy.BYTELENTYPE).withServerType(SqlServerType.REAL).withMaxLength(4).build();
+
+        assertThat(codecs.decodeLong(HexUtils.decodeToByteBuf("2A000000"), ColumnUtil.createColumn(this.integer))).isEqualTo(42L);
+        assertThat(codecs.decodeLong(null, ColumnUtil.createColumn(this.integer))).isZero();
+        assertThat(codecs.decodeDouble(HexUtils.decodeToByteBuf("2A000000"), ColumnUtil.createColumn(this.integer))).isEqualTo(42d);
+        assertThat(codecs.decodeDouble(HexUtils.decodeToByteBuf("0437423146"), ColumnUtil.createColumn(real))).isCloseTo(11344.554, offset(0.01));
+        assertThatThrownBy(() -> codecs.decodeLong(HexUtils.decodeToByteBuf("0437423146"), ColumnUtil.createColumn(real))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * {@link Codecs} that does not override default methods.
+     */
+    static class DelegatingCodecs implements Codecs {
+
+        final Codecs delegate;
+
+        DelegatingCodecs(Codecs delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Encoded encode(ByteBufAllocator allocator, RpcParameterContext context, Object value) {
+            return this.delegate.encode(allocator, context, value);
+        }
+
+        @Override
+        public Encoded encodeNull(ByteBufAllocator allocator, Class<?> type) {
+            return this.delegate.encodeNull(allocator, type);
+        }
+
+        @Override
+        public <T> T decode(ByteBuf buffer, Decodable decodable, Class<? extends T> type) {
+            return this.delegate.decode(buffer, decodable, type);
+        }
+
+        @Override
+        public Class<?> getJavaType(TypeInformation type) {
+            return this.delegate.getJavaType(type);
+        }
+    }
+}
@@ -157,4 +157,38 @@ class StringCodecUnitTests {
 
         assertThat(value).isEqualTo("mytextvalue");
     }
+
+    @Test
+    void shouldDecodeNvarcharMax() {
+
+        TypeInformation type =
+            builder().withMaxLength(0xFFFF).withLengthStrategy(LengthStrategy.PARTLENTYPE).withServerType(SqlServerType.NVARCHARMAX).withCharset(ServerCharset.UNICODE.charset()).build();
+
+        ByteBuf data = TestByteBufAllocator.TEST.buffer();
+        Encode.uLongLong(data, 12);
+        Encode.asInt(data, 6);
+        data.writeCharSequence("foo", ServerCharset.UNICODE.charset());
+        Encode.asInt(data, 6);
+        data.writeCharSequence("bar", ServerCharset.UNICODE.charset());
+        Encode.asInt(data, 0);
+
+        assertThat(StringCodec.INSTANCE.canDecode(ColumnUtil.createColumn(type), String.class)).isTrue();
+
+        String value = StringCodec.INSTANCE.decode(data, ColumnUtil.createColumn(type), String.class);
+
+        assertThat(value).isEqualTo("foobar");
+    }
+
+    @Test
+    void shouldDecodeNullNvarcharMax() {
+
+        TypeInformation type =
+            builder().withMaxLength(0xFFFF).withLengthStrategy(LengthStrategy.PARTLENTYPE).withServerType(SqlServerType.NVARCHARMAX).withCharset(ServerCharset.UNICODE.charset()).build();
+
+        ByteBuf data = HexUtils.decodeToByteBuf("FFFFFFFFFFFFFFFF");
+
+        String value = StringCodec.INSTANCE.decode(data, ColumnUtil.createColumn(type), String.class);
+
+        assertThat(value).isNull();
+    }
 }
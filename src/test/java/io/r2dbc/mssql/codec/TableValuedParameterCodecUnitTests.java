@@ -0,0 +1,143 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.r2dbc.mssql.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.r2dbc.mssql.message.tds.Encode;
+import io.r2dbc.mssql.message.type.TdsDataType;
+import io.r2dbc.mssql.util.EncodedAssert;
+import io.r2dbc.mssql.util.TestByteBufAllocator;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link TableValuedParameterCodec}.
+ *
+ * @author Mark Paluch
+ */
+class TableValuedParameterCodecUnitTests {
+
+    DefaultCodecs codecs = new DefaultCodecs();
+
+    TableValuedParameterCodec codec = new TableValuedParameterCodec(this.codecs);
+
+    @Test
+    void shouldEncodeTableValuedParameter() {
+
+        TableValuedParameter tvp = TableValuedParameter.builder("dbo.IdList").column(Integer.class).row(1).row((Object) null).build();
+
+        Encoded encoded = this.codec.encode(TestByteBufAllocator.TEST, RpcParameterContext.in(), tvp);
+
+        assertThat(encoded.getDataType()).isEqualTo(TdsDataType.TVP);
+        assertThat(encoded.getFormalType()).isEqualTo("dbo.IdList READONLY");
+
+        EncodedAssert.assertThat(encoded).isEncodedAs(expected -> {
+
+            expected.writeByte(0); // database
+            writeBVarchar(expected, "dbo");
+            writeBVarchar(expected, "IdList");
+
+            Encode.uShort(expected, 1);
+            Encode.dword(expected, 0);
+            Encode.uShort(expected, 0x0001);
+            expected.writeByte(TdsDataType.INTN.getValue());
+            expected.writeByte(4);
+            expected.writeByte(0); // column name
+            expected.writeByte(0); // end of metadata
+
+            expected.writeByte(1);
+            expected.writeByte(4);
+            expected.writeIntLE(1);
+
+            expected.writeByte(1);
+            expected.writeByte(0);
+
+            expected.writeByte(0);
+        });
+    }
+
+    @Test
+    void shouldEncodeNullOnlyColumnUsingDeclaredType() {
+
+        TableValuedParameter tvp = TableValuedParameter.builder("IdList").column(Long.class).row((Object) null).build();
+
+        Encoded encoded = this.codec.encode(TestByteBufAllocator.TEST, RpcParameterContext.in(), tvp);
+
+        EncodedAssert.assertThat(encoded).isEncodedAs(expected -> {
+
+            expected.writeByte(0);
+            writeBVarchar(expected, "");
+            writeBVarchar(expected, "IdList");
+
+            Encode.uShort(expected, 1);
+            Encode.dword(expected, 0);
+            Encode.uShort(expected, 0x0001);
+            expected.writeByte(TdsDataType.INTN.getValue());
+            expected.writeByte(8);
+            expected.writeByte(0);
+            expected.writeByte(0);
+
+            expected.writeByte(1);
+            expected.writeByte(0);
+
+            expected.writeByte(0);
+        });
+    }
+
+    @Test
+    void shouldRejectValueOfWrongType() {
+
+        TableValuedParameter tvp = TableValuedParameter.builder("dbo.IdList").column(Integer.class).row("foo").build();
+
+        assertThatThrownBy(() -> this.codec.encode(TestByteBufAllocator.TEST, RpcParameterContext.in(), tvp)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldRejectIncompleteRow() {
+
+        assertThatThrownBy(() -> TableValuedParameter.builder("dbo.IdList").column(Integer.class).column(String.class).row(1).build())
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldBeResolvedByDefaultCodecs() {
+
+        TableValuedParameter tvp = TableValuedParameter.builder("dbo.IdList").column(Integer.class).row(1).build();
+
+        Encoded encoded = this.codecs.encode(TestByteBufAllocator.TEST, RpcParameterContext.in(), tvp);
+
+        assertThat(encoded.getDataType()).isEqualTo(TdsDataType.TVP);
+        assertThat(this.codecs.encode(TestByteBufAllocator.TEST, RpcParameterContext.in(), 1).getDataType()).isNotEqualTo(TdsDataType.TVP);
+    }
+
+    @Test
+    void shouldRejectNullEncoding() {
+
+        assertThat(this.codec.canEncodeNull(TableValuedParameter.class)).isFalse();
+        assertThatThrownBy(() -> this.codec.encodeNull(TestByteBufAllocator.TEST)).isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Cannot encode [null] parameter");
+    }
+
+    private static void writeBVarchar(ByteBuf buffer, String value) {
+
+        buffer.writeByte(value.length());
+        Encode.unicodeStream(buffer, value);
+    }
+}
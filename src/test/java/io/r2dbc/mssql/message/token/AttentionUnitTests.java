@@ -0,0 +1,41 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.r2dbc.mssql.message.token;
+
+import io.r2dbc.mssql.message.header.HeaderOptions;
+import io.r2dbc.mssql.message.header.Status;
+import io.r2dbc.mssql.message.header.Type;
+import org.junit.jupiter.api.Test;
+
+import static io.r2dbc.mssql.util.ClientMessageAssert.assertThat;
+
+/**
+ * Unit tests for {@link Attention}.
+ *
+ * @author Mark Paluch
+ */
+class AttentionUnitTests {
+
+    @Test
+    void shouldEncodeProperly() {
+
+        assertThat(Attention.create()).encoded() //
+            .hasHeader(HeaderOptions.create(Type.ATTENTION, Status.empty())) //
+            .isEmpty();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql.message.token;
+
+import io.r2dbc.mssql.codec.DefaultCodecs;
+import io.r2dbc.mssql.codec.Encoded;
+import io.r2dbc.mssql.codec.RpcParameterContext;
+import io.r2dbc.mssql.message.header.HeaderOptions;
+import io.r2dbc.mssql.message.header.Status;
+import io.r2dbc.mssql.message.header.Type;
+import io.r2dbc.mssql.message.tds.ContextualTdsFragment;
+import io.r2dbc.mssql.message.tds.Encode;
+import io.r2dbc.mssql.message.tds.FirstTdsFragment;
+import io.r2dbc.mssql.message.tds.LastTdsFragment;
+import io.r2dbc.mssql.message.tds.TdsFragment;
+import io.r2dbc.mssql.message.type.Collation;
+import io.r2dbc.mssql.util.ClientMessageAssert;
+import io.r2dbc.mssql.util.TestByteBufAllocator;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link BulkLoad}.
+ *
+ * @author Mark Paluch
+ */
+class BulkLoadUnitTests {
+
+    static final DefaultCodecs codecs = new DefaultCodecs();
+
+    static final RpcParameterContext context = RpcParameterContext.in(Collation.from(13632521, 52));
+
+    @Test
+    void shouldEncodeColumnMetadataAndRows() {
+
+        Encoded[] first = row(42);
+        BulkLoad bulkLoad = BulkLoad.create(Collections.singletonList("id"), first, Flux.just(first, new Encoded[]{null}), e -> {
+        });
+
+        ClientMessageAssert.assertThat(bulkLoad).encoded() //
+            .hasHeader(HeaderOptions.create(Type.BULK_LOAD_DATA, Status.empty())) //
+            .isEncodedAs(it -> {
+
+                Encode.asByte(it, ColumnMetadataToken.TYPE);
+                Encode.uShort(it, 1); // column count
+                Encode.dword(it, 0); // user type
+                Encode.uShort(it, 1); // flags
+                Encode.asByte(it, 0x26); // INTN
+                Encode.asByte(it, 4); // max length
+                Encode.asByte(it, 2); // name length
+                Encode.unicodeStream(it, "id");
+
+                Encode.asByte(it, RowToken.TYPE);
+                Encode.asByte(it, 4);
+                Encode.asInt(it, 42);
+
+                Encode.asByte(it, RowToken.TYPE);
+                Encode.asByte(it, 0); // null
+
+                DoneToken.create(2).encode(it);
+            });
+    }
+
+    @Test
+    void shouldStreamRowsInFragments() {
+
+        Encoded[] first = row(0);
+        List<Encoded[]> rows = new ArrayList<>();
+        rows.add(first);
+
+        for (int i = 1; i < 10_000; i++) {
+            rows.add(row(i));
+        }
+
+        BulkLoad bulkLoad = BulkLoad.create(Collections.singletonList("id"), first, Flux.fromIterable(rows), e -> {
+        });
+
+        List<TdsFragment> fragments = Flux.from(bulkLoad.encode(TestByteBufAllocator.TEST)).collectList().block();
+
+        assertThat(fragments).hasSize(2);
+        assertThat(fragments.get(0)).isInstanceOf(FirstTdsFragment.class);
+        assertThat(fragments.get(0).getByteBuf().readableBytes()).isGreaterThanOrEqualTo(BulkLoad.FRAGMENT_SIZE);
+        assertThat(fragments.get(1)).isInstanceOf(LastTdsFragment.class);
+
+        fragments.forEach(it -> it.getByteBuf().release());
+    }
+
+    @Test
+    void shouldDiscardMessageOnTypeMismatch() {
+
+        Encoded[] first = row(42);
+        List<Throwable> errors = new ArrayList<>();
+
+        BulkLoad bulkLoad = BulkLoad.create(Collections.singletonList("id"), first, Flux.just(first, row("foo")), errors::add);
+
+        ClientMessageAssert.assertThat(bulkLoad).encoded() //
+            .hasHeader(HeaderOptions.create(Type.BULK_LOAD_DATA, Status.of(Status.StatusBit.IGNORE))) //
+            .isEmpty();
+
+        assertThat(errors).hasSize(1);
+        assertThat(errors.get(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldRejectNullValuesInTemplate() {
+
+        assertThatThrownBy(() -> BulkLoad.create(Collections.singletonList("id"), new Encoded[]{null}, Flux.empty(), e -> {
+        })).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldDiscardMessageOnUpstreamError() {
+
+        Encoded[] first = row(42);
+        List<Throwable> errors = new ArrayList<>();
+
+        BulkLoad bulkLoad = BulkLoad.create(Collections.singletonList("id"), first, Flux.just(first).concatWith(Flux.error(new IllegalStateException())), errors::add);
+
+        TdsFragment fragment = Flux.from(bulkLoad.encode(TestByteBufAllocator.TEST)).single().block();
+
+        assertThat(fragment).isInstanceOf(ContextualTdsFragment.class);
+        assertThat(((ContextualTdsFragment) fragment).getHeaderOptions().getStatus().is(Status.StatusBit.IGNORE)).isTrue();
+        assertThat(errors).hasSize(1);
+        assertThat(errors.get(0)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static Encoded[] row(Object value) {
+        return new Encoded[]{codecs.encode(TestByteBufAllocator.TEST, context, value)};
+    }
+}
@@ -41,6 +41,21 @@ class DoneTokenUnitTests {
         assertThat(token.hasMore()).isFalse();
         assertThat(token.hasCount()).isTrue();
         assertThat(token.getRowCount()).isEqualTo(1);
+        assertThat(token.isAttentionAck()).isFalse();
+    }
+
+    @Test
+    void shouldDecodeAttentionAck() {
+
+        ByteBuf buffer = HexUtils.decodeToByteBuf("FD2000C1000000000000000000");
+
+        assertThat(buffer.readByte()).isEqualTo(DoneToken.TYPE);
+
+        DoneToken token = DoneToken.decode(buffer);
+        assertThat(token.isDone()).isTrue();
+        assertThat(token.isAttentionAck()).isTrue();
+        assertThat(token.hasCount()).isFalse();
+        assertThat(DoneToken.isAttentionAck(token)).isTrue();
     }
 
     @Test
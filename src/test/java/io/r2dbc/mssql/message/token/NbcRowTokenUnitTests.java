@@ -64,6 +64,24 @@ class NbcRowTokenUnitTests {
         assertThat(rowToken.getColumnData(6)).isNotNull();
     }
 
+    @Test
+    void shouldDecodeOnlyRowExtent() {
+
+        ByteBuf data = HexUtils.decodeToByteBuf("1C 04 01 00 00 00 01 00 61 02 00 78 61 04 01 00 00 00 FD 10 00");
+
+        NbcRowToken rowToken = NbcRowToken.decode(data, columns);
+
+        assertThat(data.readerIndex()).isEqualTo(18);
+        assertThat(data.readableBytes()).isEqualTo(3);
+
+        // row shares the buffer
+        assertThat(data.refCnt()).isEqualTo(2);
+        assertThat(rowToken.release()).isTrue();
+        assertThat(data.refCnt()).isOne();
+
+        data.release();
+    }
+
     @Test
     void canDecodeShouldReportDecodability() {
 
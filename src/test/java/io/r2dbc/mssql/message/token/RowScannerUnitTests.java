@@ -0,0 +1,161 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql.message.token;
+
+import io.netty.buffer.ByteBuf;
+import io.r2dbc.mssql.message.tds.Encode;
+import io.r2dbc.mssql.message.type.LengthStrategy;
+import io.r2dbc.mssql.message.type.SqlServerType;
+import io.r2dbc.mssql.message.type.TypeInformation;
+import io.r2dbc.mssql.util.TestByteBufAllocator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link RowScanner}.
+ *
+ * @author Mark Paluch
+ */
+class RowScannerUnitTests {
+
+    static final TypeInformation INTEGER = TypeInformation.builder().withMaxLength(4).withLengthStrategy(LengthStrategy.BYTELENTYPE).withServerType(SqlServerType.INTEGER).build();
+
+    static final TypeInformation VARBINARYMAX = TypeInformation.builder().withLengthStrategy(LengthStrategy.PARTLENTYPE).withServerType(SqlServerType.VARBINARYMAX).build();
+
+    static final List<Column> COLUMNS = Arrays.asList(new Column(0, "id", INTEGER, null), new Column(1, "data", VARBINARYMAX, null));
+
+    @Test
+    void shouldScanRowReceivedInParts() {
+
+        ByteBuf row = TestByteBufAllocator.TEST.buffer();
+        encodeRow(row);
+
+        ByteBuf buffer = TestByteBufAllocator.TEST.buffer();
+        RowScanner scanner = new RowScanner();
+
+        while (row.isReadable()) {
+
+            assertThat(scanner.canDecode(buffer, COLUMNS)).isFalse();
+            assertThat(buffer.readerIndex()).isZero();
+
+            buffer.writeByte(row.readByte());
+        }
+
+        assertThat(scanner.canDecode(buffer, COLUMNS)).isTrue();
+        assertThat(scanner.getRowLength()).isEqualTo(buffer.readableBytes());
+
+        RowToken token = RowToken.decode(buffer, COLUMNS, scanner.getRowLength());
+
+        assertThat(buffer.isReadable()).isFalse();
+        assertThat(token.getColumnData(0).readableBytes()).isEqualTo(5);
+        assertThat(token.getColumnData(1).readableBytes()).isEqualTo(8 + 4 + 2 + 4 + 4 + 4);
+
+        token.release();
+        row.release();
+        buffer.release();
+    }
+
+    @Test
+    void shouldResumeScanningAtIncompletePlpChunk() {
+
+        ByteBuf buffer = TestByteBufAllocator.TEST.buffer();
+        Encode.asByte(buffer, 4);
+        Encode.asInt(buffer, 42);
+        Encode.uLongLong(buffer, 6);
+        Encode.dword(buffer, 2);
+        buffer.writeBytes(new byte[]{1, 2});
+
+        RowScanner scanner = new RowScanner();
+
+        assertThat(scanner.canDecode(buffer, COLUMNS)).isFalse();
+
+        // Scanned data is not inspected again.
+        buffer.setIntLE(13, Integer.MAX_VALUE);
+
+        Encode.dword(buffer, 4);
+        buffer.writeBytes(new byte[]{3, 4, 5, 6});
+        Encode.dword(buffer, 0);
+
+        assertThat(scanner.canDecode(buffer, COLUMNS)).isTrue();
+        assertThat(scanner.getRowLength()).isEqualTo(buffer.readableBytes());
+
+        buffer.release();
+    }
+
+    @Test
+    void shouldScanNbcRow() {
+
+        ByteBuf buffer = TestByteBufAllocator.TEST.buffer();
+        Encode.asByte(buffer, 0x01); // id is null
+        Encode.uLongLong(buffer, 6);
+
+        RowScanner scanner = new RowScanner();
+
+        assertThat(scanner.canDecodeNbc(buffer, COLUMNS)).isFalse();
+
+        Encode.dword(buffer, 2);
+        buffer.writeBytes(new byte[]{1, 2});
+        Encode.dword(buffer, 0);
+
+        assertThat(scanner.canDecodeNbc(buffer, COLUMNS)).isTrue();
+        assertThat(scanner.getRowLength()).isEqualTo(buffer.readableBytes());
+
+        NbcRowToken token = NbcRowToken.decode(buffer, COLUMNS, scanner.getRowLength());
+
+        assertThat(token.getColumnData(0)).isNull();
+        assertThat(token.getColumnData(1)).isNotNull();
+
+        token.release();
+        buffer.release();
+    }
+
+    @Test
+    void resetShouldStartWithNextRow() {
+
+        ByteBuf buffer = TestByteBufAllocator.TEST.buffer();
+        encodeRow(buffer);
+        encodeRow(buffer);
+
+        RowScanner scanner = new RowScanner();
+
+        assertThat(scanner.canDecode(buffer, COLUMNS)).isTrue();
+        int rowLength = scanner.getRowLength();
+        scanner.reset();
+        buffer.skipBytes(rowLength);
+
+        assertThat(scanner.canDecode(buffer, COLUMNS)).isTrue();
+        assertThat(scanner.getRowLength()).isEqualTo(rowLength);
+
+        buffer.release();
+    }
+
+    private static void encodeRow(ByteBuf buffer) {
+
+        Encode.asByte(buffer, 4);
+        Encode.asInt(buffer, 42);
+        Encode.uLongLong(buffer, 6);
+        Encode.dword(buffer, 2);
+        buffer.writeBytes(new byte[]{1, 2});
+        Encode.dword(buffer, 4);
+        buffer.writeBytes(new byte[]{3, 4, 5, 6});
+        Encode.dword(buffer, 0);
+    }
+}
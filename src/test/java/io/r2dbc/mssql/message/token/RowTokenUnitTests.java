@@ -17,9 +17,19 @@
 package io.r2dbc.mssql.message.token;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.r2dbc.mssql.message.type.LengthStrategy;
+import io.r2dbc.mssql.message.type.SqlServerType;
+import io.r2dbc.mssql.message.type.TypeInformation;
 import io.r2dbc.mssql.util.HexUtils;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -84,4 +94,90 @@ class RowTokenUnitTests {
 
         CanDecodeTestSupport.testCanDecode(HexUtils.decodeToByteBuf(row), buffer -> RowToken.canDecode(buffer, columns.getColumns()));
     }
+
+    @Test
+    void shouldDecodeOnlyRowExtent() {
+
+        ByteBuf rowMetadata = HexUtils.decodeToByteBuf("8107000000000000" +
+            "000800300B65006D0070006C006F0079" +
+            "00650065005F00690064000000000008" +
+            "00E764000904D00034096C0061007300" +
+            "74005F006E0061006D00650000000000" +
+            "0900A732000904D000340A6600690072" +
+            "00730074005F006E0061006D00650000" +
+            "00000009006E0806730061006C006100" +
+            "7200790000000000090024100366006F" +
+            "006F000000000009006D080366006C00" +
+            "74000000000009006D04036200610072" +
+            "00");
+
+        ColumnMetadataToken columns = ColumnMetadataToken.decode(rowMetadata.skipBytes(1), true);
+
+        String row = "010C00700061006C007500630068" +
+            "0004006D61726B080000000020A10700" +
+            "10F17B0DC7C7E5C54098C7A12F7E6867" +
+            "2408FED478E94628C6400437423146";
+
+        ByteBuf buffer = HexUtils.decodeToByteBuf(row + "FD1000C1000100000000000000");
+        int rowLength = row.length() / 2;
+
+        RowToken rowToken = RowToken.decode(buffer, columns.getColumns());
+
+        assertThat(buffer.readerIndex()).isEqualTo(rowLength);
+        assertThat(buffer.readByte()).isEqualTo(DoneToken.TYPE);
+        assertThat(rowToken.getDataLength()).isEqualTo(rowLength);
+
+        // row shares the buffer
+        assertThat(buffer.refCnt()).isEqualTo(2);
+        assertThat(rowToken.release()).isTrue();
+        assertThat(buffer.refCnt()).isOne();
+
+        buffer.release();
+    }
+
+    @Test
+    void shouldDecodeRowSpanningComponentsWithoutRetainingComposite() {
+
+        TypeInformation type = TypeInformation.builder().withMaxLength(0xFFFF).withLengthStrategy(LengthStrategy.PARTLENTYPE)
+            .withServerType(SqlServerType.VARBINARYMAX).build();
+        List<Column> columns = Collections.singletonList(new Column(0, "plp", type));
+
+        ByteBuf first = HexUtils.decodeToByteBuf("0500000000000000" + "02000000");
+        ByteBuf second = HexUtils.decodeToByteBuf("0102" + "0300000003040500000000" + "FD");
+        CompositeByteBuf composite = Unpooled.compositeBuffer().addComponents(true, first, second);
+
+        RowToken rowToken = RowToken.decode(composite, columns);
+
+        assertThat(composite.readableBytes()).isOne();
+        assertThat(first.refCnt()).isEqualTo(2);
+        assertThat(second.refCnt()).isEqualTo(2);
+
+        composite.discardReadComponents();
+        composite.release();
+
+        assertThat(first.refCnt()).isOne();
+        assertThat(second.refCnt()).isOne();
+        assertThat(ByteBufUtil.hexDump(rowToken.getColumnData(0))).isEqualToIgnoringCase("0500000000000000" + "020000000102" + "0300000003040500000000");
+
+        assertThat(rowToken.release()).isTrue();
+        assertThat(first.refCnt()).isZero();
+        assertThat(second.refCnt()).isZero();
+    }
+
+    @Test
+    void shouldDecodePlpColumn() {
+
+        TypeInformation type = TypeInformation.builder().withMaxLength(0xFFFF).withLengthStrategy(LengthStrategy.PARTLENTYPE)
+            .withServerType(SqlServerType.VARBINARYMAX).build();
+        List<Column> columns = Arrays.asList(new Column(0, "plp", type), new Column(1, "null_plp", type));
+
+        String row = "0500000000000000" + "0200000001020300000003040500000000" + "FFFFFFFFFFFFFFFF";
+
+        CanDecodeTestSupport.testCanDecode(HexUtils.decodeToByteBuf(row), buffer -> RowToken.canDecode(buffer, columns));
+
+        RowToken rowToken = RowToken.decode(HexUtils.decodeToByteBuf(row), columns);
+
+        assertThat(rowToken.getColumnData(0).readableBytes()).isEqualTo(25);
+        assertThat(rowToken.getColumnData(1).readableBytes()).isEqualTo(8);
+    }
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql.message.token;
+
+import io.r2dbc.mssql.codec.DefaultCodecs;
+import io.r2dbc.mssql.codec.RpcDirection;
+import io.r2dbc.mssql.codec.RpcParameterContext;
+import io.r2dbc.mssql.message.TransactionDescriptor;
+import io.r2dbc.mssql.message.header.HeaderOptions;
+import io.r2dbc.mssql.message.header.Status;
+import io.r2dbc.mssql.message.header.Type;
+import io.r2dbc.mssql.message.type.Collation;
+import io.r2dbc.mssql.util.ClientMessageAssert;
+import io.r2dbc.mssql.util.TestByteBufAllocator;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link RpcBatch}.
+ *
+ * @author Mark Paluch
+ */
+class RpcBatchUnitTests {
+
+    static final Collation collation = Collation.from(13632521, 52);
+
+    static final DefaultCodecs codecs = new DefaultCodecs();
+
+    @Test
+    void shouldEncodeRequestsSeparatedByBatchFlag() {
+
+        RpcRequest first = executeSql("SELECT 1");
+        RpcRequest second = executeSql("SELECT 2");
+
+        ClientMessageAssert.assertThat(RpcBatch.create(Arrays.asList(first, second))).encoded() //
+            .hasHeader(HeaderOptions.create(Type.RPC, Status.empty())) //
+            .isEncodedAs(it -> {
+
+                first.getAllHeaders().encode(it);
+                first.encodeRequest(it);
+                it.writeByte(RpcBatch.BATCH_FLAG);
+                second.encodeRequest(it);
+            });
+    }
+
+    @Test
+    void shouldRejectEmptyBatch() {
+
+        assertThatThrownBy(() -> RpcBatch.create(Collections.emptyList())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldRejectStreamedRequests() {
+
+        RpcRequest streamed = RpcRequest.builder() //
+            .withProcId(RpcRequest.Sp_ExecuteSql) //
+            .withTransactionDescriptor(TransactionDescriptor.empty()) //
+            .withNamedParameter(RpcDirection.IN, "P0", codecs.encode(TestByteBufAllocator.TEST, RpcParameterContext.in(),
+                RpcRequestUnitTests.blob(Flux.empty()))) //
+            .build();
+
+        assertThatThrownBy(() -> RpcBatch.create(Arrays.asList(executeSql("SELECT 1"), streamed))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static RpcRequest executeSql(String sql) {
+
+        return RpcRequest.builder() //
+            .withProcId(RpcRequest.Sp_ExecuteSql) //
+            .withTransactionDescriptor(TransactionDescriptor.empty()) //
+            .withParameter(RpcDirection.IN, collation, sql) //
+            .build();
+    }
+}
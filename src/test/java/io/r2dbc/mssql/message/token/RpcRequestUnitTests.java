@@ -16,16 +16,37 @@
 
 package io.r2dbc.mssql.message.token;
 
+import io.r2dbc.mssql.codec.DefaultCodecs;
+import io.r2dbc.mssql.codec.Encoded;
 import io.r2dbc.mssql.codec.RpcDirection;
+import io.r2dbc.mssql.codec.RpcEncoding;
+import io.r2dbc.mssql.codec.RpcParameterContext;
 import io.r2dbc.mssql.message.TransactionDescriptor;
 import io.r2dbc.mssql.message.header.HeaderOptions;
 import io.r2dbc.mssql.message.header.Status;
 import io.r2dbc.mssql.message.header.Type;
+import io.r2dbc.mssql.message.tds.ContextualTdsFragment;
 import io.r2dbc.mssql.message.tds.Encode;
+import io.r2dbc.mssql.message.tds.FirstTdsFragment;
+import io.r2dbc.mssql.message.tds.LastTdsFragment;
+import io.r2dbc.mssql.message.tds.TdsFragment;
 import io.r2dbc.mssql.message.type.Collation;
+import io.r2dbc.mssql.message.type.Length;
+import io.r2dbc.mssql.message.type.TdsDataType;
 import io.r2dbc.mssql.util.ClientMessageAssert;
 import io.r2dbc.mssql.util.HexUtils;
+import io.r2dbc.mssql.util.TestByteBufAllocator;
+import io.r2dbc.spi.Blob;
 import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 /**
  * Unit tests for {@link RpcRequest}.
@@ -34,6 +55,8 @@ import org.junit.jupiter.api.Test;
  */
 class RpcRequestUnitTests {
 
+    static final DefaultCodecs codecs = new DefaultCodecs();
+
     @Test
     void shouldEncodeSpCursorOpen() {
 
@@ -78,4 +101,103 @@ class RpcRequestUnitTests {
                 expected.writeBytes(HexUtils.decodeToByteBuf(hex)); // encoded parameters
             });
     }
+
+    @Test
+    void shouldStreamPlpParameter() {
+
+        Encoded blob = codecs.encode(TestByteBufAllocator.TEST, RpcParameterContext.in(), blob(Flux.just(ByteBuffer.wrap(new byte[]{1, 2}),
+            ByteBuffer.allocate(0), ByteBuffer.wrap(new byte[]{3, 4, 5}))));
+
+        RpcRequest rpcRequest = RpcRequest.builder() //
+            .withProcId(RpcRequest.Sp_ExecuteSql) //
+            .withTransactionDescriptor(TransactionDescriptor.empty()) //
+            .withNamedParameter(RpcDirection.IN, "P0", blob) //
+            .build();
+
+        ClientMessageAssert.assertThat(rpcRequest).encoded()
+            .hasHeader(HeaderOptions.create(Type.RPC, Status.empty()))
+            .isEncodedAs(expected -> {
+
+                AllHeaders.transactional(TransactionDescriptor.empty(), 1).encode(expected);
+
+                Encode.uShort(expected, 0xFFFF); // proc Id switch
+                Encode.uShort(expected, RpcRequest.Sp_ExecuteSql); // proc Id
+                Encode.asByte(expected, 0); // option flag
+                Encode.asByte(expected, 0); // status flag
+
+                RpcEncoding.encodeHeader(expected, "P0", RpcDirection.IN, TdsDataType.BIGVARBINARY);
+                Encode.uShort(expected, 0xFFFF); // max length
+                Encode.uLongLong(expected, Length.PLP_UNKNOWN);
+                Encode.dword(expected, 2);
+                expected.writeBytes(new byte[]{1, 2});
+                Encode.dword(expected, 3);
+                expected.writeBytes(new byte[]{3, 4, 5});
+                Encode.dword(expected, 0); // terminator
+            });
+
+        assertThat(blob.refCnt()).isZero();
+    }
+
+    @Test
+    void shouldEmitFragmentsForLargeStreams() {
+
+        Encoded blob = codecs.encode(TestByteBufAllocator.TEST, RpcParameterContext.in(), blob(Flux.just(ByteBuffer.allocate(FragmentBuffer.FRAGMENT_SIZE),
+            ByteBuffer.allocate(100))));
+
+        RpcRequest rpcRequest = RpcRequest.builder() //
+            .withProcId(RpcRequest.Sp_ExecuteSql) //
+            .withTransactionDescriptor(TransactionDescriptor.empty()) //
+            .withNamedParameter(RpcDirection.IN, "P0", blob) //
+            .build();
+
+        List<TdsFragment> fragments = Flux.from(rpcRequest.encode(TestByteBufAllocator.TEST)).collectList().block();
+
+        assertThat(fragments).hasSize(2);
+        assertThat(fragments.get(0)).isInstanceOf(FirstTdsFragment.class);
+        assertThat(fragments.get(0).getByteBuf().readableBytes()).isGreaterThanOrEqualTo(FragmentBuffer.FRAGMENT_SIZE);
+        assertThat(fragments.get(1)).isInstanceOf(LastTdsFragment.class);
+
+        fragments.forEach(it -> it.getByteBuf().release());
+    }
+
+    @Test
+    void shouldDiscardRequestOnStreamError() {
+
+        Encoded blob = codecs.encode(TestByteBufAllocator.TEST, RpcParameterContext.in(), blob(Flux.just(ByteBuffer.wrap(new byte[]{1, 2}))
+            .concatWith(Flux.error(new IllegalStateException()))));
+        Encoded trailing = codecs.encode(TestByteBufAllocator.TEST, RpcParameterContext.in(), 42);
+        List<Throwable> errors = new ArrayList<>();
+
+        RpcRequest rpcRequest = RpcRequest.builder() //
+            .withProcId(RpcRequest.Sp_ExecuteSql) //
+            .withTransactionDescriptor(TransactionDescriptor.empty()) //
+            .withAbortHandler(errors::add) //
+            .withNamedParameter(RpcDirection.IN, "P0", blob) //
+            .withNamedParameter(RpcDirection.IN, "P1", trailing) //
+            .build();
+
+        TdsFragment fragment = Flux.from(rpcRequest.encode(TestByteBufAllocator.TEST)).single().block();
+
+        assertThat(fragment).isInstanceOf(ContextualTdsFragment.class);
+        assertThat(((ContextualTdsFragment) fragment).getHeaderOptions().getStatus().is(Status.StatusBit.IGNORE)).isTrue();
+        assertThat(errors).hasSize(1);
+        assertThat(errors.get(0)).isInstanceOf(IllegalStateException.class);
+        assertThat(trailing.refCnt()).isZero();
+    }
+
+    static Blob blob(Publisher<ByteBuffer> stream) {
+
+        return new Blob() {
+
+            @Override
+            public Publisher<ByteBuffer> stream() {
+                return stream;
+            }
+
+            @Override
+            public Publisher<Void> discard() {
+                return Mono.empty();
+            }
+        };
+    }
 }
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql.util;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.r2dbc.mssql.message.header.Header;
+import io.r2dbc.mssql.message.header.HeaderOptions;
+import io.r2dbc.mssql.message.header.PacketIdProvider;
+import io.r2dbc.mssql.message.header.Status;
+import io.r2dbc.mssql.message.header.Type;
+import io.r2dbc.mssql.message.tds.Encode;
+import io.r2dbc.mssql.message.tds.ServerCharset;
+import io.r2dbc.mssql.message.token.ColumnMetadataToken;
+import io.r2dbc.mssql.message.token.DoneInProcToken;
+import io.r2dbc.mssql.message.token.DoneProcToken;
+import io.r2dbc.mssql.message.token.DoneToken;
+import io.r2dbc.mssql.message.token.InfoToken;
+import io.r2dbc.mssql.message.token.ReturnStatus;
+import io.r2dbc.mssql.message.token.ReturnValue;
+import io.r2dbc.mssql.message.token.RowToken;
+
+/**
+ * Recorded TDS captures of a {@code SELECT} against a SQL Server 2017 instance to feed benchmarks and the
+ * {@link TdsStubServer} without a running server.
+ *
+ * @author Mark Paluch
+ */
+public final class TdsCaptures {
+
+    /**
+     * {@link ColumnMetadataToken} (including the token type) describing the columns of {@link #ROW}.
+     */
+    public static final String COLUMN_METADATA = "8107000000000000" +
+        "000800300B65006D0070006C006F0079" +
+        "00650065005F00690064000000000008" +
+        "00E764000904D00034096C0061007300" +
+        "74005F006E0061006D00650000000000" +
+        "0900A732000904D000340A6600690072" +
+        "00730074005F006E0061006D00650000" +
+        "00000009006E0806730061006C006100" +
+        "7200790000000000090024100366006F" +
+        "006F000000000009006D080366006C00" +
+        "74000000000009006D04036200610072" +
+        "00";
+
+    /**
+     * {@link RowToken} (without the token type).
+     */
+    public static final String ROW = "010C00700061006C007500630068" +
+        "0004006D61726B080000000020A10700" +
+        "10F17B0DC7C7E5C54098C7A12F7E6867" +
+        "2408FED478E94628C6400437423146";
+
+    /**
+     * Decode the {@link ColumnMetadataToken} of the captured result.
+     *
+     * @return the decoded {@link ColumnMetadataToken}.
+     */
+    public static ColumnMetadataToken columnMetadata() {
+
+        ByteBuf buffer = HexUtils.decodeToByteBuf(COLUMN_METADATA);
+
+        try {
+            return ColumnMetadataToken.decode(buffer.skipBytes(1), true);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Create a buffer containing a single row (without the token type).
+     *
+     * @param allocator the allocator to use.
+     * @return the row buffer.
+     */
+    public static ByteBuf row(ByteBufAllocator allocator) {
+
+        ByteBuf buffer = allocator.buffer();
+        buffer.writeBytes(HexUtils.decodeToByteBuf(ROW));
+
+        return buffer;
+    }
+
+    /**
+     * Create a tabular response body consisting of column metadata, {@code rows} rows and a final {@link DoneToken}.
+     *
+     * @param allocator the allocator to use.
+     * @param rows      number of rows.
+     * @return the tabular response body (without TDS headers).
+     */
+    public static ByteBuf tabularResponse(ByteBufAllocator allocator, int rows) {
+
+        ByteBuf buffer = allocator.buffer();
+        writeTabularResponse(buffer, rows);
+
+        return buffer;
+    }
+
+    /**
+     * Write a tabular response body consisting of column metadata, {@code rows} rows and a final {@link DoneToken} as
+     * response to a SQL batch.
+     *
+     * @param buffer the target buffer.
+     * @param rows   number of rows.
+     */
+    public static void writeTabularResponse(ByteBuf buffer, int rows) {
+
+        buffer.writeBytes(HexUtils.decodeToByteBuf(COLUMN_METADATA));
+        writeRows(buffer, rows);
+        DoneToken.count(rows).encode(buffer);
+    }
+
+    /**
+     * Write a response to {@code sp_cursoropen} for a cursor that was executed in direct mode (i.e. without opening a
+     * server-side cursor) consisting of the direct mode {@link InfoToken}, column metadata, {@code rows} rows and the
+     * final {@link DoneInProcToken} and {@link DoneProcToken}.
+     *
+     * @param buffer the target buffer.
+     * @param rows   number of rows.
+     */
+    public static void writeDirectCursorResponse(ByteBuf buffer, int rows) {
+
+        writeInfo(buffer, 16954, "Executing SQL directly; no cursor.");
+        buffer.writeBytes(HexUtils.decodeToByteBuf(COLUMN_METADATA));
+        writeRows(buffer, rows);
+        DoneInProcToken.create(rows).encode(buffer);
+        DoneProcToken.create(0).encode(buffer);
+    }
+
+    /**
+     * Write a response to {@code sp_cursoropen} that opened a server-side cursor consisting of column metadata, a
+     * {@link DoneInProcToken} indicating more results, the {@link ReturnValue} carrying the {@code cursorId}, the
+     * {@link ReturnStatus} and the final {@link DoneProcToken}.
+     *
+     * @param buffer   the target buffer.
+     * @param cursorId the cursor Id.
+     */
+    public static void writeCursorOpenResponse(ByteBuf buffer, int cursorId) {
+
+        buffer.writeBytes(HexUtils.decodeToByteBuf(COLUMN_METADATA));
+
+        buffer.writeByte(DoneInProcToken.TYPE);
+        buffer.writeBytes(HexUtils.decodeToByteBuf("0100 C100 0000000000000000"));
+
+        buffer.writeByte(ReturnValue.TYPE);
+        buffer.writeBytes(HexUtils.decodeToByteBuf("0000 00 01 00000000 0000 26 04 04"));
+        buffer.writeIntLE(cursorId);
+
+        buffer.writeByte(ReturnStatus.TYPE);
+        buffer.writeIntLE(0);
+        DoneProcToken.create(0).encode(buffer);
+    }
+
+    /**
+     * Write a response to {@code sp_cursorfetch} consisting of {@code rows} rows, the {@link DoneInProcToken}, the
+     * {@link ReturnStatus} and the final {@link DoneProcToken}.
+     *
+     * @param buffer the target buffer.
+     * @param rows   number of rows.
+     */
+    public static void writeCursorFetchResponse(ByteBuf buffer, int rows) {
+
+        writeRows(buffer, rows);
+        DoneInProcToken.create(rows).encode(buffer);
+        buffer.writeByte(ReturnStatus.TYPE);
+        buffer.writeIntLE(0);
+        DoneProcToken.create(0).encode(buffer);
+    }
+
+    /**
+     * Write a response to {@code sp_cursorclose} consisting of the {@link ReturnStatus} and the final
+     * {@link DoneProcToken}.
+     *
+     * @param buffer the target buffer.
+     */
+    public static void writeCursorCloseResponse(ByteBuf buffer) {
+
+        buffer.writeByte(ReturnStatus.TYPE);
+        buffer.writeIntLE(0);
+        DoneProcToken.create(0).encode(buffer);
+    }
+
+    /**
+     * Write a response to a direct RPC call such as {@code sp_executesql} consisting of column metadata, {@code rows}
+     * rows, the {@link DoneInProcToken}, the {@link ReturnStatus} and the final {@link DoneProcToken}.
+     *
+     * @param buffer the target buffer.
+     * @param rows   number of rows.
+     */
+    public static void writeRpcResponse(ByteBuf buffer, int rows) {
+
+        buffer.writeBytes(HexUtils.decodeToByteBuf(COLUMN_METADATA));
+        writeRows(buffer, rows);
+        DoneInProcToken.create(rows).encode(buffer);
+        buffer.writeByte(ReturnStatus.TYPE);
+        buffer.writeIntLE(0);
+        DoneProcToken.create(0).encode(buffer);
+    }
+
+    private static void writeRows(ByteBuf buffer, int rows) {
+
+        ByteBuf row = HexUtils.decodeToByteBuf(ROW);
+
+        for (int i = 0; i < rows; i++) {
+            buffer.writeByte(RowToken.TYPE);
+            buffer.writeBytes(row, row.readerIndex(), row.readableBytes());
+        }
+    }
+
+    private static void writeInfo(ByteBuf buffer, int number, String message) {
+
+        int length = 4 /* number */ + 1 /* state */ + 1 /* class */ + 2 + (message.length() * 2) + 1 /* server name */ + 1 /* proc name */ + 4 /* line number */;
+
+        buffer.writeByte(InfoToken.TYPE);
+        Encode.uShort(buffer, length);
+        buffer.writeIntLE(number);
+        buffer.writeByte(1);
+        buffer.writeByte(10);
+        Encode.uShort(buffer, message.length());
+        buffer.writeCharSequence(message, ServerCharset.UNICODE.charset());
+        buffer.writeByte(0);
+        buffer.writeByte(0);
+        buffer.writeIntLE(0);
+    }
+
+    /**
+     * Split a response {@code body} into TDS packets of {@code packetSize}. The last packet is marked with
+     * {@link Status.StatusBit#EOM}. Releases the {@code body}.
+     *
+     * @param allocator  the allocator to use.
+     * @param body       the response body.
+     * @param packetSize the packet size including the {@link Header}.
+     * @return the TDS packet stream.
+     */
+    public static ByteBuf packetize(ByteBufAllocator allocator, ByteBuf body, int packetSize) {
+
+        ByteBuf packets = allocator.buffer();
+        int chunkSize = packetSize - Header.LENGTH;
+
+        while (body.isReadable()) {
+
+            int length = Math.min(chunkSize, body.readableBytes());
+            Status status = length == body.readableBytes() ? Status.of(Status.StatusBit.EOM) : Status.empty();
+
+            Header.create(HeaderOptions.create(Type.TABULAR_RESULT, status), Header.LENGTH + length, PacketIdProvider.just(1)).encode(packets);
+            packets.writeBytes(body, length);
+        }
+
+        body.release();
+
+        return packets;
+    }
+
+    private TdsCaptures() {
+    }
+}
@@ -0,0 +1,455 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.mssql.util;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.r2dbc.mssql.MssqlConnectionConfiguration;
+import io.r2dbc.mssql.client.TdsEncoder;
+import io.r2dbc.mssql.message.header.Header;
+import io.r2dbc.mssql.message.header.Status;
+import io.r2dbc.mssql.message.header.Type;
+import io.r2dbc.mssql.message.tds.Encode;
+import io.r2dbc.mssql.message.tds.ServerCharset;
+import io.r2dbc.mssql.message.tds.TdsFragment;
+import io.r2dbc.mssql.message.token.DoneProcToken;
+import io.r2dbc.mssql.message.token.DoneToken;
+import io.r2dbc.mssql.message.token.EnvChangeToken;
+import io.r2dbc.mssql.message.token.ErrorToken;
+import io.r2dbc.mssql.message.token.Prelogin;
+import io.r2dbc.mssql.message.type.Collation;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import reactor.core.publisher.Mono;
+import reactor.util.annotation.Nullable;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * In-process TDS server stub to run the driver end-to-end without a SQL Server instance. The stub speaks the subset of
+ * TDS required to log in and to exchange SQL batches and RPC requests:
+ * <ul>
+ * <li>{@literal PRELOGIN} is answered with SQL Server 2017 version information and
+ * {@link Prelogin.Encryption#ENCRYPT_NOT_SUP encryption not supported} so the connection stays unencrypted.</li>
+ * <li>{@literal LOGIN7} is answered with a login acknowledgement, the column encryption feature acknowledgement, the
+ * database collation and a {@link DoneToken}.</li>
+ * <li>{@literal SQLBatch} and {@literal RPC} requests are answered with the first matching scripted response.
+ * Unmatched requests are answered with an empty {@link DoneToken} respective {@link DoneProcToken}.</li>
+ * <li>{@literal ATTENTION} is acknowledged with a {@link DoneToken} carrying the {@literal DONE_ATTN} status bit.
+ * Responses are written completely before reading the next request so there is no response left to abort.</li>
+ * <li>Other message types are answered with an {@link ErrorToken} naming the unsupported message type followed by a
+ * {@link DoneToken} carrying the {@literal DONE_ERROR} status bit.</li>
+ * </ul>
+ * Scripted responses write the response tokens into the response body, see {@link TdsCaptures} for recorded
+ * responses. Response bodies are split into TDS packets of the {@link TdsEncoder#INITIAL_PACKET_SIZE initial packet
+ * size}.
+ * <p/>
+ * The server can be used as JUnit 5 extension (start before all tests, stop after all tests) or be {@link #start()
+ * started} and {@link #stop() stopped} programmatically.
+ *
+ * @author Mark Paluch
+ */
+public final class TdsStubServer implements BeforeAllCallback, AfterAllCallback {
+
+    /**
+     * Collation reported to clients as database collation.
+     */
+    public static final Collation COLLATION = Collation.from(13632521, 52);
+
+    private static final String LOGIN_ACK = "ad36000174000004164d00" + "6900630072006f0073006f0066007400"
+        + "2000530051004c002000530065007200" + "760065007200000000000e000bde";
+
+    private static final String FEATURE_EXT_ACK = "ae040100000001ff";
+
+    private static final String DONE_ATTENTION_ACK = "fd200000000000000000000000";
+
+    private static final String DONE_ERROR = "fd020000000000000000000000";
+
+    private static final int MAX_FRAME_LENGTH = 65535;
+
+    private final List<Script> sqlBatchScripts;
+
+    private final List<Script> rpcScripts;
+
+    private final byte[] preloginResponse = createPreloginResponse();
+
+    @Nullable
+    private EventLoopGroup eventLoopGroup;
+
+    @Nullable
+    private Channel serverChannel;
+
+    private TdsStubServer(List<Script> sqlBatchScripts, List<Script> rpcScripts) {
+        this.sqlBatchScripts = sqlBatchScripts;
+        this.rpcScripts = rpcScripts;
+    }
+
+    /**
+     * Creates a new {@link Builder} to script responses.
+     *
+     * @return a new {@link Builder}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        start();
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        stop();
+    }
+
+    /**
+     * Start the server on an ephemeral port of the loopback interface.
+     *
+     * @return {@code this} {@link TdsStubServer}.
+     */
+    public TdsStubServer start() {
+
+        Assert.state(this.serverChannel == null, "Server already started");
+
+        this.eventLoopGroup = new NioEventLoopGroup(1);
+        this.serverChannel = new ServerBootstrap()
+            .group(this.eventLoopGroup)
+            .channel(NioServerSocketChannel.class)
+            .childHandler(new ChannelInitializer<SocketChannel>() {
+
+                @Override
+                protected void initChannel(SocketChannel channel) {
+                    channel.pipeline().addLast(new LengthFieldBasedFrameDecoder(MAX_FRAME_LENGTH, 2, 2, -4, 0), new TdsRequestHandler());
+                }
+            })
+            .bind(InetAddress.getLoopbackAddress(), 0)
+            .syncUninterruptibly()
+            .channel();
+
+        return this;
+    }
+
+    /**
+     * Stop the server and release its resources.
+     */
+    public void stop() {
+
+        if (this.serverChannel != null) {
+            this.serverChannel.close().syncUninterruptibly();
+            this.serverChannel = null;
+        }
+
+        if (this.eventLoopGroup != null) {
+            this.eventLoopGroup.shutdownGracefully().syncUninterruptibly();
+            this.eventLoopGroup = null;
+        }
+    }
+
+    public String getHost() {
+        return getAddress().getHostString();
+    }
+
+    public int getPort() {
+        return getAddress().getPort();
+    }
+
+    /**
+     * Returns a {@link MssqlConnectionConfiguration.Builder} that is pre-configured to connect to this server.
+     *
+     * @return a {@link MssqlConnectionConfiguration.Builder} pointing to this server.
+     */
+    public MssqlConnectionConfiguration.Builder configurationBuilder() {
+        return MssqlConnectionConfiguration.builder().host(getHost()).port(getPort()).username("stub").password("stub");
+    }
+
+    private InetSocketAddress getAddress() {
+
+        Assert.state(this.serverChannel != null, "Server not started");
+
+        return (InetSocketAddress) this.serverChannel.localAddress();
+    }
+
+    private static byte[] createPreloginResponse() {
+
+        Prelogin prelogin = new Prelogin(Arrays.asList(new Prelogin.Version(14, 0), new Prelogin.Encryption(Prelogin.Encryption.ENCRYPT_NOT_SUP),
+            Prelogin.Terminator.INSTANCE));
+
+        TdsFragment fragment = Mono.from(prelogin.encode(ByteBufAllocator.DEFAULT)).block();
+        ByteBuf buffer = fragment.getByteBuf();
+
+        try {
+            return ByteBufUtil.getBytes(buffer);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private static void writeLoginResponse(ByteBuf buffer) {
+
+        buffer.writeBytes(HexUtils.decodeToByteBuf(LOGIN_ACK));
+        buffer.writeBytes(HexUtils.decodeToByteBuf(FEATURE_EXT_ACK));
+
+        // ENVCHANGE: SQL collation
+        buffer.writeByte(EnvChangeToken.TYPE);
+        Encode.uShort(buffer, 8);
+        buffer.writeByte(EnvChangeToken.EnvChangeType.SQLCollation.getType());
+        buffer.writeByte(5);
+        COLLATION.encode(buffer);
+        buffer.writeByte(0);
+
+        DoneToken.create(0).encode(buffer);
+    }
+
+    @Nullable
+    private static Consumer<ByteBuf> findResponse(List<Script> scripts, Object request) {
+
+        for (Script script : scripts) {
+            if (script.matches(request)) {
+                return script.response;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Builder for {@link TdsStubServer}.
+     */
+    public static final class Builder {
+
+        private final List<Script> sqlBatchScripts = new ArrayList<>();
+
+        private final List<Script> rpcScripts = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Respond to a SQL batch with the exact {@code sql} text.
+         *
+         * @param sql      the SQL text.
+         * @param response writes the response tokens.
+         * @return this {@link Builder}
+         */
+        public Builder onSqlBatch(String sql, Consumer<ByteBuf> response) {
+
+            Assert.requireNonNull(sql, "SQL must not be null");
+
+            return onSqlBatch(sql::equals, response);
+        }
+
+        /**
+         * Respond to SQL batches matching the {@link Predicate}.
+         *
+         * @param sql      predicate for the SQL text.
+         * @param response writes the response tokens.
+         * @return this {@link Builder}
+         */
+        public Builder onSqlBatch(Predicate<String> sql, Consumer<ByteBuf> response) {
+
+            Assert.requireNonNull(sql, "SQL predicate must not be null");
+            Assert.requireNonNull(response, "Response must not be null");
+
+            this.sqlBatchScripts.add(new Script(request -> request instanceof String && sql.test((String) request), response));
+            return this;
+        }
+
+        /**
+         * Respond to RPC requests for the stored procedure {@code procId} (see {@code RpcRequest.Sp_…} constants).
+         *
+         * @param procId   the stored procedure Id.
+         * @param response writes the response tokens.
+         * @return this {@link Builder}
+         */
+        public Builder onRpc(int procId, Consumer<ByteBuf> response) {
+
+            Assert.requireNonNull(response, "Response must not be null");
+
+            this.rpcScripts.add(new Script(request -> request instanceof Integer && (Integer) request == procId, response));
+            return this;
+        }
+
+        /**
+         * Build the {@link TdsStubServer}.
+         *
+         * @return the {@link TdsStubServer}.
+         */
+        public TdsStubServer build() {
+            return new TdsStubServer(new ArrayList<>(this.sqlBatchScripts), new ArrayList<>(this.rpcScripts));
+        }
+    }
+
+    static class Script {
+
+        private final Predicate<Object> predicate;
+
+        private final Consumer<ByteBuf> response;
+
+        Script(Predicate<Object> predicate, Consumer<ByteBuf> response) {
+            this.predicate = predicate;
+            this.response = response;
+        }
+
+        boolean matches(Object request) {
+            return this.predicate.test(request);
+        }
+    }
+
+    /**
+     * Aggregates TDS packets to a message and responds according to the message type.
+     */
+    class TdsRequestHandler extends ChannelInboundHandlerAdapter {
+
+        @Nullable
+        private CompositeByteBuf message;
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+
+            ByteBuf packet = (ByteBuf) msg;
+            Header header = Header.decode(packet);
+
+            if (this.message == null) {
+                this.message = ctx.alloc().compositeBuffer();
+            }
+
+            this.message.addComponent(true, packet);
+
+            if (!header.is(Status.StatusBit.EOM)) {
+                return;
+            }
+
+            ByteBuf request = this.message;
+            this.message = null;
+
+            try {
+
+                ByteBuf response = ctx.alloc().buffer();
+                respond(header.getType(), request, response);
+
+                ctx.writeAndFlush(TdsCaptures.packetize(ctx.alloc(), response, TdsEncoder.INITIAL_PACKET_SIZE));
+            } finally {
+                request.release();
+            }
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+
+            if (this.message != null) {
+                this.message.release();
+                this.message = null;
+            }
+
+            super.channelInactive(ctx);
+        }
+
+        private void respond(Type type, ByteBuf request, ByteBuf response) {
+
+            switch (type) {
+
+                case PRE_LOGIN:
+                    response.writeBytes(TdsStubServer.this.preloginResponse);
+                    return;
+
+                case TDS7_LOGIN:
+                    writeLoginResponse(response);
+                    return;
+
+                case SQL_BATCH: {
+
+                    skipAllHeaders(request);
+                    String sql = request.toString(ServerCharset.UNICODE.charset());
+
+                    Consumer<ByteBuf> script = findResponse(TdsStubServer.this.sqlBatchScripts, sql);
+
+                    if (script != null) {
+                        script.accept(response);
+                    } else {
+                        DoneToken.create(0).encode(response);
+                    }
+                    return;
+                }
+
+                case RPC: {
+
+                    skipAllHeaders(request);
+
+                    int procIdSwitch = request.readUnsignedShortLE();
+                    Integer procId = procIdSwitch == 0xFFFF ? request.readUnsignedShortLE() : null;
+
+                    Consumer<ByteBuf> script = procId != null ? findResponse(TdsStubServer.this.rpcScripts, procId) : null;
+
+                    if (script != null) {
+                        script.accept(response);
+                    } else {
+                        DoneProcToken.create(0).encode(response);
+                    }
+                    return;
+                }
+
+                case ATTENTION:
+                    response.writeBytes(HexUtils.decodeToByteBuf(DONE_ATTENTION_ACK));
+                    return;
+
+                default:
+                    writeError(response, String.format("Protocol error: unsupported message type [%s]", type));
+                    response.writeBytes(HexUtils.decodeToByteBuf(DONE_ERROR));
+            }
+        }
+
+        private void writeError(ByteBuf buffer, String message) {
+
+            buffer.writeByte(ErrorToken.TYPE);
+            Encode.uShort(buffer, 4 + 1 + 1 + 2 + (message.length() * 2) + 1 + 1 + 4);
+            Encode.asLong(buffer, 4002); // number: protocol error in TDS stream
+            Encode.asByte(buffer, 1); // state
+            Encode.asByte(buffer, 16); // class
+            Encode.uShort(buffer, message.length());
+            Encode.unicodeStream(buffer, message);
+            Encode.asByte(buffer, 0); // server name
+            Encode.asByte(buffer, 0); // procedure name
+            Encode.dword(buffer, 0); // line number
+        }
+
+        private void skipAllHeaders(ByteBuf request) {
+
+            int totalLength = request.readIntLE();
+            request.skipBytes(totalLength - 4);
+        }
+    }
+}